@@ -3,9 +3,11 @@ package com.restaurant.inventorysystem;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 //@SpringBootApplication(exclude = {DataSourceAutoConfiguration.class}) by exclude run the project without DB
 @SpringBootApplication
+@EnableScheduling
 public class RestaurantInventoryManagementApplication {
 
 	public static void main(String[] args) {
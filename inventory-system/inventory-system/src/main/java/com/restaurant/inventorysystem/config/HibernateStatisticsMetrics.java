@@ -0,0 +1,88 @@
+package com.restaurant.inventorysystem.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * ------------------------------------------------------------
+ * COMPONENT: HibernateStatisticsMetrics
+ * ------------------------------------------------------------
+ * Publishes Hibernate's session-factory statistics as meters, so the
+ * statement count of a slow lunch is a graph instead of show-sql output:
+ *
+ *  - hibernate.statements           JDBC statements prepared
+ *  - hibernate.queries.executed     HQL / native queries run
+ *  - hibernate.query.executions.max slowest query so far (ms)
+ *  - hibernate.entities{operation}  entity loads / fetches (lazy loads,
+ *                                   the N+1 signal) / inserts / updates / deletes
+ *  - hibernate.collections{operation} collection loads / fetches
+ *  - hibernate.transactions{result} successful / total
+ *  - hibernate.sessions.open
+ *
+ * Needs spring.jpa.properties.hibernate.generate_statistics=true; without
+ * it Hibernate keeps no counts and nothing is registered. Connection pool
+ * meters (hikaricp.*) come from Spring Boot's own Hikari binding.
+ */
+@Component
+public class HibernateStatisticsMetrics implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(HibernateStatisticsMetrics.class);
+
+    private final Statistics statistics;
+
+    public HibernateStatisticsMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!statistics.isStatisticsEnabled()) {
+            logger.info("Hibernate statistics disabled (hibernate.generate_statistics), no hibernate.* meters");
+            return;
+        }
+
+        counter(registry, "hibernate.statements", "JDBC statements prepared", Statistics::getPrepareStatementCount);
+        counter(registry, "hibernate.queries.executed", "Queries executed", Statistics::getQueryExecutionCount);
+        Gauge.builder("hibernate.query.executions.max", statistics, Statistics::getQueryExecutionMaxTime)
+                .description("Slowest query execution so far").baseUnit("milliseconds").register(registry);
+
+        operationCounter(registry, "hibernate.entities", "loaded", Statistics::getEntityLoadCount);
+        operationCounter(registry, "hibernate.entities", "fetched", Statistics::getEntityFetchCount);
+        operationCounter(registry, "hibernate.entities", "inserted", Statistics::getEntityInsertCount);
+        operationCounter(registry, "hibernate.entities", "updated", Statistics::getEntityUpdateCount);
+        operationCounter(registry, "hibernate.entities", "deleted", Statistics::getEntityDeleteCount);
+        operationCounter(registry, "hibernate.collections", "loaded", Statistics::getCollectionLoadCount);
+        operationCounter(registry, "hibernate.collections", "fetched", Statistics::getCollectionFetchCount);
+
+        FunctionCounter.builder("hibernate.transactions", statistics, Statistics::getSuccessfulTransactionCount)
+                .description("Transactions").tag("result", "success").register(registry);
+        FunctionCounter.builder("hibernate.transactions", statistics, Statistics::getTransactionCount)
+                .description("Transactions").tag("result", "total").register(registry);
+
+        Gauge.builder("hibernate.sessions.open", statistics,
+                        stats -> stats.getSessionOpenCount() - stats.getSessionCloseCount())
+                .description("Sessions currently open").register(registry);
+    }
+
+    // ---------------------------------------------------------------
+
+    private void counter(MeterRegistry registry, String name, String description,
+                         ToDoubleFunction<Statistics> count) {
+        FunctionCounter.builder(name, statistics, count).description(description).register(registry);
+    }
+
+    private void operationCounter(MeterRegistry registry, String name, String operation,
+                                  ToDoubleFunction<Statistics> count) {
+        FunctionCounter.builder(name, statistics, count).tag("operation", operation).register(registry);
+    }
+}
@@ -0,0 +1,239 @@
+package com.restaurant.inventorysystem.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ------------------------------------------------------------
+ * ENDPOINT: /actuator/prometheus
+ * ------------------------------------------------------------
+ * The MeterRegistry in Prometheus text exposition format (0.0.4), for a
+ * scraper on the management port:
+ *
+ *  - counters           → name_total
+ *  - gauges             → name (base unit appended: _bytes, _seconds ...)
+ *  - timers / summaries → histogram (name_bucket{le}) when they have SLO
+ *                         buckets (management.metrics.distribution.slo.*),
+ *                         else summary (name{quantile} for published
+ *                         percentiles); both with name_count, name_sum and a
+ *                         name_max gauge
+ *  - long task timers   → name_active_count, name_duration_sum, name_max
+ *
+ * Timers are in seconds. Meter names and tag keys get dots and other
+ * characters Prometheus rejects replaced by underscores.
+ *
+ * p99 order latency across nodes:
+ *   histogram_quantile(0.99, sum by (le) (rate(order_save_seconds_bucket[5m])))
+ *
+ * Only this service renders the format itself: micrometer-registry-prometheus
+ * is not in the repository its build resolves from. mail-service declares
+ * that registry instead and gets the same endpoint and series names from
+ * Spring Boot's auto-configuration, so there is no second copy of this class.
+ */
+@Component
+@WebEndpoint(id = "prometheus")
+public class PrometheusTextEndpoint {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MeterRegistry meterRegistry;
+
+    public PrometheusTextEndpoint(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation(produces = CONTENT_TYPE)
+    public String scrape() {
+        // each family's samples must be contiguous, under one TYPE line
+        Map<String, Family> families = new TreeMap<>();
+        for (Meter meter : meterRegistry.getMeters()) {
+            // the registry's own .percentile / .histogram gauges repeat what the timer renders
+            if (meter.getId().syntheticAssociation() == null) {
+                collect(families, meter);
+            }
+        }
+
+        StringBuilder out = new StringBuilder(32 * 1024);
+        families.values().forEach(family -> family.writeTo(out));
+        return out.toString();
+    }
+
+    // ---------------------------------------------------------------
+
+    private static void collect(Map<String, Family> families, Meter meter) {
+        Meter.Id id = meter.getId();
+        String labels = labels(id.getTagsAsIterable());
+
+        switch (meter) {
+            case Counter counter ->
+                    family(families, name(id, null) + "_total", "counter", id)
+                            .sample("", labels, counter.count());
+            case FunctionCounter counter ->
+                    family(families, name(id, null) + "_total", "counter", id)
+                            .sample("", labels, counter.count());
+            case TimeGauge gauge ->
+                    family(families, name(id, "seconds"), "gauge", id)
+                            .sample("", labels, gauge.value(TimeUnit.SECONDS));
+            case Gauge gauge ->
+                    family(families, name(id, null), "gauge", id)
+                            .sample("", labels, gauge.value());
+            case Timer timer ->
+                    distribution(families, id, name(id, "seconds"), labels, timer.takeSnapshot(), true);
+            case DistributionSummary summary ->
+                    distribution(families, id, name(id, null), labels, summary.takeSnapshot(), false);
+            case LongTaskTimer timer -> {
+                String name = name(id, "seconds");
+                family(families, name + "_active_count", "gauge", id).sample("", labels, timer.activeTasks());
+                family(families, name + "_duration_sum", "gauge", id)
+                        .sample("", labels, timer.duration(TimeUnit.SECONDS));
+                family(families, name + "_max", "gauge", id).sample("", labels, timer.max(TimeUnit.SECONDS));
+            }
+            case FunctionTimer timer -> {
+                Family family = family(families, name(id, "seconds"), "summary", id);
+                family.sample("_count", labels, timer.count());
+                family.sample("_sum", labels, timer.totalTime(TimeUnit.SECONDS));
+            }
+            default -> {
+                for (Measurement measurement : meter.measure()) {
+                    String statistic = measurement.getStatistic().getTagValueRepresentation();
+                    family(families, name(id, null) + "_" + sanitize(statistic), "untyped", id)
+                            .sample("", labels, measurement.getValue());
+                }
+            }
+        }
+    }
+
+    private static void distribution(Map<String, Family> families, Meter.Id id, String name, String labels,
+                                     HistogramSnapshot snapshot, boolean seconds) {
+        CountAtBucket[] buckets = snapshot.histogramCounts();
+        Family family;
+        if (buckets.length > 0) {
+            family = family(families, name, "histogram", id);
+            for (CountAtBucket bucket : buckets) {
+                double le = seconds ? bucket.bucket(TimeUnit.SECONDS) : bucket.bucket();
+                family.sample("_bucket", withLabel(labels, "le", format(le)), bucket.count());
+            }
+            family.sample("_bucket", withLabel(labels, "le", "+Inf"), snapshot.count());
+        } else {
+            family = family(families, name, "summary", id);
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                double value = seconds ? percentile.value(TimeUnit.SECONDS) : percentile.value();
+                family.sample("", withLabel(labels, "quantile", format(percentile.percentile())), value);
+            }
+        }
+        family.sample("_count", labels, snapshot.count());
+        family.sample("_sum", labels, seconds ? snapshot.total(TimeUnit.SECONDS) : snapshot.total());
+        family(families, name + "_max", "gauge", id)
+                .sample("", labels, seconds ? snapshot.max(TimeUnit.SECONDS) : snapshot.max());
+    }
+
+    private static Family family(Map<String, Family> families, String name, String type, Meter.Id id) {
+        return families.computeIfAbsent(name, key -> new Family(name, type, id.getDescription()));
+    }
+
+    /** order.save + seconds → order_save_seconds; the unit is not repeated if the name already ends in it. */
+    private static String name(Meter.Id id, String unit) {
+        String name = sanitize(id.getName());
+        if (unit == null) {
+            unit = id.getBaseUnit();
+        }
+        if (unit != null && !unit.isEmpty()) {
+            String suffix = "_" + sanitize(unit);
+            if (!name.endsWith(suffix)) {
+                name += suffix;
+            }
+        }
+        return name;
+    }
+
+    private static String sanitize(String name) {
+        String sanitized = name.replaceAll("[^a-zA-Z0-9_]", "_");
+        return Character.isDigit(sanitized.charAt(0)) ? "_" + sanitized : sanitized;
+    }
+
+    private static String labels(Iterable<Tag> tags) {
+        StringBuilder labels = new StringBuilder();
+        for (Tag tag : tags) {
+            appendLabel(labels, sanitize(tag.getKey()), tag.getValue());
+        }
+        return labels.toString();
+    }
+
+    private static String withLabel(String labels, String key, String value) {
+        StringBuilder extended = new StringBuilder(labels);
+        appendLabel(extended, key, value);
+        return extended.toString();
+    }
+
+    private static void appendLabel(StringBuilder labels, String key, String value) {
+        if (!labels.isEmpty()) {
+            labels.append(',');
+        }
+        labels.append(key).append("=\"")
+                .append(value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                .append('"');
+    }
+
+    private static String format(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        return Double.toString(value);
+    }
+
+    /** One metric family: HELP / TYPE and its sample lines. */
+    private static final class Family {
+
+        private final String name;
+        private final String type;
+        private final String help;
+        private final StringBuilder samples = new StringBuilder();
+
+        Family(String name, String type, String help) {
+            this.name = name;
+            this.type = type;
+            this.help = help;
+        }
+
+        Family sample(String suffix, String labels, double value) {
+            samples.append(name).append(suffix);
+            if (!labels.isEmpty()) {
+                samples.append('{').append(labels).append('}');
+            }
+            samples.append(' ').append(format(value)).append('\n');
+            return this;
+        }
+
+        void writeTo(StringBuilder out) {
+            if (help != null && !help.isEmpty()) {
+                out.append("# HELP ").append(name).append(' ')
+                        .append(help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+            }
+            out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+            out.append(samples);
+        }
+    }
+}
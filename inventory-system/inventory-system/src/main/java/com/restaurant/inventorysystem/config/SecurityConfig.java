@@ -3,6 +3,8 @@ package com.restaurant.inventorysystem.config;
 import com.restaurant.inventorysystem.security.CustomUserDetailsService;
 import com.restaurant.inventorysystem.security.JwtAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -48,6 +50,10 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
         @Autowired
         private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+        // new and re-hashed passwords (AuthServiceImpl re-hashes other costs on login)
+        @Value("${auth.login.bcrypt-strength:10}")
+        private int bcryptStrength;
+
         @Bean
         public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
             return config.getAuthenticationManager();
@@ -59,6 +65,8 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
                     .csrf(csrf -> csrf.disable())
                     .authorizeHttpRequests(auth -> auth
                             .requestMatchers("/api/auth/login", "/api/users/register").permitAll()
+                            // management port, bound to loopback (management.server.*): the scraper has no token
+                            .requestMatchers(EndpointRequest.to("health", "prometheus")).permitAll()
                             .anyRequest().authenticated()
                     )
                     .userDetailsService(customUserDetailsService)
@@ -69,7 +77,7 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 
         @Bean
         public PasswordEncoder passwordEncoder() {
-            return new BCryptPasswordEncoder();
+            return new BCryptPasswordEncoder(bcryptStrength);
         }
     }
 
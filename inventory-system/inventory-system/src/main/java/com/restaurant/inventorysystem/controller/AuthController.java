@@ -4,10 +4,13 @@ import com.restaurant.inventorysystem.dto.LoginRequest;
 import com.restaurant.inventorysystem.dto.LoginResponse;
 import com.restaurant.inventorysystem.service.AuthService;
 import com.restaurant.inventorysystem.service.impl.AuthServiceImpl;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
@@ -17,13 +20,18 @@ public class AuthController {
     /**
      * Handles user login and returns user details along with authentication status.
      *
+     * Answered asynchronously: the password check runs on the login
+     * executor, not on the request thread.
+     *
      * @param request Login credentials (username and password)
      * @return LoginResponse containing status, message, and user details if successful
      */
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@RequestBody LoginRequest request) {
-        LoginResponse response = authService.login(request);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<LoginResponse>> login(@RequestBody LoginRequest request,
+                                                                  HttpServletRequest httpRequest) {
+        // behind a proxy, set server.forward-headers-strategy so this is the client's address
+        return authService.login(request, httpRequest.getRemoteAddr())
+                .thenApply(ResponseEntity::ok);
     }
 }
 
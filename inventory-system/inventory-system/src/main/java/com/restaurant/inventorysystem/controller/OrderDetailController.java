@@ -1,21 +1,32 @@
 package com.restaurant.inventorysystem.controller;
 
 import com.restaurant.inventorysystem.dto.OrderDetailDTO;
+import com.restaurant.inventorysystem.report.ReportFormat;
+import com.restaurant.inventorysystem.report.TabularReport;
 import com.restaurant.inventorysystem.service.OrderDetailService;
+import com.restaurant.inventorysystem.service.ReportExportService;
 import com.restaurant.inventorysystem.util.ApiResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/order")
 public class OrderDetailController {
 
     private final OrderDetailService orderDetailService;
+    private final ReportExportService reportExportService;
 
     @Autowired
-    public OrderDetailController(OrderDetailService orderDetailService) {
+    public OrderDetailController(OrderDetailService orderDetailService,
+                                 ReportExportService reportExportService) {
         this.orderDetailService = orderDetailService;
+        this.reportExportService = reportExportService;
     }
 
     /**
@@ -38,11 +49,19 @@ public class OrderDetailController {
     }
 //
     /**
-     *   List all orders
+     *   List orders, newest first, one page at a time
+     * ------------------------------------------------
+     * e.g. /api/order/list?from=2026-10-01T00:00:00&to=2026-11-01T00:00:00&status=ACTIVE&size=50
+     * then pass data.nextCursor as &cursor=... for the next page.
      */
     @GetMapping("/list")
-    public ResponseEntity<ApiResponse> getAllOrders() {
-        ApiResponse response = orderDetailService.getAllOrders();
+    public ResponseEntity<ApiResponse> getOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "ACTIVE") String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        ApiResponse response = orderDetailService.getOrders(from, to, status, cursor, size);
         return ResponseEntity.ok(response);
     }
 
@@ -53,4 +72,25 @@ public class OrderDetailController {
     public ApiResponse deleteOrder(@PathVariable Integer id) {
         return orderDetailService.deleteOrder(id);
     }
+
+    /**
+     *   Download order history (one row per order line) as CSV / NDJSON
+     * ------------------------------------------------
+     * Streamed from a DB cursor, oldest first, gzip if accepted; from/to filter on order_date.
+     */
+    @GetMapping("/report/csv")
+    public ResponseEntity<StreamingResponseBody> exportOrdersCsv(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return reportExportService.export(TabularReport.ORDERS, ReportFormat.CSV, from, to, acceptEncoding);
+    }
+
+    @GetMapping("/report/ndjson")
+    public ResponseEntity<StreamingResponseBody> exportOrdersNdjson(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return reportExportService.export(TabularReport.ORDERS, ReportFormat.NDJSON, from, to, acceptEncoding);
+    }
 }
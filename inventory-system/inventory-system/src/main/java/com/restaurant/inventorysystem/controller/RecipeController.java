@@ -1,13 +1,17 @@
 package com.restaurant.inventorysystem.controller;
 
+import com.restaurant.inventorysystem.dto.RecipeAvailabilityDTO;
 import com.restaurant.inventorysystem.dto.RecipeMasterDTO;
 import com.restaurant.inventorysystem.dto.RecipeRequestDTO;
 import com.restaurant.inventorysystem.dto.RecipeResponseDTO;
 import com.restaurant.inventorysystem.entity.RecipeMaster;
+import com.restaurant.inventorysystem.service.RecipeAvailabilityService;
 import com.restaurant.inventorysystem.service.RecipeService;
 import com.restaurant.inventorysystem.util.ApiResponse;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -15,7 +19,8 @@ import java.util.List;
  * Author: Ram Choudhary
  * Date: 07-Nov-2025
  * Description: REST Controller for managing Recipe aggregate (master + xrefs).
- * Endpoints: Add, Update, Fetch All, Fetch One, Delete.
+ * Endpoints: Add, Update, Fetch All, Fetch One, Delete,
+ *            Availability (makeable portions, list + SSE stream).
  * Since: 07-Nov-2025
  */
 @RestController
@@ -23,7 +28,12 @@ import java.util.List;
 public class RecipeController {
 
     private final RecipeService recipeService;
-    public RecipeController(RecipeService recipeService) { this.recipeService = recipeService; }
+    private final RecipeAvailabilityService recipeAvailabilityService;
+
+    public RecipeController(RecipeService recipeService, RecipeAvailabilityService recipeAvailabilityService) {
+        this.recipeService = recipeService;
+        this.recipeAvailabilityService = recipeAvailabilityService;
+    }
 
     /**
      * Add a new recipe with its ingredient xrefs.
@@ -60,6 +70,26 @@ public class RecipeController {
         return ResponseEntity.ok(new ApiResponse(200, "Recipes fetched successfully", list));
     }
 
+    /**
+     * How many portions of every active recipe the current stock can make.
+     * @return ApiResponse with list of RecipeAvailabilityDTO.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<ApiResponse> getAvailability() {
+        List<RecipeAvailabilityDTO> list = recipeAvailabilityService.getAvailability();
+        return ResponseEntity.ok(new ApiResponse(200, "Recipe availability fetched successfully", list));
+    }
+
+    /**
+     * Server-sent events: "snapshot" (all recipes) on connect, then
+     * "availability" with the recipes whose portions changed.
+     * @return open event stream.
+     */
+    @GetMapping(value = "/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAvailability() {
+        return recipeAvailabilityService.subscribe();
+    }
+
     /**
      * Fetch a single recipe by ID (master DTO).
      * @param id Recipe ID
@@ -0,0 +1,68 @@
+package com.restaurant.inventorysystem.controller;
+
+import com.restaurant.inventorysystem.dto.ReportJobDTO;
+import com.restaurant.inventorysystem.service.ReportJobService;
+import com.restaurant.inventorysystem.util.ApiResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * ------------------------------------------------------------
+ * REPORT JOB CONTROLLER
+ * ------------------------------------------------------------
+ * Purpose:
+ *  Background report generation for reports too large to build
+ *  while the client waits.
+ *
+ * Description:
+ *  - POST /api/reports/{type}?format=&from=&to=  → queue a job (202 + job id)
+ *      type   : stock | stock-in | orders
+ *      format : csv | ndjson | xlsx (default xlsx)
+ *  - GET  /api/reports/jobs/{id}                 → status and progress
+ *  - GET  /api/reports/jobs/{id}/download        → the finished file
+ *
+ * Notes:
+ *  Finished files are kept for report.jobs.ttl (default 60 minutes).
+ */
+@RestController
+@RequestMapping("/api/reports")
+public class ReportJobController {
+
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @PostMapping("/{type}")
+    public ResponseEntity<ApiResponse> submit(
+            @PathVariable String type,
+            @RequestParam(defaultValue = "xlsx") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        ReportJobDTO job = reportJobService.submit(type, format, from, to);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(new ApiResponse(202, "Report job " + job.getStatus(), job));
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<ApiResponse> getJob(@PathVariable String id) {
+        return ResponseEntity.ok(new ApiResponse(200, "Report job loaded", reportJobService.getJob(id)));
+    }
+
+    @GetMapping("/jobs/{id}/download")
+    public void download(@PathVariable String id, HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        reportJobService.download(id, request, response);
+    }
+}
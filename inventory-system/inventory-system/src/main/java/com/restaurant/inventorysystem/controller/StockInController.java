@@ -1,13 +1,20 @@
 package com.restaurant.inventorysystem.controller;
 import com.restaurant.inventorysystem.dto.StockInResponseDTO;
 import com.restaurant.inventorysystem.entity.StockIn;
+import com.restaurant.inventorysystem.report.ReportFormat;
+import com.restaurant.inventorysystem.report.TabularReport;
+import com.restaurant.inventorysystem.service.ReportExportService;
 import com.restaurant.inventorysystem.util.ApiResponse;
 import com.restaurant.inventorysystem.dto.StockInRequestDTO;
 import com.restaurant.inventorysystem.service.StockInService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -27,6 +34,9 @@ public class StockInController {
     @Autowired
     private StockInService stockInService;
 
+    @Autowired
+    private ReportExportService reportExportService;
+
     /**
      * API to add stock for an ingredient.
      *
@@ -91,5 +101,24 @@ public class StockInController {
                 new ApiResponse(200, "Stock record deleted successfully", null)
         );
     }
-}
 
+    /**
+     * API to download the stock-in history as CSV / NDJSON, oldest first.
+     * Streamed from a DB cursor (gzip if accepted); from/to filter on stock_in_date.
+     */
+    @GetMapping("/report/csv")
+    public ResponseEntity<StreamingResponseBody> exportStockInCsv(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return reportExportService.export(TabularReport.STOCK_IN, ReportFormat.CSV, from, to, acceptEncoding);
+    }
+
+    @GetMapping("/report/ndjson")
+    public ResponseEntity<StreamingResponseBody> exportStockInNdjson(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return reportExportService.export(TabularReport.STOCK_IN, ReportFormat.NDJSON, from, to, acceptEncoding);
+    }
+}
@@ -1,15 +1,29 @@
 package com.restaurant.inventorysystem.controller;
 
+import com.restaurant.inventorysystem.dto.StockAtDTO;
 import com.restaurant.inventorysystem.dto.StockReportDTO;
+import com.restaurant.inventorysystem.report.ReportFormat;
+import com.restaurant.inventorysystem.report.TabularReport;
+import com.restaurant.inventorysystem.service.ReportExportService;
 import com.restaurant.inventorysystem.service.StockInService;
+import com.restaurant.inventorysystem.service.StockLedgerService;
+import com.restaurant.inventorysystem.service.StockStreamService;
 import com.restaurant.inventorysystem.util.ApiResponse;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -26,6 +40,9 @@ import java.util.List;
  * Description:
  *  - /report        → Returns JSON report of current stock.
  *  - /report/excel  → Downloads Excel file of stock report.
+ *  - /report/csv, /report/ndjson → Raw stock rows, streamed (gzip if accepted).
+ *  - /at            → Stock at a past point in time (stock ledger).
+ *  - /stream        → Live stock levels (server-sent events).
  *
  * Notes:
  *  This controller only handles request routing. The full
@@ -38,6 +55,15 @@ public class StockReportController {
     @Autowired
     private StockInService stockInService;
 
+    @Autowired
+    private ReportExportService reportExportService;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private StockStreamService stockStreamService;
+
     /**
      * ------------------------------------------------------------
      * API: GET /api/stock/report
@@ -79,9 +105,68 @@ public class StockReportController {
      * Notes:
      *  - Response does NOT return JSON.
      *  - Excel file is streamed directly to client.
+     *  - For large data use POST /api/reports/stock?format=xlsx (background job).
      */
     @GetMapping("/report/excel")
     public void exportStockExcel(HttpServletResponse response) throws Exception {
         stockInService.exportStockReportToExcel(response);
     }
+
+    /**
+     * ------------------------------------------------------------
+     * API: GET /api/stock/report/csv | /api/stock/report/ndjson
+     * ------------------------------------------------------------
+     * Purpose:
+     *  Same data as /report as raw CSV / NDJSON for back-office tools,
+     *  written row by row from a DB cursor (gzip if accepted).
+     */
+    @GetMapping("/report/csv")
+    public ResponseEntity<StreamingResponseBody> exportStockCsv(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return reportExportService.export(TabularReport.STOCK, ReportFormat.CSV, null, null, acceptEncoding);
+    }
+
+    @GetMapping("/report/ndjson")
+    public ResponseEntity<StreamingResponseBody> exportStockNdjson(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return reportExportService.export(TabularReport.STOCK, ReportFormat.NDJSON, null, null, acceptEncoding);
+    }
+
+    /**
+     * ------------------------------------------------------------
+     * API: GET /api/stock/at?time=2026-10-16T21:00:00[&ingredientId=5]
+     * ------------------------------------------------------------
+     * Purpose:
+     *  Stock as it was at the given time, for all ingredients or one,
+     *  rebuilt from the nearest snapshot plus the ledger rows after it.
+     */
+    @GetMapping("/at")
+    public ResponseEntity<ApiResponse> getStockAt(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime time,
+            @RequestParam(required = false) Integer ingredientId) {
+        if (ingredientId != null) {
+            StockAtDTO stock = stockLedgerService.getStockAt(ingredientId, time);
+            return ResponseEntity.ok(new ApiResponse(200, "Stock Loaded", stock));
+        }
+        List<StockAtDTO> list = stockLedgerService.getStockAt(time);
+        return ResponseEntity.ok(new ApiResponse(200, "Stock Loaded", list));
+    }
+
+    /**
+     * ------------------------------------------------------------
+     * API: GET /api/stock/stream  (text/event-stream)
+     * ------------------------------------------------------------
+     * Purpose:
+     *  Live stock for kitchen displays, instead of polling /report.
+     *
+     * Events:
+     *  - snapshot → [{ingredientId, stockSubunit}] for every ingredient
+     *  - stock    → only the levels changed by committed orders /
+     *               Stock-In entries, at most one per ingredient per
+     *               interval (inventory.stock.stream.interval-ms)
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamStock() {
+        return stockStreamService.subscribe();
+    }
 }
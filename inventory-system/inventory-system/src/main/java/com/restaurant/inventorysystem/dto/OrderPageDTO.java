@@ -0,0 +1,53 @@
+package com.restaurant.inventorysystem.dto;
+
+import java.util.List;
+
+/**
+ * ------------------------------------------------------------
+ * DTO: OrderPageDTO
+ * ------------------------------------------------------------
+ * Purpose:
+ *  One page of the order listing. Pass nextCursor back as
+ *  ?cursor=... to get the following page; it is null on the last page.
+ */
+public class OrderPageDTO {
+
+    private List<OrderDetailDTO> orders;
+    private String nextCursor;
+    private boolean hasMore;
+
+    public OrderPageDTO() {
+    }
+
+    public OrderPageDTO(List<OrderDetailDTO> orders, String nextCursor) {
+        this.orders = orders;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+    }
+
+    // ---------- Getters and Setters ----------
+
+    public List<OrderDetailDTO> getOrders() {
+        return orders;
+    }
+
+    public void setOrders(List<OrderDetailDTO> orders) {
+        this.orders = orders;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
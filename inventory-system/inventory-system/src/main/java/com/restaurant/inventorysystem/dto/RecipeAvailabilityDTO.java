@@ -0,0 +1,67 @@
+package com.restaurant.inventorysystem.dto;
+
+/**
+ * ------------------------------------------------------------
+ * DTO: RecipeAvailabilityDTO
+ * ------------------------------------------------------------
+ * Purpose:
+ *  How many portions of a recipe the current stock can still make:
+ *  min over its ingredient lines of stock / quantity per portion.
+ *  limitingIngredientId is the ingredient that gives that minimum.
+ *
+ *  availablePortions is null for a recipe without ingredient lines
+ *  (not limited by stock), and 0 for one that can no longer be made,
+ *  including a recipe just deactivated or deleted (stream only).
+ */
+public class RecipeAvailabilityDTO {
+
+    private Integer recipeId;
+    private String recipeName;
+    private Long availablePortions;
+    private Integer limitingIngredientId;
+
+    public RecipeAvailabilityDTO() {
+    }
+
+    public RecipeAvailabilityDTO(Integer recipeId, String recipeName, Long availablePortions,
+                                 Integer limitingIngredientId) {
+        this.recipeId = recipeId;
+        this.recipeName = recipeName;
+        this.availablePortions = availablePortions;
+        this.limitingIngredientId = limitingIngredientId;
+    }
+
+    // ---------- Getters and Setters ----------
+
+    public Integer getRecipeId() {
+        return recipeId;
+    }
+
+    public void setRecipeId(Integer recipeId) {
+        this.recipeId = recipeId;
+    }
+
+    public String getRecipeName() {
+        return recipeName;
+    }
+
+    public void setRecipeName(String recipeName) {
+        this.recipeName = recipeName;
+    }
+
+    public Long getAvailablePortions() {
+        return availablePortions;
+    }
+
+    public void setAvailablePortions(Long availablePortions) {
+        this.availablePortions = availablePortions;
+    }
+
+    public Integer getLimitingIngredientId() {
+        return limitingIngredientId;
+    }
+
+    public void setLimitingIngredientId(Integer limitingIngredientId) {
+        this.limitingIngredientId = limitingIngredientId;
+    }
+}
@@ -0,0 +1,73 @@
+package com.restaurant.inventorysystem.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * ------------------------------------------------------------
+ * DTO: StockAtDTO
+ * ------------------------------------------------------------
+ * Purpose:
+ *  Stock of one ingredient at a past point in time, rebuilt from the
+ *  stock ledger. snapshotAt is the snapshot the value started from
+ *  (null if none), movementsReplayed the ledger rows added on top.
+ */
+public class StockAtDTO {
+
+    private Integer ingredientId;
+    private String ingredientName;
+    private LocalDateTime at;
+    private BigDecimal stockSubunit;
+    private LocalDateTime snapshotAt;
+    private long movementsReplayed;
+
+    // ---------- Getters and Setters ----------
+
+    public Integer getIngredientId() {
+        return ingredientId;
+    }
+
+    public void setIngredientId(Integer ingredientId) {
+        this.ingredientId = ingredientId;
+    }
+
+    public String getIngredientName() {
+        return ingredientName;
+    }
+
+    public void setIngredientName(String ingredientName) {
+        this.ingredientName = ingredientName;
+    }
+
+    public LocalDateTime getAt() {
+        return at;
+    }
+
+    public void setAt(LocalDateTime at) {
+        this.at = at;
+    }
+
+    public BigDecimal getStockSubunit() {
+        return stockSubunit;
+    }
+
+    public void setStockSubunit(BigDecimal stockSubunit) {
+        this.stockSubunit = stockSubunit;
+    }
+
+    public LocalDateTime getSnapshotAt() {
+        return snapshotAt;
+    }
+
+    public void setSnapshotAt(LocalDateTime snapshotAt) {
+        this.snapshotAt = snapshotAt;
+    }
+
+    public long getMovementsReplayed() {
+        return movementsReplayed;
+    }
+
+    public void setMovementsReplayed(long movementsReplayed) {
+        this.movementsReplayed = movementsReplayed;
+    }
+}
@@ -0,0 +1,44 @@
+package com.restaurant.inventorysystem.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * ------------------------------------------------------------
+ * DTO: StockLevelDTO
+ * ------------------------------------------------------------
+ * Purpose:
+ *  Live stock of one ingredient, as pushed by /api/stock/stream.
+ *  Only what changes is sent; name, UOM and base unit value come
+ *  from /api/stock/report (same ingredientId).
+ */
+public class StockLevelDTO {
+
+    private Integer ingredientId;
+    private BigDecimal stockSubunit;
+
+    public StockLevelDTO() {
+    }
+
+    public StockLevelDTO(Integer ingredientId, BigDecimal stockSubunit) {
+        this.ingredientId = ingredientId;
+        this.stockSubunit = stockSubunit;
+    }
+
+    // ---------- Getters and Setters ----------
+
+    public Integer getIngredientId() {
+        return ingredientId;
+    }
+
+    public void setIngredientId(Integer ingredientId) {
+        this.ingredientId = ingredientId;
+    }
+
+    public BigDecimal getStockSubunit() {
+        return stockSubunit;
+    }
+
+    public void setStockSubunit(BigDecimal stockSubunit) {
+        this.stockSubunit = stockSubunit;
+    }
+}
@@ -1,6 +1,8 @@
 package com.restaurant.inventorysystem.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -99,6 +101,12 @@ public class IngredientsMaster {
     @Column(name = "enable_flag")
     private Integer enableFlag = 1;
 
+    /** Optimistic lock version; also bumped by the JDBC stock updates */
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "row_version", nullable = false)
+    private Long rowVersion;
+
     // ===========================
     // Constructors
     // ===========================
@@ -268,4 +276,8 @@ public class IngredientsMaster {
     public BigDecimal getCurrentStockSubunit() { return currentStockSubunit; }
 
     public void setCurrentStockSubunit(BigDecimal currentStockSubunit) { this.currentStockSubunit = currentStockSubunit; }
+
+    public Long getRowVersion() { return rowVersion; }
+
+    public void setRowVersion(Long rowVersion) { this.rowVersion = rowVersion; }
 }
@@ -0,0 +1,84 @@
+package com.restaurant.inventorysystem.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Entity: InvoiceOutbox
+ * -----------------------------------------------
+ * Invoice events waiting to be published to Kafka.
+ * A row is written in the same transaction as its OrderDetail,
+ * so only committed orders ever produce an invoice.
+ * InvoiceOutboxRelay drains PENDING rows and marks them SENT.
+ *
+ * Status: PENDING → SENT, or FAILED after too many attempts.
+ */
+@Entity
+@Table(name = "invoice_outbox",
+        indexes = @Index(name = "idx_invoice_outbox_status", columnList = "status, outbox_id"))
+public class InvoiceOutbox {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_SENT = "SENT";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "outbox_id")
+    private Long outboxId;
+
+    @Column(name = "order_id", nullable = false)
+    private Integer orderId;
+
+    /** Message key (one order always goes to the same partition) */
+    @Column(name = "order_no", nullable = false)
+    private String orderNo;
+
+    /** Invoice JSON as sent to Kafka */
+    @Lob
+    @Column(name = "payload", nullable = false)
+    private String payload;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status = STATUS_PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_date", nullable = false)
+    private LocalDateTime createdDate;
+
+    @Column(name = "sent_date")
+    private LocalDateTime sentDate;
+
+    // Getters and Setters
+    public Long getOutboxId() { return outboxId; }
+    public void setOutboxId(Long outboxId) { this.outboxId = outboxId; }
+
+    public Integer getOrderId() { return orderId; }
+    public void setOrderId(Integer orderId) { this.orderId = orderId; }
+
+    public String getOrderNo() { return orderNo; }
+    public void setOrderNo(String orderNo) { this.orderNo = orderNo; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Integer getAttempts() { return attempts; }
+    public void setAttempts(Integer attempts) { this.attempts = attempts; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getCreatedDate() { return createdDate; }
+    public void setCreatedDate(LocalDateTime createdDate) { this.createdDate = createdDate; }
+
+    public LocalDateTime getSentDate() { return sentDate; }
+    public void setSentDate(LocalDateTime sentDate) { this.sentDate = sentDate; }
+}
@@ -15,7 +15,9 @@ import java.util.List;
  * Date: 12-Nov-2025
  */
 @Entity
-@Table(name = "order_detail")
+@Table(name = "order_detail",
+        // keyset order of /api/order/list (newest first)
+        indexes = @Index(name = "idx_order_detail_date", columnList = "order_date, order_id"))
 public class OrderDetail {
 
     @Id
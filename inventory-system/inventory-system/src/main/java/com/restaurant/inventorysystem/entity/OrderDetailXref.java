@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
  * Date: 12-Nov-2025
  */
 @Entity
-@Table(name = "order_detail_xref")
+@Table(name = "order_detail_xref",
+        indexes = @Index(name = "idx_order_detail_xref_order", columnList = "order_id"))
 public class OrderDetailXref {
 
     @Id
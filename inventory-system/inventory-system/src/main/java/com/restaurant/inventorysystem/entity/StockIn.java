@@ -14,7 +14,9 @@ import java.time.LocalDateTime;
  * @purpose Handle stock-in operations (single table design)
  */
 @Entity
-@Table(name = "stock_in")
+@Table(name = "stock_in",
+        // date-range history export (/api/stock-in/report/*), read in this order
+        indexes = @Index(name = "idx_stock_in_date", columnList = "stock_in_date, stock_in_id"))
 public class StockIn {
 
     // ------------------ Constructors ------------------
@@ -0,0 +1,97 @@
+package com.restaurant.inventorysystem.entity;
+
+import com.restaurant.inventorysystem.stock.StockMovementType;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entity: StockMovement
+ * -----------------------------------------------
+ * Stock ledger: one row per ingredient per stock change (order, order
+ * reversal, stock-in, stock-in reversal), written in the same transaction
+ * as the change by StockDeductionEngine. Rows are never deleted, and the
+ * movement itself (ingredient, type, quantity, reference, date) is never
+ * updated; the stock of an ingredient at any time is the sum of its
+ * quantities up to that time (see StockSnapshot).
+ *
+ * The one column that changes is applied, and only in WRITE_BEHIND mode:
+ * rows are inserted with applied = false and WriteBehindStockFlusher sets
+ * it to true once their quantity is in ingredients_master.
+ */
+@Entity
+@Table(name = "stock_movement",
+        indexes = {
+                // tail scan of one ingredient after its snapshot
+                @Index(name = "idx_stock_movement_ingredient", columnList = "ingredient_id, movement_date"),
+                // all movements of a time window (snapshot run, all-ingredient queries)
+                @Index(name = "idx_stock_movement_date", columnList = "movement_date"),
+                // WRITE_BEHIND rows not yet in ingredients_master
+                @Index(name = "idx_stock_movement_pending", columnList = "applied, ingredient_id")
+        })
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "movement_id")
+    private Long movementId;
+
+    @Column(name = "ingredient_id", nullable = false)
+    private Integer ingredientId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "movement_type", nullable = false, length = 20)
+    private StockMovementType movementType;
+
+    /** Signed change in subunits (negative = taken out) */
+    @Column(name = "quantity", nullable = false)
+    private BigDecimal quantity;
+
+    /** Order no / stock no that caused the movement */
+    @Column(name = "reference_no", length = 50)
+    private String referenceNo;
+
+    @Column(name = "movement_date", nullable = false)
+    private LocalDateTime movementDate;
+
+    /** False while a WRITE_BEHIND change is not yet in ingredients_master */
+    @Column(name = "applied", nullable = false, columnDefinition = "boolean default true")
+    private boolean applied = true;
+
+    public StockMovement() {
+    }
+
+    public StockMovement(Integer ingredientId, StockMovementType movementType, BigDecimal quantity,
+                         String referenceNo, LocalDateTime movementDate, boolean applied) {
+        this.ingredientId = ingredientId;
+        this.movementType = movementType;
+        this.quantity = quantity;
+        this.referenceNo = referenceNo;
+        this.movementDate = movementDate;
+        this.applied = applied;
+    }
+
+    // Getters and Setters
+
+    public Long getMovementId() { return movementId; }
+    public void setMovementId(Long movementId) { this.movementId = movementId; }
+
+    public Integer getIngredientId() { return ingredientId; }
+    public void setIngredientId(Integer ingredientId) { this.ingredientId = ingredientId; }
+
+    public StockMovementType getMovementType() { return movementType; }
+    public void setMovementType(StockMovementType movementType) { this.movementType = movementType; }
+
+    public BigDecimal getQuantity() { return quantity; }
+    public void setQuantity(BigDecimal quantity) { this.quantity = quantity; }
+
+    public String getReferenceNo() { return referenceNo; }
+    public void setReferenceNo(String referenceNo) { this.referenceNo = referenceNo; }
+
+    public LocalDateTime getMovementDate() { return movementDate; }
+    public void setMovementDate(LocalDateTime movementDate) { this.movementDate = movementDate; }
+
+    public boolean isApplied() { return applied; }
+    public void setApplied(boolean applied) { this.applied = applied; }
+}
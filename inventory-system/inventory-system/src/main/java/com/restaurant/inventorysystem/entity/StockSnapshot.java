@@ -0,0 +1,60 @@
+package com.restaurant.inventorysystem.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Entity: StockSnapshot
+ * -----------------------------------------------
+ * Stock of one ingredient at snapshot_at = sum of all its stock_movement
+ * rows with movement_date <= snapshot_at. Written periodically for every
+ * ingredient with history, all rows of a run share the same snapshot_at.
+ * Stock at time T = snapshot at or before T + movements after it up to T.
+ */
+@Entity
+@Table(name = "stock_snapshot",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stock_snapshot_ingredient",
+                columnNames = {"ingredient_id", "snapshot_at"}),
+        indexes = @Index(name = "idx_stock_snapshot_at", columnList = "snapshot_at"))
+public class StockSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "snapshot_id")
+    private Long snapshotId;
+
+    @Column(name = "ingredient_id", nullable = false)
+    private Integer ingredientId;
+
+    @Column(name = "snapshot_at", nullable = false)
+    private LocalDateTime snapshotAt;
+
+    /** Stock in subunits at snapshot_at */
+    @Column(name = "balance", nullable = false)
+    private BigDecimal balance;
+
+    public StockSnapshot() {
+    }
+
+    public StockSnapshot(Integer ingredientId, LocalDateTime snapshotAt, BigDecimal balance) {
+        this.ingredientId = ingredientId;
+        this.snapshotAt = snapshotAt;
+        this.balance = balance;
+    }
+
+    // Getters and Setters
+
+    public Long getSnapshotId() { return snapshotId; }
+    public void setSnapshotId(Long snapshotId) { this.snapshotId = snapshotId; }
+
+    public Integer getIngredientId() { return ingredientId; }
+    public void setIngredientId(Integer ingredientId) { this.ingredientId = ingredientId; }
+
+    public LocalDateTime getSnapshotAt() { return snapshotAt; }
+    public void setSnapshotAt(LocalDateTime snapshotAt) { this.snapshotAt = snapshotAt; }
+
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+}
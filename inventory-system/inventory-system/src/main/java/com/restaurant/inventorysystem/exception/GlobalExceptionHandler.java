@@ -4,6 +4,7 @@ import com.restaurant.inventorysystem.util.ApiResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -103,6 +104,75 @@ public class GlobalExceptionHandler {
                 .body(new ApiResponse(409, "Database constraint violation", null));
     }
 
+    /**
+     * Handles stock updates that kept clashing with concurrent updates
+     * even after retrying. The request can be sent again as is.
+     *
+     * HTTP Status: 409 CONFLICT
+     */
+    @ExceptionHandler(StockConflictException.class)
+    public ResponseEntity<ApiResponse> handleStockConflict(StockConflictException ex) {
+        logger.error("Stock conflict: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ApiResponse(409, ex.getMessage(), null));
+    }
+
+    /**
+     * Handles downloads of report jobs that are still running or failed.
+     *
+     * HTTP Status: 409 CONFLICT
+     */
+    @ExceptionHandler(ReportNotReadyException.class)
+    public ResponseEntity<ApiResponse> handleReportNotReady(ReportNotReadyException ex) {
+        logger.error("Report not ready: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(new ApiResponse(409, ex.getMessage(), null));
+    }
+
+    /**
+     * Handles report jobs rejected because the report queue is full.
+     *
+     * HTTP Status: 503 SERVICE_UNAVAILABLE (Retry-After: 30)
+     */
+    @ExceptionHandler(ReportQueueFullException.class)
+    public ResponseEntity<ApiResponse> handleReportQueueFull(ReportQueueFullException ex) {
+        logger.error("Report queue full: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "30")
+                .body(new ApiResponse(503, ex.getMessage(), null));
+    }
+
+    /**
+     * Handles logins refused by the per-user / per-address login limits.
+     *
+     * HTTP Status: 429 TOO_MANY_REQUESTS (Retry-After: seconds until the next attempt)
+     */
+    @ExceptionHandler(LoginRateLimitedException.class)
+    public ResponseEntity<ApiResponse> handleLoginRateLimited(LoginRateLimitedException ex) {
+        logger.warn("Login rate limited: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ApiResponse(429, ex.getMessage(), null));
+    }
+
+    /**
+     * Handles logins rejected because the login queue is full.
+     *
+     * HTTP Status: 503 SERVICE_UNAVAILABLE (Retry-After: 5)
+     */
+    @ExceptionHandler(LoginQueueFullException.class)
+    public ResponseEntity<ApiResponse> handleLoginQueueFull(LoginQueueFullException ex) {
+        logger.error("Login queue full: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(new ApiResponse(503, ex.getMessage(), null));
+    }
+
     /**
      * Fallback handler for any unhandled or unexpected exceptions.
      * This ensures that no internal error details are leaked to the client.
@@ -0,0 +1,40 @@
+package com.restaurant.inventorysystem.exception;
+
+import java.math.BigDecimal;
+
+/**
+ * @purpose Thrown when a stock adjustment would take an ingredient below zero.
+ *
+ * <p>Extends ResourceNotFoundException so order APIs keep answering with the
+ * same status and message as before ("Insufficient stock for ingredient: ...").
+ * Callers that need a different status (e.g. Stock-In reversal) catch it and
+ * rethrow with their own message.</p>
+ */
+public class InsufficientStockException extends ResourceNotFoundException {
+
+    private final Integer ingredientId;
+    private final BigDecimal available;
+    private final BigDecimal needed;
+
+    public InsufficientStockException(Integer ingredientId, String ingredientName,
+                                      BigDecimal available, BigDecimal needed) {
+        super("Insufficient stock for ingredient: " + ingredientName
+                + " | Available: " + available
+                + " | Needed: " + needed);
+        this.ingredientId = ingredientId;
+        this.available = available;
+        this.needed = needed;
+    }
+
+    public Integer getIngredientId() {
+        return ingredientId;
+    }
+
+    public BigDecimal getAvailable() {
+        return available;
+    }
+
+    public BigDecimal getNeeded() {
+        return needed;
+    }
+}
@@ -0,0 +1,16 @@
+package com.restaurant.inventorysystem.exception;
+
+/**
+ * @purpose Thrown when a login cannot be queued because every login
+ *           worker is busy and the login queue is full, or when a queued
+ *           login waited too long. The client may retry shortly.
+ */
+public class LoginQueueFullException extends RuntimeException {
+
+    /**
+     * @param message why the login was not processed
+     */
+    public LoginQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,24 @@
+package com.restaurant.inventorysystem.exception;
+
+/**
+ * @purpose Thrown when a login is refused because the user name or the
+ *           client address has used up its login attempts for now. The
+ *           client may retry after the given number of seconds.
+ */
+public class LoginRateLimitedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * @param message           which limit was hit
+     * @param retryAfterSeconds seconds until the next attempt is allowed
+     */
+    public LoginRateLimitedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
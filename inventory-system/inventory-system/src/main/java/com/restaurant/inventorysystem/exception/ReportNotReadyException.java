@@ -0,0 +1,16 @@
+package com.restaurant.inventorysystem.exception;
+
+/**
+ * @purpose Thrown when the file of a report job is requested before the
+ *           job has finished (or after it failed). The client should poll
+ *           the job status and download once it is DONE.
+ */
+public class ReportNotReadyException extends RuntimeException {
+
+    /**
+     * @param message job id and its current status
+     */
+    public ReportNotReadyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.restaurant.inventorysystem.exception;
+
+/**
+ * @purpose Thrown when a report job cannot be queued because all report
+ *           workers are busy and the job queue is full. The client may
+ *           retry later.
+ */
+public class ReportQueueFullException extends RuntimeException {
+
+    /**
+     * @param message description of the rejected job
+     */
+    public ReportQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.restaurant.inventorysystem.exception;
+
+/**
+ * @purpose Thrown when a stock update still conflicts with concurrent updates
+ *           after all retry attempts (optimistic version clash, lock timeout,
+ *           deadlock). The client may simply resend the request.
+ */
+public class StockConflictException extends RuntimeException {
+
+    /**
+     * @param message description of the failed operation
+     * @param cause   last concurrency failure seen
+     */
+    public StockConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,50 @@
+package com.restaurant.inventorysystem.kafka;
+
+import com.restaurant.inventorysystem.entity.InvoiceOutbox;
+import com.restaurant.inventorysystem.repository.InvoiceOutboxRepository;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * ------------------------------------------------------------
+ * ENDPOINT: /actuator/invoiceoutbox
+ * ------------------------------------------------------------
+ * Operator view of the invoice outbox, on the loopback management port
+ * (authenticated like the rest of the API):
+ *
+ *  GET  → number of PENDING and FAILED rows
+ *  POST → re-queue the FAILED rows (InvoiceOutboxRelay.replayFailed),
+ *         e.g. once the broker problem that parked them is fixed
+ *
+ * Consumers already tolerate duplicates (see InvoiceOutboxRelay), so a
+ * replay of a row that did reach the broker only re-sends the invoice.
+ */
+@Component
+@Endpoint(id = "invoiceoutbox")
+public class InvoiceOutboxEndpoint {
+
+    private final InvoiceOutboxRelay invoiceOutboxRelay;
+    private final InvoiceOutboxRepository invoiceOutboxRepository;
+
+    public InvoiceOutboxEndpoint(InvoiceOutboxRelay invoiceOutboxRelay,
+                                 InvoiceOutboxRepository invoiceOutboxRepository) {
+        this.invoiceOutboxRelay = invoiceOutboxRelay;
+        this.invoiceOutboxRepository = invoiceOutboxRepository;
+    }
+
+    @ReadOperation
+    public Map<String, Long> status() {
+        return Map.of(
+                "pending", invoiceOutboxRepository.countByStatus(InvoiceOutbox.STATUS_PENDING),
+                "failed", invoiceOutboxRepository.countByStatus(InvoiceOutbox.STATUS_FAILED));
+    }
+
+    @WriteOperation
+    public Map<String, Integer> replay() {
+        return Map.of("requeued", invoiceOutboxRelay.replayFailed());
+    }
+}
@@ -0,0 +1,183 @@
+package com.restaurant.inventorysystem.kafka;
+
+import com.restaurant.inventorysystem.entity.InvoiceOutbox;
+import com.restaurant.inventorysystem.repository.InvoiceOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * ------------------------------------------------------------
+ * COMPONENT: InvoiceOutboxRelay
+ * ------------------------------------------------------------
+ * Background publisher for the invoice_outbox table.
+ *
+ * Every poll interval:
+ *  1️⃣ Read the oldest PENDING rows (batch-size)
+ *  2️⃣ Hand all of them to the producer, then wait for the broker acks
+ *  3️⃣ Mark the acknowledged rows SENT with one UPDATE
+ *  4️⃣ Keep failed rows PENDING (attempts + last_error); after
+ *     max-attempts they are parked as FAILED until replayed through
+ *     InvoiceOutboxEndpoint (POST /actuator/invoiceoutbox)
+ * and repeat while full batches keep coming.
+ *
+ * Delivery is at-least-once: if the app stops between the ack and the
+ * UPDATE, the rows are sent again, so consumers must tolerate duplicates
+ * (orderNo identifies an invoice). Designed for a single relay instance.
+ *
+ * Properties: invoice.outbox.enabled / batch-size / poll-interval-ms /
+ *             send-timeout-ms / max-attempts
+ */
+@Component
+public class InvoiceOutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvoiceOutboxRelay.class);
+
+    private final InvoiceOutboxRepository invoiceOutboxRepository;
+    private final KafkaInvoiceProducer kafkaInvoiceProducer;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long sendTimeoutMs;
+    private final int maxAttempts;
+
+    private final Counter sent;
+    private final Counter failed;
+
+    public InvoiceOutboxRelay(InvoiceOutboxRepository invoiceOutboxRepository,
+                              KafkaInvoiceProducer kafkaInvoiceProducer,
+                              MeterRegistry meterRegistry,
+                              @Value("${invoice.outbox.enabled:true}") boolean enabled,
+                              @Value("${invoice.outbox.batch-size:100}") int batchSize,
+                              @Value("${invoice.outbox.send-timeout-ms:10000}") long sendTimeoutMs,
+                              @Value("${invoice.outbox.max-attempts:10}") int maxAttempts) {
+        this.invoiceOutboxRepository = invoiceOutboxRepository;
+        this.kafkaInvoiceProducer = kafkaInvoiceProducer;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.maxAttempts = Math.max(1, maxAttempts);
+
+        this.sent = Counter.builder("invoice.outbox.sent")
+                .description("Invoice events published from the outbox").register(meterRegistry);
+        this.failed = Counter.builder("invoice.outbox.failed")
+                .description("Invoice event publish attempts that failed").register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${invoice.outbox.poll-interval-ms:500}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            drain();
+        } catch (Exception e) {
+            // Keep the scheduler alive; rows stay PENDING and are retried next poll
+            logger.error("Invoice outbox relay failed", e);
+        }
+    }
+
+    /**
+     * Publishes PENDING rows until none are left or a batch had failures.
+     *
+     * @return number of rows marked SENT
+     */
+    public int drain() {
+        int total = 0;
+        while (true) {
+            List<InvoiceOutbox> batch = invoiceOutboxRepository.findByStatusOrderByOutboxIdAsc(
+                    InvoiceOutbox.STATUS_PENDING, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return total;
+            }
+
+            int published = publish(batch);
+            total += published;
+
+            // stop on a short batch (drained) or on failures (broker trouble, wait for next poll)
+            if (published < batch.size() || batch.size() < batchSize) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * Moves the FAILED rows back to PENDING (attempts reset, last_error kept
+     * for reference) so the next poll publishes them again.
+     *
+     * @return number of rows re-queued
+     */
+    public int replayFailed() {
+        int requeued = invoiceOutboxRepository.requeueFailed();
+        if (requeued > 0) {
+            logger.info("Invoice outbox: {} FAILED events re-queued", requeued);
+        }
+        return requeued;
+    }
+
+    private int publish(List<InvoiceOutbox> batch) {
+        // Step 2: send everything first so the producer can batch the records
+        List<CompletableFuture<?>> acks = new ArrayList<>(batch.size());
+        for (InvoiceOutbox row : batch) {
+            try {
+                acks.add(kafkaInvoiceProducer.sendInvoiceEvent(row.getOrderNo(), row.getPayload()));
+            } catch (Exception e) {
+                acks.add(CompletableFuture.failedFuture(e));
+            }
+        }
+
+        List<Long> sentIds = new ArrayList<>(batch.size());
+        List<InvoiceOutbox> failedRows = new ArrayList<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+
+        for (int i = 0; i < batch.size(); i++) {
+            InvoiceOutbox row = batch.get(i);
+            try {
+                acks.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                sentIds.add(row.getOutboxId());
+            } catch (ExecutionException e) {
+                failedRows.add(markFailed(row, e.getCause() != null ? e.getCause() : e));
+            } catch (TimeoutException e) {
+                failedRows.add(markFailed(row, e));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failedRows.add(markFailed(row, e));
+            }
+        }
+
+        // Step 3 + 4
+        if (!sentIds.isEmpty()) {
+            invoiceOutboxRepository.markSent(sentIds, LocalDateTime.now());
+            sent.increment(sentIds.size());
+        }
+        if (!failedRows.isEmpty()) {
+            invoiceOutboxRepository.saveAll(failedRows);
+            failed.increment(failedRows.size());
+            logger.warn("Invoice outbox: {} of {} events not published, first error: {}",
+                    failedRows.size(), batch.size(), failedRows.get(0).getLastError());
+        }
+        return sentIds.size();
+    }
+
+    private InvoiceOutbox markFailed(InvoiceOutbox row, Throwable error) {
+        row.setAttempts(row.getAttempts() + 1);
+        String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+        row.setLastError(message.length() > 500 ? message.substring(0, 500) : message);
+        if (row.getAttempts() >= maxAttempts) {
+            row.setStatus(InvoiceOutbox.STATUS_FAILED);
+        }
+        return row;
+    }
+}
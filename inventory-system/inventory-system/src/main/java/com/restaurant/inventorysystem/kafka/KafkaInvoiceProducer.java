@@ -1,18 +1,76 @@
 package com.restaurant.inventorysystem.kafka;
-import org.springframework.beans.factory.annotation.Autowired;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ------------------------------------------------------------
+ * SERVICE: KafkaInvoiceProducer
+ * ------------------------------------------------------------
+ * Publishes invoice events to invoice-topic.
+ *
+ * - Records are keyed by orderNo, so all events of one order land on
+ *   the same partition and stay in order.
+ * - send() never blocks on the broker: batching, compression, acks and
+ *   idempotence come from spring.kafka.producer.* (application.properties).
+ * - The outcome is recorded by a completion callback:
+ *   invoice.kafka.send.success / failure / latency
+ */
 @Service
 public class KafkaInvoiceProducer {
 
-    private final String TOPIC_NAME = "invoice-topic";
+    private static final Logger logger = LoggerFactory.getLogger(KafkaInvoiceProducer.class);
+
+    public static final String TOPIC_NAME = "invoice-topic";
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
 
-    @Autowired
-    private KafkaTemplate<String, String> kafkaTemplate;
+    private final Counter success;
+    private final Counter failure;
+    private final Timer latency;
+
+    public KafkaInvoiceProducer(KafkaTemplate<String, String> kafkaTemplate, MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+
+        this.success = Counter.builder("invoice.kafka.send.success")
+                .description("Invoice events acknowledged by the broker").register(meterRegistry);
+        this.failure = Counter.builder("invoice.kafka.send.failure")
+                .description("Invoice events the broker did not acknowledge").register(meterRegistry);
+        this.latency = Timer.builder("invoice.kafka.send.latency")
+                .description("Time from send to broker acknowledgement")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
 
-    public void sendInvoiceEvent(String invoiceJson) {
-        kafkaTemplate.send(TOPIC_NAME, invoiceJson);
-        System.out.println("Invoice event sent to Kafka: " + invoiceJson);
+    /**
+     * Sends one invoice event. The returned future completes when the broker
+     * acknowledged the record (used by InvoiceOutboxRelay to mark rows as sent).
+     *
+     * @param orderNo     record key (partitioning)
+     * @param invoiceJson invoice payload
+     */
+    public CompletableFuture<SendResult<String, String>> sendInvoiceEvent(String orderNo, String invoiceJson) {
+        long start = System.nanoTime();
+        return kafkaTemplate.send(TOPIC_NAME, orderNo, invoiceJson)
+                .whenComplete((result, error) -> {
+                    latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    if (error == null) {
+                        success.increment();
+                        logger.debug("Invoice event for order {} sent to partition {} at offset {}", orderNo,
+                                result.getRecordMetadata().partition(), result.getRecordMetadata().offset());
+                    } else {
+                        failure.increment();
+                        logger.warn("Invoice event for order {} not sent: {}", orderNo, error.getMessage());
+                    }
+                });
     }
 }
@@ -0,0 +1,31 @@
+package com.restaurant.inventorysystem.report;
+
+/**
+ * Description: Raw data formats of the /report/csv and /report/ndjson endpoints,
+ *              plus XLSX for report jobs (/api/reports).
+ */
+public enum ReportFormat {
+
+    // RFC 4180, header line first
+    CSV("text/csv", "csv"),
+    // one JSON object per line, keys = column names
+    NDJSON("application/x-ndjson", "ndjson"),
+    // plain workbook (column names as header), report jobs only
+    XLSX("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", "xlsx");
+
+    private final String contentType;
+    private final String extension;
+
+    ReportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,137 @@
+package com.restaurant.inventorysystem.report;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ------------------------------------------------------------
+ * ReportJob
+ * ------------------------------------------------------------
+ * One report generated in the background (/api/reports). Kept in
+ * memory by ReportJobServiceImpl; the worker thread updates status and
+ * progress while API threads read them, hence the volatile fields.
+ */
+public class ReportJob {
+
+    private final String id;
+    // same key = identical request (report, format, date range)
+    private final String key;
+    private final TabularReport report;
+    private final ReportFormat format;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final Instant createdAt = Instant.now();
+
+    private final AtomicLong rowsWritten = new AtomicLong();
+    // -1 until counted
+    private volatile long totalRows = -1;
+    private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+    private volatile Instant finishedAt;
+    private volatile Instant expiresAt;
+    private volatile Path file;
+    private volatile long fileSize;
+    private volatile String error;
+
+    public ReportJob(String id, String key, TabularReport report, ReportFormat format,
+                     LocalDateTime from, LocalDateTime to) {
+        this.id = id;
+        this.key = key;
+        this.report = report;
+        this.format = format;
+        this.from = from;
+        this.to = to;
+    }
+
+    public void start(long totalRows) {
+        this.totalRows = totalRows;
+        this.status = ReportJobStatus.RUNNING;
+    }
+
+    public void progress(long rows) {
+        rowsWritten.set(rows);
+    }
+
+    public void done(Path file, long fileSize, Instant expiresAt) {
+        this.file = file;
+        this.fileSize = fileSize;
+        this.finishedAt = Instant.now();
+        this.expiresAt = expiresAt;
+        this.status = ReportJobStatus.DONE;
+    }
+
+    public void failed(String error, Instant expiresAt) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.expiresAt = expiresAt;
+        this.status = ReportJobStatus.FAILED;
+    }
+
+    public boolean isExpired(Instant now) {
+        Instant expiry = expiresAt;
+        return expiry != null && !now.isBefore(expiry);
+    }
+
+    // ---------- Getters ----------
+
+    public String getId() {
+        return id;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public TabularReport getReport() {
+        return report;
+    }
+
+    public ReportFormat getFormat() {
+        return format;
+    }
+
+    public LocalDateTime getFrom() {
+        return from;
+    }
+
+    public LocalDateTime getTo() {
+        return to;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten.get();
+    }
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public ReportJobStatus getStatus() {
+        return status;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getFileSize() {
+        return fileSize;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
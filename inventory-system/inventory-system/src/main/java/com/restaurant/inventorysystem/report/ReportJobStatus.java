@@ -0,0 +1,11 @@
+package com.restaurant.inventorysystem.report;
+
+/**
+ * Description: Life cycle of a report job: QUEUED → RUNNING → DONE | FAILED.
+ */
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    DONE,
+    FAILED
+}
@@ -0,0 +1,152 @@
+package com.restaurant.inventorysystem.report;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.temporal.TemporalAccessor;
+
+/**
+ * ------------------------------------------------------------
+ * ReportRowWriter
+ * ------------------------------------------------------------
+ * Writes report rows straight to a Writer, one row at a time, in
+ * CSV or NDJSON. Nothing is kept per row, so memory does not depend
+ * on the number of rows.
+ *
+ * Value rendering (both formats):
+ *  - numbers   → plain digits (BigDecimal without exponent)
+ *  - date/time → ISO-8601 (2026-10-17T12:30)
+ *  - null      → empty CSV field / JSON null
+ */
+public abstract class ReportRowWriter {
+
+    // rows are separated by '\n' only (no default ' ' between root values)
+    private static final JsonFactory JSON_FACTORY = new JsonFactory()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .setRootValueSeparator(null);
+
+    protected final Writer writer;
+    protected String[] columns;
+
+    protected ReportRowWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public static ReportRowWriter create(ReportFormat format, Writer writer) throws IOException {
+        return switch (format) {
+            case CSV -> new Csv(writer);
+            case NDJSON -> new NdJson(writer);
+            case XLSX -> throw new IllegalArgumentException("XLSX is written by ExcelExportUtil, not row by row");
+        };
+    }
+
+    /** Must be called once, before the first row. */
+    public void start(String[] columns) throws IOException {
+        this.columns = columns;
+    }
+
+    public abstract void row(Object[] values) throws IOException;
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    static String text(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime().toString();
+        }
+        return value.toString();
+    }
+
+    // ---------------------------------------------------------------
+
+    static class Csv extends ReportRowWriter {
+
+        Csv(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        public void start(String[] columns) throws IOException {
+            super.start(columns);
+            row(columns);
+        }
+
+        @Override
+        public void row(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    field(text(values[i]));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private void field(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    static class NdJson extends ReportRowWriter {
+
+        private final JsonGenerator generator;
+
+        NdJson(Writer writer) throws IOException {
+            super(writer);
+            this.generator = JSON_FACTORY.createGenerator(writer);
+        }
+
+        @Override
+        public void row(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(columns[i]);
+                Object value = values[i];
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal.toPlainString());
+                } else if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+                    generator.writeNumber(((Number) value).longValue());
+                } else if (value instanceof Number number) {
+                    generator.writeNumber(number.doubleValue());
+                } else if (value instanceof Boolean bool) {
+                    generator.writeBoolean(bool);
+                } else if (value instanceof Timestamp || value instanceof TemporalAccessor) {
+                    generator.writeString(text(value));
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+            super.flush();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.restaurant.inventorysystem.report;
+
+/**
+ * ------------------------------------------------------------
+ * ENUM: TabularReport
+ * ------------------------------------------------------------
+ * Reports that can be streamed as raw rows (CSV / NDJSON).
+ *
+ * Each report is one plain SQL query read through a forward-only JDBC
+ * cursor; column aliases become the CSV header / JSON keys. Reports with
+ * a date range take (from, to) as the two parameters, to exclusive.
+ */
+public enum TabularReport {
+
+    // Current stock of every active ingredient (same data as /api/stock/report)
+    STOCK("Stock", "stock_report", false,
+            "SELECT i.ingredient_id AS ingredient_id, i.ingredient_name AS ingredient_name, i.uom AS uom, " +
+            "i.base_unit_value AS base_unit_value, i.current_stock_subunit AS stock_subunit, " +
+            "CASE WHEN i.base_unit_value > 0 THEN i.current_stock_subunit / i.base_unit_value ELSE 0 END " +
+            "AS stock_main, i.updated_date AS last_updated " +
+            "FROM ingredients_master i WHERE i.active_flag = 1 AND i.enable_flag = 1 " +
+            "ORDER BY i.ingredient_id"),
+
+    // Stock-in history, oldest first
+    STOCK_IN("Stock In History", "stock_in_history", true,
+            "SELECT s.stock_in_id AS stock_in_id, s.stock_no AS stock_no, s.stock_in_date AS stock_in_date, " +
+            "s.ingredient_id AS ingredient_id, " +
+            "(SELECT i.ingredient_name FROM ingredients_master i WHERE i.ingredient_id = s.ingredient_id) " +
+            "AS ingredient_name, " +
+            "s.supplier_name AS supplier_name, s.qty_main AS qty_main, s.qty_sub AS qty_sub, " +
+            "s.previous_stock_sub AS previous_stock_sub, s.updated_stock_sub AS updated_stock_sub, " +
+            "s.cost_per_unit AS cost_per_unit, s.total_cost AS total_cost, s.remarks AS remarks " +
+            "FROM stock_in s " +
+            "WHERE s.active_flag = 1 AND s.stock_in_date >= ? AND s.stock_in_date < ? " +
+            "ORDER BY s.stock_in_date, s.stock_in_id"),
+
+    // One row per order line, oldest order first (deleted orders included, see order_active)
+    ORDERS("Order Lines", "order_lines", true,
+            "SELECT o.order_id AS order_id, o.order_no AS order_no, o.order_date AS order_date, " +
+            "o.order_type AS order_type, o.table_no AS table_no, o.customer_name AS customer_name, " +
+            "o.payment_mode AS payment_mode, o.grand_total AS grand_total, o.active_flag AS order_active, " +
+            "x.recipe_id AS recipe_id, x.recipe_name AS recipe_name, x.quantity AS quantity, " +
+            "x.selling_price AS selling_price " +
+            "FROM order_detail o JOIN order_detail_xref x ON x.order_id = o.order_id " +
+            "WHERE o.order_date >= ? AND o.order_date < ? " +
+            "ORDER BY o.order_date, o.order_id, x.order_detail_xref_id");
+
+    private final String title;
+    private final String fileName;
+    private final boolean dateRange;
+    private final String sql;
+
+    TabularReport(String title, String fileName, boolean dateRange, String sql) {
+        this.title = title;
+        this.fileName = fileName;
+        this.dateRange = dateRange;
+        this.sql = sql;
+    }
+
+    // name in /api/reports/{type}: stock, stock-in, orders
+    public String getPath() {
+        return name().toLowerCase().replace('_', '-');
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public boolean hasDateRange() {
+        return dateRange;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+}
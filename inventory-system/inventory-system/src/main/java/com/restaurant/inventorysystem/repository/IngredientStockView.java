@@ -0,0 +1,19 @@
+package com.restaurant.inventorysystem.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Description: Read-only projection of an ingredient's current stock.
+ * Used by the stock deduction engine so availability checks do not
+ * load full IngredientsMaster entities (and their user associations).
+ */
+public interface IngredientStockView {
+
+    Integer getIngredientId();
+
+    String getIngredientName();
+
+    BigDecimal getCurrentStockSubunit();
+
+    BigDecimal getBaseUnitValue();
+}
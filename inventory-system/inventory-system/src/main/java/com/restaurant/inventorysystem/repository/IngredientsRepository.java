@@ -1,10 +1,14 @@
 package com.restaurant.inventorysystem.repository;
 
 import com.restaurant.inventorysystem.entity.IngredientsMaster;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -14,9 +18,20 @@ import java.util.List;
  * Includes query to fetch only active and enabled ingredients.
  */
 @Repository
-public interface IngredientsRepository extends JpaRepository<IngredientsMaster, Integer> {
+public interface IngredientsRepository extends JpaRepository<IngredientsMaster, Integer>, IngredientsRepositoryCustom {
 
     // Fetch only active and enabled records
     @Query("SELECT i FROM IngredientsMaster i WHERE i.activeFlag = 1 AND i.enableFlag = 1")
     List<IngredientsMaster> findAllActiveIngredients();
+
+    // Current stock of a set of ingredients in one query (used for order availability checks)
+    @Query("SELECT i.ingredientId AS ingredientId, i.ingredientName AS ingredientName, " +
+            "i.currentStockSubunit AS currentStockSubunit, i.baseUnitValue AS baseUnitValue " +
+            "FROM IngredientsMaster i WHERE i.ingredientId IN :ingredientIds")
+    List<IngredientStockView> findStockByIngredientIds(@Param("ingredientIds") Collection<Integer> ingredientIds);
+
+    // SELECT ... FOR UPDATE, always in id order so concurrent callers lock rows in the same order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM IngredientsMaster i WHERE i.ingredientId IN :ingredientIds ORDER BY i.ingredientId")
+    List<IngredientsMaster> findAllByIdForUpdate(@Param("ingredientIds") Collection<Integer> ingredientIds);
 }
@@ -0,0 +1,32 @@
+package com.restaurant.inventorysystem.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Description: Set-based stock updates for IngredientsMaster that Spring Data
+ * cannot derive. Implemented with plain JDBC batches in IngredientsRepositoryCustomImpl.
+ */
+public interface IngredientsRepositoryCustom {
+
+    /**
+     * Adjusts stock for several ingredients in one JDBC batch of conditional UPDATEs
+     * (negative delta = take out, positive = put back). A row is only changed while
+     * the result stays non-negative, so the check and the write happen atomically
+     * per ingredient. row_version is bumped so optimistic readers see the change.
+     *
+     * @param deltas ingredientId → signed quantity (subunits)
+     * @return ids of the ingredients that did not have enough stock (nothing was changed for them)
+     */
+    List<Integer> adjustStock(Map<Integer, BigDecimal> deltas);
+
+    /**
+     * Adds already validated deltas to stock in one JDBC batch, without the
+     * non-negative guard (WRITE_BEHIND flush: the in-memory counters checked
+     * them when the orders were taken).
+     *
+     * @param deltas ingredientId → signed quantity (subunits), in id order
+     */
+    void applyStock(Map<Integer, BigDecimal> deltas);
+}
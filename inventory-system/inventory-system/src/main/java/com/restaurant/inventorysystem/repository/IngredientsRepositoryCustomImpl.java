@@ -0,0 +1,77 @@
+package com.restaurant.inventorysystem.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Description: JDBC implementation of IngredientsRepositoryCustom.
+ * Runs inside the caller's JPA transaction (same connection), so a failed
+ * adjustment rolls back together with the order / stock entry.
+ */
+public class IngredientsRepositoryCustomImpl implements IngredientsRepositoryCustom {
+
+    private static final String ADJUST_STOCK_SQL =
+            "UPDATE ingredients_master SET current_stock_subunit = current_stock_subunit + ?, " +
+                    "row_version = row_version + 1, updated_date = ? " +
+                    "WHERE ingredient_id = ? AND current_stock_subunit + ? >= 0";
+
+    private static final int[] ADJUST_STOCK_TYPES = {Types.DECIMAL, Types.TIMESTAMP, Types.INTEGER, Types.DECIMAL};
+
+    private static final String APPLY_STOCK_SQL =
+            "UPDATE ingredients_master SET current_stock_subunit = current_stock_subunit + ?, " +
+                    "row_version = row_version + 1, updated_date = ? WHERE ingredient_id = ?";
+
+    private static final int[] APPLY_STOCK_TYPES = {Types.DECIMAL, Types.TIMESTAMP, Types.INTEGER};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IngredientsRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<Integer> adjustStock(Map<Integer, BigDecimal> deltas) {
+        if (deltas.isEmpty()) {
+            return List.of();
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Integer> ingredientIds = new ArrayList<>(deltas.size());
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+
+        for (Map.Entry<Integer, BigDecimal> entry : deltas.entrySet()) {
+            ingredientIds.add(entry.getKey());
+            batchArgs.add(new Object[]{entry.getValue(), now, entry.getKey(), entry.getValue()});
+        }
+
+        int[] updateCounts = jdbcTemplate.batchUpdate(ADJUST_STOCK_SQL, batchArgs, ADJUST_STOCK_TYPES);
+
+        // 0 rows → the WHERE guard failed (stock would have gone negative) or the id does not exist
+        List<Integer> rejected = new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == 0) {
+                rejected.add(ingredientIds.get(i));
+            }
+        }
+        return rejected;
+    }
+
+    @Override
+    public void applyStock(Map<Integer, BigDecimal> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(deltas.size());
+        deltas.forEach((ingredientId, delta) -> batchArgs.add(new Object[]{delta, now, ingredientId}));
+        jdbcTemplate.batchUpdate(APPLY_STOCK_SQL, batchArgs, APPLY_STOCK_TYPES);
+    }
+}
@@ -0,0 +1,41 @@
+package com.restaurant.inventorysystem.repository;
+
+import com.restaurant.inventorysystem.entity.InvoiceOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for InvoiceOutbox entity.
+ * Used by OrderDetailServiceImpl (insert), InvoiceOutboxRelay (drain) and
+ * InvoiceOutboxEndpoint (replay).
+ */
+@Repository
+public interface InvoiceOutboxRepository extends JpaRepository<InvoiceOutbox, Long> {
+
+    // Oldest rows first, one batch at a time (index: status, outbox_id)
+    List<InvoiceOutbox> findByStatusOrderByOutboxIdAsc(String status, Pageable pageable);
+
+    long countByStatus(String status);
+
+    // Marks a whole published batch in one statement
+    @Transactional
+    @Modifying
+    @Query("UPDATE InvoiceOutbox o SET o.status = 'SENT', o.sentDate = :sentDate, " +
+            "o.attempts = o.attempts + 1, o.lastError = NULL WHERE o.outboxId IN :outboxIds")
+    int markSent(@Param("outboxIds") Collection<Long> outboxIds, @Param("sentDate") LocalDateTime sentDate);
+
+    // Puts parked rows back in the queue with a fresh attempt budget
+    @Transactional
+    @Modifying
+    @Query("UPDATE InvoiceOutbox o SET o.status = 'PENDING', o.attempts = 0 WHERE o.status = 'FAILED'")
+    int requeueFailed();
+}
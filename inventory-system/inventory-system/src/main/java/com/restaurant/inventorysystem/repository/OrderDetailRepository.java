@@ -1,9 +1,17 @@
 package com.restaurant.inventorysystem.repository;
 
 import com.restaurant.inventorysystem.entity.OrderDetail;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repository interface for OrderDetail entity.
  * Handles CRUD operations on order_detail table.
@@ -14,4 +22,34 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface OrderDetailRepository extends JpaRepository<OrderDetail, Integer> {
 
+    /**
+     * One page of order headers, newest first, strictly after the keyset
+     * position (afterDate, afterId). Walks idx_order_detail_date
+     * (order_date, order_id) instead of counting/skipping rows like OFFSET.
+     * Pass a Pageable of (0, limit) only to cap the rows; no count query is run.
+     */
+    @Query("SELECT o.orderId AS orderId, o.orderNo AS orderNo, o.tableNo AS tableNo, o.orderType AS orderType, " +
+            "o.orderDate AS orderDate, o.customerName AS customerName, o.customerPhone AS customerPhone, " +
+            "o.totalAmount AS totalAmount, o.discount AS discount, o.taxAmount AS taxAmount, " +
+            "o.grandTotal AS grandTotal, o.paymentMode AS paymentMode, o.activeFlag AS activeFlag, " +
+            "o.createdDate AS createdDate " +
+            "FROM OrderDetail o " +
+            "WHERE o.orderDate >= :from AND o.orderDate < :to AND o.activeFlag IN :activeFlags " +
+            // the plain "<=" bound lets the index range scan start at the cursor;
+            // the OR alone would be applied as a filter while scanning from the top
+            "AND o.orderDate <= :afterDate " +
+            "AND (o.orderDate < :afterDate OR (o.orderDate = :afterDate AND o.orderId < :afterId)) " +
+            "ORDER BY o.orderDate DESC, o.orderId DESC")
+    List<OrderSummaryView> findPageBefore(@Param("from") LocalDateTime from,
+                                          @Param("to") LocalDateTime to,
+                                          @Param("activeFlags") Collection<Integer> activeFlags,
+                                          @Param("afterDate") LocalDateTime afterDate,
+                                          @Param("afterId") Integer afterId,
+                                          Pageable limit);
+
+    // One order with its users and lines in a single query (order details screen)
+    @Query("SELECT o FROM OrderDetail o LEFT JOIN FETCH o.createdBy LEFT JOIN FETCH o.modifiedBy " +
+            "LEFT JOIN FETCH o.orderDetailXrefList x LEFT JOIN FETCH x.createdBy LEFT JOIN FETCH x.modifiedBy " +
+            "WHERE o.orderId = :orderId")
+    Optional<OrderDetail> findWithLinesByOrderId(@Param("orderId") Integer orderId);
 }
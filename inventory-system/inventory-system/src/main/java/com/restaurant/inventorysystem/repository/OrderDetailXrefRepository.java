@@ -3,8 +3,11 @@ package com.restaurant.inventorysystem.repository;
 import com.restaurant.inventorysystem.entity.OrderDetailXref;
 import com.restaurant.inventorysystem.entity.OrderDetail;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -16,7 +19,7 @@ import java.util.List;
  * Date   : 12-Nov-2025
  */
 @Repository
-public interface OrderDetailXrefRepository extends JpaRepository<OrderDetailXref, Integer> {
+public interface OrderDetailXrefRepository extends JpaRepository<OrderDetailXref, Integer>, OrderDetailXrefRepositoryCustom {
 
     /**
      * Find all recipe items (xref) for a specific order.
@@ -26,4 +29,11 @@ public interface OrderDetailXrefRepository extends JpaRepository<OrderDetailXref
      */
     List<OrderDetailXref> findByOrderDetail(OrderDetail orderDetail);
     List<OrderDetailXref> findByOrderDetailOrderId(Integer orderId);
+
+    // Lines of a page of orders in one query (uses idx_order_detail_xref_order)
+    @Query("SELECT x.orderDetailXrefId AS orderDetailXrefId, x.orderDetail.orderId AS orderId, " +
+            "x.recipeMaster.recipeId AS recipeId, x.recipeName AS recipeName, " +
+            "x.quantity AS quantity, x.sellingPrice AS sellingPrice " +
+            "FROM OrderDetailXref x WHERE x.orderDetail.orderId IN :orderIds ORDER BY x.orderDetailXrefId")
+    List<OrderLineView> findLinesByOrderIds(@Param("orderIds") Collection<Integer> orderIds);
 }
@@ -0,0 +1,20 @@
+package com.restaurant.inventorysystem.repository;
+
+import com.restaurant.inventorysystem.entity.OrderDetailXref;
+
+import java.util.List;
+
+/**
+ * Description: Bulk write operations for order lines (order_detail_xref).
+ */
+public interface OrderDetailXrefRepositoryCustom {
+
+    /**
+     * Inserts all lines of an order with a single JDBC batch.
+     * The parent OrderDetail must already be saved (its orderId is used as FK).
+     * Generated ids are not read back into the passed entities.
+     *
+     * @param xrefs order lines to insert
+     */
+    void batchInsert(List<OrderDetailXref> xrefs);
+}
@@ -0,0 +1,69 @@
+package com.restaurant.inventorysystem.repository;
+
+import com.restaurant.inventorysystem.entity.OrderDetailXref;
+import com.restaurant.inventorysystem.entity.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Description: JDBC implementation of OrderDetailXrefRepositoryCustom.
+ * IDENTITY ids stop Hibernate from batching inserts, so order lines are
+ * written here as one batch inside the caller's transaction.
+ */
+public class OrderDetailXrefRepositoryCustomImpl implements OrderDetailXrefRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO order_detail_xref (order_id, recipe_id, recipe_name, quantity, selling_price, " +
+                    "created_by, modified_by, created_date, modified_date, active_flag, enable_flag) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int[] INSERT_TYPES = {
+            Types.INTEGER, Types.INTEGER, Types.VARCHAR, Types.DECIMAL, Types.DECIMAL,
+            Types.INTEGER, Types.INTEGER, Types.TIMESTAMP, Types.TIMESTAMP, Types.INTEGER, Types.INTEGER
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderDetailXrefRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void batchInsert(List<OrderDetailXref> xrefs) {
+        if (xrefs.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(xrefs.size());
+        for (OrderDetailXref xref : xrefs) {
+            batchArgs.add(new Object[]{
+                    xref.getOrderDetail().getOrderId(),
+                    xref.getRecipeMaster().getRecipeId(),
+                    xref.getRecipeName(),
+                    xref.getQuantity(),
+                    xref.getSellingPrice(),
+                    userId(xref.getCreatedBy()),
+                    userId(xref.getModifiedBy()),
+                    timestamp(xref.getCreatedDate()),
+                    timestamp(xref.getModifiedDate()),
+                    xref.getActiveFlag(),
+                    xref.getEnableFlag()
+            });
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs, INSERT_TYPES);
+    }
+
+    private static Integer userId(User user) {
+        return user != null ? user.getUserId() : null;
+    }
+
+    private static Timestamp timestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+}
@@ -0,0 +1,22 @@
+package com.restaurant.inventorysystem.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Description: One order line for the order listing (recipe name and price
+ * as copied onto the line), read without touching recipe_master.
+ */
+public interface OrderLineView {
+
+    Integer getOrderDetailXrefId();
+
+    Integer getOrderId();
+
+    Integer getRecipeId();
+
+    String getRecipeName();
+
+    BigDecimal getQuantity();
+
+    BigDecimal getSellingPrice();
+}
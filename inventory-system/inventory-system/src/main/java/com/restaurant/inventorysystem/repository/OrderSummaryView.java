@@ -0,0 +1,39 @@
+package com.restaurant.inventorysystem.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Description: Header columns of an order for the order listing, read
+ * without loading OrderDetail entities (and their user associations).
+ */
+public interface OrderSummaryView {
+
+    Integer getOrderId();
+
+    String getOrderNo();
+
+    String getTableNo();
+
+    String getOrderType();
+
+    LocalDateTime getOrderDate();
+
+    String getCustomerName();
+
+    String getCustomerPhone();
+
+    BigDecimal getTotalAmount();
+
+    BigDecimal getDiscount();
+
+    BigDecimal getTaxAmount();
+
+    BigDecimal getGrandTotal();
+
+    String getPaymentMode();
+
+    Integer getActiveFlag();
+
+    LocalDateTime getCreatedDate();
+}
@@ -0,0 +1,16 @@
+package com.restaurant.inventorysystem.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Description: Projection of one recipe → ingredient line (ids + quantity per portion).
+ * Lets an order be exploded into ingredient quantities with a single query.
+ */
+public interface RecipeIngredientQuantityView {
+
+    Integer getRecipeId();
+
+    Integer getIngredientId();
+
+    BigDecimal getQuantityValue();
+}
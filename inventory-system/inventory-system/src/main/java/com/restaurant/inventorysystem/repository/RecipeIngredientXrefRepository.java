@@ -3,6 +3,10 @@ package com.restaurant.inventorysystem.repository;
 import com.restaurant.inventorysystem.entity.RecipeIngredientXref;
 import com.restaurant.inventorysystem.entity.RecipeMaster;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -11,7 +15,8 @@ import java.util.List;
  * Description: Repository for RecipeIngredientXref.
  * Since: 07-Nov-2025
  */
-public interface RecipeIngredientXrefRepository extends JpaRepository<RecipeIngredientXref, Integer> {
+public interface RecipeIngredientXrefRepository extends JpaRepository<RecipeIngredientXref, Integer>,
+        RecipeIngredientXrefRepositoryCustom {
     List<RecipeIngredientXref> findByRecipe_RecipeId(Integer recipeId);
     void deleteByRecipe_RecipeId(Integer recipeId);
     List<RecipeIngredientXref> findByRecipe_RecipeIdAndActiveFlagAndEnableFlag(Integer recipeId,
@@ -19,5 +24,10 @@ public interface RecipeIngredientXrefRepository extends JpaRepository<RecipeIngr
                                                                                Integer enableFlag);
     List<RecipeIngredientXref> findByRecipe(RecipeMaster recipe);
 
+    // Ingredient quantities of several recipes in one query (order explosion)
+    @Query("SELECT x.recipe.recipeId AS recipeId, x.ingredient.ingredientId AS ingredientId, " +
+            "x.quantityValue AS quantityValue " +
+            "FROM RecipeIngredientXref x WHERE x.recipe.recipeId IN :recipeIds")
+    List<RecipeIngredientQuantityView> findQuantitiesByRecipeIds(@Param("recipeIds") Collection<Integer> recipeIds);
 
 }
@@ -0,0 +1,20 @@
+package com.restaurant.inventorysystem.repository;
+
+import com.restaurant.inventorysystem.entity.RecipeIngredientXref;
+
+import java.util.List;
+
+/**
+ * Description: Bulk write operations for recipe lines (recipe_master_ingredient_xref).
+ */
+public interface RecipeIngredientXrefRepositoryCustom {
+
+    /**
+     * Inserts all ingredient lines of a recipe with a single JDBC batch.
+     * The parent RecipeMaster must already be saved (its recipeId is used as FK).
+     * Generated ids are not read back into the passed entities.
+     *
+     * @param xrefs recipe lines to insert
+     */
+    void batchInsert(List<RecipeIngredientXref> xrefs);
+}
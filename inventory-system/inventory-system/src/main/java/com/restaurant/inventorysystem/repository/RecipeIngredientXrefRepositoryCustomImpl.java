@@ -0,0 +1,73 @@
+package com.restaurant.inventorysystem.repository;
+
+import com.restaurant.inventorysystem.entity.RecipeIngredientXref;
+import com.restaurant.inventorysystem.entity.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Description: JDBC implementation of RecipeIngredientXrefRepositoryCustom.
+ * IDENTITY ids stop Hibernate from batching inserts, so the lines of a
+ * saved / updated recipe go out as one batch inside the caller's transaction.
+ */
+public class RecipeIngredientXrefRepositoryCustomImpl implements RecipeIngredientXrefRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO recipe_master_ingredient_xref (recipe_id, ingredient_id, uom, smaller_unit, " +
+                    "base_unit_value, quantity_value, remarks, active_flag, enable_flag, " +
+                    "created_by, created_date, modified_by, modified_date) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int[] INSERT_TYPES = {
+            Types.INTEGER, Types.INTEGER, Types.VARCHAR, Types.VARCHAR,
+            Types.DECIMAL, Types.DECIMAL, Types.VARCHAR, Types.INTEGER, Types.INTEGER,
+            Types.INTEGER, Types.TIMESTAMP, Types.INTEGER, Types.TIMESTAMP
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public RecipeIngredientXrefRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void batchInsert(List<RecipeIngredientXref> xrefs) {
+        if (xrefs.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(xrefs.size());
+        for (RecipeIngredientXref xref : xrefs) {
+            batchArgs.add(new Object[]{
+                    xref.getRecipe().getRecipeId(),
+                    xref.getIngredient().getIngredientId(),
+                    xref.getUom(),
+                    xref.getSmallerUnit(),
+                    xref.getBaseUnitValue(),
+                    xref.getQuantityValue(),
+                    xref.getRemarks(),
+                    xref.getActiveFlag(),
+                    xref.getEnableFlag(),
+                    userId(xref.getCreatedBy()),
+                    timestamp(xref.getCreatedDate()),
+                    userId(xref.getModifiedBy()),
+                    timestamp(xref.getModifiedDate())
+            });
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs, INSERT_TYPES);
+    }
+
+    private static Integer userId(User user) {
+        return user != null ? user.getUserId() : null;
+    }
+
+    private static Timestamp timestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+}
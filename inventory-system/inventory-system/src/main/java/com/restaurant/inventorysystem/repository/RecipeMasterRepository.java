@@ -2,7 +2,10 @@ package com.restaurant.inventorysystem.repository;
 
 import com.restaurant.inventorysystem.entity.RecipeMaster;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,5 +23,22 @@ public interface RecipeMasterRepository extends JpaRepository<RecipeMaster, Inte
     boolean existsByRecipeCodeIgnoreCase(String recipeCode);
     boolean existsByRecipeCodeIgnoreCaseAndRecipeIdNot(String recipeCode, Integer recipeId);
     List<RecipeMaster> findByActiveFlagAndEnableFlag(Integer activeFlag, Integer enableFlag);
+    boolean existsByRecipeIdAndActiveFlagAndEnableFlag(Integer recipeId, Integer activeFlag, Integer enableFlag);
+
+    // Name + price of several recipes in one query (copied onto order lines)
+    @Query("SELECT r.recipeId AS recipeId, r.recipeName AS recipeName, r.sellingPrice AS sellingPrice " +
+            "FROM RecipeMaster r WHERE r.recipeId IN :recipeIds")
+    List<RecipePriceView> findPricesByRecipeIds(@Param("recipeIds") Collection<Integer> recipeIds);
+
+    // Name + price of every active recipe (RecipeBomCache warm-up)
+    @Query("SELECT r.recipeId AS recipeId, r.recipeName AS recipeName, r.sellingPrice AS sellingPrice " +
+            "FROM RecipeMaster r WHERE r.activeFlag = 1 AND r.enableFlag = 1")
+    List<RecipePriceView> findActivePrices();
+
+    // Recipe list with created / modified by users joined in, instead of one select per user
+    @Query("SELECT r FROM RecipeMaster r LEFT JOIN FETCH r.createdBy LEFT JOIN FETCH r.modifiedBy " +
+            "WHERE r.activeFlag = :activeFlag AND r.enableFlag = :enableFlag")
+    List<RecipeMaster> findWithUsersByActiveFlagAndEnableFlag(@Param("activeFlag") Integer activeFlag,
+                                                              @Param("enableFlag") Integer enableFlag);
 
 }
@@ -0,0 +1,16 @@
+package com.restaurant.inventorysystem.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Description: Projection with the recipe fields copied onto an order line
+ * (name + selling price), fetched without the eager user associations.
+ */
+public interface RecipePriceView {
+
+    Integer getRecipeId();
+
+    String getRecipeName();
+
+    BigDecimal getSellingPrice();
+}
@@ -2,8 +2,13 @@ package com.restaurant.inventorysystem.repository;
 
 import com.restaurant.inventorysystem.entity.StockIn;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 /**
  * Repository interface for Stock In module.
  * Provides CRUD operations using Spring Data JPA.
@@ -15,4 +20,10 @@ import org.springframework.stereotype.Repository;
 @Repository
 public interface StockInRepository extends JpaRepository<StockIn, Integer> {
 
+    // Stock-in rows with their ingredient (name / unit shown in the list), in one query
+    @Query("SELECT s FROM StockIn s JOIN FETCH s.ingredient")
+    List<StockIn> findAllWithIngredient();
+
+    @Query("SELECT s FROM StockIn s JOIN FETCH s.ingredient WHERE s.stockInId = :stockInId")
+    Optional<StockIn> findWithIngredientById(@Param("stockInId") Integer stockInId);
 }
@@ -0,0 +1,40 @@
+package com.restaurant.inventorysystem.repository;
+
+import com.restaurant.inventorysystem.entity.StockMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Description: Stock ledger. Rows are appended (batchInsert) and only
+ * their applied flag is updated, by the WRITE_BEHIND flusher
+ * (markApplied); the queries below sum them over a time window (after, upTo].
+ */
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long>, StockMovementRepositoryCustom {
+
+    /**
+     * Net change of one ingredient in (after, upTo]; one range scan on
+     * idx_stock_movement_ingredient.
+     */
+    @Query("SELECT m.ingredientId AS ingredientId, SUM(m.quantity) AS quantity, COUNT(m) AS movements " +
+            "FROM StockMovement m " +
+            "WHERE m.ingredientId = :ingredientId AND m.movementDate > :after AND m.movementDate <= :upTo " +
+            "GROUP BY m.ingredientId")
+    List<StockMovementSumView> sumForIngredient(@Param("ingredientId") Integer ingredientId,
+                                                @Param("after") LocalDateTime after,
+                                                @Param("upTo") LocalDateTime upTo);
+
+    /**
+     * Net change per ingredient in (after, upTo]; one range scan on
+     * idx_stock_movement_date.
+     */
+    @Query("SELECT m.ingredientId AS ingredientId, SUM(m.quantity) AS quantity, COUNT(m) AS movements " +
+            "FROM StockMovement m " +
+            "WHERE m.movementDate > :after AND m.movementDate <= :upTo " +
+            "GROUP BY m.ingredientId")
+    List<StockMovementSumView> sumByIngredient(@Param("after") LocalDateTime after,
+                                               @Param("upTo") LocalDateTime upTo);
+}
@@ -0,0 +1,60 @@
+package com.restaurant.inventorysystem.repository;
+
+import com.restaurant.inventorysystem.entity.StockMovement;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Description: Bulk writes to the stock ledger (stock_movement).
+ */
+public interface StockMovementRepositoryCustom {
+
+    /**
+     * Inserts the movements with a single JDBC batch, inside the caller's
+     * transaction. Generated ids are not read back.
+     *
+     * @param movements ledger rows to append
+     */
+    void batchInsert(List<StockMovement> movements);
+
+    /**
+     * Appends an OPENING movement with the current stock of every
+     * ingredient that has stock but no ledger rows yet.
+     *
+     * @return number of ingredients opened
+     */
+    int insertOpeningBalances();
+
+    /**
+     * Stock of an ingredient including the WRITE_BEHIND rows not yet
+     * applied: ingredients_master + unapplied movements, in one statement.
+     *
+     * @return empty if the ingredient does not exist
+     */
+    Optional<BigDecimal> findLiveStock(Integer ingredientId);
+
+    /**
+     * findLiveStock for every ingredient, in one statement.
+     *
+     * @return ingredientId → live stock (subunits)
+     */
+    Map<Integer, BigDecimal> findAllLiveStock();
+
+    /**
+     * Oldest unapplied movements, locked (SELECT ... FOR UPDATE) until the
+     * caller's transaction ends. Only id, ingredient and quantity are read.
+     *
+     * @param limit maximum number of rows
+     */
+    List<StockMovement> lockPending(int limit);
+
+    /**
+     * Marks movements as applied to ingredients_master.
+     *
+     * @return number of rows changed
+     */
+    int markApplied(List<Long> movementIds);
+}
@@ -0,0 +1,129 @@
+package com.restaurant.inventorysystem.repository;
+
+import com.restaurant.inventorysystem.entity.StockMovement;
+import com.restaurant.inventorysystem.stock.StockMovementType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Description: JDBC implementation of StockMovementRepositoryCustom.
+ * IDENTITY ids stop Hibernate from batching inserts, so the ledger rows
+ * of one stock change go out as one batch.
+ */
+public class StockMovementRepositoryCustomImpl implements StockMovementRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO stock_movement (ingredient_id, movement_type, quantity, reference_no, movement_date, " +
+                    "applied) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final int[] INSERT_TYPES = {
+            Types.INTEGER, Types.VARCHAR, Types.DECIMAL, Types.VARCHAR, Types.TIMESTAMP, Types.BOOLEAN
+    };
+
+    private static final String OPENING_SQL =
+            "INSERT INTO stock_movement (ingredient_id, movement_type, quantity, reference_no, movement_date, " +
+                    "applied) SELECT i.ingredient_id, ?, i.current_stock_subunit, NULL, ?, TRUE FROM ingredients_master i " +
+                    "WHERE i.current_stock_subunit <> 0 " +
+                    "AND NOT EXISTS (SELECT 1 FROM stock_movement m WHERE m.ingredient_id = i.ingredient_id)";
+
+    private static final String LIVE_STOCK_SQL =
+            "SELECT i.current_stock_subunit + COALESCE((SELECT SUM(m.quantity) FROM stock_movement m " +
+                    "WHERE m.applied = FALSE AND m.ingredient_id = i.ingredient_id), 0) " +
+                    "FROM ingredients_master i WHERE i.ingredient_id = ?";
+
+    private static final String ALL_LIVE_STOCK_SQL =
+            "SELECT i.ingredient_id, i.current_stock_subunit + COALESCE(p.quantity, 0) AS live_stock " +
+                    "FROM ingredients_master i LEFT JOIN (SELECT ingredient_id, SUM(quantity) AS quantity " +
+                    "FROM stock_movement WHERE applied = FALSE GROUP BY ingredient_id) p " +
+                    "ON p.ingredient_id = i.ingredient_id";
+
+    private static final String LOCK_PENDING_SQL =
+            "SELECT movement_id, ingredient_id, quantity FROM stock_movement WHERE applied = FALSE " +
+                    "ORDER BY movement_id LIMIT ? FOR UPDATE";
+
+    private static final String MARK_APPLIED_SQL =
+            "UPDATE stock_movement SET applied = TRUE WHERE movement_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockMovementRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void batchInsert(List<StockMovement> movements) {
+        if (movements.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(movements.size());
+        for (StockMovement movement : movements) {
+            batchArgs.add(new Object[]{
+                    movement.getIngredientId(),
+                    movement.getMovementType().name(),
+                    movement.getQuantity(),
+                    movement.getReferenceNo(),
+                    Timestamp.valueOf(movement.getMovementDate()),
+                    movement.isApplied()
+            });
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs, INSERT_TYPES);
+    }
+
+    @Override
+    public int insertOpeningBalances() {
+        return jdbcTemplate.update(OPENING_SQL, StockMovementType.OPENING.name(), Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    @Override
+    public Optional<BigDecimal> findLiveStock(Integer ingredientId) {
+        List<BigDecimal> stock = jdbcTemplate.queryForList(LIVE_STOCK_SQL, BigDecimal.class, ingredientId);
+        return stock.stream().findFirst();
+    }
+
+    @Override
+    public Map<Integer, BigDecimal> findAllLiveStock() {
+        Map<Integer, BigDecimal> stock = new HashMap<>();
+        jdbcTemplate.query(ALL_LIVE_STOCK_SQL,
+                rs -> { stock.put(rs.getInt("ingredient_id"), rs.getBigDecimal("live_stock")); });
+        return stock;
+    }
+
+    @Override
+    public List<StockMovement> lockPending(int limit) {
+        return jdbcTemplate.query(LOCK_PENDING_SQL, (rs, rowNum) -> {
+            StockMovement movement = new StockMovement();
+            movement.setMovementId(rs.getLong("movement_id"));
+            movement.setIngredientId(rs.getInt("ingredient_id"));
+            movement.setQuantity(rs.getBigDecimal("quantity"));
+            movement.setApplied(false);
+            return movement;
+        }, limit);
+    }
+
+    @Override
+    public int markApplied(List<Long> movementIds) {
+        if (movementIds.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> batchArgs = new ArrayList<>(movementIds.size());
+        for (Long movementId : movementIds) {
+            batchArgs.add(new Object[]{movementId});
+        }
+        int changed = 0;
+        for (int count : jdbcTemplate.batchUpdate(MARK_APPLIED_SQL, batchArgs, new int[]{Types.BIGINT})) {
+            changed += count;
+        }
+        return changed;
+    }
+}
@@ -0,0 +1,16 @@
+package com.restaurant.inventorysystem.repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Description: Net quantity and number of stock_movement rows of one
+ * ingredient over a time window.
+ */
+public interface StockMovementSumView {
+
+    Integer getIngredientId();
+
+    BigDecimal getQuantity();
+
+    Long getMovements();
+}
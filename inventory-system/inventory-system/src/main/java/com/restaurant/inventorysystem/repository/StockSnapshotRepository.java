@@ -0,0 +1,36 @@
+package com.restaurant.inventorysystem.repository;
+
+import com.restaurant.inventorysystem.entity.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Description: Periodic per-ingredient stock snapshots.
+ */
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long>, StockSnapshotRepositoryCustom {
+
+    // Point lookups below are written as ORDER BY ... DESC LIMIT 1 (one index
+    // dive on MySQL and H2; H2 answers MAX() with a range scan).
+
+    /** Latest snapshot run at or before the given time (null if none). */
+    @Query(value = "SELECT snapshot_at FROM stock_snapshot WHERE snapshot_at <= :at " +
+            "ORDER BY snapshot_at DESC LIMIT 1", nativeQuery = true)
+    LocalDateTime findLatestSnapshotAt(@Param("at") LocalDateTime at);
+
+    /** Latest snapshot run overall (null if none). */
+    @Query(value = "SELECT snapshot_at FROM stock_snapshot ORDER BY snapshot_at DESC LIMIT 1", nativeQuery = true)
+    LocalDateTime findLatestSnapshotAt();
+
+    /** All rows of one snapshot run. */
+    List<StockSnapshot> findBySnapshotAt(LocalDateTime snapshotAt);
+
+    /** Nearest snapshot of one ingredient at or before the given time. */
+    @Query(value = "SELECT * FROM stock_snapshot WHERE ingredient_id = :ingredientId AND snapshot_at <= :at " +
+            "ORDER BY snapshot_at DESC LIMIT 1", nativeQuery = true)
+    Optional<StockSnapshot> findNearest(@Param("ingredientId") Integer ingredientId, @Param("at") LocalDateTime at);
+}
@@ -0,0 +1,19 @@
+package com.restaurant.inventorysystem.repository;
+
+import com.restaurant.inventorysystem.entity.StockSnapshot;
+
+import java.util.List;
+
+/**
+ * Description: Bulk writes to stock_snapshot.
+ */
+public interface StockSnapshotRepositoryCustom {
+
+    /**
+     * Inserts a snapshot run with a single JDBC batch, inside the caller's
+     * transaction. Generated ids are not read back.
+     *
+     * @param snapshots rows of one snapshot run
+     */
+    void batchInsert(List<StockSnapshot> snapshots);
+}
@@ -0,0 +1,46 @@
+package com.restaurant.inventorysystem.repository;
+
+import com.restaurant.inventorysystem.entity.StockSnapshot;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Description: JDBC implementation of StockSnapshotRepositoryCustom.
+ * IDENTITY ids stop Hibernate from batching inserts, so a snapshot run
+ * (one row per ingredient) goes out as one batch.
+ */
+public class StockSnapshotRepositoryCustomImpl implements StockSnapshotRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO stock_snapshot (ingredient_id, snapshot_at, balance) VALUES (?, ?, ?)";
+
+    private static final int[] INSERT_TYPES = {Types.INTEGER, Types.TIMESTAMP, Types.DECIMAL};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockSnapshotRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void batchInsert(List<StockSnapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(snapshots.size());
+        for (StockSnapshot snapshot : snapshots) {
+            batchArgs.add(new Object[]{
+                    snapshot.getIngredientId(),
+                    Timestamp.valueOf(snapshot.getSnapshotAt()),
+                    snapshot.getBalance()
+            });
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs, INSERT_TYPES);
+    }
+}
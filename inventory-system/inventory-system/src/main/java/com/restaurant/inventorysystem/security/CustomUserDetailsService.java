@@ -29,8 +29,10 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         //   Fetch user from DB (your entity)
-        User user = userRepository.findByUserName(username)
-                ;
+        User user = userRepository.findByUserName(username);
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found: " + username);
+        }
 
         //   Return Spring Security's User (not your entity)
         return org.springframework.security.core.userdetails.User
@@ -8,7 +8,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -23,6 +22,10 @@ import java.io.IOException;
  *                  the token, validates it, and sets authentication in the
  *                  SecurityContext if the token is valid.
  *
+ *                  Verified tokens (VerifiedTokenCache) and users (UserDetailsCache)
+ *                  are cached: a repeat request costs a hash and two map lookups,
+ *                  no signature check and no database query.
+ *
  *  Author        : Ram Choudhary
  *  Created Date  : 13-Nov-2025
  *  Version       : 1.0
@@ -32,10 +35,10 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private VerifiedTokenCache verifiedTokenCache;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private UserDetailsCache userDetailsCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -46,12 +49,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
-            String username = jwtUtil.extractUsername(token);
+            // null: malformed, forged or expired → request stays anonymous
+            String username = verifiedTokenCache.verify(token);
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                UserDetails userDetails = userDetailsCache.get(username);
 
-                if (jwtUtil.validateToken(token)) {
+                if (userDetails != null) {
                     UsernamePasswordAuthenticationToken authentication =
                             new UsernamePasswordAuthenticationToken(
                                     userDetails, null, userDetails.getAuthorities());
@@ -62,7 +66,9 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                 }
             }
         }
-        System.out.println("JWT Filter triggered for URL: " + request.getRequestURI());
+        if (logger.isDebugEnabled()) {
+            logger.debug("JWT Filter triggered for URL: " + request.getRequestURI());
+        }
 
         filterChain.doFilter(request, response);
     }
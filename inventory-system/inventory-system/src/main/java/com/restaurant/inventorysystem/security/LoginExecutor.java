@@ -0,0 +1,99 @@
+package com.restaurant.inventorysystem.security;
+
+import com.restaurant.inventorysystem.exception.LoginQueueFullException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * ------------------------------------------------------------
+ * COMPONENT: LoginExecutor
+ * ------------------------------------------------------------
+ * Runs logins (user lookup + BCrypt) on a small dedicated pool instead of
+ * the request thread, so a login burst is capped at auth.login.threads
+ * cores and order requests keep the rest:
+ *
+ *  1️⃣ submit → queued FIFO (auth.login.queue-capacity); beyond that the
+ *              login is refused with 503 at once
+ *  2️⃣ wait   → a login that waited longer than auth.login.queue-timeout
+ *              is dropped unprocessed (its client has likely given up)
+ *  3️⃣ run    → on a platform worker thread; the request thread is
+ *              released meanwhile (async MVC response)
+ *
+ * Fairness between senders comes from LoginThrottle, checked before
+ * anything is queued.
+ *
+ * Metrics: auth.login.queue.depth / active, auth.login.queue.wait
+ * Properties: auth.login.threads / queue-capacity / queue-timeout
+ */
+@Component
+public class LoginExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long queueTimeoutNanos;
+    private final Timer queueWait;
+
+    public LoginExecutor(MeterRegistry meterRegistry,
+                         @Value("${auth.login.threads:2}") int threads,
+                         @Value("${auth.login.queue-capacity:200}") int queueCapacity,
+                         @Value("${auth.login.queue-timeout:10s}") Duration queueTimeout) {
+        // BCrypt is pure CPU: platform threads, whatever the thread model
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity, true),
+                Thread.ofPlatform().name("login-", 1).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.queueTimeoutNanos = queueTimeout.toNanos();
+
+        Gauge.builder("auth.login.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Logins waiting for a login worker").register(meterRegistry);
+        Gauge.builder("auth.login.queue.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Logins being processed").register(meterRegistry);
+        this.queueWait = Timer.builder("auth.login.queue.wait")
+                .description("Time logins spent queued").register(meterRegistry);
+    }
+
+    /**
+     * Queues a login.
+     *
+     * @throws LoginQueueFullException if the queue is full (the future
+     *         also fails with it if the login waited too long)
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> login) {
+        long queuedAt = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                long waited = System.nanoTime() - queuedAt;
+                queueWait.record(waited, TimeUnit.NANOSECONDS);
+                if (waited > queueTimeoutNanos) {
+                    result.completeExceptionally(new LoginQueueFullException("Login waited too long in the queue"));
+                    return;
+                }
+                try {
+                    result.complete(login.get());
+                } catch (RuntimeException e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            throw new LoginQueueFullException("Too many logins in progress, try again shortly");
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
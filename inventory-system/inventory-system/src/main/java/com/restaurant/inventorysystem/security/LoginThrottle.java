@@ -0,0 +1,131 @@
+package com.restaurant.inventorysystem.security;
+
+import com.restaurant.inventorysystem.exception.LoginRateLimitedException;
+import com.restaurant.inventorysystem.util.ExpiringCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * ------------------------------------------------------------
+ * COMPONENT: LoginThrottle
+ * ------------------------------------------------------------
+ * Token buckets per user name and per client address, checked before a
+ * login is queued for password hashing:
+ *
+ *  1️⃣ User    : a small burst, then one attempt per refill interval
+ *               (password guessing against one account)
+ *  2️⃣ Address : a large burst (a whole shift logging in from one
+ *               restaurant's NAT address), then a steady rate
+ *               (credential stuffing from one source)
+ *
+ * Each attempt takes a token from both; an empty bucket refuses the
+ * login with 429 and the seconds until its next token. An idle bucket is
+ * dropped once it would be full again, so memory holds only recent
+ * senders (auth.login.limit.max-tracked per kind).
+ *
+ * Metrics: auth.login.limited{limit=user|address}
+ * Properties: auth.login.limit.user.* / address.* / max-tracked
+ */
+@Component
+public class LoginThrottle {
+
+    private final Limit userLimit;
+    private final Limit addressLimit;
+    private final ExpiringCache<String, TokenBucket> userBuckets;
+    private final ExpiringCache<String, TokenBucket> addressBuckets;
+    private final Counter userLimited;
+    private final Counter addressLimited;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${auth.login.limit.user.capacity:5}") int userCapacity,
+                         @Value("${auth.login.limit.user.refill:12s}") Duration userRefill,
+                         @Value("${auth.login.limit.address.capacity:200}") int addressCapacity,
+                         @Value("${auth.login.limit.address.refill:500ms}") Duration addressRefill,
+                         @Value("${auth.login.limit.max-tracked:10000}") int maxTracked) {
+        this.userLimit = new Limit(userCapacity, userRefill.toMillis());
+        this.addressLimit = new Limit(addressCapacity, addressRefill.toMillis());
+        this.userBuckets = new ExpiringCache<>("auth.login.limit.user", maxTracked, meterRegistry);
+        this.addressBuckets = new ExpiringCache<>("auth.login.limit.address", maxTracked, meterRegistry);
+        this.userLimited = Counter.builder("auth.login.limited").tag("limit", "user")
+                .description("Logins refused by a rate limit").register(meterRegistry);
+        this.addressLimited = Counter.builder("auth.login.limited").tag("limit", "address")
+                .description("Logins refused by a rate limit").register(meterRegistry);
+    }
+
+    /**
+     * Takes one attempt from the address's and the user name's bucket.
+     *
+     * @throws LoginRateLimitedException if either is empty
+     */
+    public void acquire(String userName, String address) {
+        long now = System.currentTimeMillis();
+
+        long waitMillis = take(addressBuckets, addressLimit, address, now);
+        if (waitMillis > 0) {
+            addressLimited.increment();
+            throw new LoginRateLimitedException("Too many login attempts from this address", seconds(waitMillis));
+        }
+        if (userName != null) {
+            waitMillis = take(userBuckets, userLimit, userName.toLowerCase(Locale.ROOT), now);
+            if (waitMillis > 0) {
+                userLimited.increment();
+                throw new LoginRateLimitedException("Too many login attempts for this user", seconds(waitMillis));
+            }
+        }
+    }
+
+    // ---------------------------------------------------------------
+
+    private record Limit(int capacity, long refillMillis) {
+    }
+
+    /** @return 0 if a token was taken, else millis until the next one */
+    private static long take(ExpiringCache<String, TokenBucket> buckets, Limit limit, String key, long now) {
+        TokenBucket bucket = buckets.get(key, now);
+        if (bucket == null) {
+            // two first attempts racing may each start a bucket: one extra attempt, at most
+            bucket = new TokenBucket(limit, now);
+        }
+        long waitMillis = bucket.take(now);
+        buckets.put(key, bucket, bucket.fullAt(), now);
+        return waitMillis;
+    }
+
+    private static long seconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+
+    /** Tokens are counted in millis of refill time, so refilling is exact integer arithmetic. */
+    private static final class TokenBucket {
+
+        private final long refillMillis;
+        private final long capacityMillis;
+        // the bucket is full at this instant; each token taken moves it one refill interval later
+        private long fullAt;
+
+        TokenBucket(Limit limit, long now) {
+            this.refillMillis = Math.max(1, limit.refillMillis());
+            this.capacityMillis = (long) limit.capacity() * refillMillis;
+            this.fullAt = now;
+        }
+
+        synchronized long take(long now) {
+            long next = Math.max(fullAt, now) + refillMillis;
+            // taking a token must not push fullAt beyond a full bucket's worth of refill
+            if (next - now > capacityMillis) {
+                return next - now - capacityMillis;
+            }
+            fullAt = next;
+            return 0;
+        }
+
+        synchronized long fullAt() {
+            return fullAt;
+        }
+    }
+}
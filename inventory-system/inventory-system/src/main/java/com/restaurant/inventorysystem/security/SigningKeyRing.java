@@ -0,0 +1,221 @@
+package com.restaurant.inventorysystem.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import io.jsonwebtoken.security.WeakKeyException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * ------------------------------------------------------------
+ * COMPONENT: SigningKeyRing
+ * ------------------------------------------------------------
+ * HMAC keys for signing and verifying JWTs, loaded from a keystore file
+ * shared by every node, so tokens survive restarts and any node accepts
+ * any other node's tokens (no sticky sessions).
+ *
+ *  1️⃣ Keys    : every secret-key entry of the keystore; its alias is the
+ *               key id ("kid" header of the tokens it signs)
+ *  2️⃣ Sign    : newest key whose entry is older than the activation
+ *               delay (the oldest key is always active), so every node
+ *               has loaded a new key before any node signs with it
+ *  3️⃣ Verify  : the key named by the token's kid, looked up in an
+ *               immutable map; any key in the keystore verifies, so
+ *               tokens of the previous key stay valid until they expire
+ *  4️⃣ Reload  : the file is re-read when it changes; a key removed from
+ *               it is withdrawn (SigningKeysWithdrawnEvent) and its tokens
+ *               are rejected from then on
+ *
+ * Rotation: add a key (keytool -genseckey -keyalg HmacSHA256 -keysize 256
+ * -storetype PKCS12 -alias <kid>) to the file on every node; it signs
+ * after the activation delay. Remove the old key once its last token has
+ * expired (activation delay + token lifetime).
+ *
+ * Without a keystore a random key is generated at startup (development
+ * only: tokens die with the process and are node-local).
+ *
+ * Metric: auth.jwt.keys
+ * Properties: auth.jwt.keystore.path / password / type / reload-interval-ms,
+ *             auth.jwt.key-activation-delay
+ */
+@Component
+public class SigningKeyRing extends SigningKeyResolverAdapter {
+
+    private static final Logger logger = LoggerFactory.getLogger(SigningKeyRing.class);
+
+    /** One key of the ring; {@code activeFrom} is when it may start signing. */
+    public record SigningKey(String kid, SecretKey key, Instant activeFrom) {
+    }
+
+    // immutable, replaced as a whole on reload
+    private record Ring(Map<String, SigningKey> byKid, List<SigningKey> byActivation, long lastModified) {
+    }
+
+    private final Path path;
+    private final char[] password;
+    private final String type;
+    private final Duration activationDelay;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile Ring ring;
+
+    public SigningKeyRing(@Value("${auth.jwt.keystore.path:}") String path,
+                          @Value("${auth.jwt.keystore.password:}") String password,
+                          @Value("${auth.jwt.keystore.type:PKCS12}") String type,
+                          @Value("${auth.jwt.key-activation-delay:10m}") Duration activationDelay,
+                          ApplicationEventPublisher eventPublisher,
+                          MeterRegistry meterRegistry) {
+        this.path = path.isBlank() ? null : Path.of(path);
+        this.password = password.toCharArray();
+        this.type = type;
+        this.activationDelay = activationDelay;
+        this.eventPublisher = eventPublisher;
+
+        if (this.path == null) {
+            logger.warn("auth.jwt.keystore.path not set: signing with a random key, "
+                    + "tokens are lost on restart and rejected by other nodes");
+            this.ring = ephemeral();
+        } else {
+            // fail startup on a missing or unreadable keystore
+            this.ring = load();
+            logger.info("Loaded {} JWT signing key(s) from {}: {}", ring.byKid().size(), this.path, ring.byKid().keySet());
+        }
+
+        Gauge.builder("auth.jwt.keys", this, keyRing -> keyRing.ring.byKid().size())
+                .description("JWT keys accepted for verification").register(meterRegistry);
+    }
+
+    /** Key to sign new tokens with. */
+    public SigningKey signingKey() {
+        return signingKeyAt(Instant.now());
+    }
+
+    SigningKey signingKeyAt(Instant now) {
+        List<SigningKey> keys = ring.byActivation();
+        for (int i = keys.size() - 1; i > 0; i--) {
+            if (!keys.get(i).activeFrom().isAfter(now)) {
+                return keys.get(i);
+            }
+        }
+        return keys.get(0);
+    }
+
+    /** Ids of the keys accepted for verification. */
+    public Set<String> kids() {
+        return ring.byKid().keySet();
+    }
+
+    /**
+     * Called by the JWT parser with the token's header, before the
+     * signature check.
+     *
+     * @throws SignatureException if the token names no kid or an unknown one
+     */
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String kid = header.getKeyId();
+        SigningKey key = kid != null ? ring.byKid().get(kid) : null;
+        if (key == null) {
+            throw new SignatureException("Unknown JWT signing key: " + kid);
+        }
+        return key.key();
+    }
+
+    /** Re-reads the keystore if the file changed; a broken file keeps the current keys. */
+    @Scheduled(fixedDelayString = "${auth.jwt.keystore.reload-interval-ms:60000}")
+    public void reloadIfChanged() {
+        if (path == null) {
+            return;
+        }
+        Ring current = ring;
+        try {
+            if (Files.getLastModifiedTime(path).toMillis() == current.lastModified()) {
+                return;
+            }
+            Ring loaded = load();
+            ring = loaded;
+
+            Set<String> withdrawn = new HashSet<>(current.byKid().keySet());
+            withdrawn.removeAll(loaded.byKid().keySet());
+            logger.info("Reloaded JWT signing keys from {}: {}, withdrawn {}", path, loaded.byKid().keySet(), withdrawn);
+            if (!withdrawn.isEmpty()) {
+                eventPublisher.publishEvent(new SigningKeysWithdrawnEvent(withdrawn));
+            }
+        } catch (IOException | IllegalStateException e) {
+            logger.error("Could not reload JWT signing keys from {}, keeping {}", path, current.byKid().keySet(), e);
+        }
+    }
+
+    // ---------------------------------------------------------------
+
+    private Ring load() {
+        try (InputStream in = Files.newInputStream(path)) {
+            long lastModified = Files.getLastModifiedTime(path).toMillis();
+            KeyStore keyStore = KeyStore.getInstance(type);
+            keyStore.load(in, password);
+
+            List<SigningKey> keys = new ArrayList<>();
+            for (String alias : Collections.list(keyStore.aliases())) {
+                if (!keyStore.entryInstanceOf(alias, KeyStore.SecretKeyEntry.class)) {
+                    continue;
+                }
+                Key key = keyStore.getKey(alias, password);
+                Instant created = keyStore.getCreationDate(alias).toInstant();
+                try {
+                    keys.add(new SigningKey(alias, Keys.hmacShaKeyFor(key.getEncoded()), created.plus(activationDelay)));
+                } catch (WeakKeyException e) {
+                    throw new IllegalStateException("JWT signing key '" + alias + "' is shorter than 256 bits", e);
+                }
+            }
+            if (keys.isEmpty()) {
+                throw new IllegalStateException("No secret key entries in " + path);
+            }
+            return index(keys, lastModified);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot read JWT keystore " + path, e);
+        }
+    }
+
+    private static Ring ephemeral() {
+        SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        return index(List.of(new SigningKey("ephemeral-" + UUID.randomUUID(), key, Instant.EPOCH)), 0);
+    }
+
+    private static Ring index(List<SigningKey> keys, long lastModified) {
+        List<SigningKey> byActivation = new ArrayList<>(keys);
+        byActivation.sort(Comparator.comparing(SigningKey::activeFrom).thenComparing(SigningKey::kid));
+        Map<String, SigningKey> byKid = new LinkedHashMap<>();
+        byActivation.forEach(key -> byKid.put(key.kid(), key));
+        return new Ring(Collections.unmodifiableMap(byKid), List.copyOf(byActivation), lastModified);
+    }
+}
@@ -0,0 +1,24 @@
+package com.restaurant.inventorysystem.security;
+
+import java.util.Set;
+
+/**
+ * ------------------------------------------------------------
+ * EVENT: SigningKeysWithdrawnEvent
+ * ------------------------------------------------------------
+ * Published by SigningKeyRing when keys disappear from the keystore.
+ * Tokens they signed no longer verify; VerifiedTokenCache forgets the
+ * ones it already accepted.
+ */
+public class SigningKeysWithdrawnEvent {
+
+    private final Set<String> kids;
+
+    public SigningKeysWithdrawnEvent(Set<String> kids) {
+        this.kids = Set.copyOf(kids);
+    }
+
+    public Set<String> getKids() {
+        return kids;
+    }
+}
@@ -0,0 +1,22 @@
+package com.restaurant.inventorysystem.security;
+
+/**
+ * ------------------------------------------------------------
+ * EVENT: UserChangedEvent
+ * ------------------------------------------------------------
+ * Published when a user is registered, updated, disabled or deleted.
+ * UserDetailsCache drops the user once the surrounding transaction has
+ * committed, so the next request reads the committed user.
+ */
+public class UserChangedEvent {
+
+    private final String userName;
+
+    public UserChangedEvent(String userName) {
+        this.userName = userName;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+}
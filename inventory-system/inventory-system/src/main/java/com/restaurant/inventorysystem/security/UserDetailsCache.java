@@ -0,0 +1,89 @@
+package com.restaurant.inventorysystem.security;
+
+import com.restaurant.inventorysystem.util.ExpiringCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * ------------------------------------------------------------
+ * COMPONENT: UserDetailsCache
+ * ------------------------------------------------------------
+ * UserDetails by user name, so an authenticated request does not read
+ * the users table.
+ *
+ *  1️⃣ Read       : lock-free lookup; a miss loads the user through
+ *                  UserDetailsService (1 query) and keeps it for the TTL
+ *  2️⃣ Invalidate : UserChangedEvent drops the user AFTER_COMMIT; the TTL
+ *                  bounds staleness for changes made outside the app
+ *
+ * Every invalidation bumps a version number; a load only installs its
+ * result if the version did not move while it was reading the DB (same
+ * scheme as RecipeBomCache). Unknown users are not cached.
+ *
+ * Metrics: auth.user.cache.hits / misses / evictions / invalidations / size
+ * Properties: auth.user-cache.max-size / ttl
+ */
+@Component
+public class UserDetailsCache {
+
+    private final UserDetailsService userDetailsService;
+    private final long ttlMillis;
+    private final ExpiringCache<String, UserDetails> users;
+    private final Counter invalidations;
+    private volatile long version;
+
+    public UserDetailsCache(UserDetailsService userDetailsService,
+                            MeterRegistry meterRegistry,
+                            @Value("${auth.user-cache.max-size:1000}") int maxSize,
+                            @Value("${auth.user-cache.ttl:5m}") Duration ttl) {
+        this.userDetailsService = userDetailsService;
+        this.ttlMillis = ttl.toMillis();
+        this.users = new ExpiringCache<>("auth.user.cache", maxSize, meterRegistry);
+        this.invalidations = Counter.builder("auth.user.cache.invalidations")
+                .description("Users dropped after a committed change").register(meterRegistry);
+    }
+
+    /** @return the user, or null if no such user exists */
+    public UserDetails get(String userName) {
+        long now = System.currentTimeMillis();
+        UserDetails user = users.get(userName, now);
+        if (user != null) {
+            return user;
+        }
+
+        long seenVersion = version;
+        try {
+            user = userDetailsService.loadUserByUsername(userName);
+        } catch (UsernameNotFoundException e) {
+            return null;
+        }
+        synchronized (this) {
+            if (version == seenVersion) {
+                users.put(userName, user, now + ttlMillis, now);
+            }
+        }
+        return user;
+    }
+
+    public void evict(String userName) {
+        synchronized (this) {
+            version++;
+            users.invalidate(userName);
+        }
+        invalidations.increment();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evict(event.getUserName());
+    }
+}
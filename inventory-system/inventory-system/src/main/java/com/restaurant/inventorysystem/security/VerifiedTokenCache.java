@@ -0,0 +1,97 @@
+package com.restaurant.inventorysystem.security;
+
+import com.restaurant.inventorysystem.util.ExpiringCache;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * ------------------------------------------------------------
+ * COMPONENT: VerifiedTokenCache
+ * ------------------------------------------------------------
+ * JWTs whose signature was already checked, so a till sending the same
+ * token on every call pays for one verification per token, not one per
+ * request.
+ *
+ *  1️⃣ Key   : SHA-256 of the token (the bearer token itself is never
+ *             kept in memory)
+ *  2️⃣ Hit   : user name of the token, no parsing, no signature check
+ *  3️⃣ Miss  : JwtUtil.parseClaims once, cached until the token's own
+ *             expiry; invalid tokens are not cached
+ *  4️⃣ Reset : everything, when SigningKeyRing withdraws a key
+ *
+ * Metrics: auth.token.cache.hits / misses / evictions / size
+ * Property: auth.token-cache.max-size
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final ExpiringCache<String, String> userNames;
+
+    public VerifiedTokenCache(JwtUtil jwtUtil,
+                              MeterRegistry meterRegistry,
+                              @Value("${auth.token-cache.max-size:10000}") int maxSize) {
+        this.jwtUtil = jwtUtil;
+        this.userNames = new ExpiringCache<>("auth.token.cache", maxSize, meterRegistry);
+    }
+
+    /**
+     * @return the user name (subject) of a valid token; null if the token
+     *         is malformed, forged or expired
+     */
+    public String verify(String token) {
+        long now = System.currentTimeMillis();
+        String key = hash(token);
+        String userName = userNames.get(key, now);
+        if (userName != null) {
+            return userName;
+        }
+
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        userName = claims.getSubject();
+        Date expiration = claims.getExpiration();
+        if (userName != null && expiration != null) {
+            userNames.put(key, userName, expiration.getTime(), now);
+        }
+        return userName;
+    }
+
+    /** Forgets every verified token (e.g. after a signing key was withdrawn). */
+    public void invalidateAll() {
+        userNames.invalidateAll();
+    }
+
+    // tokens are cached by hash, not by kid: drop them all, the ones
+    // still valid are verified again on their next request
+    @EventListener
+    public void onKeysWithdrawn(SigningKeysWithdrawnEvent event) {
+        invalidateAll();
+    }
+
+    // ---------------------------------------------------------------
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // every JRE has SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
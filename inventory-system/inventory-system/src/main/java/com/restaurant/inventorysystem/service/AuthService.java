@@ -3,6 +3,15 @@ package com.restaurant.inventorysystem.service;
 import com.restaurant.inventorysystem.dto.LoginRequest;
 import com.restaurant.inventorysystem.dto.LoginResponse;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface AuthService {
-    LoginResponse login(LoginRequest request);
+
+    /**
+     * Checks the login limits, then verifies the credentials on the login
+     * executor.
+     *
+     * @param clientAddress address the login came from (per-address limit)
+     */
+    CompletableFuture<LoginResponse> login(LoginRequest request, String clientAddress);
 }
@@ -3,6 +3,8 @@ package com.restaurant.inventorysystem.service;
 import com.restaurant.inventorysystem.dto.OrderDetailDTO;
 import com.restaurant.inventorysystem.util.ApiResponse;
 
+import java.time.LocalDateTime;
+
 /**
  * ------------------------------------------------------------
  * SERVICE INTERFACE: Order Detail
@@ -31,11 +33,16 @@ public interface OrderDetailService {
     ApiResponse getOrderById(Integer id);
 
     /**
-     * Retrieve a list of all orders.
+     * Retrieve one page of orders (newest first) with their recipe items.
      *
-     * @return ApiResponse containing a list of all existing orders
+     * @param from   earliest order date (inclusive), null for no lower bound
+     * @param to     latest order date (exclusive), null for no upper bound
+     * @param status ACTIVE, DELETED or ALL
+     * @param cursor nextCursor of the previous page, null for the first page
+     * @param size   page size (1..500)
+     * @return ApiResponse containing an OrderPageDTO
      */
-    ApiResponse getAllOrders();
+    ApiResponse getOrders(LocalDateTime from, LocalDateTime to, String status, String cursor, int size);
 
     /**
      * Perform a soft delete on an order by its ID.
@@ -0,0 +1,28 @@
+package com.restaurant.inventorysystem.service;
+
+import com.restaurant.inventorysystem.dto.RecipeAvailabilityDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * ------------------------------------------------------------
+ * SERVICE INTERFACE: Recipe Availability
+ * ------------------------------------------------------------
+ * Makeable portions per active recipe (RecipeAvailabilityEngine),
+ * as a list and as a server-sent-events stream of changes.
+ */
+public interface RecipeAvailabilityService {
+
+    /**
+     * Availability of every active recipe.
+     */
+    List<RecipeAvailabilityDTO> getAvailability();
+
+    /**
+     * Opens a stream: one "snapshot" event with every recipe, then an
+     * "availability" event with the recipes that changed, per committed
+     * stock or recipe change.
+     */
+    SseEmitter subscribe();
+}
@@ -0,0 +1,51 @@
+package com.restaurant.inventorysystem.service;
+
+import com.restaurant.inventorysystem.report.ReportFormat;
+import com.restaurant.inventorysystem.report.TabularReport;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.function.LongConsumer;
+
+/**
+ * ------------------------------------------------------------
+ * SERVICE INTERFACE: Report Export
+ * ------------------------------------------------------------
+ * Streams raw report data (CSV / NDJSON) for back-office tooling,
+ * and writes report files for report jobs (also XLSX).
+ */
+public interface ReportExportService {
+
+    /**
+     * Builds a download response whose body is written row by row from a
+     * JDBC cursor while the client reads it.
+     *
+     * @param report         which report
+     * @param format         CSV or NDJSON
+     * @param from           start of the date range (inclusive), null for no bound; ignored without a date range
+     * @param to             end of the date range (exclusive), null for no bound
+     * @param acceptEncoding Accept-Encoding request header; the body is gzipped if it allows gzip
+     * @return response with headers set and a streaming body
+     */
+    ResponseEntity<StreamingResponseBody> export(TabularReport report, ReportFormat format,
+                                                 LocalDateTime from, LocalDateTime to, String acceptEncoding);
+
+    /**
+     * Writes the whole report to an output stream (not closed), e.g. a
+     * report job file.
+     *
+     * @param onProgress receives the number of rows written so far, every
+     *                   few thousand rows and once at the end
+     * @return number of rows written
+     */
+    long write(TabularReport report, ReportFormat format, LocalDateTime from, LocalDateTime to,
+               OutputStream out, LongConsumer onProgress) throws IOException;
+
+    /**
+     * Number of rows the report would have (for job progress).
+     */
+    long count(TabularReport report, LocalDateTime from, LocalDateTime to);
+}
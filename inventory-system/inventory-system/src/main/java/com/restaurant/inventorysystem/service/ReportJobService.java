@@ -0,0 +1,48 @@
+package com.restaurant.inventorysystem.service;
+
+import com.restaurant.inventorysystem.dto.ReportJobDTO;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * ------------------------------------------------------------
+ * SERVICE INTERFACE: Report Jobs
+ * ------------------------------------------------------------
+ * Generates reports in the background instead of on the request
+ * thread: submit → poll status → download the finished file.
+ */
+public interface ReportJobService {
+
+    /**
+     * Queues a report job. An identical request (same type, format and
+     * date range) that is still queued or running is returned instead of
+     * starting a second one.
+     *
+     * @param type   stock, stock-in or orders
+     * @param format csv, ndjson or xlsx
+     * @param from   start of the date range (inclusive), optional
+     * @param to     end of the date range (exclusive), optional
+     * @return the new or the already running job
+     */
+    ReportJobDTO submit(String type, String format, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Status and progress of a job (until it expires).
+     */
+    ReportJobDTO getJob(String jobId);
+
+    /**
+     * Sends the file of a finished job (zero-copy where the container allows it).
+     */
+    void download(String jobId, HttpServletRequest request, HttpServletResponse response) throws IOException;
+
+    /**
+     * Forgets expired jobs and deletes their files.
+     *
+     * @return number of jobs removed
+     */
+    int evictExpired();
+}
@@ -0,0 +1,42 @@
+package com.restaurant.inventorysystem.service;
+
+import com.restaurant.inventorysystem.dto.StockAtDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ------------------------------------------------------------
+ * SERVICE INTERFACE: Stock Ledger
+ * ------------------------------------------------------------
+ * Point-in-time stock from the stock_movement ledger and the
+ * periodic stock_snapshot runs.
+ */
+public interface StockLedgerService {
+
+    /**
+     * Stock of every ingredient with ledger history at the given time.
+     */
+    List<StockAtDTO> getStockAt(LocalDateTime at);
+
+    /**
+     * Stock of one ingredient at the given time.
+     */
+    StockAtDTO getStockAt(Integer ingredientId, LocalDateTime at);
+
+    /**
+     * Writes a snapshot run at the cutoff: previous run + movements up to
+     * the cutoff. Skipped when nothing moved or a run at/after the cutoff
+     * already exists.
+     *
+     * @return number of snapshot rows written
+     */
+    int takeSnapshot(LocalDateTime cutoff);
+
+    /**
+     * Opening ledger rows for ingredients whose stock predates the ledger.
+     *
+     * @return number of ingredients opened
+     */
+    int recordOpeningBalances();
+}
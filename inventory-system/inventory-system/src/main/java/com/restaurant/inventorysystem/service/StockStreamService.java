@@ -0,0 +1,32 @@
+package com.restaurant.inventorysystem.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * ------------------------------------------------------------
+ * SERVICE INTERFACE: Stock Stream
+ * ------------------------------------------------------------
+ * Live ingredient stock levels as server-sent events, for kitchen
+ * displays that would otherwise poll /api/stock/report.
+ */
+public interface StockStreamService {
+
+    /**
+     * Opens a stream: one "snapshot" event with every ingredient's level,
+     * then "stock" events with the levels that changed (coalesced).
+     */
+    SseEmitter subscribe();
+
+    /**
+     * Sends the levels changed since the last frame, at most one entry
+     * per ingredient. Runs every stream interval.
+     *
+     * @return number of ingredients in the frame (0 = nothing sent)
+     */
+    int flush();
+
+    /**
+     * Open subscriptions.
+     */
+    int subscriberCount();
+}
@@ -5,24 +5,62 @@ import com.restaurant.inventorysystem.dto.LoginResponse;
 import com.restaurant.inventorysystem.entity.User;
 import com.restaurant.inventorysystem.repository.UserRepository;
 import com.restaurant.inventorysystem.security.JwtUtil;
+import com.restaurant.inventorysystem.security.LoginExecutor;
+import com.restaurant.inventorysystem.security.LoginThrottle;
+import com.restaurant.inventorysystem.security.UserChangedEvent;
 import com.restaurant.inventorysystem.service.AuthService;
-import org.springframework.beans.factory.annotation.Autowired;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 public class AuthServiceImpl implements AuthService {
 
-    @Autowired
-    private UserRepository userRepository;
+    // $2a$10$<53 chars of salt + hash>: group 1 is the cost
+    private static final Pattern BCRYPT = Pattern.compile("\\$2[aby]?\\$(\\d\\d)\\$.{53}");
 
-    @Autowired
-    private JwtUtil jwtUtil;
+    private final UserRepository userRepository;
+    private final JwtUtil jwtUtil;
+    private final PasswordEncoder passwordEncoder;
+    private final LoginThrottle loginThrottle;
+    private final LoginExecutor loginExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int bcryptStrength;
+
+    private final Timer hashTime;
+    private final Counter rehashed;
+
+    public AuthServiceImpl(UserRepository userRepository,
+                           JwtUtil jwtUtil,
+                           PasswordEncoder passwordEncoder,
+                           LoginThrottle loginThrottle,
+                           LoginExecutor loginExecutor,
+                           ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry,
+                           @Value("${auth.login.bcrypt-strength:10}") int bcryptStrength) {
+        this.userRepository = userRepository;
+        this.jwtUtil = jwtUtil;
+        this.passwordEncoder = passwordEncoder;
+        this.loginThrottle = loginThrottle;
+        this.loginExecutor = loginExecutor;
+        this.eventPublisher = eventPublisher;
+        this.bcryptStrength = bcryptStrength;
+
+        this.hashTime = Timer.builder("auth.login.hash")
+                .description("Password hash checks of logins").register(meterRegistry);
+        this.rehashed = Counter.builder("auth.login.rehashed")
+                .description("Passwords re-hashed to the configured BCrypt cost").register(meterRegistry);
+    }
 
-    @Autowired
-    private PasswordEncoder passwordEncoder;
     /**
      * =====================================================================
      *  Project Name  : Restaurant Inventory System
@@ -30,23 +68,46 @@ public class AuthServiceImpl implements AuthService {
      *  Description   : Authenticates the user credentials, validates password,
      *                  and generates a JWT token upon successful login.
      *
+     *                  Rate limited per user name and address (429), then
+     *                  run on the login executor (503 when its queue is full).
+     *                  A password hashed at another BCrypt cost than
+     *                  auth.login.bcrypt-strength is re-hashed on success.
+     *
      *  Author        : Ram Choudhary
      *  Created Date  : 10-Nov-2025
      *  Version       : 1.0
      * =====================================================================
      */
-    public LoginResponse login(LoginRequest request) {
+    @Override
+    public CompletableFuture<LoginResponse> login(LoginRequest request, String clientAddress) {
+        loginThrottle.acquire(request.getUsername(), clientAddress);
+        return loginExecutor.submit(() -> authenticate(request));
+    }
+
+    private LoginResponse authenticate(LoginRequest request) {
         User user = userRepository.findByUserName(request.getUsername());
 
         if (user == null) {
             throw new RuntimeException("Invalid username");
         }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        boolean matches = hashTime.record(() -> passwordEncoder.matches(request.getPassword(), user.getPassword()));
+        if (!matches) {
             throw new RuntimeException("Invalid password");
         }
+        if (hasOtherCost(user.getPassword())) {
+            user.setPassword(passwordEncoder.encode(request.getPassword()));
+            userRepository.save(user);
+            rehashed.increment();
+            eventPublisher.publishEvent(new UserChangedEvent(user.getUserName()));
+        }
 
         String token = jwtUtil.generateToken(user.getUserName());
         return new LoginResponse(token, user.getUserName(), "Login successful", LocalDateTime.now());
     }
+
+    private boolean hasOtherCost(String hash) {
+        Matcher matcher = BCRYPT.matcher(hash);
+        return matcher.matches() && Integer.parseInt(matcher.group(1)) != bcryptStrength;
+    }
 }
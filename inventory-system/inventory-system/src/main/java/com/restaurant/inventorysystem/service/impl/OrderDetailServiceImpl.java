@@ -1,22 +1,34 @@
 package com.restaurant.inventorysystem.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.restaurant.inventorysystem.dto.OrderDetailDTO;
 import com.restaurant.inventorysystem.dto.OrderDetailXrefDTO;
+import com.restaurant.inventorysystem.dto.OrderPageDTO;
 import com.restaurant.inventorysystem.entity.*;
+import com.restaurant.inventorysystem.exception.InvalidDataException;
 import com.restaurant.inventorysystem.exception.ResourceNotFoundException;
-import com.restaurant.inventorysystem.kafka.KafkaInvoiceProducer;
 import com.restaurant.inventorysystem.repository.*;
 import com.restaurant.inventorysystem.service.OrderDetailService;
+import com.restaurant.inventorysystem.stock.Quantity;
+import com.restaurant.inventorysystem.stock.RecipeBom;
+import com.restaurant.inventorysystem.stock.RecipeBomCache;
+import com.restaurant.inventorysystem.stock.StockDeductionEngine;
+import com.restaurant.inventorysystem.stock.StockTransactionRunner;
 import com.restaurant.inventorysystem.util.ApiResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import java.util.Map;
-import java.util.HashMap;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -31,8 +43,11 @@ import java.util.stream.Collectors;
  *
  * Flow:
  *  1️⃣ Save OrderDetail
- *  2️⃣ Save OrderDetailXref list
- *  3️⃣ Validate and reduce Ingredients stock
+ *  2️⃣ Save OrderDetailXref list (single batch)
+ *  3️⃣ Validate and reduce Ingredients stock (StockDeductionEngine)
+ *  4️⃣ Queue the invoice event in invoice_outbox (InvoiceOutboxRelay sends it)
+ *
+ * Metrics: order.save / order.delete (timers, retries included)
  *
  * Author : Ram Choudhary
  * Date   : 12-Nov-2025
@@ -40,6 +55,11 @@ import java.util.stream.Collectors;
 @Service
 public class OrderDetailServiceImpl implements OrderDetailService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    // Open ends of the order_date range (both storable in a DATETIME column)
+    private static final LocalDateTime MIN_ORDER_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_ORDER_DATE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     @Autowired
     private OrderDetailRepository orderDetailRepository;
 
@@ -59,11 +79,37 @@ public class OrderDetailServiceImpl implements OrderDetailService {
     private  UserRepository userRepo;
 
     @Autowired
-    private KafkaInvoiceProducer kafkaInvoiceProducer;
+    private StockDeductionEngine stockDeductionEngine;
+
+    @Autowired
+    private Quantity quantity;
+
+    @Autowired
+    private RecipeBomCache recipeBomCache;
+
+    @Autowired
+    private StockTransactionRunner stockTransactionRunner;
+
+    @Autowired
+    private InvoiceOutboxRepository invoiceOutboxRepository;
 
     @Autowired
     private ObjectMapper objectMapper; // Add this
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer saveOrderTimer;
+    private Timer deleteOrderTimer;
+
+    @PostConstruct
+    void registerMeters() {
+        saveOrderTimer = Timer.builder("order.save")
+                .description("saveOrder, including stock conflict retries").register(meterRegistry);
+        deleteOrderTimer = Timer.builder("order.delete")
+                .description("deleteOrder, including stock conflict retries").register(meterRegistry);
+    }
+
     /**
      * Author  : Ram Choudhary
      * Date    : 13-Nov-2025
@@ -75,15 +121,37 @@ public class OrderDetailServiceImpl implements OrderDetailService {
      *  - Saves all related OrderDetailXref entries (recipe-level details).
      *  - Deducts ingredient stock from IngredientsMaster table
      *    based on recipe compositions defined in RecipeIngredientXref.
+     *  - The statement count is fixed per order (not per line): recipe
+     *    structure comes from RecipeBomCache, stock is read with one query
+     *    and lines/stock are written with one JDBC batch each.
      *
      * Transactional Behavior:
      *  - Ensures atomicity; if any step fails (e.g., stock shortage),
      *    the entire transaction rolls back to maintain data integrity.
+     *  - Stock conflicts with other tills are retried with backoff by
+     *    StockTransactionRunner.
+     *  - The invoice event is stored in invoice_outbox in the same transaction
+     *    (a rolled-back order never produces an invoice); Kafka is not called here.
      */
     @Override
-    @Transactional
     public ApiResponse saveOrder(OrderDetailDTO orderDetailDTO) {
 
+        // Steps 1️⃣-4️⃣ run in one transaction, retried if the stock rows were
+        // changed concurrently (see inventory.stock.lock-mode / retry.*)
+        OrderDetail orderDetail = saveOrderTimer.record(() -> stockTransactionRunner.execute(
+                "Save order " + orderDetailDTO.getOrderNo(), () -> persistOrder(orderDetailDTO)));
+
+        return new ApiResponse(200, "Order saved successfully", orderDetail.getOrderId());
+
+
+    }
+
+    /**
+     * Transactional part of saveOrder (order, lines, stock). Runs inside
+     * StockTransactionRunner and may be executed more than once.
+     */
+    private OrderDetail persistOrder(OrderDetailDTO orderDetailDTO) {
+
         // Step 1️⃣: Save main order detail
         OrderDetail orderDetail = new OrderDetail();
         orderDetail.setOrderNo(orderDetailDTO.getOrderNo());
@@ -91,26 +159,29 @@ public class OrderDetailServiceImpl implements OrderDetailService {
         orderDetail.setOrderType(orderDetailDTO.getOrderType());
         orderDetail.setCustomerName(orderDetailDTO.getCustomerName());
         orderDetail.setCustomerPhone(orderDetailDTO.getCustomerPhone());
-        orderDetail.setOrderDate(orderDetailDTO.getOrderDate());
+        // order_date drives the order listing, so it is never left empty
+        orderDetail.setOrderDate(orderDetailDTO.getOrderDate() != null
+                ? orderDetailDTO.getOrderDate() : LocalDateTime.now());
         orderDetail.setTotalAmount(orderDetailDTO.getTotalAmount());
         orderDetail.setDiscount(orderDetailDTO.getDiscount());
         orderDetail.setTaxAmount(orderDetailDTO.getTaxAmount());
         orderDetail.setGrandTotal(orderDetailDTO.getGrandTotal());
         orderDetail.setPaymentMode(orderDetailDTO.getPaymentMode());
         orderDetail.setRemark(orderDetailDTO.getRemark());
+        // Users are resolved once and shared by the order and all its lines
+        User createdBy = null;
         if (orderDetailDTO.getCreatedBy() != null) {
-            orderDetail.setCreatedBy(
-                    userRepo.findById(orderDetailDTO.getCreatedBy())
-                            .orElseThrow(() -> new ResourceNotFoundException("User not found: " + orderDetailDTO.getCreatedBy()))
-            );
+            createdBy = userRepo.findById(orderDetailDTO.getCreatedBy())
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found: " + orderDetailDTO.getCreatedBy()));
         }
 
+        User modifiedBy = null;
         if (orderDetailDTO.getModifiedBy() != null) {
-            orderDetail.setModifiedBy(
-                    userRepo.findById(orderDetailDTO.getModifiedBy())
-                            .orElseThrow(() -> new ResourceNotFoundException("User not found: " + orderDetailDTO.getModifiedBy()))
-            );
+            modifiedBy = userRepo.findById(orderDetailDTO.getModifiedBy())
+                    .orElseThrow(() -> new ResourceNotFoundException("User not found: " + orderDetailDTO.getModifiedBy()));
         }
+        orderDetail.setCreatedBy(createdBy);
+        orderDetail.setModifiedBy(modifiedBy);
         //orderDetail.setCreatedBy(orderDetailDTO.getCreatedBy());
         //orderDetail.setModifiedBy(orderDetailDTO.getModifiedBy());
         orderDetail.setActiveFlag(1);
@@ -118,92 +189,76 @@ public class OrderDetailServiceImpl implements OrderDetailService {
 
         orderDetail = orderDetailRepository.save(orderDetail);
 
-        // Step 2️⃣: Save each recipe item (xref)
+        // Step 2️⃣: Save all recipe items (xref) with one batch insert;
+        // recipe name/price/ingredients come from RecipeBomCache
+        Map<Integer, Long> portionsByRecipe =
+                stockDeductionEngine.portionsByRecipe(orderDetailDTO.getOrderDetailXrefList());
+        Map<Integer, RecipeBom> bomByRecipe = recipeBomCache.getAll(portionsByRecipe.keySet());
+
+        List<OrderDetailXref> xrefs = new ArrayList<>();
         for (OrderDetailXrefDTO xrefDTO : orderDetailDTO.getOrderDetailXrefList()) {
 
-            RecipeMaster recipe = recipeMasterRepository.findById(xrefDTO.getRecipeId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Recipe not found: " + xrefDTO.getRecipeId()));
+            RecipeBom recipe = bomByRecipe.get(xrefDTO.getRecipeId());
+            if (recipe == null) {
+                throw new ResourceNotFoundException("Recipe not found: " + xrefDTO.getRecipeId());
+            }
+
+            RecipeMaster recipeRef = new RecipeMaster();
+            recipeRef.setRecipeId(recipe.getRecipeId());
 
             OrderDetailXref xref = new OrderDetailXref();
             xref.setOrderDetail(orderDetail);
-            xref.setRecipeMaster(recipe);
+            xref.setRecipeMaster(recipeRef);
             xref.setRecipeName(recipe.getRecipeName());
             xref.setQuantity(xrefDTO.getQuantity());
             xref.setSellingPrice(recipe.getSellingPrice());
-            if (orderDetailDTO.getCreatedBy() != null) {
-                xref.setCreatedBy(
-                        userRepo.findById(orderDetailDTO.getCreatedBy())
-                                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + orderDetailDTO.getCreatedBy()))
-                );
-            }
-
-            if (orderDetailDTO.getModifiedBy() != null) {
-                xref.setModifiedBy(
-                        userRepo.findById(orderDetailDTO.getModifiedBy())
-                                .orElseThrow(() -> new ResourceNotFoundException("User not found: " + orderDetailDTO.getModifiedBy()))
-                );
-            }
+            xref.setCreatedBy(createdBy);
+            xref.setModifiedBy(modifiedBy);
 //            xref.setCreatedBy(orderDetailDTO.getCreatedBy());
 //            xref.setModifiedBy(orderDetailDTO.getModifiedBy());
             xref.setActiveFlag(1);
             xref.setEnableFlag(1);
 
-            orderDetailXrefRepository.save(xref);
-
-            // Step 3️⃣: Fetch recipe ingredients and reduce stock
-            List<RecipeIngredientXref> ingredientsUsed =
-                    recipeIngredientXrefRepository.findByRecipe(recipe);
-
-            for (RecipeIngredientXref ingredientXref : ingredientsUsed) {
-
-                IngredientsMaster ingredient = ingredientXref.getIngredient();
-
-                // Calculate required stock in subunits
-                BigDecimal qtyNeeded = ingredientXref.getQuantityValue()
-                        .multiply(xrefDTO.getQuantity());
-
-
-                if (ingredient.getCurrentStockSubunit().compareTo(qtyNeeded) < 0) {
-                    throw new ResourceNotFoundException(
-                            "Insufficient stock for ingredient: " + ingredient.getIngredientName()
-                                    + " | Available: " + ingredient.getCurrentStockSubunit()
-                                    + " | Needed: " + qtyNeeded);
-                }
-
-                // Subtract stock from ingredient Master
-                ingredient.setCurrentStockSubunit(ingredient.getCurrentStockSubunit().subtract(qtyNeeded));
-                ingredientsRepository.save(ingredient);
-            }
+            xrefs.add(xref);
         }
-        // ========== Step 4️⃣: Send Invoice Event to Kafka ==========
+        orderDetailXrefRepository.batchInsert(xrefs);
+
+        // Step 3️⃣: Explode the whole order into ingredient quantities and reduce stock
+        // (one write batch + one read in ATOMIC lock mode)
+        stockDeductionEngine.deduct(stockDeductionEngine.explode(portionsByRecipe, bomByRecipe),
+                orderDetail.getOrderNo());
+
+        // ========== Step 4️⃣: Queue Invoice Event (invoice_outbox) ==========
+        // Written in the same transaction as the order; InvoiceOutboxRelay
+        // publishes it to Kafka after commit, off the request thread.
+        OrderDetailDTO invoiceEvent = new OrderDetailDTO();
+
+        invoiceEvent.setOrderId(orderDetail.getOrderId());
+        invoiceEvent.setOrderNo(orderDetail.getOrderNo());
+        invoiceEvent.setCustomerName(orderDetail.getCustomerName());
+        invoiceEvent.setCustomerPhone(orderDetail.getCustomerPhone());
+        invoiceEvent.setGrandTotal(orderDetail.getGrandTotal());
+        invoiceEvent.setOrderDate(orderDetail.getOrderDate());
+        invoiceEvent.setPaymentMode(orderDetail.getPaymentMode());
+        invoiceEvent.setDiscount(orderDetail.getDiscount());
+        invoiceEvent.setTaxAmount(orderDetail.getTaxAmount());
+        invoiceEvent.setTotalAmount(orderDetail.getTotalAmount());
+        invoiceEvent.setOrderDetailXrefList(orderDetailDTO.getOrderDetailXrefList());
+        //Temp use mobile no. in place of email
+        invoiceEvent.setCustomerEmail(orderDetailDTO.getCustomerEmail());
+
+        InvoiceOutbox outbox = new InvoiceOutbox();
+        outbox.setOrderId(orderDetail.getOrderId());
+        outbox.setOrderNo(orderDetail.getOrderNo());
         try {
-
-            OrderDetailDTO invoiceEvent = new OrderDetailDTO();
-
-            invoiceEvent.setOrderId(orderDetail.getOrderId());
-            invoiceEvent.setOrderNo(orderDetail.getOrderNo());
-            invoiceEvent.setCustomerName(orderDetail.getCustomerName());
-            invoiceEvent.setCustomerPhone(orderDetail.getCustomerPhone());
-            invoiceEvent.setGrandTotal(orderDetail.getGrandTotal());
-            invoiceEvent.setOrderDate(orderDetail.getOrderDate());
-            invoiceEvent.setPaymentMode(orderDetail.getPaymentMode());
-            invoiceEvent.setDiscount(orderDetail.getDiscount());
-            invoiceEvent.setTaxAmount(orderDetail.getTaxAmount());
-            invoiceEvent.setTotalAmount(orderDetail.getTotalAmount());
-            invoiceEvent.setOrderDetailXrefList(orderDetailDTO.getOrderDetailXrefList());
-            //Temp use mobile no. in place of email
-            invoiceEvent.setCustomerEmail(orderDetailDTO.getCustomerEmail());
-            String invoiceJson = objectMapper.writeValueAsString(invoiceEvent);
-
-            kafkaInvoiceProducer.sendInvoiceEvent(invoiceJson);
-
-        } catch (Exception e) {
-            System.out.println("Failed to send invoice event: " + e.getMessage());
+            outbox.setPayload(objectMapper.writeValueAsString(invoiceEvent));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to build invoice event for order " + orderDetail.getOrderNo(), e);
         }
+        outbox.setCreatedDate(LocalDateTime.now());
+        invoiceOutboxRepository.save(outbox);
 
-        return new ApiResponse(200, "Order saved successfully", orderDetail.getOrderId());
-
-
+        return orderDetail;
     }
 
     /**
@@ -219,7 +274,8 @@ public class OrderDetailServiceImpl implements OrderDetailService {
      */
     @Override
     public ApiResponse getOrderById(Integer id) {
-        OrderDetail orderDetail = orderDetailRepository.findById(id)
+        // lines and users come with the order: one query, nothing lazy left for mapToDTO
+        OrderDetail orderDetail = orderDetailRepository.findWithLinesByOrderId(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + id));
 
         //   map entity to DTO (including xref)
@@ -229,30 +285,136 @@ public class OrderDetailServiceImpl implements OrderDetailService {
     }
 
     /**
-     * Author  : Ram Choudhary
-     * Date    : 13-Nov-2025
-     * Purpose : Retrieve all customer orders with their associated recipe (xref) data.
+     * Purpose : Retrieve one page of customer orders with their recipe (xref) data.
      *
      * Description:
-     *  - Fetches all orders from the OrderDetail table.
-     *  - Converts each entity to a corresponding DTO using the mapToDTO() helper.
-     *  - Returns a list of fully prepared OrderDetailDTO objects for frontend consumption.
+     *  - Keyset pagination on (order_date, order_id), newest first: the page
+     *    continues strictly after the last order of the previous page, so
+     *    deep pages cost the same as the first one and rows inserted
+     *    meanwhile do not shift or repeat entries.
+     *  - Two queries per page, whatever the page size:
+     *      1️⃣ order headers (projection, size + 1 rows to detect a next page)
+     *      2️⃣ all lines of those orders (projection, IN list)
+     *  - No entities are loaded, so no lazy xref / recipe / user loading.
      */
-
     @Override
-    public ApiResponse getAllOrders() {
-        List<OrderDetail> orderList = orderDetailRepository.findAll();
+    public ApiResponse getOrders(LocalDateTime from, LocalDateTime to, String status, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new InvalidDataException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        LocalDateTime fromDate = from != null ? from : MIN_ORDER_DATE;
+        LocalDateTime toDate = to != null ? to : MAX_ORDER_DATE;
+        if (!fromDate.isBefore(toDate)) {
+            throw new InvalidDataException("'from' must be before 'to'");
+        }
 
-        if (orderList.isEmpty()) {
-            return new ApiResponse(404, "No orders found", Collections.emptyList());
+        // First page starts just past the end of the range
+        LocalDateTime afterDate = toDate;
+        Integer afterId = Integer.MAX_VALUE;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor);
+            afterDate = LocalDateTime.parse(position[0]);
+            afterId = Integer.valueOf(position[1]);
         }
 
-        //   Map each order (including xref data) to DTO
-        List<OrderDetailDTO> dtoList = orderList.stream()
-                .map(this::mapToDTO)
-                .collect(Collectors.toList());
+        // Step 1️⃣: order headers
+        List<OrderSummaryView> rows = orderDetailRepository.findPageBefore(
+                fromDate, toDate, activeFlagsFor(status), afterDate, afterId, PageRequest.of(0, size + 1));
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = rows.subList(0, size);
+        }
 
-        return new ApiResponse(200, "Orders fetched successfully", dtoList);
+        if (rows.isEmpty() && cursor == null) {
+            return new ApiResponse(404, "No orders found", new OrderPageDTO(Collections.emptyList(), null));
+        }
+
+        // Step 2️⃣: lines of all orders on the page
+        Map<Integer, List<OrderDetailXrefDTO>> linesByOrder = new HashMap<>();
+        if (!rows.isEmpty()) {
+            List<Integer> orderIds = rows.stream().map(OrderSummaryView::getOrderId).collect(Collectors.toList());
+            for (OrderLineView line : orderDetailXrefRepository.findLinesByOrderIds(orderIds)) {
+                linesByOrder.computeIfAbsent(line.getOrderId(), id -> new ArrayList<>()).add(mapLineToDTO(line));
+            }
+        }
+
+        List<OrderDetailDTO> orders = new ArrayList<>(rows.size());
+        for (OrderSummaryView row : rows) {
+            OrderDetailDTO dto = mapSummaryToDTO(row);
+            dto.setOrderDetailXrefList(linesByOrder.getOrDefault(row.getOrderId(), new ArrayList<>()));
+            orders.add(dto);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            OrderSummaryView last = rows.get(rows.size() - 1);
+            nextCursor = encodeCursor(last.getOrderDate(), last.getOrderId());
+        }
+
+        return new ApiResponse(200, "Orders fetched successfully", new OrderPageDTO(orders, nextCursor));
+    }
+
+    private static List<Integer> activeFlagsFor(String status) {
+        if (status == null || status.isBlank() || status.equalsIgnoreCase("ACTIVE")) {
+            return List.of(1);
+        }
+        if (status.equalsIgnoreCase("DELETED")) {
+            return List.of(0);
+        }
+        if (status.equalsIgnoreCase("ALL")) {
+            return List.of(0, 1);
+        }
+        throw new InvalidDataException("Invalid status: " + status + " (expected ACTIVE, DELETED or ALL)");
+    }
+
+    // Cursor = base64url("<orderDate>|<orderId>") of the last order on the page
+    private static String encodeCursor(LocalDateTime orderDate, Integer orderId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((orderDate + "|" + orderId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException(cursor);
+            }
+            LocalDateTime.parse(position[0]);
+            Integer.parseInt(position[1]);
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidDataException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private OrderDetailDTO mapSummaryToDTO(OrderSummaryView row) {
+        OrderDetailDTO dto = new OrderDetailDTO();
+        dto.setOrderId(row.getOrderId());
+        dto.setOrderNo(row.getOrderNo());
+        dto.setTableNo(row.getTableNo());
+        dto.setOrderType(row.getOrderType());
+        dto.setOrderDate(row.getOrderDate());
+        dto.setCustomerName(row.getCustomerName());
+        dto.setCustomerPhone(row.getCustomerPhone());
+        dto.setTotalAmount(row.getTotalAmount());
+        dto.setDiscount(row.getDiscount());
+        dto.setTaxAmount(row.getTaxAmount());
+        dto.setGrandTotal(row.getGrandTotal());
+        dto.setPaymentMode(row.getPaymentMode());
+        dto.setActiveFlag(row.getActiveFlag());
+        dto.setCreatedDate(row.getCreatedDate());
+        return dto;
+    }
+
+    private OrderDetailXrefDTO mapLineToDTO(OrderLineView line) {
+        OrderDetailXrefDTO dto = new OrderDetailXrefDTO();
+        dto.setOrderDetailXrefId(line.getOrderDetailXrefId());
+        dto.setOrderDetailId(line.getOrderId());
+        dto.setRecipeId(line.getRecipeId());
+        dto.setRecipeName(line.getRecipeName());
+        dto.setQuantity(line.getQuantity());
+        dto.setSellingPrice(line.getSellingPrice());
+        return dto;
     }
 
     /**
@@ -325,40 +487,37 @@ public class OrderDetailServiceImpl implements OrderDetailService {
      *
      * Transactional Behavior:
      *  - Ensures atomic rollback if any stock update or order update fails.
+     *  - Runs in StockTransactionRunner (retried on concurrent stock updates).
      */
     @Override
     public ApiResponse deleteOrder(Integer id) {
-        //  Step 1: Find order
-        OrderDetail orderDetail = orderDetailRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + id));
-
-        //  Step 2: Mark order as inactive (soft delete)
-        orderDetail.setActiveFlag(0);
-        orderDetail.setEnableFlag(0);
-
-        //  Step 3: Mark related xref records as inactive too
-        List<OrderDetailXref> xrefs = orderDetailXrefRepository.findByOrderDetailOrderId(id);
-//        for (OrderDetailXref xref : xrefs) {
-//
-//        }
-        for (OrderDetailXref xref : xrefs) {
-            xref.setActiveFlag(0);
-            xref.setEnableFlag(0);
-            Integer receipyId = xref.getRecipeMaster().getRecipeId();
-            BigDecimal recipyOrderQty = xref.getQuantity();
-            List<RecipeIngredientXref> recipyXref =  recipeIngredientXrefRepository.findByRecipe_RecipeId(receipyId);
-            for (RecipeIngredientXref recipeIngredientXref : recipyXref) {
-                BigDecimal qtyValueOfIngrent = recipeIngredientXref.getQuantityValue();
-                BigDecimal qtyNeedToSubstract =  qtyValueOfIngrent.multiply(recipyOrderQty);
-                IngredientsMaster ingredientsMaster= recipeIngredientXref.getIngredient();
-                ingredientsMaster.setCurrentStockSubunit(ingredientsMaster.getCurrentStockSubunit().add(qtyNeedToSubstract));
-                ingredientsRepository.save(ingredientsMaster);
+        deleteOrderTimer.record(() -> stockTransactionRunner.execute("Delete order " + id, () -> {
+            //  Step 1: Find order
+            OrderDetail orderDetail = orderDetailRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Order not found with ID: " + id));
+
+            //  Step 2: Mark order as inactive (soft delete)
+            orderDetail.setActiveFlag(0);
+            orderDetail.setEnableFlag(0);
+
+            //  Step 3: Mark related xref records as inactive too
+            List<OrderDetailXref> xrefs = orderDetailXrefRepository.findByOrderDetailOrderId(id);
+            Map<Integer, Long> portionsByRecipe = new HashMap<>();
+            for (OrderDetailXref xref : xrefs) {
+                xref.setActiveFlag(0);
+                xref.setEnableFlag(0);
+                portionsByRecipe.merge(xref.getRecipeMaster().getRecipeId(), quantity.of(xref.getQuantity()), quantity::add);
             }
 
-        }
-        //  Step 4: Save both parent and children
-        orderDetailXrefRepository.saveAll(xrefs);
-        orderDetailRepository.save(orderDetail);
+            // Give the ingredients back in one batch (recipe structure from RecipeBomCache)
+            stockDeductionEngine.restore(stockDeductionEngine.explode(
+                    portionsByRecipe, recipeBomCache.getAll(portionsByRecipe.keySet())), orderDetail.getOrderNo());
+
+            //  Step 4: Save both parent and children
+            orderDetailXrefRepository.saveAll(xrefs);
+            orderDetailRepository.save(orderDetail);
+            return null;
+        }));
 
         //  Step 5: Return success
         return new ApiResponse(200, "Order soft deleted successfully", null);
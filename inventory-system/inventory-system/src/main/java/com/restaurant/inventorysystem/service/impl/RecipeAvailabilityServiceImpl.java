@@ -0,0 +1,59 @@
+package com.restaurant.inventorysystem.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.inventorysystem.dto.RecipeAvailabilityDTO;
+import com.restaurant.inventorysystem.service.RecipeAvailabilityService;
+import com.restaurant.inventorysystem.stock.RecipeAvailabilityChangedEvent;
+import com.restaurant.inventorysystem.stock.RecipeAvailabilityEngine;
+import com.restaurant.inventorysystem.util.SseBroadcaster;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+/**
+ * ------------------------------------------------------------
+ * SERVICE IMPLEMENTATION: Recipe Availability
+ * ------------------------------------------------------------
+ * Reads come straight from the engine's in-memory result (no DB).
+ * Engine changes are forwarded to every open stream by one
+ * SseBroadcaster; the engine only queues them.
+ *
+ * Property: inventory.availability.stream.timeout-ms
+ */
+@Service
+public class RecipeAvailabilityServiceImpl implements RecipeAvailabilityService {
+
+    private final RecipeAvailabilityEngine recipeAvailabilityEngine;
+    private final SseBroadcaster broadcaster;
+
+    public RecipeAvailabilityServiceImpl(RecipeAvailabilityEngine recipeAvailabilityEngine,
+                                         ObjectMapper objectMapper,
+                                         @Value("${inventory.availability.stream.timeout-ms:1800000}") long timeoutMs) {
+        this.recipeAvailabilityEngine = recipeAvailabilityEngine;
+        this.broadcaster = new SseBroadcaster("recipe-availability", timeoutMs, objectMapper);
+    }
+
+    @Override
+    public List<RecipeAvailabilityDTO> getAvailability() {
+        return recipeAvailabilityEngine.getAll();
+    }
+
+    @Override
+    public SseEmitter subscribe() {
+        return broadcaster.subscribe("snapshot", recipeAvailabilityEngine::getAll);
+    }
+
+    @EventListener
+    public void onAvailabilityChanged(RecipeAvailabilityChangedEvent event) {
+        broadcaster.broadcast("availability", event.getChanges());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        broadcaster.close();
+    }
+}
@@ -6,6 +6,8 @@ import com.restaurant.inventorysystem.exception.DuplicateResourceException;
 import com.restaurant.inventorysystem.exception.ResourceNotFoundException;
 import com.restaurant.inventorysystem.repository.*;
 import com.restaurant.inventorysystem.service.RecipeService;
+import com.restaurant.inventorysystem.stock.RecipeChangedEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,6 +19,7 @@ import java.util.stream.Collectors;
  * Author: Ram Choudhary
  * Date: 07-Nov-2025
  * Description: Implements Recipe CRUD. Saves master and all xrefs in one go.
+ * Every write publishes a RecipeChangedEvent (handled after commit by RecipeBomCache).
  * Since: 07-Nov-2025
  */
 @Service
@@ -26,15 +29,18 @@ public class RecipeServiceImpl implements RecipeService {
     private final RecipeIngredientXrefRepository xrefRepo;
     private final IngredientsRepository ingredientRepo;
     private final UserRepository userRepo;
+    private final ApplicationEventPublisher eventPublisher;
 
     public RecipeServiceImpl(RecipeMasterRepository recipeRepo,
                              RecipeIngredientXrefRepository xrefRepo,
                              IngredientsRepository ingredientRepo,
-                             UserRepository userRepo) {
+                             UserRepository userRepo,
+                             ApplicationEventPublisher eventPublisher) {
         this.recipeRepo = recipeRepo;
         this.xrefRepo = xrefRepo;
         this.ingredientRepo = ingredientRepo;
         this.userRepo = userRepo;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -49,7 +55,7 @@ public class RecipeServiceImpl implements RecipeService {
      * 4. Saving the recipe master into the database
      * 5. Mapping each RecipeIngredientXrefDTO → RecipeIngredientXref entity
      * 6. Assigning recipe FK, ingredient FK, audit fields
-     * 7. Saving all ingredient xref rows linked with the recipe
+     * 7. Saving all ingredient xref rows linked with the recipe (one batch)
      *
      * This method ensures:
      * - All data is saved in a single transactional block
@@ -80,6 +86,10 @@ public class RecipeServiceImpl implements RecipeService {
             throw new DuplicateResourceException("Recipe code already exists: " + recipeMasterDTO.getRecipeCode());
         }
 
+        // Every user / ingredient the request refers to, one query each (not one per xref line)
+        Map<Integer, User> users = usersById(recipeMasterDTO, request.getRecipeIngredientXrefDTO());
+        Map<Integer, IngredientsMaster> ingredients = ingredientsById(request.getRecipeIngredientXrefDTO());
+
         // ----------------- MAP DTO TO MASTER ENTITY -----------------
         RecipeMaster recipeMaster = new RecipeMaster();
         recipeMaster.setRecipeCode(recipeMasterDTO.getRecipeCode());
@@ -96,15 +106,13 @@ public class RecipeServiceImpl implements RecipeService {
 
         if (recipeMasterDTO.getCreatedById() != null) {
             recipeMaster.setCreatedBy(
-                    userRepo.findById(recipeMasterDTO.getCreatedById())
-                            .orElseThrow(() -> new ResourceNotFoundException("User not found: " + recipeMasterDTO.getCreatedById()))
+                    user(users, recipeMasterDTO.getCreatedById())
             );
         }
 
         if (recipeMasterDTO.getModifiedById() != null) {
             recipeMaster.setModifiedBy(
-                    userRepo.findById(recipeMasterDTO.getModifiedById())
-                            .orElseThrow(() -> new ResourceNotFoundException("User not found: " + recipeMasterDTO.getModifiedById()))
+                    user(users, recipeMasterDTO.getModifiedById())
             );
         }
 
@@ -114,6 +122,7 @@ public class RecipeServiceImpl implements RecipeService {
         // ----------------- SAVE XREF LIST -----------------
         if (request.getRecipeIngredientXrefDTO() != null && !request.getRecipeIngredientXrefDTO().isEmpty()) {
 
+            List<RecipeIngredientXref> recipeIngredientXrefList = new ArrayList<>();
             for (RecipeIngredientXrefDTO recipeIngredientXrefDTO : request.getRecipeIngredientXrefDTO()) {
 
                 RecipeIngredientXref recipeIngredientXref = new RecipeIngredientXref();
@@ -121,8 +130,7 @@ public class RecipeServiceImpl implements RecipeService {
 
                 // ingredient FK
                 recipeIngredientXref.setIngredient(
-                        ingredientRepo.findById(recipeIngredientXrefDTO.getIngredientId())
-                                .orElseThrow(() -> new ResourceNotFoundException("Ingredient not found: " + recipeIngredientXrefDTO.getIngredientId()))
+                        ingredient(ingredients, recipeIngredientXrefDTO.getIngredientId())
                 );
 
                 recipeIngredientXref.setUom(recipeIngredientXrefDTO.getUom());
@@ -137,22 +145,24 @@ public class RecipeServiceImpl implements RecipeService {
 
                 if (recipeIngredientXrefDTO.getCreatedById() != null) {
                     recipeIngredientXref.setCreatedBy(
-                            userRepo.findById(recipeIngredientXrefDTO.getCreatedById())
-                                    .orElseThrow(() -> new ResourceNotFoundException("User not found: " + recipeIngredientXrefDTO.getCreatedById()))
+                            user(users, recipeIngredientXrefDTO.getCreatedById())
                     );
                 }
 
                 if (recipeIngredientXrefDTO.getModifiedById() != null) {
                     recipeIngredientXref.setModifiedBy(
-                            userRepo.findById(recipeIngredientXrefDTO.getModifiedById())
-                                    .orElseThrow(() -> new ResourceNotFoundException("User not found: " + recipeIngredientXrefDTO.getModifiedById()))
+                            user(users, recipeIngredientXrefDTO.getModifiedById())
                     );
                 }
 
-                xrefRepo.save(recipeIngredientXref);
+                recipeIngredientXrefList.add(recipeIngredientXref);
             }
+
+            // all lines in one JDBC batch
+            xrefRepo.batchInsert(recipeIngredientXrefList);
         }
 
+        eventPublisher.publishEvent(new RecipeChangedEvent(savedMaster.getRecipeId()));
         return savedMaster;
     }
 
@@ -177,7 +187,7 @@ public class RecipeServiceImpl implements RecipeService {
      *      - Map DTO → RecipeIngredientXref entity
      *      - Assign recipe FK, ingredient FK
      *      - Assign audit fields
-     *      - Save each xref row
+     *      - Save all xref rows in one batch
      *
      * Notes:
      * - Update is done inside @Transactional → ensures atomicity
@@ -213,6 +223,10 @@ public class RecipeServiceImpl implements RecipeService {
             throw new DuplicateResourceException("Recipe code already exists: " + recipeMasterDTO.getRecipeCode());
         }
 
+        // Every user / ingredient the request refers to, one query each (not one per xref line)
+        Map<Integer, User> users = usersById(recipeMasterDTO, request.getRecipeIngredientXrefDTO());
+        Map<Integer, IngredientsMaster> ingredients = ingredientsById(request.getRecipeIngredientXrefDTO());
+
         // ----------------- MAP UPDATED FIELDS -----------------
         recipeMaster.setRecipeCode(recipeMasterDTO.getRecipeCode());
         recipeMaster.setRecipeName(recipeMasterDTO.getRecipeName());
@@ -227,8 +241,7 @@ public class RecipeServiceImpl implements RecipeService {
 
         if (recipeMasterDTO.getModifiedById() != null) {
             recipeMaster.setModifiedBy(
-                    userRepo.findById(recipeMasterDTO.getModifiedById())
-                            .orElseThrow(() -> new ResourceNotFoundException("User not found: " + recipeMasterDTO.getModifiedById()))
+                    user(users, recipeMasterDTO.getModifiedById())
             );
         }
 
@@ -240,14 +253,14 @@ public class RecipeServiceImpl implements RecipeService {
         // ----------------- SAVE NEW XREFS -----------------
         if (request.getRecipeIngredientXrefDTO() != null && !request.getRecipeIngredientXrefDTO().isEmpty()) {
 
+            List<RecipeIngredientXref> recipeIngredientXrefList = new ArrayList<>();
             for (RecipeIngredientXrefDTO recipeIngredientXrefDTO : request.getRecipeIngredientXrefDTO()) {
 
                 RecipeIngredientXref recipeIngredientXref = new RecipeIngredientXref();
                 recipeIngredientXref.setRecipe(updated);
 
                 recipeIngredientXref.setIngredient(
-                        ingredientRepo.findById(recipeIngredientXrefDTO.getIngredientId())
-                                .orElseThrow(() -> new ResourceNotFoundException("Ingredient not found: " + recipeIngredientXrefDTO.getIngredientId()))
+                        ingredient(ingredients, recipeIngredientXrefDTO.getIngredientId())
                 );
 
                 recipeIngredientXref.setUom(recipeIngredientXrefDTO.getUom());
@@ -262,22 +275,24 @@ public class RecipeServiceImpl implements RecipeService {
 
                 if (recipeIngredientXrefDTO.getCreatedById() != null) {
                     recipeIngredientXref.setCreatedBy(
-                            userRepo.findById(recipeIngredientXrefDTO.getCreatedById())
-                                    .orElseThrow(() -> new ResourceNotFoundException("User not found: " + recipeIngredientXrefDTO.getCreatedById()))
+                            user(users, recipeIngredientXrefDTO.getCreatedById())
                     );
                 }
 
                 if (recipeIngredientXrefDTO.getModifiedById() != null) {
                     recipeIngredientXref.setModifiedBy(
-                            userRepo.findById(recipeIngredientXrefDTO.getModifiedById())
-                                    .orElseThrow(() -> new ResourceNotFoundException("User not found: " + recipeIngredientXrefDTO.getModifiedById()))
+                            user(users, recipeIngredientXrefDTO.getModifiedById())
                     );
                 }
 
-                xrefRepo.save(recipeIngredientXref);
+                recipeIngredientXrefList.add(recipeIngredientXref);
             }
+
+            // all lines in one JDBC batch
+            xrefRepo.batchInsert(recipeIngredientXrefList);
         }
 
+        eventPublisher.publishEvent(new RecipeChangedEvent(recipeId));
         return updated;
     }
 
@@ -379,7 +394,7 @@ public class RecipeServiceImpl implements RecipeService {
 
         // Fetch only active recipes
         List<RecipeMaster> recipeMasterList =
-                recipeRepo.findByActiveFlagAndEnableFlag(1, 1);
+                recipeRepo.findWithUsersByActiveFlagAndEnableFlag(1, 1);
 
         List<RecipeMasterDTO> recipeMasterDTOList = new ArrayList<>();
 
@@ -429,6 +444,8 @@ public class RecipeServiceImpl implements RecipeService {
                 xrefRepo.save(recipeIngredientXref);
             }
         }
+
+        eventPublisher.publishEvent(new RecipeChangedEvent(recipeId));
     }
 
     private RecipeMasterDTO mapToDTO(RecipeMaster e) {
@@ -452,6 +469,52 @@ public class RecipeServiceImpl implements RecipeService {
 
     // -------------------- Mapping Helpers --------------------
 
+    private Map<Integer, User> usersById(RecipeMasterDTO master, List<RecipeIngredientXrefDTO> lines) {
+        Set<Integer> userIds = new HashSet<>();
+        userIds.add(master.getCreatedById());
+        userIds.add(master.getModifiedById());
+        if (lines != null) {
+            for (RecipeIngredientXrefDTO line : lines) {
+                userIds.add(line.getCreatedById());
+                userIds.add(line.getModifiedById());
+            }
+        }
+        userIds.remove(null);
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        return userRepo.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getUserId, user -> user));
+    }
+
+    private Map<Integer, IngredientsMaster> ingredientsById(List<RecipeIngredientXrefDTO> lines) {
+        if (lines == null || lines.isEmpty()) {
+            return Map.of();
+        }
+        Set<Integer> ingredientIds = lines.stream()
+                .map(RecipeIngredientXrefDTO::getIngredientId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return ingredientRepo.findAllById(ingredientIds).stream()
+                .collect(Collectors.toMap(IngredientsMaster::getIngredientId, ingredient -> ingredient));
+    }
+
+    private static User user(Map<Integer, User> users, Integer userId) {
+        User user = users.get(userId);
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found: " + userId);
+        }
+        return user;
+    }
+
+    private static IngredientsMaster ingredient(Map<Integer, IngredientsMaster> ingredients, Integer ingredientId) {
+        IngredientsMaster ingredient = ingredients.get(ingredientId);
+        if (ingredient == null) {
+            throw new ResourceNotFoundException("Ingredient not found: " + ingredientId);
+        }
+        return ingredient;
+    }
+
     // If you add pricing on IngredientsMaster, implement:
     // private BigDecimal calculateTotalCost(Long recipeId) { ... }
 }
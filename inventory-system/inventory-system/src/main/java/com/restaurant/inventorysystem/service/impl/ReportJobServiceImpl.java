@@ -0,0 +1,301 @@
+package com.restaurant.inventorysystem.service.impl;
+
+import com.restaurant.inventorysystem.dto.ReportJobDTO;
+import com.restaurant.inventorysystem.exception.InvalidDataException;
+import com.restaurant.inventorysystem.exception.ReportNotReadyException;
+import com.restaurant.inventorysystem.exception.ReportQueueFullException;
+import com.restaurant.inventorysystem.exception.ResourceNotFoundException;
+import com.restaurant.inventorysystem.report.ReportFormat;
+import com.restaurant.inventorysystem.report.ReportJob;
+import com.restaurant.inventorysystem.report.ReportJobStatus;
+import com.restaurant.inventorysystem.report.TabularReport;
+import com.restaurant.inventorysystem.service.ReportExportService;
+import com.restaurant.inventorysystem.service.ReportJobService;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * ------------------------------------------------------------
+ * SERVICE IMPLEMENTATION: Report Jobs
+ * ------------------------------------------------------------
+ * Heavy reports are written to local disk by a small worker pool, so
+ * they no longer hold a Tomcat thread (or the client connection) for
+ * minutes:
+ *
+ *  1️⃣ submit()   → job QUEUED on a bounded executor (report.jobs.threads
+ *                   workers, report.jobs.queue-capacity waiting jobs;
+ *                   beyond that the request is refused with 503)
+ *  2️⃣ worker     → count rows, write <id>.part through
+ *                   ReportExportService.write (progress per 5,000 rows),
+ *                   rename to <id>.<ext> when complete
+ *  3️⃣ download() → file sent with Tomcat sendfile (FileChannel.transferTo
+ *                   straight to the socket), or transferTo into the
+ *                   response channel where sendfile is not available
+ *  4️⃣ sweep      → DONE / FAILED jobs are forgotten and their files
+ *                   deleted report.jobs.ttl after they finish
+ *
+ * Identical requests (report, format, date range) while a job is queued
+ * or running share that job. Jobs live in memory: with several app
+ * instances, poll and download on the instance that took the job.
+ */
+@Service
+public class ReportJobServiceImpl implements ReportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportJobServiceImpl.class);
+
+    private static final int FILE_BUFFER_SIZE = 64 * 1024;
+    // <job id>.<ext>
+    private static final Pattern JOB_FILE = Pattern.compile("[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}\\.[a-z]+");
+    // Tomcat request attributes for sendfile (see org.apache.coyote.Constants)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final ReportExportService reportExportService;
+    private final Path directory;
+    private final Duration ttl;
+    private final ThreadPoolExecutor executor;
+
+    // all jobs by id, until they expire
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    // queued / running jobs by request key, for de-duplication
+    private final Map<String, ReportJob> inFlight = new ConcurrentHashMap<>();
+
+    public ReportJobServiceImpl(ReportExportService reportExportService,
+                                @Value("${report.jobs.dir:${java.io.tmpdir}/inventory-reports}") String directory,
+                                @Value("${report.jobs.threads:2}") int threads,
+                                @Value("${report.jobs.queue-capacity:20}") int queueCapacity,
+                                @Value("${report.jobs.ttl:60m}") Duration ttl,
+                                @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) throws IOException {
+        this.reportExportService = reportExportService;
+        this.directory = Files.createDirectories(Paths.get(directory));
+        this.ttl = ttl;
+
+        // the pool bounds how many jobs run at once (DB cursors, disk); in virtual-thread
+        // mode its workers are virtual threads, unmounted while they wait on JDBC or the file
+        ThreadFactory threadFactory = virtualThreads
+                ? Thread.ofVirtual().name("report-job-", 1).factory()
+                : Thread.ofPlatform().name("report-job-", 1).daemon(true).factory();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // job files of a previous run: their jobs are gone with the old process
+        try (Stream<Path> files = Files.list(this.directory)) {
+            files.filter(file -> JOB_FILE.matcher(file.getFileName().toString()).matches())
+                    .forEach(ReportJobServiceImpl::deleteQuietly);
+        }
+    }
+
+    @Override
+    public ReportJobDTO submit(String type, String format, LocalDateTime from, LocalDateTime to) {
+        TabularReport report = parseReport(type);
+        ReportFormat reportFormat = parseFormat(format);
+        if (!report.hasDateRange()) {
+            from = null;
+            to = null;
+        } else if (from != null && to != null && !from.isBefore(to)) {
+            throw new InvalidDataException("'from' must be before 'to'");
+        }
+
+        String key = report + "|" + reportFormat + "|" + from + "|" + to;
+        LocalDateTime rangeFrom = from;
+        LocalDateTime rangeTo = to;
+        ReportJob[] created = new ReportJob[1];
+        ReportJob job = inFlight.computeIfAbsent(key, k -> {
+            ReportJob newJob = new ReportJob(UUID.randomUUID().toString(), k, report, reportFormat,
+                    rangeFrom, rangeTo);
+            jobs.put(newJob.getId(), newJob);
+            created[0] = newJob;
+            return newJob;
+        });
+        if (created[0] == null) {
+            logger.info("Report job {} already {} for {}", job.getId(), job.getStatus(), key);
+            return toDTO(job);
+        }
+
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, job);
+            jobs.remove(job.getId());
+            throw new ReportQueueFullException("Report queue is full, try again later");
+        }
+        logger.info("Report job {} queued for {}", job.getId(), key);
+        return toDTO(job);
+    }
+
+    @Override
+    public ReportJobDTO getJob(String jobId) {
+        return toDTO(findJob(jobId));
+    }
+
+    @Override
+    public void download(String jobId, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ReportJob job = findJob(jobId);
+        if (job.getStatus() != ReportJobStatus.DONE) {
+            throw new ReportNotReadyException("Report job " + jobId + " is " + job.getStatus());
+        }
+
+        Path file = job.getFile();
+        long size = job.getFileSize();
+        response.setContentType(job.getFormat().getContentType()
+                + (job.getFormat() == ReportFormat.XLSX ? "" : "; charset=UTF-8"));
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=" + job.getReport().getFileName() + "." + job.getFormat().getExtension());
+        response.setContentLengthLong(size);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat transfers the file to the socket after this method returns
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, size);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${report.jobs.sweep-interval-ms:60000}")
+    public int evictExpired() {
+        Instant now = Instant.now();
+        int removed = 0;
+        for (ReportJob job : jobs.values()) {
+            if (job.isExpired(now) && jobs.remove(job.getId(), job)) {
+                if (job.getFile() != null) {
+                    deleteQuietly(job.getFile());
+                }
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            logger.info("Removed {} expired report jobs", removed);
+        }
+        return removed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ---------------------------------------------------------------
+
+    private void run(ReportJob job) {
+        Path part = directory.resolve(job.getId() + ".part");
+        try {
+            job.start(reportExportService.count(job.getReport(), job.getFrom(), job.getTo()));
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part), FILE_BUFFER_SIZE)) {
+                reportExportService.write(job.getReport(), job.getFormat(), job.getFrom(), job.getTo(),
+                        out, job::progress);
+            }
+            Path file = Files.move(part, directory.resolve(job.getId() + "." + job.getFormat().getExtension()),
+                    StandardCopyOption.ATOMIC_MOVE);
+            job.done(file, Files.size(file), Instant.now().plus(ttl));
+            logger.info("Report job {} done: {} rows, {} bytes", job.getId(), job.getRowsWritten(), job.getFileSize());
+        } catch (Exception e) {
+            logger.error("Report job {} failed", job.getId(), e);
+            deleteQuietly(part);
+            job.failed("Report generation failed", Instant.now().plus(ttl));
+        } finally {
+            inFlight.remove(job.getKey(), job);
+        }
+    }
+
+    private ReportJob findJob(String jobId) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null || job.isExpired(Instant.now())) {
+            throw new ResourceNotFoundException("Report job not found: " + jobId);
+        }
+        return job;
+    }
+
+    private static TabularReport parseReport(String type) {
+        for (TabularReport report : TabularReport.values()) {
+            if (report.getPath().equalsIgnoreCase(type)) {
+                return report;
+            }
+        }
+        throw new InvalidDataException("Unknown report type: " + type);
+    }
+
+    private static ReportFormat parseFormat(String format) {
+        try {
+            return ReportFormat.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidDataException("Unknown report format: " + format + " (csv, ndjson, xlsx)");
+        }
+    }
+
+    private static ReportJobDTO toDTO(ReportJob job) {
+        ReportJobDTO dto = new ReportJobDTO();
+        dto.setJobId(job.getId());
+        dto.setType(job.getReport().getPath());
+        dto.setFormat(job.getFormat().getExtension());
+        dto.setStatus(job.getStatus().name());
+        dto.setRowsWritten(job.getRowsWritten());
+        long total = job.getTotalRows();
+        if (total >= 0) {
+            dto.setTotalRows(total);
+            dto.setProgress(total == 0 ? 100 : (int) Math.min(100, job.getRowsWritten() * 100 / total));
+        }
+        if (job.getStatus() == ReportJobStatus.DONE) {
+            dto.setFileSize(job.getFileSize());
+            dto.setDownloadUrl("/api/reports/jobs/" + job.getId() + "/download");
+        }
+        dto.setError(job.getError());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        dto.setExpiresAt(job.getExpiresAt());
+        return dto;
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warn("Could not delete report file {}: {}", file, e.getMessage());
+        }
+    }
+}
@@ -5,13 +5,23 @@ import com.restaurant.inventorysystem.dto.StockReportDTO;
 import com.restaurant.inventorysystem.entity.IngredientsMaster;
 import com.restaurant.inventorysystem.entity.StockIn;
 import com.restaurant.inventorysystem.entity.User;
+import com.restaurant.inventorysystem.exception.InsufficientStockException;
 import com.restaurant.inventorysystem.exception.InvalidDataException;
 import com.restaurant.inventorysystem.exception.ResourceNotFoundException;
 import com.restaurant.inventorysystem.dto.StockInRequestDTO;
+import com.restaurant.inventorysystem.repository.IngredientStockView;
 import com.restaurant.inventorysystem.repository.IngredientsRepository;
 import com.restaurant.inventorysystem.repository.StockInRepository;
 import com.restaurant.inventorysystem.service.StockInService;
+import com.restaurant.inventorysystem.stock.Quantity;
+import com.restaurant.inventorysystem.stock.StockDeductionEngine;
+import com.restaurant.inventorysystem.stock.StockLevel;
+import com.restaurant.inventorysystem.stock.StockMovementType;
+import com.restaurant.inventorysystem.stock.StockTransactionRunner;
 import com.restaurant.inventorysystem.util.ExcelExportUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.http.HttpServletResponse;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
@@ -47,6 +57,28 @@ public class StockInServiceImpl implements StockInService {
     @Autowired
     private IngredientsRepository ingredientsRepository;
 
+    @Autowired
+    private StockDeductionEngine stockDeductionEngine;
+
+    @Autowired
+    private Quantity quantity;
+
+    @Autowired
+    private StockTransactionRunner stockTransactionRunner;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Timer addStockTimer;
+    private Timer stockReportTimer;
+
+    @PostConstruct
+    void registerMeters() {
+        addStockTimer = Timer.builder("stock.in.add")
+                .description("addStock, including stock conflict retries").register(meterRegistry);
+        stockReportTimer = Timer.builder("stock.report")
+                .description("getStockReport (JSON and Excel)").register(meterRegistry);
+    }
 
     /**
      * Adds stock for a given ingredient. This method performs:
@@ -57,6 +89,8 @@ public class StockInServiceImpl implements StockInService {
      * 5. Returning a clean DTO response
      *
      * This ensures accurate inventory management and prevents stock mismatch.
+     * The stock row is changed under the configured inventory.stock.lock-mode
+     * and the whole method is retried on a concurrent update.
      *
      * @author Ram
      * @date 2025-11-09
@@ -71,54 +105,58 @@ public class StockInServiceImpl implements StockInService {
     @Override
     public StockInResponseDTO addStock(StockInRequestDTO req) {
 
-        //   Step 1: Fetch ingredient
-        IngredientsMaster ingredient = ingredientsRepository.findById(req.getIngredientId())
-                .orElseThrow(() -> new ResourceNotFoundException("Ingredient not found with ID: " + req.getIngredientId()));
-
-        //   Step 2: Convert qtyMain → qtySub (main unit to smallest unit)
-        BigDecimal qtySub = req.getQtyMain().multiply(ingredient.getBaseUnitValue());
-
-        //   Step 3: Compute previous + updated stock
-        BigDecimal previousStock = ingredient.getCurrentStockSubunit();
-        BigDecimal updatedStock = previousStock.add(qtySub);
-
-        //   Step 4: Update ingredient master with new stock
-        ingredient.setCurrentStockSubunit(updatedStock);
-        ingredient.setUpdatedDate(LocalDateTime.now());
-        ingredientsRepository.save(ingredient);
-
-        //   Step 5: Prepare StockIn entry
-        StockIn stock = new StockIn();
-        stock.setIngredient(ingredient);
-        stock.setStockNo(generateStockNo());
-        stock.setStockInDate(req.getStockInDate() != null ? req.getStockInDate() : LocalDateTime.now());
-        stock.setSupplierName(req.getSupplierName());
-        stock.setQtyMain(req.getQtyMain());
-        stock.setQtySub(qtySub);
-        stock.setPreviousStockSub(previousStock);
-        stock.setUpdatedStockSub(updatedStock);
-
-        //   Cost calculations
-        stock.setCostPerUnit(req.getCostPerUnit());
-        stock.setTotalCost(
-                req.getCostPerUnit() != null
-                        ? req.getCostPerUnit().multiply(req.getQtyMain())
-                        : null
-        );
+        // Runs in one transaction, retried if the ingredient row was changed concurrently
+        String operation = "Stock-In for ingredient " + req.getIngredientId();
+        return addStockTimer.record(() -> stockTransactionRunner.execute(operation, () -> {
+
+            //   Step 1: Fetch ingredient (base unit only, the row itself is changed in step 3)
+            IngredientStockView ingredient = ingredientsRepository
+                    .findStockByIngredientIds(List.of(req.getIngredientId()))
+                    .stream()
+                    .findFirst()
+                    .orElseThrow(() -> new ResourceNotFoundException("Ingredient not found with ID: " + req.getIngredientId()));
+
+            //   Step 2: Convert qtyMain → qtySub (main unit to smallest unit)
+            long qtySub = quantity.multiply(quantity.of(req.getQtyMain()), quantity.of(ingredient.getBaseUnitValue()));
+
+            //   Step 3 + 4: Add to the ingredient stock (previous + updated come back from the update)
+            String stockNo = generateStockNo();
+            StockLevel level = stockDeductionEngine.adjust(req.getIngredientId(), qtySub,
+                    StockMovementType.STOCK_IN, stockNo);
+
+            //   Step 5: Prepare StockIn entry
+            StockIn stock = new StockIn();
+            stock.setIngredient(ingredientsRepository.getReferenceById(req.getIngredientId()));
+            stock.setStockNo(stockNo);
+            stock.setStockInDate(req.getStockInDate() != null ? req.getStockInDate() : LocalDateTime.now());
+            stock.setSupplierName(req.getSupplierName());
+            stock.setQtyMain(req.getQtyMain());
+            stock.setQtySub(quantity.toDecimal(qtySub));
+            stock.setPreviousStockSub(quantity.toDecimal(level.getPreviousStock()));
+            stock.setUpdatedStockSub(quantity.toDecimal(level.getUpdatedStock()));
+
+            //   Cost calculations
+            stock.setCostPerUnit(req.getCostPerUnit());
+            stock.setTotalCost(
+                    req.getCostPerUnit() != null
+                            ? req.getCostPerUnit().multiply(req.getQtyMain())
+                            : null
+            );
 
-        //   Save createdBy as User foreign key
-        User createdUser = new User();
-        createdUser.setUserId(req.getCreatedBy());
-        stock.setCreatedBy(createdUser);
+            //   Save createdBy as User foreign key
+            User createdUser = new User();
+            createdUser.setUserId(req.getCreatedBy());
+            stock.setCreatedBy(createdUser);
 
-        stock.setCreatedDate(LocalDateTime.now());
-        stock.setRemarks(req.getRemarks());
+            stock.setCreatedDate(LocalDateTime.now());
+            stock.setRemarks(req.getRemarks());
 
-        //   Save stock entry in DB
-        StockIn saved = stockInRepository.save(stock);
+            //   Save stock entry in DB
+            StockIn saved = stockInRepository.save(stock);
 
-        //   Convert and return DTO
-        return mapToDTO(saved);
+            //   Convert and return DTO
+            return mapToDTO(saved);
+        }));
     }
 
 
@@ -171,7 +209,7 @@ public class StockInServiceImpl implements StockInService {
         dto.setRemarks(stock.getRemarks());
 
         //   Created metadata
-        dto.setCreatedBy(stock.getCreatedBy().getUserId());
+        dto.setCreatedBy(stock.getCreatedBy() != null ? stock.getCreatedBy().getUserId() : null);
         dto.setCreatedDate(stock.getCreatedDate());
 
         return dto;
@@ -199,7 +237,8 @@ public class StockInServiceImpl implements StockInService {
     @Override
     public List<StockInResponseDTO> getAllStockIn() {
 
-        return stockInRepository.findAll()
+        // ingredient fetched in the same query: one select for the whole list
+        return stockInRepository.findAllWithIngredient()
                 .stream()
                 .map(this::mapToDTO)     //   convert entity to DTO
                 .toList();
@@ -232,7 +271,7 @@ public class StockInServiceImpl implements StockInService {
     public StockInResponseDTO getStockInById(Integer id) {
 
         //   Step 1: Fetch entity
-        StockIn stock = stockInRepository.findById(id)
+        StockIn stock = stockInRepository.findWithIngredientById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Stock-In not found with ID: " + id));
 
         //   Step 2: Convert entity → DTO
@@ -270,39 +309,36 @@ public class StockInServiceImpl implements StockInService {
     @Override
     public void deleteStockIn(Integer id) {
 
-        //  Step 1: Get stock entry
-        StockIn stock = stockInRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Stock-In not found with ID: " + id));
-
-        //  Step 2: Get ingredient linked with the stock
-        IngredientsMaster ingredient = stock.getIngredient();
-
-        //  Step 3: Check if this stock can be reversed (subtract from ingredient stock)
-        BigDecimal currentStock = ingredient.getCurrentStockSubunit();     // total current stock (subunit)
-        BigDecimal qtyToSubtract = stock.getQtySub();                      // qty that was added earlier
-
-        //  Step 4: Validate stock before subtraction
-        if (currentStock.compareTo(qtyToSubtract) < 0) {
-            throw new InvalidDataException(
-                    "Cannot delete stock entry. Not enough stock available to subtract in Ingredient Master. " +
-                            "Available: " + currentStock + ", Required: " + qtyToSubtract
-            );
-        }
-
-        //  Step 5: Reverse the stock (subtract)
-        BigDecimal updatedStock = currentStock.subtract(qtyToSubtract);
-        ingredient.setCurrentStockSubunit(updatedStock);
-        ingredient.setUpdatedDate(LocalDateTime.now());
-
-        //  Update ingredient record
-        ingredientsRepository.save(ingredient);
+        // Runs in one transaction, retried if the ingredient row was changed concurrently
+        stockTransactionRunner.execute("Delete Stock-In " + id, () -> {
+
+            //  Step 1: Get stock entry
+            StockIn stock = stockInRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Stock-In not found with ID: " + id));
+
+            //  Step 2: Get ingredient linked with the stock
+            Integer ingredientId = stock.getIngredient().getIngredientId();
+            BigDecimal qtyToSubtract = stock.getQtySub();                      // qty that was added earlier
+
+            //  Step 3 - 5: Reverse the stock (subtract); refused if it would go negative
+            try {
+                stockDeductionEngine.adjust(ingredientId, -quantity.of(qtyToSubtract),
+                        StockMovementType.STOCK_IN_REVERSAL, stock.getStockNo());
+            } catch (InsufficientStockException e) {
+                throw new InvalidDataException(
+                        "Cannot delete stock entry. Not enough stock available to subtract in Ingredient Master. " +
+                                "Available: " + e.getAvailable() + ", Required: " + qtyToSubtract
+                );
+            }
 
-        //  Step 6: Soft delete the stock-in record
-        stock.setActiveFlag(0);
-        stock.setEnableFlag(0);
-        stock.setModifiedDate(LocalDateTime.now());
+            //  Step 6: Soft delete the stock-in record
+            stock.setActiveFlag(0);
+            stock.setEnableFlag(0);
+            stock.setModifiedDate(LocalDateTime.now());
 
-        stockInRepository.save(stock);
+            stockInRepository.save(stock);
+            return null;
+        });
     }
 
 
@@ -336,6 +372,10 @@ public class StockInServiceImpl implements StockInService {
      */
     @Override
     public List<StockReportDTO> getStockReport() {
+        return stockReportTimer.record(this::buildStockReport);
+    }
+
+    private List<StockReportDTO> buildStockReport() {
 
         // Fetch all active & enabled ingredients
         List<IngredientsMaster> ingredients = ingredientsRepository.findAllActiveIngredients();
@@ -352,12 +392,13 @@ public class StockInServiceImpl implements StockInService {
             // Stock stored in subunits (gram/ml)
             dto.setStockSubunit(i.getCurrentStockSubunit());
 
-            // Convert subunits → main unit (gram → KG)
-            BigDecimal main = BigDecimal.ZERO;
-            if (i.getBaseUnitValue() != null && i.getBaseUnitValue().compareTo(BigDecimal.ZERO) > 0) {
-                main = i.getCurrentStockSubunit().divide(i.getBaseUnitValue());
+            // Convert subunits → main unit (gram → KG), fixed-point and rounded to the
+            // quantity scale (a plain divide throws on 1000 / 3)
+            long main = 0;
+            if (i.getBaseUnitValue() != null && i.getBaseUnitValue().signum() > 0) {
+                main = quantity.divide(quantity.of(i.getCurrentStockSubunit()), quantity.of(i.getBaseUnitValue()));
             }
-            dto.setStockMain(main);
+            dto.setStockMain(quantity.toDecimal(main));
 
             // Last updated timestamp
             dto.setLastUpdatedDate(i.getUpdatedDate());
@@ -381,7 +422,7 @@ public class StockInServiceImpl implements StockInService {
      *  3. Add headers (bold)
      *  4. Add data rows
      *  5. Apply date formatting
-     *  6. Auto-size columns
+     *  6. Size columns from the first rows (no autoSizeColumn)
      *  7. Stream file to response (browser/Postman download)
      *
      * File Name:
@@ -391,14 +432,13 @@ public class StockInServiceImpl implements StockInService {
     @Override
     public void exportStockReportToExcel(HttpServletResponse response) throws Exception {
 
-        List<StockReportDTO> list = getStockReport();
-
         List<String> headers = Arrays.asList(
                 "Ingredient", "UOM", "Base Unit",
                 "Stock (Subunit)", "Stock (Main)", "Last Updated"
         );
 
-        List<List<Object>> rows = list.stream()
+        // Rows are mapped one at a time while the workbook is streamed out
+        ExcelExportUtil.streamExcel(response, "Stock Report", headers, getStockReport().stream()
                 .map(dto -> Arrays.asList(
                         (Object) dto.getIngredientName(),
                         dto.getUom(),
@@ -406,10 +446,7 @@ public class StockInServiceImpl implements StockInService {
                         dto.getStockSubunit(),
                         dto.getStockMain(),
                         dto.getLastUpdatedDate()
-                ))
-                .toList();
-
-        ExcelExportUtil.generateExcel(response, "Stock Report", headers, rows);
+                )));
     }
 
 
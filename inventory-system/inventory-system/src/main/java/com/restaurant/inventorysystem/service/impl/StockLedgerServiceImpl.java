@@ -0,0 +1,170 @@
+package com.restaurant.inventorysystem.service.impl;
+
+import com.restaurant.inventorysystem.dto.StockAtDTO;
+import com.restaurant.inventorysystem.entity.IngredientsMaster;
+import com.restaurant.inventorysystem.entity.StockSnapshot;
+import com.restaurant.inventorysystem.exception.ResourceNotFoundException;
+import com.restaurant.inventorysystem.repository.IngredientsRepository;
+import com.restaurant.inventorysystem.repository.StockMovementRepository;
+import com.restaurant.inventorysystem.repository.StockMovementSumView;
+import com.restaurant.inventorysystem.repository.StockSnapshotRepository;
+import com.restaurant.inventorysystem.service.StockLedgerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * ------------------------------------------------------------
+ * SERVICE IMPLEMENTATION: Stock Ledger
+ * ------------------------------------------------------------
+ * Every stock change appends signed rows to stock_movement (written by
+ * StockDeductionEngine in the same transaction as the stock update), so
+ * stock at time T is the sum of the movements up to T. To keep that sum
+ * short, StockSnapshotScheduler periodically stores a snapshot run:
+ *
+ *  1️⃣ Take the previous run (all ingredients, same snapshot_at)
+ *  2️⃣ Add the movements after it up to the cutoff, per ingredient
+ *  3️⃣ Save the merged balances with snapshot_at = cutoff
+ *
+ * Stock at T = latest run at or before T + movements in (run, T], i.e.
+ * an index range scan of at most one snapshot interval of the ledger.
+ *
+ * The cutoff lags behind "now" (inventory.ledger.snapshot-lag-ms) so a
+ * transaction still open at snapshot time does not commit movements
+ * into a window that was already summed.
+ */
+@Service
+public class StockLedgerServiceImpl implements StockLedgerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockLedgerServiceImpl.class);
+
+    // Lower end of the movement window when there is no snapshot yet
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final StockMovementRepository stockMovementRepository;
+    private final StockSnapshotRepository stockSnapshotRepository;
+    private final IngredientsRepository ingredientsRepository;
+
+    public StockLedgerServiceImpl(StockMovementRepository stockMovementRepository,
+                                  StockSnapshotRepository stockSnapshotRepository,
+                                  IngredientsRepository ingredientsRepository) {
+        this.stockMovementRepository = stockMovementRepository;
+        this.stockSnapshotRepository = stockSnapshotRepository;
+        this.ingredientsRepository = ingredientsRepository;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<StockAtDTO> getStockAt(LocalDateTime at) {
+        LocalDateTime snapshotAt = stockSnapshotRepository.findLatestSnapshotAt(at);
+
+        // ingredientId → stock, starting from the snapshot run
+        Map<Integer, StockAtDTO> stock = new TreeMap<>();
+        if (snapshotAt != null) {
+            for (StockSnapshot snapshot : stockSnapshotRepository.findBySnapshotAt(snapshotAt)) {
+                StockAtDTO dto = newStockAt(snapshot.getIngredientId(), at, snapshotAt);
+                dto.setStockSubunit(snapshot.getBalance());
+                stock.put(snapshot.getIngredientId(), dto);
+            }
+        }
+
+        // + the tail of the ledger after it
+        for (StockMovementSumView sum : stockMovementRepository.sumByIngredient(
+                snapshotAt != null ? snapshotAt : MIN_DATE, at)) {
+            StockAtDTO dto = stock.computeIfAbsent(sum.getIngredientId(), id -> newStockAt(id, at, snapshotAt));
+            dto.setStockSubunit(dto.getStockSubunit().add(sum.getQuantity()));
+            dto.setMovementsReplayed(sum.getMovements());
+        }
+
+        Map<Integer, String> names = ingredientsRepository.findAllById(stock.keySet()).stream()
+                .collect(Collectors.toMap(IngredientsMaster::getIngredientId, IngredientsMaster::getIngredientName));
+        stock.values().forEach(dto -> dto.setIngredientName(names.get(dto.getIngredientId())));
+        return new ArrayList<>(stock.values());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public StockAtDTO getStockAt(Integer ingredientId, LocalDateTime at) {
+        IngredientsMaster ingredient = ingredientsRepository.findById(ingredientId)
+                .orElseThrow(() -> new ResourceNotFoundException("Ingredient not found with ID: " + ingredientId));
+
+        StockSnapshot snapshot = stockSnapshotRepository.findNearest(ingredientId, at).orElse(null);
+
+        StockAtDTO dto = newStockAt(ingredientId, at, snapshot != null ? snapshot.getSnapshotAt() : null);
+        dto.setIngredientName(ingredient.getIngredientName());
+        if (snapshot != null) {
+            dto.setStockSubunit(snapshot.getBalance());
+        }
+
+        for (StockMovementSumView sum : stockMovementRepository.sumForIngredient(
+                ingredientId, snapshot != null ? snapshot.getSnapshotAt() : MIN_DATE, at)) {
+            dto.setStockSubunit(dto.getStockSubunit().add(sum.getQuantity()));
+            dto.setMovementsReplayed(sum.getMovements());
+        }
+        return dto;
+    }
+
+    @Override
+    @Transactional
+    public int takeSnapshot(LocalDateTime time) {
+        // stored as TIMESTAMP(6)
+        LocalDateTime cutoff = time.truncatedTo(ChronoUnit.MICROS);
+        LocalDateTime previous = stockSnapshotRepository.findLatestSnapshotAt();
+        if (previous != null && !previous.isBefore(cutoff)) {
+            return 0;
+        }
+
+        List<StockMovementSumView> deltas = stockMovementRepository.sumByIngredient(
+                previous != null ? previous : MIN_DATE, cutoff);
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+
+        // previous run carried forward, movements since then added on top
+        Map<Integer, BigDecimal> balances = new TreeMap<>();
+        if (previous != null) {
+            balances = stockSnapshotRepository.findBySnapshotAt(previous).stream()
+                    .collect(Collectors.toMap(StockSnapshot::getIngredientId, StockSnapshot::getBalance,
+                            BigDecimal::add, TreeMap::new));
+        }
+        for (StockMovementSumView delta : deltas) {
+            balances.merge(delta.getIngredientId(), delta.getQuantity(), BigDecimal::add);
+        }
+
+        List<StockSnapshot> run = new ArrayList<>(balances.size());
+        balances.forEach((ingredientId, balance) -> run.add(new StockSnapshot(ingredientId, cutoff, balance)));
+        stockSnapshotRepository.batchInsert(run);
+
+        logger.info("Stock snapshot at {}: {} ingredients, {} changed", cutoff, run.size(), deltas.size());
+        return run.size();
+    }
+
+    @Override
+    @Transactional
+    public int recordOpeningBalances() {
+        int opened = stockMovementRepository.insertOpeningBalances();
+        if (opened > 0) {
+            logger.info("Stock ledger opened for {} ingredients", opened);
+        }
+        return opened;
+    }
+
+    private static StockAtDTO newStockAt(Integer ingredientId, LocalDateTime at, LocalDateTime snapshotAt) {
+        StockAtDTO dto = new StockAtDTO();
+        dto.setIngredientId(ingredientId);
+        dto.setAt(at);
+        dto.setSnapshotAt(snapshotAt);
+        dto.setStockSubunit(BigDecimal.ZERO);
+        return dto;
+    }
+}
@@ -0,0 +1,139 @@
+package com.restaurant.inventorysystem.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.inventorysystem.dto.StockLevelDTO;
+import com.restaurant.inventorysystem.service.StockStreamService;
+import com.restaurant.inventorysystem.stock.IngredientQuantities;
+import com.restaurant.inventorysystem.stock.Quantity;
+import com.restaurant.inventorysystem.stock.RecipeAvailabilityEngine;
+import com.restaurant.inventorysystem.stock.StockChangedEvent;
+import com.restaurant.inventorysystem.util.SseBroadcaster;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ------------------------------------------------------------
+ * SERVICE IMPLEMENTATION: Stock Stream
+ * ------------------------------------------------------------
+ * Pushes live ingredient levels to /api/stock/stream subscribers.
+ *
+ * Flow:
+ *  1️⃣ Mark     : every committed StockChangedEvent marks its ingredients
+ *                dirty (after RecipeAvailabilityEngine applied it)
+ *  2️⃣ Coalesce : every interval, the dirty set is drained and the
+ *                current level of each ingredient read from the engine;
+ *                100 orders on onion in one interval → 1 onion entry
+ *  3️⃣ Fan out  : one "stock" frame, serialized once, sent to all
+ *                subscribers by the SseBroadcaster sender thread
+ *
+ * No DB reads: levels come from the engine's in-memory live stock, and
+ * no thread is held per open connection.
+ *
+ * Properties: inventory.stock.stream.interval-ms / heartbeat-ms / timeout-ms
+ */
+@Service
+public class StockStreamServiceImpl implements StockStreamService {
+
+    private final RecipeAvailabilityEngine recipeAvailabilityEngine;
+    private final Quantity quantity;
+    private final SseBroadcaster broadcaster;
+
+    // ingredients changed since the last frame
+    private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+
+    public StockStreamServiceImpl(RecipeAvailabilityEngine recipeAvailabilityEngine,
+                                  Quantity quantity,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${inventory.stock.stream.timeout-ms:1800000}") long timeoutMs) {
+        this.recipeAvailabilityEngine = recipeAvailabilityEngine;
+        this.quantity = quantity;
+        this.broadcaster = new SseBroadcaster("stock", timeoutMs, objectMapper);
+
+        Gauge.builder("stock.stream.subscribers", broadcaster, SseBroadcaster::subscriberCount)
+                .description("Open /api/stock/stream connections").register(meterRegistry);
+    }
+
+    @Override
+    public SseEmitter subscribe() {
+        return broadcaster.subscribe("snapshot", () -> levels(recipeAvailabilityEngine.liveStock()));
+    }
+
+    /**
+     * Only marks the ingredients; the level is read at flush time, so a
+     * burst costs one entry. Runs after the engine applied the change.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        IngredientQuantities deltas = event.getDeltas();
+        for (int i = 0; i < deltas.size(); i++) {
+            dirty.add(deltas.ingredientIdAt(i));
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${inventory.stock.stream.interval-ms:500}")
+    public synchronized int flush() {
+        if (dirty.isEmpty()) {
+            return 0;
+        }
+        List<Integer> ingredientIds = new ArrayList<>(dirty.size());
+        for (Iterator<Integer> it = dirty.iterator(); it.hasNext(); ) {
+            ingredientIds.add(it.next());
+            it.remove();
+        }
+        // nobody listening: a new subscriber starts from a fresh snapshot anyway
+        if (broadcaster.subscriberCount() == 0) {
+            return 0;
+        }
+
+        // read after draining: a change landing in between is sent now or stays dirty for the next frame
+        List<StockLevelDTO> frame = levels(recipeAvailabilityEngine.liveStock(ingredientIds));
+        if (!frame.isEmpty()) {
+            broadcaster.broadcast("stock", frame);
+        }
+        return frame.size();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.stock.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        broadcaster.heartbeat();
+    }
+
+    @Override
+    public int subscriberCount() {
+        return broadcaster.subscriberCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        broadcaster.close();
+    }
+
+    // ---------------------------------------------------------------
+
+    private List<StockLevelDTO> levels(Map<Integer, Long> liveStock) {
+        List<StockLevelDTO> levels = new ArrayList<>(liveStock.size());
+        new TreeMap<>(liveStock).forEach((ingredientId, level) ->
+                levels.add(new StockLevelDTO(ingredientId, quantity.toDecimal(level))));
+        return levels;
+    }
+}
@@ -2,8 +2,10 @@ package com.restaurant.inventorysystem.service.impl;
 
 import com.restaurant.inventorysystem.entity.User;
 import com.restaurant.inventorysystem.repository.UserRepository;
+import com.restaurant.inventorysystem.security.UserChangedEvent;
 import com.restaurant.inventorysystem.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
@@ -18,6 +20,9 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public User registerUser(User user) {
         // Encrypt the password before saving
         String encodedPassword = passwordEncoder.encode(user.getPassword());
@@ -34,6 +39,9 @@ public class UserServiceImpl implements UserService {
                 () -> user.setDepartment("General")
         );
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        // a cached user of the same name (e.g. re-registered) is dropped
+        eventPublisher.publishEvent(new UserChangedEvent(saved.getUserName()));
+        return saved;
     }
 }
@@ -0,0 +1,68 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.exception.InsufficientStockException;
+import com.restaurant.inventorysystem.exception.ResourceNotFoundException;
+import com.restaurant.inventorysystem.repository.IngredientStockView;
+import com.restaurant.inventorysystem.repository.IngredientsRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ------------------------------------------------------------
+ * STRATEGY: ATOMIC
+ * ------------------------------------------------------------
+ * One JDBC batch of conditional UPDATEs (stock + delta >= 0), then one
+ * read of the new values. The database checks and writes each row in a
+ * single statement, so there is nothing to retry.
+ */
+@Component
+public class AtomicStockUpdateStrategy implements StockUpdateStrategy {
+
+    private final IngredientsRepository ingredientsRepository;
+    private final Quantity quantity;
+
+    public AtomicStockUpdateStrategy(IngredientsRepository ingredientsRepository, Quantity quantity) {
+        this.ingredientsRepository = ingredientsRepository;
+        this.quantity = quantity;
+    }
+
+    @Override
+    public StockLockMode mode() {
+        return StockLockMode.ATOMIC;
+    }
+
+    @Override
+    public Map<Integer, StockLevel> adjust(IngredientQuantities deltas) {
+        Map<Integer, StockLevel> levels = new HashMap<>();
+        if (deltas.isEmpty()) {
+            return levels;
+        }
+
+        List<Integer> rejected = ingredientsRepository.adjustStock(deltas.toDecimals(quantity));
+
+        // Our rows are now locked by this transaction, so this read sees our own writes
+        Map<Integer, IngredientStockView> stockById = new HashMap<>();
+        for (IngredientStockView stock : ingredientsRepository.findStockByIngredientIds(deltas.ingredientIds())) {
+            stockById.put(stock.getIngredientId(), stock);
+        }
+
+        for (Integer ingredientId : rejected) {
+            IngredientStockView stock = stockById.get(ingredientId);
+            if (stock == null) {
+                throw new ResourceNotFoundException("Ingredient not found with ID: " + ingredientId);
+            }
+            throw new InsufficientStockException(ingredientId, stock.getIngredientName(),
+                    stock.getCurrentStockSubunit(), quantity.toDecimal(-deltas.get(ingredientId)));
+        }
+
+        for (int i = 0; i < deltas.size(); i++) {
+            int ingredientId = deltas.ingredientIdAt(i);
+            long updated = quantity.of(stockById.get(ingredientId).getCurrentStockSubunit());
+            levels.put(ingredientId, new StockLevel(ingredientId, updated - deltas.quantityAt(i), updated));
+        }
+        return levels;
+    }
+}
@@ -0,0 +1,75 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.entity.IngredientsMaster;
+import com.restaurant.inventorysystem.exception.InsufficientStockException;
+import com.restaurant.inventorysystem.exception.ResourceNotFoundException;
+import com.restaurant.inventorysystem.repository.IngredientsRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ------------------------------------------------------------
+ * BASE: EntityStockUpdateStrategy
+ * ------------------------------------------------------------
+ * Read-modify-write of IngredientsMaster entities. Subclasses decide
+ * how the rows are read (plain read + @Version check, or FOR UPDATE).
+ * The changes are flushed here so a version clash surfaces inside the
+ * retried transaction instead of at an unrelated later statement.
+ */
+abstract class EntityStockUpdateStrategy implements StockUpdateStrategy {
+
+    protected final IngredientsRepository ingredientsRepository;
+    protected final Quantity quantity;
+
+    protected EntityStockUpdateStrategy(IngredientsRepository ingredientsRepository, Quantity quantity) {
+        this.ingredientsRepository = ingredientsRepository;
+        this.quantity = quantity;
+    }
+
+    /** Loads the ingredient rows that are about to change. */
+    protected abstract List<IngredientsMaster> load(Collection<Integer> ingredientIds);
+
+    @Override
+    public Map<Integer, StockLevel> adjust(IngredientQuantities deltas) {
+        Map<Integer, StockLevel> levels = new HashMap<>();
+        if (deltas.isEmpty()) {
+            return levels;
+        }
+
+        Map<Integer, IngredientsMaster> ingredientById = new HashMap<>();
+        for (IngredientsMaster ingredient : load(deltas.ingredientIds())) {
+            ingredientById.put(ingredient.getIngredientId(), ingredient);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < deltas.size(); i++) {
+            int ingredientId = deltas.ingredientIdAt(i);
+            IngredientsMaster ingredient = ingredientById.get(ingredientId);
+            if (ingredient == null) {
+                throw new ResourceNotFoundException("Ingredient not found with ID: " + ingredientId);
+            }
+
+            long previous = quantity.of(ingredient.getCurrentStockSubunit());
+            long updated = quantity.add(previous, deltas.quantityAt(i));
+            if (updated < 0) {
+                throw new InsufficientStockException(ingredientId, ingredient.getIngredientName(),
+                        ingredient.getCurrentStockSubunit(), quantity.toDecimal(-deltas.quantityAt(i)));
+            }
+
+            ingredient.setCurrentStockSubunit(quantity.toDecimal(updated));
+            ingredient.setUpdatedDate(now);
+            levels.put(ingredientId, new StockLevel(ingredientId, previous, updated));
+        }
+
+        List<IngredientsMaster> changed = ingredientById.values().stream()
+                .sorted(Comparator.comparing(IngredientsMaster::getIngredientId))
+                .toList();
+        ingredientsRepository.saveAllAndFlush(changed);
+        return levels;
+    }
+}
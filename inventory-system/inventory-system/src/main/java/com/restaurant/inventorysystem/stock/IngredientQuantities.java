@@ -0,0 +1,118 @@
+package com.restaurant.inventorysystem.stock;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ------------------------------------------------------------
+ * MODEL: IngredientQuantities
+ * ------------------------------------------------------------
+ * Immutable ingredient → quantity list, sorted by ingredientId with one
+ * entry per ingredient. Quantities are fixed-point longs (see Quantity).
+ *
+ * Kept as two parallel primitive arrays like RecipeBom, so exploding an
+ * order does not box a Long or allocate a map entry per ingredient.
+ */
+public final class IngredientQuantities {
+
+    private static final IngredientQuantities EMPTY = new IngredientQuantities(new int[0], new long[0]);
+
+    private final int[] ingredientIds;
+    private final long[] quantities;
+
+    private IngredientQuantities(int[] ingredientIds, long[] quantities) {
+        this.ingredientIds = ingredientIds;
+        this.quantities = quantities;
+    }
+
+    /** Single ingredient. */
+    public static IngredientQuantities of(int ingredientId, long quantity) {
+        return new IngredientQuantities(new int[]{ingredientId}, new long[]{quantity});
+    }
+
+    /**
+     * Sorts the first {@code count} pairs by ingredientId and adds up the
+     * quantities of repeated ingredients. The arrays are not kept.
+     */
+    public static IngredientQuantities sumOf(int[] ingredientIds, long[] quantities, int count, Quantity quantity) {
+        if (count == 0) {
+            return EMPTY;
+        }
+
+        // (ingredientId << 32 | index): one primitive sort, no Integer boxing
+        long[] order = new long[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = ((long) ingredientIds[i] << 32) | i;
+        }
+        Arrays.sort(order);
+
+        int[] ids = new int[count];
+        long[] sums = new long[count];
+        int size = 0;
+        for (long key : order) {
+            int ingredientId = (int) (key >> 32);
+            long value = quantities[(int) key];
+            if (size > 0 && ids[size - 1] == ingredientId) {
+                sums[size - 1] = quantity.add(sums[size - 1], value);
+            } else {
+                ids[size] = ingredientId;
+                sums[size++] = value;
+            }
+        }
+        return size == count
+                ? new IngredientQuantities(ids, sums)
+                : new IngredientQuantities(Arrays.copyOf(ids, size), Arrays.copyOf(sums, size));
+    }
+
+    /** Number of ingredients. */
+    public int size() { return ingredientIds.length; }
+
+    public boolean isEmpty() { return ingredientIds.length == 0; }
+
+    public int ingredientIdAt(int index) { return ingredientIds[index]; }
+
+    public long quantityAt(int index) { return quantities[index]; }
+
+    /** Quantity of an ingredient, 0 if absent. */
+    public long get(int ingredientId) {
+        int index = Arrays.binarySearch(ingredientIds, ingredientId);
+        return index >= 0 ? quantities[index] : 0;
+    }
+
+    /** Same ingredients, quantities negated (deduction ↔ restore). */
+    public IngredientQuantities negate() {
+        long[] negated = new long[quantities.length];
+        for (int i = 0; i < quantities.length; i++) {
+            negated[i] = Math.negateExact(quantities[i]);
+        }
+        return new IngredientQuantities(ingredientIds, negated);
+    }
+
+    /** Ingredient ids in ascending order. */
+    public List<Integer> ingredientIds() {
+        List<Integer> ids = new ArrayList<>(ingredientIds.length);
+        for (int ingredientId : ingredientIds) {
+            ids.add(ingredientId);
+        }
+        return ids;
+    }
+
+    /** ingredientId → subunits as BigDecimal, in id order (JDBC / JPA boundary). */
+    public Map<Integer, BigDecimal> toDecimals(Quantity quantity) {
+        Map<Integer, BigDecimal> decimals = new LinkedHashMap<>();
+        for (int i = 0; i < ingredientIds.length; i++) {
+            decimals.put(ingredientIds[i], quantity.toDecimal(quantities[i]));
+        }
+        return decimals;
+    }
+
+    @Override
+    public String toString() {
+        return "IngredientQuantities{ingredientIds=" + Arrays.toString(ingredientIds)
+                + ", quantities=" + Arrays.toString(quantities) + "}";
+    }
+}
@@ -0,0 +1,34 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.entity.IngredientsMaster;
+import com.restaurant.inventorysystem.repository.IngredientsRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * ------------------------------------------------------------
+ * STRATEGY: OPTIMISTIC
+ * ------------------------------------------------------------
+ * Plain read, then UPDATE ... WHERE row_version = ?. A concurrent change
+ * makes the flush fail with an optimistic locking failure, which
+ * StockTransactionRunner retries with a fresh read.
+ */
+@Component
+public class OptimisticStockUpdateStrategy extends EntityStockUpdateStrategy {
+
+    public OptimisticStockUpdateStrategy(IngredientsRepository ingredientsRepository, Quantity quantity) {
+        super(ingredientsRepository, quantity);
+    }
+
+    @Override
+    public StockLockMode mode() {
+        return StockLockMode.OPTIMISTIC;
+    }
+
+    @Override
+    protected List<IngredientsMaster> load(Collection<Integer> ingredientIds) {
+        return ingredientsRepository.findAllById(ingredientIds);
+    }
+}
@@ -0,0 +1,34 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.entity.IngredientsMaster;
+import com.restaurant.inventorysystem.repository.IngredientsRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * ------------------------------------------------------------
+ * STRATEGY: PESSIMISTIC
+ * ------------------------------------------------------------
+ * SELECT ... FOR UPDATE in ingredientId order; the rows stay locked
+ * until commit, so other tills wait instead of failing. Lock timeouts
+ * and deadlocks are retried by StockTransactionRunner.
+ */
+@Component
+public class PessimisticStockUpdateStrategy extends EntityStockUpdateStrategy {
+
+    public PessimisticStockUpdateStrategy(IngredientsRepository ingredientsRepository, Quantity quantity) {
+        super(ingredientsRepository, quantity);
+    }
+
+    @Override
+    public StockLockMode mode() {
+        return StockLockMode.PESSIMISTIC;
+    }
+
+    @Override
+    protected List<IngredientsMaster> load(Collection<Integer> ingredientIds) {
+        return ingredientsRepository.findAllByIdForUpdate(ingredientIds);
+    }
+}
@@ -0,0 +1,132 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.exception.InvalidDataException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * ------------------------------------------------------------
+ * COMPONENT: Quantity
+ * ------------------------------------------------------------
+ * Fixed-point stock quantities: a quantity is a plain {@code long}
+ * holding subunits × 10^scale (scale 2: 2.5 gm → 250). The order hot
+ * path (explosion, availability check, ledger rows, write-behind
+ * counters) works on these longs; BigDecimal only appears where a value
+ * enters or leaves through JPA / JDBC / JSON, via of() and toDecimal().
+ *
+ *  - Inputs are rounded HALF_UP to the scale
+ *  - multiply / divide round HALF_UP back to the scale
+ *  - Overflow (≈ 9.2 × 10^16 subunits at scale 2) is an InvalidDataException,
+ *    never a silent wrap-around
+ *
+ * The scale must be the scale of the DECIMAL columns these values are
+ * stored in (current_stock_subunit, stock_movement.quantity,
+ * stock_snapshot.balance, recipe quantity_value: 2). With more decimals
+ * in memory than the database keeps, every write is rounded and the
+ * counters, availability and ledger drift away from the stored stock.
+ *
+ * Property: inventory.stock.quantity-scale (decimals kept per subunit)
+ */
+@Component
+public final class Quantity {
+
+    private final int scale;
+    // 10^scale, the scaled value of one subunit
+    private final long one;
+
+    public Quantity(@Value("${inventory.stock.quantity-scale:2}") int scale) {
+        if (scale < 0 || scale > 9) {
+            throw new IllegalArgumentException("inventory.stock.quantity-scale must be 0..9, was " + scale);
+        }
+        this.scale = scale;
+        long unit = 1;
+        for (int i = 0; i < scale; i++) {
+            unit *= 10;
+        }
+        this.one = unit;
+    }
+
+    /** Decimals kept per subunit. */
+    public int scale() {
+        return scale;
+    }
+
+    /** Scaled value of {@code value} subunits. */
+    public long of(BigDecimal value) {
+        try {
+            return value.setScale(scale, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new InvalidDataException("Quantity too large: " + value.toPlainString());
+        }
+    }
+
+    /** Subunits as BigDecimal (JPA / JSON boundary). */
+    public BigDecimal toDecimal(long quantity) {
+        return BigDecimal.valueOf(quantity, scale);
+    }
+
+    /** a × b, both scaled, e.g. recipe quantity × portions. */
+    public long multiply(long a, long b) {
+        long high = Math.multiplyHigh(a, b);
+        long low = a * b;
+        if (fits(high, low)) {
+            return roundedDivide(low, one);
+        }
+        // rare: the intermediate product needs more than 64 bits
+        return exact(BigDecimal.valueOf(a).multiply(BigDecimal.valueOf(b)), BigDecimal.valueOf(one));
+    }
+
+    /** a ÷ b, both scaled, e.g. subunits ÷ base unit value = main units. */
+    public long divide(long a, long b) {
+        if (b == 0) {
+            throw new InvalidDataException("Division of quantity " + toDecimal(a).toPlainString() + " by zero");
+        }
+        long high = Math.multiplyHigh(a, one);
+        long low = a * one;
+        if (fits(high, low)) {
+            return roundedDivide(low, b);
+        }
+        return exact(BigDecimal.valueOf(a).multiply(BigDecimal.valueOf(one)), BigDecimal.valueOf(b));
+    }
+
+    /** a + b with overflow check. */
+    public long add(long a, long b) {
+        long sum = a + b;
+        // overflow iff both operands have the sign the sum does not have
+        if (((a ^ sum) & (b ^ sum)) < 0) {
+            throw outOfRange(a);
+        }
+        return sum;
+    }
+
+    // the 128-bit product high:low is just the sign extension of low
+    private static boolean fits(long high, long low) {
+        return high == (low >> 63);
+    }
+
+    // n / d rounded half away from zero
+    private static long roundedDivide(long n, long d) {
+        long quotient = n / d;
+        long remainder = Math.abs(n % d);
+        if (remainder != 0 && remainder >= Math.abs(d) - remainder) {
+            quotient += (n < 0) == (d < 0) ? 1 : -1;
+        }
+        return quotient;
+    }
+
+    private long exact(BigDecimal numerator, BigDecimal denominator) {
+        BigDecimal result = numerator.divide(denominator, 0, RoundingMode.HALF_UP);
+        try {
+            return result.longValueExact();
+        } catch (ArithmeticException e) {
+            throw new InvalidDataException("Quantity out of range: " + result.movePointLeft(scale).toPlainString());
+        }
+    }
+
+    private InvalidDataException outOfRange(long operand) {
+        return new InvalidDataException("Quantity out of range: " + toDecimal(operand).toPlainString());
+    }
+}
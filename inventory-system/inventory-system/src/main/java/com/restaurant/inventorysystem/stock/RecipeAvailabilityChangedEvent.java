@@ -0,0 +1,27 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.dto.RecipeAvailabilityDTO;
+
+import java.util.List;
+
+/**
+ * ------------------------------------------------------------
+ * EVENT: RecipeAvailabilityChangedEvent
+ * ------------------------------------------------------------
+ * Published by RecipeAvailabilityEngine with the recipes whose
+ * makeable portions changed, after the stock or recipe change that
+ * caused it has committed. Events are published in the order the
+ * engine applied the changes.
+ */
+public class RecipeAvailabilityChangedEvent {
+
+    private final List<RecipeAvailabilityDTO> changes;
+
+    public RecipeAvailabilityChangedEvent(List<RecipeAvailabilityDTO> changes) {
+        this.changes = changes;
+    }
+
+    public List<RecipeAvailabilityDTO> getChanges() {
+        return changes;
+    }
+}
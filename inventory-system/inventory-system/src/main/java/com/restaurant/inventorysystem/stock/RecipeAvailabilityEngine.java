@@ -0,0 +1,399 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.dto.RecipeAvailabilityDTO;
+import com.restaurant.inventorysystem.repository.RecipeMasterRepository;
+import com.restaurant.inventorysystem.repository.RecipePriceView;
+import com.restaurant.inventorysystem.repository.StockMovementRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ------------------------------------------------------------
+ * COMPONENT: RecipeAvailabilityEngine
+ * ------------------------------------------------------------
+ * Keeps, for every active recipe, how many portions the current stock
+ * can still make: min over its ingredient lines of
+ * stock / quantity per portion (fixed-point, see Quantity).
+ *
+ * State (in memory):
+ *  - live stock of every ingredient
+ *  - active recipe BOMs (from RecipeBomCache)
+ *  - reverse index ingredient → recipes using it
+ *
+ * Updates are incremental:
+ *  1️⃣ StockChangedEvent  : adds the deltas, recomputes only the recipes
+ *                          using the changed ingredients (AFTER_COMMIT)
+ *  2️⃣ RecipeChangedEvent : re-indexes that one recipe (AFTER_COMMIT,
+ *                          after RecipeBomCache dropped the old BOM)
+ *  3️⃣ Reload             : full rebuild from DB on ApplicationReadyEvent
+ *                          and every reconcile interval, as a safety net
+ *                          for stock changed outside StockDeductionEngine
+ *
+ * A reload must count every committed change exactly once: either in the
+ * stock it reads or as a journaled delta on top of it. Commit order is
+ * not the movement_id order (ids are taken at insert), so the cut is a
+ * commit gate instead: a stock transaction holds it shared from just
+ * before its commit until its StockChangedEvent listeners have run, and
+ * the reload reads stock and starts its journal holding it exclusively.
+ *
+ * Recipes whose portions changed are published as one
+ * RecipeAvailabilityChangedEvent per update (SSE stream). The live
+ * stock it keeps is also what the stock level stream reads (liveStock).
+ *
+ * Property: inventory.availability.reconcile-interval-ms
+ */
+@Component
+public class RecipeAvailabilityEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeAvailabilityEngine.class);
+
+    private final RecipeBomCache recipeBomCache;
+    private final RecipeMasterRepository recipeMasterRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final Quantity quantity;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // stock commits hold it shared, reload's stock read exclusively (see class doc)
+    private final ReentrantReadWriteLock commitGate = new ReentrantReadWriteLock();
+    // one reload at a time; held across DB reads, so a lock rather than a monitor (virtual threads)
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private final Object lock = new Object();
+    // ---- guarded by lock ----
+    private final Map<Integer, Long> stock = new HashMap<>();
+    private final Map<Integer, RecipeBom> boms = new HashMap<>();
+    private final Map<Integer, Set<Integer>> recipesByIngredient = new HashMap<>();
+    // deltas committed after reload() read the stock, applied again on top of what it read
+    private List<IngredientQuantities> journal;
+
+    // current result, read without the lock
+    private final Map<Integer, RecipeAvailabilityDTO> availability = new ConcurrentHashMap<>();
+
+    public RecipeAvailabilityEngine(RecipeBomCache recipeBomCache,
+                                    RecipeMasterRepository recipeMasterRepository,
+                                    StockMovementRepository stockMovementRepository,
+                                    Quantity quantity,
+                                    ApplicationEventPublisher eventPublisher,
+                                    PlatformTransactionManager transactionManager) {
+        this.recipeBomCache = recipeBomCache;
+        this.recipeMasterRepository = recipeMasterRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.quantity = quantity;
+        this.eventPublisher = eventPublisher;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /** Availability of every active recipe, by recipeId. */
+    public List<RecipeAvailabilityDTO> getAll() {
+        List<RecipeAvailabilityDTO> all = new ArrayList<>(availability.values());
+        all.sort(Comparator.comparing(RecipeAvailabilityDTO::getRecipeId));
+        return all;
+    }
+
+    /** Availability of one recipe; null if it is not an active recipe. */
+    public RecipeAvailabilityDTO get(Integer recipeId) {
+        return availability.get(recipeId);
+    }
+
+    /**
+     * Live stock (fixed-point subunits) of the given ingredients, as of the
+     * last committed change applied. Unknown ingredients are absent.
+     */
+    public Map<Integer, Long> liveStock(Collection<Integer> ingredientIds) {
+        Map<Integer, Long> levels = new HashMap<>();
+        synchronized (lock) {
+            for (Integer ingredientId : ingredientIds) {
+                Long level = stock.get(ingredientId);
+                if (level != null) {
+                    levels.put(ingredientId, level);
+                }
+            }
+        }
+        return levels;
+    }
+
+    /** Live stock of every known ingredient. */
+    public Map<Integer, Long> liveStock() {
+        synchronized (lock) {
+            return new HashMap<>(stock);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.availability.reconcile-interval-ms:300000}",
+            initialDelayString = "${inventory.availability.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        try {
+            reload();
+        } catch (Exception e) {
+            // keep the scheduler alive; incremental updates go on from the previous state
+            logger.error("Recipe availability reconcile failed", e);
+        }
+    }
+
+    /**
+     * Rebuilds stock, BOMs and the reverse index from the database and
+     * publishes the recipes that differ from what was held.
+     */
+    public void reload() {
+        reloadLock.lock();
+        try {
+            try {
+                List<Integer> recipeIds = new ArrayList<>();
+                for (RecipePriceView recipe : recipeMasterRepository.findActivePrices()) {
+                    recipeIds.add(recipe.getRecipeId());
+                }
+                Map<Integer, RecipeBom> loadedBoms = recipeBomCache.getAll(recipeIds);
+                Map<Integer, BigDecimal> loadedStock = readStockAndStartJournal();
+
+                synchronized (lock) {
+                    stock.clear();
+                    loadedStock.forEach((ingredientId, live) -> stock.put(ingredientId, quantity.of(live)));
+                    for (IngredientQuantities deltas : journal) {
+                        applyDeltas(deltas);
+                    }
+
+                    boms.clear();
+                    recipesByIngredient.clear();
+                    loadedBoms.values().forEach(this::index);
+
+                    List<RecipeAvailabilityDTO> changed = new ArrayList<>();
+                    for (Integer recipeId : new ArrayList<>(availability.keySet())) {
+                        if (!boms.containsKey(recipeId)) {
+                            changed.add(remove(recipeId));
+                        }
+                    }
+                    for (Integer recipeId : new TreeSet<>(boms.keySet())) {
+                        update(recipeId, changed);
+                    }
+                    publish(changed);
+                }
+            } finally {
+                synchronized (lock) {
+                    journal = null;
+                }
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    // The connection is taken before the gate, so commits waiting on the gate cannot starve the read of one
+    private Map<Integer, BigDecimal> readStockAndStartJournal() {
+        return readOnlyTransaction.execute(status -> {
+            commitGate.writeLock().lock();
+            try {
+                Map<Integer, BigDecimal> loadedStock = stockMovementRepository.findAllLiveStock();
+                synchronized (lock) {
+                    journal = new ArrayList<>();
+                }
+                return loadedStock;
+            } finally {
+                commitGate.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Takes the commit gate shared for a stock transaction about to commit,
+     * until it has completed (its AFTER_COMMIT listeners, onStockChanged
+     * included, run before). Stock changed outside a transaction is not
+     * gated; the next reload corrects it.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeStockCommit(StockChangedEvent event) {
+        Lock shared = commitGate.readLock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.LOWEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                shared.unlock();
+            }
+        });
+        shared.lock();
+    }
+
+    /**
+     * Adds a committed stock change and recomputes the recipes using
+     * the changed ingredients. Runs before other StockChangedEvent listeners,
+     * so they read the new liveStock.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        synchronized (lock) {
+            if (journal != null) {
+                journal.add(event.getDeltas());
+            }
+            List<RecipeAvailabilityDTO> changed = new ArrayList<>();
+            for (Integer recipeId : applyDeltas(event.getDeltas())) {
+                update(recipeId, changed);
+            }
+            publish(changed);
+        }
+    }
+
+    /**
+     * Re-indexes a recipe once its change has committed. Runs after
+     * RecipeBomCache.onRecipeChanged, so the BOM read here is the new one.
+     */
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        Integer recipeId = event.getRecipeId();
+        RecipeBom bom = recipeMasterRepository.existsByRecipeIdAndActiveFlagAndEnableFlag(recipeId, 1, 1)
+                ? recipeBomCache.getAll(List.of(recipeId)).get(recipeId)
+                : null;
+
+        // ingredients added after the last reload (unknown until a recipe uses them)
+        Map<Integer, Long> newStock = new HashMap<>();
+        if (bom != null) {
+            Set<Integer> unknown = new HashSet<>();
+            synchronized (lock) {
+                for (int i = 0; i < bom.size(); i++) {
+                    if (!stock.containsKey(bom.ingredientIdAt(i))) {
+                        unknown.add(bom.ingredientIdAt(i));
+                    }
+                }
+            }
+            for (Integer ingredientId : unknown) {
+                stockMovementRepository.findLiveStock(ingredientId)
+                        .ifPresent(live -> newStock.put(ingredientId, quantity.of(live)));
+            }
+        }
+
+        synchronized (lock) {
+            newStock.forEach(stock::putIfAbsent);
+            unindex(recipeId);
+            List<RecipeAvailabilityDTO> changed = new ArrayList<>();
+            if (bom != null) {
+                index(bom);
+                update(recipeId, changed);
+            } else if (availability.containsKey(recipeId)) {
+                changed.add(remove(recipeId));
+            }
+            publish(changed);
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Everything below runs with the lock held
+
+    // Applies deltas to known ingredients; returns the recipes using them
+    private Set<Integer> applyDeltas(IngredientQuantities deltas) {
+        Set<Integer> affected = new TreeSet<>();
+        for (int i = 0; i < deltas.size(); i++) {
+            int ingredientId = deltas.ingredientIdAt(i);
+            Long current = stock.get(ingredientId);
+            if (current == null) {
+                // not loaded yet: read with its committed stock when a recipe starts using it
+                continue;
+            }
+            stock.put(ingredientId, quantity.add(current, deltas.quantityAt(i)));
+            affected.addAll(recipesByIngredient.getOrDefault(ingredientId, Set.of()));
+        }
+        return affected;
+    }
+
+    private void index(RecipeBom bom) {
+        boms.put(bom.getRecipeId(), bom);
+        for (int i = 0; i < bom.size(); i++) {
+            recipesByIngredient.computeIfAbsent(bom.ingredientIdAt(i), id -> new HashSet<>()).add(bom.getRecipeId());
+        }
+    }
+
+    private void unindex(Integer recipeId) {
+        RecipeBom bom = boms.remove(recipeId);
+        if (bom == null) {
+            return;
+        }
+        for (int i = 0; i < bom.size(); i++) {
+            Set<Integer> recipes = recipesByIngredient.get(bom.ingredientIdAt(i));
+            if (recipes != null && recipes.remove(recipeId) && recipes.isEmpty()) {
+                recipesByIngredient.remove(bom.ingredientIdAt(i));
+            }
+        }
+    }
+
+    // Recomputes one recipe; adds it to changed if portions, limit or name moved
+    private void update(Integer recipeId, List<RecipeAvailabilityDTO> changed) {
+        RecipeAvailabilityDTO next = compute(boms.get(recipeId));
+        RecipeAvailabilityDTO previous = availability.put(recipeId, next);
+        if (previous == null
+                || !Objects.equals(previous.getAvailablePortions(), next.getAvailablePortions())
+                || !Objects.equals(previous.getLimitingIngredientId(), next.getLimitingIngredientId())
+                || !Objects.equals(previous.getRecipeName(), next.getRecipeName())) {
+            changed.add(next);
+        }
+    }
+
+    // Recipe no longer active: dropped, streamed once as 0 portions
+    private RecipeAvailabilityDTO remove(Integer recipeId) {
+        RecipeAvailabilityDTO previous = availability.remove(recipeId);
+        return new RecipeAvailabilityDTO(recipeId, previous.getRecipeName(), 0L, null);
+    }
+
+    private RecipeAvailabilityDTO compute(RecipeBom bom) {
+        Long portions = null;
+        Integer limitingIngredientId = null;
+        for (int i = 0; i < bom.size(); i++) {
+            long perPortion = bom.scaledQuantityAt(i);
+            if (perPortion <= 0) {
+                continue;
+            }
+            long available = stock.getOrDefault(bom.ingredientIdAt(i), 0L);
+            // stock and quantity share the scale, so the quotient is whole portions
+            long makeable = available <= 0 ? 0 : available / perPortion;
+            if (portions == null || makeable < portions) {
+                portions = makeable;
+                limitingIngredientId = bom.ingredientIdAt(i);
+            }
+        }
+        return new RecipeAvailabilityDTO(bom.getRecipeId(), bom.getRecipeName(), portions, limitingIngredientId);
+    }
+
+    // Published with the lock held, so listeners see changes in the order they were applied
+    private void publish(List<RecipeAvailabilityDTO> changed) {
+        if (!changed.isEmpty()) {
+            eventPublisher.publishEvent(new RecipeAvailabilityChangedEvent(List.copyOf(changed)));
+        }
+    }
+}
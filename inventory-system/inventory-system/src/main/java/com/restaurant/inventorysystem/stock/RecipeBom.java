@@ -0,0 +1,62 @@
+package com.restaurant.inventorysystem.stock;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * ------------------------------------------------------------
+ * MODEL: RecipeBom
+ * ------------------------------------------------------------
+ * Immutable bill of materials of one recipe, as held by RecipeBomCache.
+ *
+ * Ingredient lines are kept as two parallel primitive arrays:
+ *  - ingredientIds[i]    → ingredient id
+ *  - scaledQuantities[i] → quantity (subunits) × 10^scale (see Quantity)
+ */
+public final class RecipeBom {
+
+    private final int recipeId;
+    private final String recipeName;
+    private final BigDecimal sellingPrice;
+    private final int[] ingredientIds;
+    private final long[] scaledQuantities;
+    private final int scale;
+
+    RecipeBom(int recipeId, String recipeName, BigDecimal sellingPrice,
+              int[] ingredientIds, long[] scaledQuantities, int scale) {
+        if (ingredientIds.length != scaledQuantities.length) {
+            throw new IllegalArgumentException("Ingredient ids and quantities must have the same length");
+        }
+        this.recipeId = recipeId;
+        this.recipeName = recipeName;
+        this.sellingPrice = sellingPrice;
+        this.ingredientIds = ingredientIds.clone();
+        this.scaledQuantities = scaledQuantities.clone();
+        this.scale = scale;
+    }
+
+    public int getRecipeId() { return recipeId; }
+
+    public String getRecipeName() { return recipeName; }
+
+    public BigDecimal getSellingPrice() { return sellingPrice; }
+
+    /** Number of ingredient lines. */
+    public int size() { return ingredientIds.length; }
+
+    public int ingredientIdAt(int index) { return ingredientIds[index]; }
+
+    public long scaledQuantityAt(int index) { return scaledQuantities[index]; }
+
+    /** Quantity of line {@code index} in subunits. */
+    public BigDecimal quantityAt(int index) {
+        return BigDecimal.valueOf(scaledQuantities[index], scale);
+    }
+
+    @Override
+    public String toString() {
+        return "RecipeBom{recipeId=" + recipeId
+                + ", ingredientIds=" + Arrays.toString(ingredientIds)
+                + ", scaledQuantities=" + Arrays.toString(scaledQuantities) + "}";
+    }
+}
@@ -0,0 +1,192 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.repository.RecipeIngredientQuantityView;
+import com.restaurant.inventorysystem.repository.RecipeIngredientXrefRepository;
+import com.restaurant.inventorysystem.repository.RecipeMasterRepository;
+import com.restaurant.inventorysystem.repository.RecipePriceView;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ------------------------------------------------------------
+ * COMPONENT: RecipeBomCache
+ * ------------------------------------------------------------
+ * In-memory recipe bill of materials (recipe → ingredient lines),
+ * so orders are exploded without reading recipe structure from DB.
+ *
+ * Lifecycle:
+ *  1️⃣ Warm       : all active recipes are loaded on ApplicationReadyEvent
+ *  2️⃣ Read       : lock-free map lookups; misses are loaded in one batch
+ *  3️⃣ Invalidate : RecipeChangedEvent drops the recipe AFTER_COMMIT
+ *
+ * Every invalidation bumps a version number. A load only installs its
+ * result if the version did not move while it was reading the DB, so a
+ * slow load can never put back a recipe that was changed meanwhile.
+ *
+ * Metrics: recipe.bom.cache.hits / misses / reloads / invalidations / size
+ */
+@Component
+public class RecipeBomCache {
+
+    private final RecipeMasterRepository recipeMasterRepository;
+    private final RecipeIngredientXrefRepository recipeIngredientXrefRepository;
+    private final Quantity quantity;
+
+    private final Map<Integer, RecipeBom> entries = new ConcurrentHashMap<>();
+    private final Object installLock = new Object();
+    private volatile long version;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter reloads;
+    private final Counter invalidations;
+
+    public RecipeBomCache(RecipeMasterRepository recipeMasterRepository,
+                          RecipeIngredientXrefRepository recipeIngredientXrefRepository,
+                          Quantity quantity,
+                          MeterRegistry meterRegistry) {
+        this.recipeMasterRepository = recipeMasterRepository;
+        this.recipeIngredientXrefRepository = recipeIngredientXrefRepository;
+        this.quantity = quantity;
+
+        this.hits = Counter.builder("recipe.bom.cache.hits")
+                .description("Recipe lookups served from memory").register(meterRegistry);
+        this.misses = Counter.builder("recipe.bom.cache.misses")
+                .description("Recipe lookups that went to the database").register(meterRegistry);
+        this.reloads = Counter.builder("recipe.bom.cache.reloads")
+                .description("Full reloads of all active recipes").register(meterRegistry);
+        this.invalidations = Counter.builder("recipe.bom.cache.invalidations")
+                .description("Recipes dropped after a committed change").register(meterRegistry);
+        Gauge.builder("recipe.bom.cache.size", entries, Map::size)
+                .description("Recipes currently cached").register(meterRegistry);
+    }
+
+    /**
+     * Returns the bill of materials of the given recipes.
+     * Recipes not cached yet are loaded with one batch (2 queries).
+     *
+     * @param recipeIds recipe ids
+     * @return recipeId → RecipeBom; unknown recipe ids are absent
+     */
+    public Map<Integer, RecipeBom> getAll(Collection<Integer> recipeIds) {
+        Map<Integer, RecipeBom> result = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+
+        for (Integer recipeId : recipeIds) {
+            RecipeBom bom = entries.get(recipeId);
+            if (bom != null) {
+                result.put(recipeId, bom);
+            } else {
+                missing.add(recipeId);
+            }
+        }
+        hits.increment(result.size());
+
+        if (!missing.isEmpty()) {
+            misses.increment(missing.size());
+            long seenVersion = version;
+            Map<Integer, RecipeBom> loaded = load(recipeMasterRepository.findPricesByRecipeIds(missing));
+            install(loaded, seenVersion);
+            result.putAll(loaded);
+        }
+        return result;
+    }
+
+    /**
+     * Drops the cache content and loads all active recipes again.
+     */
+    public void reload() {
+        long seenVersion = version;
+        Map<Integer, RecipeBom> loaded = load(recipeMasterRepository.findActivePrices());
+        synchronized (installLock) {
+            if (version == seenVersion) {
+                entries.clear();
+                entries.putAll(loaded);
+            }
+        }
+        reloads.increment();
+    }
+
+    /** Number of recipes currently cached. */
+    public int size() {
+        return entries.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        reload();
+    }
+
+    /**
+     * Drops a recipe once the transaction that changed it has committed;
+     * the next order using it reloads the committed version. Runs before
+     * RecipeAvailabilityEngine re-reads the recipe.
+     */
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        synchronized (installLock) {
+            version++;
+            entries.remove(event.getRecipeId());
+        }
+        invalidations.increment();
+    }
+
+    // ---------------------------------------------------------------
+
+    private void install(Map<Integer, RecipeBom> loaded, long seenVersion) {
+        synchronized (installLock) {
+            if (version == seenVersion) {
+                entries.putAll(loaded);
+            }
+        }
+    }
+
+    private Map<Integer, RecipeBom> load(List<RecipePriceView> recipes) {
+        Map<Integer, RecipeBom> loaded = new HashMap<>();
+        if (recipes.isEmpty()) {
+            return loaded;
+        }
+
+        Map<Integer, RecipePriceView> recipeById = new HashMap<>();
+        for (RecipePriceView recipe : recipes) {
+            recipeById.put(recipe.getRecipeId(), recipe);
+        }
+
+        Map<Integer, List<RecipeIngredientQuantityView>> linesByRecipe = new HashMap<>();
+        for (RecipeIngredientQuantityView line :
+                recipeIngredientXrefRepository.findQuantitiesByRecipeIds(recipeById.keySet())) {
+            if (line.getQuantityValue() != null) {
+                linesByRecipe.computeIfAbsent(line.getRecipeId(), id -> new ArrayList<>()).add(line);
+            }
+        }
+
+        for (RecipePriceView recipe : recipes) {
+            List<RecipeIngredientQuantityView> lines = linesByRecipe.getOrDefault(recipe.getRecipeId(), List.of());
+            int[] ingredientIds = new int[lines.size()];
+            long[] scaledQuantities = new long[lines.size()];
+            for (int i = 0; i < lines.size(); i++) {
+                ingredientIds[i] = lines.get(i).getIngredientId();
+                scaledQuantities[i] = quantity.of(lines.get(i).getQuantityValue());
+            }
+            loaded.put(recipe.getRecipeId(), new RecipeBom(recipe.getRecipeId(), recipe.getRecipeName(),
+                    recipe.getSellingPrice(), ingredientIds, scaledQuantities, quantity.scale()));
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,22 @@
+package com.restaurant.inventorysystem.stock;
+
+/**
+ * ------------------------------------------------------------
+ * EVENT: RecipeChangedEvent
+ * ------------------------------------------------------------
+ * Published by RecipeServiceImpl when a recipe or its ingredient
+ * lines are saved, updated or deleted. RecipeBomCache drops the
+ * recipe once the surrounding transaction has committed.
+ */
+public class RecipeChangedEvent {
+
+    private final Integer recipeId;
+
+    public RecipeChangedEvent(Integer recipeId) {
+        this.recipeId = recipeId;
+    }
+
+    public Integer getRecipeId() {
+        return recipeId;
+    }
+}
@@ -0,0 +1,27 @@
+package com.restaurant.inventorysystem.stock;
+
+/**
+ * ------------------------------------------------------------
+ * EVENT: StockChangedEvent
+ * ------------------------------------------------------------
+ * Published by StockDeductionEngine for every applied stock change
+ * (order, cancellation, Stock-In entry or reversal), inside the stock
+ * transaction. Listeners use AFTER_COMMIT, so a rolled-back change is
+ * never seen.
+ *
+ * Carries signed deltas, not absolute levels: deltas of concurrent
+ * transactions add up the same whatever order their listeners run in.
+ */
+public class StockChangedEvent {
+
+    private final IngredientQuantities deltas;
+
+    public StockChangedEvent(IngredientQuantities deltas) {
+        this.deltas = deltas;
+    }
+
+    /** ingredientId → signed change (fixed-point subunits, see Quantity). */
+    public IngredientQuantities getDeltas() {
+        return deltas;
+    }
+}
@@ -0,0 +1,103 @@
+package com.restaurant.inventorysystem.stock;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.ToLongFunction;
+
+/**
+ * ------------------------------------------------------------
+ * CLASS: StockCounters
+ * ------------------------------------------------------------
+ * Live stock per ingredient as scaled longs (subunits * 10^scale), one
+ * slot per ingredient in an AtomicLongArray. Slots are STRIDE longs apart
+ * (128 bytes) so two hot ingredients never share a cache line and a CAS
+ * on onion does not slow down a CAS on oil.
+ *
+ * A slot is loaded once, on first use; after that the counter is the
+ * only place stock is checked and changed (see WriteBehindStockUpdateStrategy).
+ */
+class StockCounters {
+
+    // 16 longs = 128 bytes: one slot per pair of cache lines (adjacent-line prefetch)
+    private static final int STRIDE = 16;
+
+    /** Returned by tryAdd when the result would be negative. */
+    static final long REJECTED = Long.MIN_VALUE;
+
+    private final AtomicLongArray values;
+    private final int capacity;
+    private final Map<Integer, Integer> slots = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSlot = new AtomicInteger();
+
+    StockCounters(int capacity) {
+        this.capacity = capacity;
+        this.values = new AtomicLongArray(capacity * STRIDE);
+    }
+
+    /**
+     * Slot of an ingredient, loading its value on first use.
+     *
+     * @param loader current stock (scaled) of the ingredient; throws if it does not exist
+     */
+    int slotOf(Integer ingredientId, ToLongFunction<Integer> loader) {
+        Integer slot = slots.get(ingredientId);
+        if (slot != null) {
+            return slot;
+        }
+        return slots.computeIfAbsent(ingredientId, id -> {
+            int next = nextSlot.getAndIncrement();
+            if (next >= capacity) {
+                nextSlot.decrementAndGet();
+                throw new IllegalStateException("More than " + capacity
+                        + " ingredients in use, raise inventory.stock.write-behind.max-ingredients");
+            }
+            values.set(next * STRIDE, loader.applyAsLong(id));
+            return next;
+        });
+    }
+
+    long get(int slot) {
+        return values.get(slot * STRIDE);
+    }
+
+    /**
+     * Adds delta unless the result would go below zero.
+     *
+     * @return value before the change, or REJECTED (nothing changed)
+     */
+    long tryAdd(int slot, long delta) {
+        int index = slot * STRIDE;
+        while (true) {
+            long current = values.get(index);
+            long updated = current + delta;
+            if (delta < 0 && updated < 0) {
+                return REJECTED;
+            }
+            if (values.compareAndSet(index, current, updated)) {
+                return current;
+            }
+        }
+    }
+
+    /** Unconditional add (undo of an applied change). */
+    void add(int slot, long delta) {
+        values.getAndAdd(slot * STRIDE, delta);
+    }
+
+    /**
+     * Forgets every counter; they are loaded again from the database on
+     * next use. Only while no stock change is running (startup / recovery).
+     */
+    void clear() {
+        slots.clear();
+        nextSlot.set(0);
+    }
+
+    /** Current value, null if the ingredient was not loaded yet. */
+    Long peek(Integer ingredientId) {
+        Integer slot = slots.get(ingredientId);
+        return slot != null ? get(slot) : null;
+    }
+}
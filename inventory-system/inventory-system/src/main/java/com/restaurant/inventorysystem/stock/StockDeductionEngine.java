@@ -0,0 +1,183 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.dto.OrderDetailXrefDTO;
+import com.restaurant.inventorysystem.entity.StockMovement;
+import com.restaurant.inventorysystem.exception.InsufficientStockException;
+import com.restaurant.inventorysystem.exception.InvalidDataException;
+import com.restaurant.inventorysystem.exception.ResourceNotFoundException;
+import com.restaurant.inventorysystem.repository.StockMovementRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ------------------------------------------------------------
+ * COMPONENT: StockDeductionEngine
+ * ------------------------------------------------------------
+ * Turns a whole order into one aggregated ingredient → quantity list
+ * and applies it to IngredientsMaster with a fixed number of SQL
+ * statements, whatever the number of order lines. Quantities are
+ * fixed-point longs (Quantity) from the order lines to the ledger rows.
+ *
+ * Flow:
+ *  1️⃣ Explode  : ingredient lines come from RecipeBomCache (no DB read)
+ *  2️⃣ Apply    : the configured StockUpdateStrategy validates and writes
+ *                all ingredients in id order (inventory.stock.lock-mode)
+ *  3️⃣ Record   : one stock_movement row per ingredient, one JDBC batch
+ *                (the ledger behind point-in-time stock, see StockLedgerService;
+ *                in WRITE_BEHIND mode also what the flusher applies)
+ *  4️⃣ Publish  : StockChangedEvent with the deltas (read after commit by
+ *                RecipeAvailabilityEngine)
+ *
+ * Must be called inside the order transaction (StockTransactionRunner)
+ * so a rejected deduction rolls back the whole order.
+ *
+ * Metric: stock.insufficient.rejections
+ */
+@Component
+public class StockDeductionEngine {
+
+    private final StockUpdateStrategy stockUpdateStrategy;
+    private final StockMovementRepository stockMovementRepository;
+    private final Quantity quantity;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter insufficientStock;
+
+    public StockDeductionEngine(List<StockUpdateStrategy> strategies,
+                                StockMovementRepository stockMovementRepository,
+                                Quantity quantity,
+                                ApplicationEventPublisher eventPublisher,
+                                MeterRegistry meterRegistry,
+                                @Value("${inventory.stock.lock-mode:ATOMIC}") StockLockMode lockMode) {
+        this.stockMovementRepository = stockMovementRepository;
+        this.quantity = quantity;
+        this.eventPublisher = eventPublisher;
+        this.insufficientStock = Counter.builder("stock.insufficient.rejections")
+                .description("Orders rejected for insufficient stock").register(meterRegistry);
+        this.stockUpdateStrategy = strategies.stream()
+                .filter(strategy -> strategy.mode() == lockMode)
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No stock update strategy for lock mode " + lockMode));
+    }
+
+    /** Lock mode in use. */
+    public StockLockMode lockMode() {
+        return stockUpdateStrategy.mode();
+    }
+
+    /**
+     * Adds up the ordered portions per recipe (the same recipe may appear on several lines).
+     *
+     * @param lines order lines coming from the client
+     * @return recipeId → total portions ordered (fixed-point, see Quantity)
+     */
+    public Map<Integer, Long> portionsByRecipe(List<OrderDetailXrefDTO> lines) {
+        Map<Integer, Long> portions = new HashMap<>();
+        for (OrderDetailXrefDTO line : lines) {
+            if (line.getQuantity() == null) {
+                throw new InvalidDataException("Quantity is required for recipe: " + line.getRecipeId());
+            }
+            portions.merge(line.getRecipeId(), quantity.of(line.getQuantity()), quantity::add);
+        }
+        return portions;
+    }
+
+    /**
+     * Explodes ordered recipes into the total quantity needed per ingredient.
+     *
+     * @param portionsByRecipe recipeId → portions ordered (fixed-point)
+     * @param boms             recipeId → bill of materials (from RecipeBomCache)
+     * @return ingredientId → quantity needed (fixed-point subunits), sorted by ingredientId
+     */
+    public IngredientQuantities explode(Map<Integer, Long> portionsByRecipe, Map<Integer, RecipeBom> boms) {
+        int lines = 0;
+        for (Integer recipeId : portionsByRecipe.keySet()) {
+            RecipeBom bom = boms.get(recipeId);
+            if (bom == null) {
+                throw new ResourceNotFoundException("Recipe not found: " + recipeId);
+            }
+            lines += bom.size();
+        }
+
+        int[] ingredientIds = new int[lines];
+        long[] needed = new long[lines];
+        int count = 0;
+        for (Map.Entry<Integer, Long> portions : portionsByRecipe.entrySet()) {
+            RecipeBom bom = boms.get(portions.getKey());
+            long ordered = portions.getValue();
+            for (int i = 0; i < bom.size(); i++) {
+                ingredientIds[count] = bom.ingredientIdAt(i);
+                needed[count++] = quantity.multiply(bom.scaledQuantityAt(i), ordered);
+            }
+        }
+        return IngredientQuantities.sumOf(ingredientIds, needed, count, quantity);
+    }
+
+    /**
+     * Validates the aggregated quantities against current stock and deducts them.
+     *
+     * @param required ingredientId → quantity needed (fixed-point subunits)
+     * @param orderNo  order being placed (ledger reference)
+     * @throws InsufficientStockException if any ingredient does not have enough stock
+     */
+    public void deduct(IngredientQuantities required, String orderNo) {
+        IngredientQuantities deltas = required.negate();
+        try {
+            stockUpdateStrategy.adjust(deltas);
+        } catch (InsufficientStockException e) {
+            insufficientStock.increment();
+            throw e;
+        }
+        record(deltas, StockMovementType.ORDER, orderNo);
+    }
+
+    /**
+     * Puts the aggregated quantities back into stock (order cancelled).
+     *
+     * @param quantities ingredientId → quantity (fixed-point subunits)
+     * @param orderNo    order being cancelled (ledger reference)
+     */
+    public void restore(IngredientQuantities quantities, String orderNo) {
+        stockUpdateStrategy.adjust(quantities);
+        record(quantities, StockMovementType.ORDER_REVERSAL, orderNo);
+    }
+
+    /**
+     * Adjusts the stock of a single ingredient (Stock-In entry / reversal).
+     *
+     * @param ingredientId ingredient to change
+     * @param delta        signed fixed-point quantity (negative = take out)
+     * @param type         STOCK_IN or STOCK_IN_REVERSAL
+     * @param stockNo      Stock-In entry (ledger reference)
+     * @return stock before and after the change
+     * @throws InsufficientStockException if the stock would go below zero
+     */
+    public StockLevel adjust(Integer ingredientId, long delta, StockMovementType type, String stockNo) {
+        IngredientQuantities deltas = IngredientQuantities.of(ingredientId, delta);
+        StockLevel level = stockUpdateStrategy.adjust(deltas).get(ingredientId);
+        record(deltas, type, stockNo);
+        return level;
+    }
+
+    // Ledger rows + event for an applied adjustment (same transaction, so they roll back with it)
+    private void record(IngredientQuantities deltas, StockMovementType type, String referenceNo) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        boolean applied = stockUpdateStrategy.writesThrough();
+        List<StockMovement> movements = new ArrayList<>(deltas.size());
+        for (int i = 0; i < deltas.size(); i++) {
+            movements.add(new StockMovement(deltas.ingredientIdAt(i), type, quantity.toDecimal(deltas.quantityAt(i)),
+                    referenceNo, now, applied));
+        }
+        stockMovementRepository.batchInsert(movements);
+        eventPublisher.publishEvent(new StockChangedEvent(deltas));
+    }
+}
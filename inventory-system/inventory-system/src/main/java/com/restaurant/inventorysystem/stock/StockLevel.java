@@ -0,0 +1,28 @@
+package com.restaurant.inventorysystem.stock;
+
+/**
+ * ------------------------------------------------------------
+ * MODEL: StockLevel
+ * ------------------------------------------------------------
+ * Stock of one ingredient before and after an adjustment (fixed-point
+ * subunits, see Quantity).
+ * Used for the previous / updated columns of a Stock-In entry.
+ */
+public class StockLevel {
+
+    private final Integer ingredientId;
+    private final long previousStock;
+    private final long updatedStock;
+
+    public StockLevel(Integer ingredientId, long previousStock, long updatedStock) {
+        this.ingredientId = ingredientId;
+        this.previousStock = previousStock;
+        this.updatedStock = updatedStock;
+    }
+
+    public Integer getIngredientId() { return ingredientId; }
+
+    public long getPreviousStock() { return previousStock; }
+
+    public long getUpdatedStock() { return updatedStock; }
+}
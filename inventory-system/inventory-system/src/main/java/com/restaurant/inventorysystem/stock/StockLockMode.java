@@ -0,0 +1,25 @@
+package com.restaurant.inventorysystem.stock;
+
+/**
+ * ------------------------------------------------------------
+ * ENUM: StockLockMode
+ * ------------------------------------------------------------
+ * How ingredient stock rows are protected against concurrent updates.
+ * Selected with property {@code inventory.stock.lock-mode}.
+ *
+ *  ATOMIC      : one conditional UPDATE per ingredient (stock + delta >= 0),
+ *                the database serialises the writes, no read-modify-write
+ *  OPTIMISTIC  : entities are read, changed in Java and written back with
+ *                {@code WHERE row_version = ?}; a clash is retried
+ *  PESSIMISTIC : rows are read with SELECT ... FOR UPDATE in id order and
+ *                held until commit
+ *  WRITE_BEHIND : in-memory counters checked with CAS, only the ledger is
+ *                written per order; WriteBehindStockFlusher applies it to
+ *                the rows in coalesced batches (single instance only)
+ */
+public enum StockLockMode {
+    ATOMIC,
+    OPTIMISTIC,
+    PESSIMISTIC,
+    WRITE_BEHIND
+}
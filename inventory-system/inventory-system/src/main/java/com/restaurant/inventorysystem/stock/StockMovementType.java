@@ -0,0 +1,14 @@
+package com.restaurant.inventorysystem.stock;
+
+/**
+ * Description: Why a stock_movement row was written. The sign of the
+ * quantity follows the type (ORDER and STOCK_IN_REVERSAL take stock out).
+ */
+public enum StockMovementType {
+    // stock found in ingredients_master when the ledger was introduced
+    OPENING,
+    ORDER,
+    ORDER_REVERSAL,
+    STOCK_IN,
+    STOCK_IN_REVERSAL
+}
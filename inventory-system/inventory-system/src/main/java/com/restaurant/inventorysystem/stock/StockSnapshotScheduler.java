@@ -0,0 +1,53 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.service.StockLedgerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * ------------------------------------------------------------
+ * COMPONENT: StockSnapshotScheduler
+ * ------------------------------------------------------------
+ *  1️⃣ On startup: opening ledger rows for stock recorded before the
+ *     ledger existed (once per ingredient)
+ *  2️⃣ Every snapshot interval: a snapshot run at now - snapshot lag
+ *
+ * Properties: inventory.ledger.snapshot-interval-ms / snapshot-lag-ms
+ */
+@Component
+public class StockSnapshotScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockSnapshotScheduler.class);
+
+    private final StockLedgerService stockLedgerService;
+    private final long snapshotLagMs;
+
+    public StockSnapshotScheduler(StockLedgerService stockLedgerService,
+                                  @Value("${inventory.ledger.snapshot-lag-ms:60000}") long snapshotLagMs) {
+        this.stockLedgerService = stockLedgerService;
+        this.snapshotLagMs = snapshotLagMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void openLedger() {
+        stockLedgerService.recordOpeningBalances();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.ledger.snapshot-interval-ms:3600000}",
+            initialDelayString = "${inventory.ledger.snapshot-interval-ms:3600000}")
+    public void snapshot() {
+        try {
+            stockLedgerService.takeSnapshot(LocalDateTime.now().minusNanos(snapshotLagMs * 1_000_000));
+        } catch (Exception e) {
+            // Keep the scheduler alive; the next run covers the same movements
+            logger.error("Stock snapshot failed", e);
+        }
+    }
+}
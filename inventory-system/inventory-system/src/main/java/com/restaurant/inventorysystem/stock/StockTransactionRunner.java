@@ -0,0 +1,102 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.exception.StockConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * ------------------------------------------------------------
+ * COMPONENT: StockTransactionRunner
+ * ------------------------------------------------------------
+ * Runs a unit of work that changes stock in its own transaction and
+ * retries it when it loses a race with another transaction
+ * (optimistic version clash, lock wait timeout, deadlock victim).
+ *
+ * Retry policy (inventory.stock.retry.*):
+ *  - max-attempts       : total tries, including the first one
+ *  - initial-backoff-ms : wait before the 2nd try, doubled each time
+ *  - max-backoff-ms     : upper bound for a single wait
+ * A random jitter (0..backoff) keeps competing tills from retrying in step.
+ *
+ * The work must not have side effects outside the database (Kafka, mail):
+ * it may run more than once.
+ */
+@Component
+public class StockTransactionRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockTransactionRunner.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    private final Counter retries;
+    private final Counter exhausted;
+
+    public StockTransactionRunner(PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${inventory.stock.retry.max-attempts:5}") int maxAttempts,
+                                  @Value("${inventory.stock.retry.initial-backoff-ms:10}") long initialBackoffMs,
+                                  @Value("${inventory.stock.retry.max-backoff-ms:200}") long maxBackoffMs) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+
+        this.retries = Counter.builder("stock.update.retries")
+                .description("Stock transactions retried after a concurrency conflict").register(meterRegistry);
+        this.exhausted = Counter.builder("stock.update.conflicts.exhausted")
+                .description("Stock transactions that still conflicted after the last attempt").register(meterRegistry);
+    }
+
+    /**
+     * Executes {@code work} in a new transaction, retrying on concurrency failures.
+     *
+     * @param operation short description used in logs / the final error
+     * @param work      transactional unit of work
+     * @return result of the successful attempt
+     * @throws StockConflictException if every attempt conflicted
+     */
+    public <T> T execute(String operation, Supplier<T> work) {
+        long backoffMs = initialBackoffMs;
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw new StockConflictException(
+                            operation + " failed: stock was updated concurrently, please retry", e);
+                }
+                retries.increment();
+                logger.debug("{}: concurrency conflict on attempt {}/{}, retrying", operation, attempt, maxAttempts);
+                sleep(backoffMs);
+                backoffMs = Math.min(backoffMs * 2, maxBackoffMs);
+            }
+        }
+    }
+
+    private static void sleep(long backoffMs) {
+        if (backoffMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(backoffMs + ThreadLocalRandom.current().nextLong(backoffMs + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StockConflictException("Interrupted while waiting to retry a stock update", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.exception.InsufficientStockException;
+import com.restaurant.inventorysystem.exception.ResourceNotFoundException;
+
+import java.util.Map;
+
+/**
+ * ------------------------------------------------------------
+ * INTERFACE: StockUpdateStrategy
+ * ------------------------------------------------------------
+ * Applies signed stock adjustments to IngredientsMaster under one
+ * StockLockMode. Implementations must be called inside a transaction
+ * (see StockTransactionRunner) and touch rows in ingredientId order.
+ */
+public interface StockUpdateStrategy {
+
+    /** Lock mode implemented by this strategy. */
+    StockLockMode mode();
+
+    /**
+     * Applies all adjustments or fails (the caller's transaction rolls back).
+     *
+     * @param deltas ingredientId → signed fixed-point quantity (negative = take out)
+     * @return ingredientId → stock before / after the adjustment
+     * @throws InsufficientStockException if an ingredient would go below zero
+     * @throws ResourceNotFoundException  if an ingredient does not exist
+     */
+    Map<Integer, StockLevel> adjust(IngredientQuantities deltas);
+
+    /**
+     * Whether adjust() already wrote IngredientsMaster. If not, the ledger
+     * rows are recorded as unapplied and WriteBehindStockFlusher applies them.
+     */
+    default boolean writesThrough() {
+        return true;
+    }
+}
@@ -0,0 +1,147 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.entity.StockMovement;
+import com.restaurant.inventorysystem.repository.IngredientsRepository;
+import com.restaurant.inventorysystem.repository.StockMovementRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ------------------------------------------------------------
+ * COMPONENT: WriteBehindStockFlusher
+ * ------------------------------------------------------------
+ * Moves WRITE_BEHIND stock changes from the ledger into
+ * ingredients_master. Every flush interval, per batch (one transaction):
+ *
+ *  1️⃣ Lock the oldest unapplied stock_movement rows (batch-size)
+ *  2️⃣ Add them up per ingredient (500 onion rows → 1 delta)
+ *  3️⃣ One UPDATE per ingredient, in id order, as one JDBC batch
+ *  4️⃣ Mark the rows applied
+ *
+ * and repeat while full batches keep coming. Steps 3 and 4 commit
+ * together, so a crash mid-batch leaves the rows unapplied and the next
+ * flush (or the next start) applies them exactly once.
+ *
+ * Runs only in WRITE_BEHIND mode; also on startup (rows left by a crash)
+ * and on shutdown. Designed for a single application instance.
+ *
+ * Properties: inventory.stock.write-behind.flush-interval-ms / batch-size
+ */
+@Component
+public class WriteBehindStockFlusher {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindStockFlusher.class);
+
+    private final StockMovementRepository stockMovementRepository;
+    private final IngredientsRepository ingredientsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+
+    // one flush at a time; a lock, not synchronized: a virtual thread must not pin its carrier on JDBC
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public WriteBehindStockFlusher(StockMovementRepository stockMovementRepository,
+                                   IngredientsRepository ingredientsRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${inventory.stock.lock-mode:ATOMIC}") StockLockMode lockMode,
+                                   @Value("${inventory.stock.write-behind.batch-size:5000}") int batchSize) {
+        this.stockMovementRepository = stockMovementRepository;
+        this.ingredientsRepository = ingredientsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = lockMode == StockLockMode.WRITE_BEHIND;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        if (!enabled) {
+            return;
+        }
+        int applied = flush();
+        if (applied > 0) {
+            logger.info("Write-behind stock: {} movements left from the last run applied", applied);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.stock.write-behind.flush-interval-ms:200}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            flush();
+        } catch (Exception e) {
+            // Keep the scheduler alive; the batch rolled back and is retried next poll
+            logger.error("Write-behind stock flush failed", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            flush();
+        } catch (Exception e) {
+            // nothing lost: the rows stay unapplied and are flushed on the next start
+            logger.error("Write-behind stock flush on shutdown failed", e);
+        }
+    }
+
+    /**
+     * Applies unapplied ledger rows to ingredients_master until none are left.
+     *
+     * @return number of ledger rows applied
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            int total = 0;
+            while (true) {
+                Integer applied = transactionTemplate.execute(status -> flushBatch());
+                total += applied;
+                if (applied < batchSize) {
+                    return total;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int flushBatch() {
+        List<StockMovement> batch = stockMovementRepository.lockPending(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Map<Integer, BigDecimal> deltas = new TreeMap<>();
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (StockMovement movement : batch) {
+            deltas.merge(movement.getIngredientId(), movement.getQuantity(), BigDecimal::add);
+            ids.add(movement.getMovementId());
+        }
+        deltas.values().removeIf(delta -> delta.signum() == 0);
+
+        ingredientsRepository.applyStock(deltas);
+        stockMovementRepository.markApplied(ids);
+        return batch.size();
+    }
+}
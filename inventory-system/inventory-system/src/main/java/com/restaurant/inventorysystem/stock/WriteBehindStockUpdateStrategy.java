@@ -0,0 +1,141 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.exception.InsufficientStockException;
+import com.restaurant.inventorysystem.exception.ResourceNotFoundException;
+import com.restaurant.inventorysystem.repository.IngredientStockView;
+import com.restaurant.inventorysystem.repository.IngredientsRepository;
+import com.restaurant.inventorysystem.repository.StockMovementRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ------------------------------------------------------------
+ * STRATEGY: WRITE_BEHIND
+ * ------------------------------------------------------------
+ * Stock is checked and changed in memory (StockCounters, one CAS per
+ * ingredient) instead of with hot-row UPDATEs on ingredients_master.
+ * The caller's transaction only appends the stock_movement rows
+ * (applied = false); WriteBehindStockFlusher adds them to
+ * ingredients_master every few hundred ms, one coalesced UPDATE per
+ * ingredient.
+ *
+ *  - Counters are authoritative: ingredients_master trails them by at
+ *    most one flush interval (reports read ingredients_master)
+ *  - Rollback of the caller's transaction undoes the counter change
+ *  - Crash: nothing is lost. A counter is (re)loaded as
+ *    ingredients_master + the ledger rows not flushed yet, and the
+ *    flusher applies those rows on the next start
+ *
+ * One application instance only: a second instance would keep its own
+ * counters and oversell.
+ *
+ * Property: inventory.stock.write-behind.max-ingredients
+ */
+@Component
+public class WriteBehindStockUpdateStrategy implements StockUpdateStrategy {
+
+    private final IngredientsRepository ingredientsRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final StockCounters counters;
+    private final Quantity quantity;
+
+    public WriteBehindStockUpdateStrategy(IngredientsRepository ingredientsRepository,
+                                          StockMovementRepository stockMovementRepository,
+                                          Quantity quantity,
+                                          @Value("${inventory.stock.write-behind.max-ingredients:4096}") int maxIngredients) {
+        this.ingredientsRepository = ingredientsRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.quantity = quantity;
+        this.counters = new StockCounters(maxIngredients);
+    }
+
+    @Override
+    public StockLockMode mode() {
+        return StockLockMode.WRITE_BEHIND;
+    }
+
+    @Override
+    public boolean writesThrough() {
+        return false;
+    }
+
+    @Override
+    public Map<Integer, StockLevel> adjust(IngredientQuantities deltas) {
+        Map<Integer, StockLevel> levels = new HashMap<>();
+        // slot + delta of every change applied so far, for undo
+        List<long[]> applied = new ArrayList<>(deltas.size());
+
+        for (int i = 0; i < deltas.size(); i++) {
+            int ingredientId = deltas.ingredientIdAt(i);
+            long delta = deltas.quantityAt(i);
+            int slot = counters.slotOf(ingredientId, this::loadStock);
+
+            long previous = counters.tryAdd(slot, delta);
+            if (previous == StockCounters.REJECTED) {
+                undo(applied);
+                throw insufficient(ingredientId, counters.get(slot), -delta);
+            }
+            applied.add(new long[]{slot, delta});
+            levels.put(ingredientId, new StockLevel(ingredientId, previous, previous + delta));
+        }
+
+        // the ledger rows roll back with the caller's transaction, so must the counters
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        undo(applied);
+                    }
+                }
+            });
+        }
+        return levels;
+    }
+
+    /**
+     * Live stock of an ingredient (subunits), null if its counter is not loaded.
+     */
+    public BigDecimal liveStock(Integer ingredientId) {
+        Long value = counters.peek(ingredientId);
+        return value != null ? quantity.toDecimal(value) : null;
+    }
+
+    /**
+     * Drops all counters so they are rebuilt from the database, as after a
+     * restart. Only while no stock change is running. Not needed after a
+     * failed flush: the batch rolls back, so master + pending rows still
+     * equal the counters.
+     */
+    public void resetCounters() {
+        counters.clear();
+    }
+
+    // ingredients_master + ledger rows not flushed yet
+    private long loadStock(Integer ingredientId) {
+        BigDecimal stock = stockMovementRepository.findLiveStock(ingredientId)
+                .orElseThrow(() -> new ResourceNotFoundException("Ingredient not found with ID: " + ingredientId));
+        return quantity.of(stock);
+    }
+
+    private void undo(List<long[]> applied) {
+        for (long[] change : applied) {
+            counters.add((int) change[0], -change[1]);
+        }
+    }
+
+    private InsufficientStockException insufficient(Integer ingredientId, long available, long needed) {
+        String name = ingredientsRepository.findStockByIngredientIds(List.of(ingredientId)).stream()
+                .map(IngredientStockView::getIngredientName)
+                .findFirst().orElse(String.valueOf(ingredientId));
+        return new InsufficientStockException(ingredientId, name, quantity.toDecimal(available), quantity.toDecimal(needed));
+    }
+}
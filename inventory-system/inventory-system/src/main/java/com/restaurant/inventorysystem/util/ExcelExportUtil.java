@@ -2,12 +2,19 @@ package com.restaurant.inventorysystem.util;
 
 import jakarta.servlet.http.HttpServletResponse;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 //In my project, I implemented a reusable Excel export utility using Apache POI to generate .xlsx files dynamically.
 // Instead of writing Excel generation logic inside each service, I created a separate utility class that accepts a
 // list of column headers and a list of row data. In the service layer, I simply convert my DTOs into a list of objects
@@ -15,150 +22,255 @@ import java.util.List;
 // styling such as bold text and gray background, formatting date columns, auto-sizing columns, and finally writing
 // the Excel file directly to the browser using HttpServletResponse. This approach keeps the code clean, modular, and
 // reusable for any module that needs Excel export, like stock reports, sales data, or user lists.
+//
+// Large reports: the workbook is a streaming SXSSFWorkbook, so only the last ROW_WINDOW rows are kept in memory
+// (older rows go to a compressed temp file), and rows are pulled one by one from a Stream (e.g. a JPA/JDBC cursor)
+// instead of a ready List. Column widths are estimated from the first WIDTH_SAMPLE_ROWS rows, because
+// autoSizeColumn needs every row in memory. Heap use stays flat whatever the number of rows.
 public class ExcelExportUtil {
 
+    // Rows kept in memory before they are flushed to the temp file
+    static final int ROW_WINDOW = 100;
+    // Rows looked at to estimate the column widths
+    static final int WIDTH_SAMPLE_ROWS = 200;
+    private static final int MIN_COLUMN_CHARS = 8;
+    private static final int MAX_COLUMN_CHARS = 60;
+    // Width of a "dd-MM-yyyy HH:mm" cell
+    private static final int DATE_CHARS = 16;
+
+    /**
+     * Small, already loaded reports. Same file as {@link #streamExcel}.
+     */
     public static void generateExcel(HttpServletResponse response,
                                      String sheetName,
                                      List<String> headers,
                                      List<List<Object>> dataRows) throws Exception {
 
-        XSSFWorkbook workbook = new XSSFWorkbook();
-        XSSFSheet sheet = workbook.createSheet(sheetName);
+        streamExcel(response, sheetName, headers, dataRows.stream());
+    }
+
+    /**
+     * Streams the report to the browser as an .xlsx download.
+     * The rows stream is consumed once and closed at the end.
+     */
+    public static void streamExcel(HttpServletResponse response,
+                                   String sheetName,
+                                   List<String> headers,
+                                   Stream<? extends List<?>> dataRows) throws IOException {
 
         // ----------------------------------------------------------
-        // COMPANY NAME, REPORT NAME, TIMESTAMP ROWS
+        // RESPONSE DOWNLOAD CONFIG
         // ----------------------------------------------------------
 
-        // Bold + Large Font for Title
-        XSSFFont titleFont = workbook.createFont();
-        titleFont.setBold(true);
-        titleFont.setFontHeight(16);
+        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        response.setHeader(
+                "Content-Disposition",
+                "attachment; filename=" + sheetName.replace(" ", "_") + ".xlsx"
+        );
 
-        CellStyle titleStyle = workbook.createCellStyle();
-        titleStyle.setFont(titleFont);
+        writeExcel(response.getOutputStream(), sheetName, headers, dataRows);
+    }
 
-        // Row 0 -> Company Name
-        Row companyRow = sheet.createRow(0);
-        Cell companyCell = companyRow.createCell(0);
-        companyCell.setCellValue("Shri Restaurant ERP System");
-        companyCell.setCellStyle(titleStyle);
+    /**
+     * Writes the report workbook to any output stream.
+     *
+     * @return number of data rows written
+     */
+    public static long writeExcel(OutputStream out,
+                                  String sheetName,
+                                  List<String> headers,
+                                  Stream<? extends List<?>> dataRows) throws IOException {
 
-        // Row 1 -> Report Name
-        Row reportRow = sheet.createRow(1);
-        Cell reportCell = reportRow.createCell(0);
-        reportCell.setCellValue(sheetName + " Report");
-        reportCell.setCellStyle(titleStyle);
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
 
-        // Row 2 -> Timestamp
-        Row timeRow = sheet.createRow(2);
-        Cell timeCell = timeRow.createCell(0);
+        try (dataRows) {
+            SXSSFSheet sheet = workbook.createSheet(sheetName);
 
-        String time = LocalDateTime.now()
-                .format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss"));
+            // ----------------------------------------------------------
+            // COMPANY NAME, REPORT NAME, TIMESTAMP ROWS
+            // ----------------------------------------------------------
 
-        timeCell.setCellValue("Generated On: " + time);
+            // Bold + Large Font for Title
+            Font titleFont = workbook.createFont();
+            titleFont.setBold(true);
+            titleFont.setFontHeightInPoints((short) 16);
 
-        // Leave one blank line before table header
-        int rowIndex = 4;
+            CellStyle titleStyle = workbook.createCellStyle();
+            titleStyle.setFont(titleFont);
 
+            // Row 0 -> Company Name
+            Row companyRow = sheet.createRow(0);
+            Cell companyCell = companyRow.createCell(0);
+            companyCell.setCellValue("Shri Restaurant ERP System");
+            companyCell.setCellStyle(titleStyle);
 
-        // ----------------------------------------------------------
-        // HEADER STYLE (Bold + Gray Background)
-        // ----------------------------------------------------------
+            // Row 1 -> Report Name
+            Row reportRow = sheet.createRow(1);
+            Cell reportCell = reportRow.createCell(0);
+            reportCell.setCellValue(sheetName + " Report");
+            reportCell.setCellStyle(titleStyle);
 
-        CellStyle headerStyle = workbook.createCellStyle();
+            // Row 2 -> Timestamp
+            Row timeRow = sheet.createRow(2);
+            Cell timeCell = timeRow.createCell(0);
 
-        XSSFFont headerFont = workbook.createFont();
-        headerFont.setBold(true);
-        headerStyle.setFont(headerFont);
+            String time = LocalDateTime.now()
+                    .format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss"));
 
-        // Gray background
-        headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-        headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            timeCell.setCellValue("Generated On: " + time);
 
-        // Border for headers
-        headerStyle.setBorderBottom(BorderStyle.THIN);
-        headerStyle.setBorderTop(BorderStyle.THIN);
-        headerStyle.setBorderRight(BorderStyle.THIN);
-        headerStyle.setBorderLeft(BorderStyle.THIN);
+            // Leave one blank line before table header
+            int rowIndex = 4;
 
-        // ----------------------------------------------------------
-        // DATE STYLE
-        // ----------------------------------------------------------
 
-        CellStyle dateStyle = workbook.createCellStyle();
-        CreationHelper creationHelper = workbook.getCreationHelper();
-        dateStyle.setDataFormat(creationHelper.createDataFormat().getFormat("dd-MM-yyyy HH:mm"));
+            // ----------------------------------------------------------
+            // HEADER STYLE (Bold + Gray Background)
+            // ----------------------------------------------------------
 
+            CellStyle headerStyle = workbook.createCellStyle();
 
-        // ----------------------------------------------------------
-        // CREATE HEADER ROW
-        // ----------------------------------------------------------
+            Font headerFont = workbook.createFont();
+            headerFont.setBold(true);
+            headerStyle.setFont(headerFont);
 
-        Row headerRow = sheet.createRow(rowIndex++);
-        for (int i = 0; i < headers.size(); i++) {
+            // Gray background
+            headerStyle.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
 
-            Cell cell = headerRow.createCell(i);
-            cell.setCellValue(headers.get(i));
-            cell.setCellStyle(headerStyle);
-        }
+            // Border for headers
+            headerStyle.setBorderBottom(BorderStyle.THIN);
+            headerStyle.setBorderTop(BorderStyle.THIN);
+            headerStyle.setBorderRight(BorderStyle.THIN);
+            headerStyle.setBorderLeft(BorderStyle.THIN);
 
+            // ----------------------------------------------------------
+            // DATE STYLE
+            // ----------------------------------------------------------
 
-        // ----------------------------------------------------------
-        // FILL DATA ROWS
-        // ----------------------------------------------------------
+            CellStyle dateStyle = workbook.createCellStyle();
+            CreationHelper creationHelper = workbook.getCreationHelper();
+            dateStyle.setDataFormat(creationHelper.createDataFormat().getFormat("dd-MM-yyyy HH:mm"));
+
+
+            // ----------------------------------------------------------
+            // CREATE HEADER ROW
+            // ----------------------------------------------------------
+
+            Row headerRow = sheet.createRow(rowIndex++);
+            for (int i = 0; i < headers.size(); i++) {
+
+                Cell cell = headerRow.createCell(i);
+                cell.setCellValue(headers.get(i));
+                cell.setCellStyle(headerStyle);
+            }
+
+
+            // ----------------------------------------------------------
+            // COLUMN WIDTHS (estimated from the first rows)
+            // ----------------------------------------------------------
+
+            Iterator<? extends List<?>> iterator = dataRows.iterator();
+            List<List<?>> sample = new ArrayList<>(WIDTH_SAMPLE_ROWS);
+            while (sample.size() < WIDTH_SAMPLE_ROWS && iterator.hasNext()) {
+                sample.add(iterator.next());
+            }
+
+            int[] widths = estimateColumnChars(headers, sample);
+            for (int i = 0; i < widths.length; i++) {
+                sheet.setColumnWidth(i, widths[i] * 256);
+            }
+
+
+            // ----------------------------------------------------------
+            // FILL DATA ROWS (flushed to disk every ROW_WINDOW rows)
+            // ----------------------------------------------------------
 
-        for (List<Object> rowData : dataRows) {
-
-            Row row = sheet.createRow(rowIndex++);
-
-            for (int i = 0; i < rowData.size(); i++) {
-
-                Object value = rowData.get(i);
-                Cell cell = row.createCell(i);
-
-                if (value == null) {
-                    cell.setCellValue("");
-                }
-                else if (value instanceof Number) {
-                    cell.setCellValue(((Number) value).doubleValue());
-                }
-                else if (value instanceof Timestamp) {
-                    cell.setCellValue((Timestamp) value);
-                    cell.setCellStyle(dateStyle);
-                }
-                else if (value instanceof java.time.LocalDateTime) {
-                    Timestamp ts = Timestamp.valueOf((java.time.LocalDateTime) value);
-                    cell.setCellValue(ts);
-                    cell.setCellStyle(dateStyle);
-                }
-                else {
-                    cell.setCellValue(value.toString());
-                }
+            long written = 0;
+            for (List<?> rowData : sample) {
+                writeRow(sheet.createRow(rowIndex++), rowData, dateStyle);
+                written++;
             }
+            sample.clear();
+
+            while (iterator.hasNext()) {
+                writeRow(sheet.createRow(rowIndex++), iterator.next(), dateStyle);
+                written++;
+            }
+
+            workbook.write(out);
+            return written;
+        } finally {
+            // deletes the temp file behind the row window
+            workbook.dispose();
+            workbook.close();
         }
+    }
 
+    private static void writeRow(Row row, List<?> rowData, CellStyle dateStyle) {
 
-        // ----------------------------------------------------------
-        // AUTO-SIZE COLUMNS
-        // ----------------------------------------------------------
+        for (int i = 0; i < rowData.size(); i++) {
 
-        for (int i = 0; i < headers.size(); i++) {
-            sheet.autoSizeColumn(i);
+            Object value = rowData.get(i);
+            Cell cell = row.createCell(i);
+
+            if (value == null) {
+                cell.setCellValue("");
+            }
+            else if (value instanceof Number) {
+                cell.setCellValue(((Number) value).doubleValue());
+            }
+            else if (value instanceof Timestamp) {
+                cell.setCellValue((Timestamp) value);
+                cell.setCellStyle(dateStyle);
+            }
+            else if (value instanceof java.time.LocalDateTime) {
+                Timestamp ts = Timestamp.valueOf((java.time.LocalDateTime) value);
+                cell.setCellValue(ts);
+                cell.setCellStyle(dateStyle);
+            }
+            else {
+                cell.setCellValue(value.toString());
+            }
         }
+    }
 
+    /**
+     * Widest header/sample value per column, in characters, between
+     * MIN_COLUMN_CHARS and MAX_COLUMN_CHARS (plus a little padding).
+     */
+    static int[] estimateColumnChars(List<String> headers, List<? extends List<?>> sample) {
 
-        // ----------------------------------------------------------
-        // RESPONSE DOWNLOAD CONFIG
-        // ----------------------------------------------------------
+        int columns = headers.size();
+        for (List<?> row : sample) {
+            columns = Math.max(columns, row.size());
+        }
 
-        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-        response.setHeader(
-                "Content-Disposition",
-                "attachment; filename=" + sheetName.replace(" ", "_") + ".xlsx"
-        );
+        int[] chars = new int[columns];
+        for (int i = 0; i < headers.size(); i++) {
+            chars[i] = headers.get(i).length();
+        }
+        for (List<?> row : sample) {
+            for (int i = 0; i < row.size(); i++) {
+                chars[i] = Math.max(chars[i], displayLength(row.get(i)));
+            }
+        }
+        for (int i = 0; i < columns; i++) {
+            chars[i] = Math.min(MAX_COLUMN_CHARS, Math.max(MIN_COLUMN_CHARS, chars[i] + 2));
+        }
+        return chars;
+    }
 
-        workbook.write(response.getOutputStream());
-        workbook.close();
+    private static int displayLength(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Timestamp || value instanceof LocalDateTime) {
+            return DATE_CHARS;
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString().length();
+        }
+        return value.toString().length();
     }
 }
@@ -0,0 +1,107 @@
+package com.restaurant.inventorysystem.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ------------------------------------------------------------
+ * UTIL: ExpiringCache
+ * ------------------------------------------------------------
+ * Bounded in-memory map whose entries carry their own expiry time
+ * (epoch millis).
+ *
+ *  - Reads are lock-free map lookups; an expired entry counts as a miss
+ *    and is dropped
+ *  - When full, a put first drops expired entries, then arbitrary ones
+ *    down to 90% of maxSize (no LRU bookkeeping on the read path)
+ *  - maxSize 0 disables the cache (every get is a miss)
+ *
+ * Metrics: {name}.hits / misses / evictions / size
+ */
+public class ExpiringCache<K, V> {
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private final int maxSize;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    /**
+     * @param name          metric name prefix, e.g. "auth.token.cache"
+     * @param maxSize       entries kept at most
+     * @param meterRegistry registry for the cache metrics
+     */
+    public ExpiringCache(String name, int maxSize, MeterRegistry meterRegistry) {
+        this.maxSize = Math.max(0, maxSize);
+
+        this.hits = Counter.builder(name + ".hits")
+                .description("Lookups served from the cache").register(meterRegistry);
+        this.misses = Counter.builder(name + ".misses")
+                .description("Lookups not in the cache or expired").register(meterRegistry);
+        this.evictions = Counter.builder(name + ".evictions")
+                .description("Entries dropped to make room").register(meterRegistry);
+        Gauge.builder(name + ".size", entries, Map::size)
+                .description("Entries currently cached").register(meterRegistry);
+    }
+
+    /** Cached value, or null if absent or expired at {@code now}. */
+    public V get(K key, long now) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.expiresAt() <= now) {
+            entries.remove(key, entry);
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+
+    /** Caches {@code value} until {@code expiresAt}; ignored if that is not after {@code now}. */
+    public void put(K key, V value, long expiresAt, long now) {
+        if (maxSize == 0 || expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            makeRoom(now);
+        }
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // ---------------------------------------------------------------
+
+    private void makeRoom(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+
+        int target = maxSize - Math.max(1, maxSize / 10);
+        for (Iterator<K> it = entries.keySet().iterator(); it.hasNext() && entries.size() > target; ) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+}
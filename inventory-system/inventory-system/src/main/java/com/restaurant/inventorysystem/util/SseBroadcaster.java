@@ -0,0 +1,147 @@
+package com.restaurant.inventorysystem.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * ------------------------------------------------------------
+ * UTIL: SseBroadcaster
+ * ------------------------------------------------------------
+ * Fans server-sent events out to every subscriber of one stream.
+ *
+ *  - Subscribers are async requests (SseEmitter): no servlet thread is
+ *    held per open connection
+ *  - All sends run on one sender thread, in submission order, so the
+ *    thread publishing a change (e.g. an order commit) never waits on a
+ *    client socket
+ *  - A frame is rendered once (event line + JSON data) and the same
+ *    text goes to every subscriber (5k subscribers = 1 serialization)
+ *  - A new subscriber gets its snapshot from the sender thread too, so
+ *    a snapshot is never overtaken by an older change
+ *  - Subscribers whose connection failed are dropped on the next send;
+ *    heartbeat() finds them on idle streams
+ */
+public class SseBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(SseBroadcaster.class);
+    private static final MediaType TEXT_PLAIN = new MediaType("text", "plain", StandardCharsets.UTF_8);
+
+    private final long timeoutMs;
+    private final ObjectMapper objectMapper;
+    private final Set<SseEmitter> emitters = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender;
+
+    /**
+     * @param name         stream name (sender thread is "sse-{name}")
+     * @param timeoutMs    connection lifetime; clients reconnect after it (0 = no timeout)
+     * @param objectMapper serializes event data
+     */
+    public SseBroadcaster(String name, long timeoutMs, ObjectMapper objectMapper) {
+        this.timeoutMs = timeoutMs;
+        this.objectMapper = objectMapper;
+        this.sender = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "sse-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens a subscription. {@code snapshot} is evaluated on the sender
+     * thread and sent as the first event.
+     */
+    public SseEmitter subscribe(String snapshotEvent, Supplier<?> snapshot) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+
+        submit(() -> {
+            if (send(emitter, frame(snapshotEvent, snapshot.get()))) {
+                emitters.add(emitter);
+            }
+        });
+        return emitter;
+    }
+
+    /** Sends an event to every subscriber (asynchronously). */
+    public void broadcast(String event, Object data) {
+        submit(() -> sendToAll(frame(event, data)));
+    }
+
+    /** Sends an SSE comment line to every subscriber: keeps proxies open, finds dead clients. */
+    public void heartbeat() {
+        submit(() -> sendToAll(frame(":\n\n")));
+    }
+
+    /** Open subscriptions. */
+    public int subscriberCount() {
+        return emitters.size();
+    }
+
+    /** Completes every subscription and stops the sender thread. */
+    public void close() {
+        sender.shutdown();
+        for (SseEmitter emitter : emitters) {
+            emitter.complete();
+        }
+        emitters.clear();
+    }
+
+    // ---------------------------------------------------------------
+
+    private void submit(Runnable task) {
+        try {
+            sender.execute(task);
+        } catch (RejectedExecutionException e) {
+            // closed: shutting down
+        }
+    }
+
+    // the whole frame as one text part: one converter write per subscriber instead of three
+    private static Set<DataWithMediaType> frame(String text) {
+        return Set.of(new DataWithMediaType(text, TEXT_PLAIN));
+    }
+
+    private Set<DataWithMediaType> frame(String event, Object data) {
+        try {
+            return frame("event:" + event + "\ndata:" + objectMapper.writeValueAsString(data) + "\n\n");
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void sendToAll(Set<DataWithMediaType> frame) {
+        for (SseEmitter emitter : emitters) {
+            if (!send(emitter, frame)) {
+                emitters.remove(emitter);
+            }
+        }
+    }
+
+    private static boolean send(SseEmitter emitter, Set<DataWithMediaType> frame) {
+        try {
+            emitter.send(frame);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // client gone or emitter already completed; the container completes it
+            logger.debug("SSE subscriber dropped: {}", e.getMessage());
+            return false;
+        }
+    }
+}
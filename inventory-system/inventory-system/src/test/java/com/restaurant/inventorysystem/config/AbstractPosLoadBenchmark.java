@@ -0,0 +1,252 @@
+package com.restaurant.inventorysystem.config;
+
+import com.restaurant.inventorysystem.entity.IngredientsMaster;
+import com.restaurant.inventorysystem.entity.RecipeIngredientXref;
+import com.restaurant.inventorysystem.entity.RecipeMaster;
+import com.restaurant.inventorysystem.entity.User;
+import com.restaurant.inventorysystem.repository.IngredientsRepository;
+import com.restaurant.inventorysystem.repository.RecipeIngredientXrefRepository;
+import com.restaurant.inventorysystem.repository.RecipeMasterRepository;
+import com.restaurant.inventorysystem.repository.UserRepository;
+import com.restaurant.inventorysystem.security.JwtUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 2,000 concurrent POS clients over real HTTP (embedded Tomcat, JWT
+ * auth), each posting orders to /api/order/save back to back: auth
+ * lookup, recipe BOMs, stock deduction on 3-6 ingredient rows, order +
+ * outbox inserts, all on a 20-connection Hikari pool. Subclasses run it
+ * with platform threads (Tomcat pool, max 200) and with virtual threads.
+ *
+ * Opt-in, not part of the normal build; one mode per JVM (a second run
+ * in the same JVM starts with a warm JIT), -Dclients=N to vary the load:
+ *   mvn test -Dtest=PlatformThreadPosLoadBenchmark -Dbenchmark=true
+ *   mvn test -Dtest=VirtualThreadPosLoadBenchmark -Dbenchmark=true
+ *
+ * 18-Oct-2026, 1 vCPU shared by server and clients, in-memory H2,
+ * 20 s warm-up + 30 s measured, 2,000 clients:
+ *   platform : 24 orders/s, p50 57.1 s, p99 67.5 s, peak JVM threads 269
+ *   virtual  : 21 orders/s, p50 64.5 s, p99 74.5 s, peak JVM threads 62,
+ *              0 pinned events
+ * Both modes are CPU-bound here (~90% CPU, in-memory H2 never blocks on
+ * a socket), so throughput and p99 are equal within run-to-run noise
+ * (platform varied 24-45 orders/s); the largest cost per request is
+ * building a JJWT parser. Virtual threads pay off when requests wait on
+ * a remote MySQL / Kafka: rerun against one before choosing the mode.
+ */
+abstract class AbstractPosLoadBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("clients", 2_000);
+    private static final Duration WARM_UP = Duration.ofSeconds(20);
+    private static final Duration MEASURED = Duration.ofSeconds(30);
+    private static final int INGREDIENTS = 30;
+    private static final int RECIPES = 50;
+
+    private static final AtomicLong ORDER_NO = new AtomicLong();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IngredientsRepository ingredientsRepository;
+
+    @Autowired
+    private RecipeMasterRepository recipeMasterRepository;
+
+    @Autowired
+    private RecipeIngredientXrefRepository recipeIngredientXrefRepository;
+
+    /** Label of the thread mode under test. */
+    protected abstract String mode();
+
+    @Test
+    void twoThousandPosClients() throws Exception {
+        String token = seed();
+        List<Integer> recipeIds = new ArrayList<>();
+        recipeMasterRepository.findAll().forEach(recipe -> recipeIds.add(recipe.getRecipeId()));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+        URI uri = URI.create("http://localhost:" + port + "/api/order/save");
+        AtomicInteger errors = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long start = System.nanoTime();
+        long measureFrom = start + WARM_UP.toNanos();
+        long measureTo = measureFrom + MEASURED.toNanos();
+
+        List<CompletableFuture<long[]>> results = new ArrayList<>(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            results.add(new PosClient(client, uri, token, recipeIds, measureFrom, measureTo, errors, completed).start());
+        }
+        Thread.sleep(Duration.ofNanos(measureFrom - System.nanoTime()).plusMillis(1));
+        threads.resetPeakThreadCount();
+
+        long[] latencies = results.stream().map(CompletableFuture::join)
+                .flatMapToLong(Arrays::stream).sorted().toArray();
+        assertTrue(latencies.length > 0, "no order completed, errors " + errors.get());
+
+        long pinned = meterRegistry.find("jvm.threads.virtual.pinned").timers().stream()
+                .mapToLong(Timer::count).sum();
+        System.out.printf("%-8s : %,d orders in %d s = %.0f orders/s, p50 %d ms, p99 %d ms, max %d ms, "
+                        + "errors %d, peak JVM threads %d, pinned %d%n",
+                mode(), completed.get(), MEASURED.toSeconds(), completed.get() / (double) MEASURED.toSeconds(),
+                millis(latencies, 0.50), millis(latencies, 0.99), latencies[latencies.length - 1] / 1_000_000,
+                errors.get(), threads.getPeakThreadCount(), pinned);
+    }
+
+    /**
+     * One terminal: posts orders back to back until the end of the run and
+     * keeps the latency of the orders started inside the measured window
+     * (throughput: orders completed inside it).
+     * Requests are chained with sendAsync, so the clients add no threads
+     * (virtual or not) next to the server's.
+     */
+    private static class PosClient {
+
+        private final HttpClient client;
+        private final URI uri;
+        private final String token;
+        private final List<Integer> recipeIds;
+        private final long measureFrom;
+        private final long measureTo;
+        private final AtomicInteger errors;
+        private final AtomicInteger completed;
+        private final CompletableFuture<long[]> done = new CompletableFuture<>();
+
+        private long[] latencies = new long[64];
+        private int count;
+
+        PosClient(HttpClient client, URI uri, String token, List<Integer> recipeIds,
+                  long measureFrom, long measureTo, AtomicInteger errors, AtomicInteger completed) {
+            this.client = client;
+            this.uri = uri;
+            this.token = token;
+            this.recipeIds = recipeIds;
+            this.measureFrom = measureFrom;
+            this.measureTo = measureTo;
+            this.errors = errors;
+            this.completed = completed;
+        }
+
+        CompletableFuture<long[]> start() {
+            next();
+            return done;
+        }
+
+        private void next() {
+            long startedAt = System.nanoTime();
+            if (startedAt >= measureTo) {
+                done.complete(Arrays.copyOf(latencies, count));
+                return;
+            }
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(120))
+                    .POST(HttpRequest.BodyPublishers.ofString(orderJson(recipeIds)))
+                    .build();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                record(startedAt, error == null && response.statusCode() == 200);
+                next();
+            });
+        }
+
+        private void record(long startedAt, boolean ok) {
+            long endedAt = System.nanoTime();
+            if (ok && endedAt >= measureFrom && endedAt < measureTo) {
+                completed.incrementAndGet();
+            }
+            if (startedAt < measureFrom) {
+                return;
+            }
+            if (!ok) {
+                errors.incrementAndGet();
+                return;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = endedAt - startedAt;
+        }
+    }
+
+    private static String orderJson(List<Integer> recipeIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = recipeIds.get(random.nextInt(recipeIds.size()));
+        int second = recipeIds.get(random.nextInt(recipeIds.size()));
+        return "{\"orderNo\":\"POS-" + ORDER_NO.incrementAndGet() + "\",\"orderType\":\"DINE_IN\","
+                + "\"orderDate\":\"" + LocalDateTime.now() + "\",\"orderDetailXrefList\":["
+                + "{\"recipeId\":" + first + ",\"quantity\":1},"
+                + "{\"recipeId\":" + second + ",\"quantity\":2}]}";
+    }
+
+    private String seed() {
+        User user = new User();
+        user.setUserName("pos-load");
+        user.setPassword("n/a");
+        userRepository.save(user);
+
+        List<IngredientsMaster> ingredients = new ArrayList<>();
+        for (int i = 1; i <= INGREDIENTS; i++) {
+            IngredientsMaster ingredient = new IngredientsMaster();
+            ingredient.setIngredientCode("ING-" + i);
+            ingredient.setIngredientName("Ingredient " + i);
+            ingredient.setSmallerUnit("gm");
+            ingredient.setBaseUnitValue(new BigDecimal("1000"));
+            ingredient.setCurrentStockSubunit(new BigDecimal("1000000000"));
+            ingredients.add(ingredientsRepository.save(ingredient));
+        }
+        for (int r = 1; r <= RECIPES; r++) {
+            RecipeMaster recipe = new RecipeMaster();
+            recipe.setRecipeCode("DISH-" + r);
+            recipe.setRecipeName("Dish " + r);
+            recipe.setSellingPrice(new BigDecimal("150.00"));
+            recipe = recipeMasterRepository.save(recipe);
+            for (int line = 0; line < 3; line++) {
+                RecipeIngredientXref xref = new RecipeIngredientXref();
+                xref.setRecipe(recipe);
+                xref.setIngredient(ingredients.get((r * 7 + line * 11) % INGREDIENTS));
+                xref.setQuantityValue(new BigDecimal("25"));
+                recipeIngredientXrefRepository.save(xref);
+            }
+        }
+        return jwtUtil.generateToken(user.getUserName());
+    }
+
+    private static long millis(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1_000_000;
+    }
+}
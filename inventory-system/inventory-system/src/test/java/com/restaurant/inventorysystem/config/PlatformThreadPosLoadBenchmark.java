@@ -0,0 +1,15 @@
+package com.restaurant.inventorysystem.config;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.threads.virtual.enabled=false")
+class PlatformThreadPosLoadBenchmark extends AbstractPosLoadBenchmark {
+
+    @Override
+    protected String mode() {
+        return "platform";
+    }
+}
@@ -0,0 +1,77 @@
+package com.restaurant.inventorysystem.config;
+
+import com.restaurant.inventorysystem.service.StockInService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /actuator/prometheus is readable without a token and carries the
+ * service timers as histograms, the Hikari pool and Hibernate statistics.
+ */
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=health,metrics,prometheus",
+        "management.metrics.distribution.slo.stock=10ms,100ms,1s",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+class PrometheusTextEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StockInService stockInService;
+
+    @Test
+    void scrapeCarriesServiceTimersPoolAndHibernateMeters() throws Exception {
+        stockInService.getStockReport();
+        stockInService.getStockReport();
+
+        String body = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(PrometheusTextEndpoint.CONTENT_TYPE))
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(body.contains("# TYPE stock_report_seconds histogram\n"), body);
+        assertTrue(body.contains("stock_report_seconds_count 2.0\n"), body);
+        assertTrue(body.contains("stock_report_seconds_bucket{le=\"+Inf\"} 2.0\n"), body);
+        assertTrue(body.contains("# TYPE stock_report_seconds_max gauge\n"), body);
+        assertTrue(body.contains("# TYPE stock_insufficient_rejections_total counter\n"), body);
+        assertTrue(body.contains("hikaricp_connections{pool=\""), body);
+        assertTrue(body.contains("hibernate_entities_total{operation=\"loaded\"}"), body);
+
+        // buckets are cumulative: never decreasing, ending at the count
+        List<Double> buckets = new ArrayList<>();
+        Matcher bucket = Pattern.compile("stock_report_seconds_bucket\\{le=\"[^\"]+\"} (\\S+)\n").matcher(body);
+        while (bucket.find()) {
+            buckets.add(Double.parseDouble(bucket.group(1)));
+        }
+        assertTrue(buckets.size() > 2, body);
+        for (int i = 1; i < buckets.size(); i++) {
+            assertTrue(buckets.get(i) >= buckets.get(i - 1), buckets.toString());
+        }
+        assertEquals(2.0, buckets.get(buckets.size() - 1));
+
+        // every family announced once
+        Matcher type = Pattern.compile("^# TYPE (\\S+) ", Pattern.MULTILINE).matcher(body);
+        List<String> families = new ArrayList<>();
+        while (type.find()) {
+            families.add(type.group(1));
+        }
+        assertEquals(families.size(), families.stream().distinct().count(), families.toString());
+    }
+}
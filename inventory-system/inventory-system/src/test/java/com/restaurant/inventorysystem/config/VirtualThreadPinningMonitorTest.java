@@ -0,0 +1,59 @@
+package com.restaurant.inventorysystem.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Virtual-thread mode: a virtual thread blocking inside synchronized is
+ * reported under jvm.threads.virtual.pinned with the frame that blocked.
+ */
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "inventory.threads.pinning-monitor.threshold=10ms"
+})
+class VirtualThreadPinningMonitorTest {
+
+    private final Object monitor = new Object();
+
+    @Autowired
+    private VirtualThreadPinningMonitor virtualThreadPinningMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void blockingInsideSynchronizedIsReported() throws Exception {
+        assertNotNull(virtualThreadPinningMonitor);
+
+        Thread.ofVirtual().start(this::sleepHoldingMonitor).join();
+
+        String site = VirtualThreadPinningMonitorTest.class.getName() + ".sleepHoldingMonitor";
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+        Timer pinned = null;
+        while (pinned == null && System.nanoTime() < deadline) {
+            // JFR streams its events about once a second
+            Thread.sleep(100);
+            pinned = meterRegistry.find("jvm.threads.virtual.pinned").tag("site", site).timer();
+        }
+        assertNotNull(pinned, "no pinned event for " + site);
+        assertTrue(pinned.totalTime(TimeUnit.MILLISECONDS) >= 50, pinned.totalTime(TimeUnit.MILLISECONDS) + " ms");
+    }
+
+    private void sleepHoldingMonitor() {
+        synchronized (monitor) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
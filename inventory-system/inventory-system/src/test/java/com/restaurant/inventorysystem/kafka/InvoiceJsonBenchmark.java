@@ -0,0 +1,128 @@
+package com.restaurant.inventorysystem.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.inventorysystem.dto.OrderDetailDTO;
+import com.restaurant.inventorysystem.dto.OrderDetailXrefDTO;
+import com.restaurant.inventorysystem.support.BenchmarkMenu;
+import com.restaurant.inventorysystem.support.JmhBenchmarks;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The invoice event of an order as JSON, per order:
+ *
+ *   write : OrderDetailDTO → payload, as saveOrder stores it in invoice_outbox
+ *   read  : payload → OrderDetailDTO, the consumer's side of invoice-topic
+ *
+ * Orders come from the generated menus (1-8 lines each); menu size only
+ * changes which recipe names and prices end up on the lines, so it is
+ * mostly a check that the cost stays flat.
+ *
+ * Opt-in, not part of the normal build:
+ *   mvn test -Dtest=InvoiceJsonBenchmark -Dbenchmark=true
+ * JSON results: target/jmh/InvoiceJsonBenchmark.json
+ *
+ * 18-Oct-2026, 1 vCPU, JDK 21, 1 fork, 5 × 1 s:
+ *
+ *   benchmark   recipes     µs / invoice      allocated / invoice
+ *   write            50      4.8 ± 1.7         2 070 B
+ *   write         2,000      5.4 ± 2.0         2 102 B
+ *   read             50     13.9 ± 2.9         2 108 B
+ *   read          2,000     13.9 ± 2.0         2 186 B
+ */
+@Tag(JmhBenchmarks.TAG)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvoiceJsonBenchmark {
+
+    private static final BigDecimal TAX_RATE = new BigDecimal("0.05");
+
+    @Param({"50", "2000"})
+    public int recipes;
+
+    // same builder Spring Boot configures its ObjectMapper bean from (java.time support)
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private List<OrderDetailDTO> invoices;
+    private List<String> payloads;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        List<List<OrderDetailXrefDTO>> orders = BenchmarkMenu.generate(recipes).orders();
+        invoices = new ArrayList<>(orders.size());
+        payloads = new ArrayList<>(orders.size());
+        LocalDateTime orderDate = LocalDateTime.of(2026, 10, 18, 13, 0);
+        for (int i = 0; i < orders.size(); i++) {
+            OrderDetailDTO invoice = invoice(i, orders.get(i), orderDate.plusMinutes(i));
+            invoices.add(invoice);
+            payloads.add(objectMapper.writeValueAsString(invoice));
+        }
+    }
+
+    @Benchmark
+    public String write() throws Exception {
+        return objectMapper.writeValueAsString(invoices.get(next++ & (BenchmarkMenu.ORDERS - 1)));
+    }
+
+    @Benchmark
+    public OrderDetailDTO read() throws Exception {
+        return objectMapper.readValue(payloads.get(next++ & (BenchmarkMenu.ORDERS - 1)), OrderDetailDTO.class);
+    }
+
+    @Test
+    void invoiceJsonPerOrder() throws Exception {
+        JmhBenchmarks.run(InvoiceJsonBenchmark.class);
+    }
+
+    // the fields saveOrder copies onto the invoice event
+    private static OrderDetailDTO invoice(int n, List<OrderDetailXrefDTO> lines, LocalDateTime orderDate) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderDetailXrefDTO line : lines) {
+            total = total.add(line.getSellingPrice().multiply(line.getQuantity()));
+        }
+        BigDecimal tax = total.multiply(TAX_RATE).setScale(2, RoundingMode.HALF_UP);
+
+        OrderDetailDTO invoice = new OrderDetailDTO();
+        invoice.setOrderId(n + 1);
+        invoice.setOrderNo("ORD-" + (100_000 + n));
+        invoice.setCustomerName("Guest " + n);
+        invoice.setCustomerPhone("98" + (10_000_000 + n));
+        invoice.setCustomerEmail("guest" + n + "@example.com");
+        invoice.setOrderDate(orderDate);
+        invoice.setPaymentMode(n % 3 == 0 ? "CARD" : "CASH");
+        invoice.setDiscount(BigDecimal.ZERO);
+        invoice.setTotalAmount(total);
+        invoice.setTaxAmount(tax);
+        invoice.setGrandTotal(total.add(tax));
+        invoice.setOrderDetailXrefList(lines);
+        return invoice;
+    }
+}
@@ -0,0 +1,220 @@
+package com.restaurant.inventorysystem.kafka;
+
+import com.restaurant.inventorysystem.dto.OrderDetailDTO;
+import com.restaurant.inventorysystem.dto.OrderDetailXrefDTO;
+import com.restaurant.inventorysystem.entity.IngredientsMaster;
+import com.restaurant.inventorysystem.entity.InvoiceOutbox;
+import com.restaurant.inventorysystem.entity.RecipeIngredientXref;
+import com.restaurant.inventorysystem.entity.RecipeMaster;
+import com.restaurant.inventorysystem.exception.InsufficientStockException;
+import com.restaurant.inventorysystem.repository.IngredientsRepository;
+import com.restaurant.inventorysystem.repository.InvoiceOutboxRepository;
+import com.restaurant.inventorysystem.repository.RecipeIngredientXrefRepository;
+import com.restaurant.inventorysystem.repository.RecipeMasterRepository;
+import com.restaurant.inventorysystem.service.OrderDetailService;
+import com.restaurant.inventorysystem.stock.RecipeBomCache;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Invoice events go through invoice_outbox: written with the order,
+ * published by InvoiceOutboxRelay to an embedded broker, then marked SENT.
+ */
+@SpringBootTest(properties = "invoice.outbox.batch-size=100")
+@EmbeddedKafka(partitions = 1, topics = KafkaInvoiceProducer.TOPIC_NAME,
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class InvoiceOutboxRelayTest {
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private OrderDetailService orderDetailService;
+
+    @Autowired
+    private InvoiceOutboxRelay invoiceOutboxRelay;
+
+    @Autowired
+    private InvoiceOutboxRepository invoiceOutboxRepository;
+
+    @Autowired
+    private IngredientsRepository ingredientsRepository;
+
+    @Autowired
+    private RecipeMasterRepository recipeMasterRepository;
+
+    @Autowired
+    private RecipeIngredientXrefRepository recipeIngredientXrefRepository;
+
+    @Autowired
+    private RecipeBomCache recipeBomCache;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    private Consumer<String, String> consumer;
+    private RecipeMaster recipe;
+
+    @BeforeEach
+    void setUp() {
+        int n = SEQ.incrementAndGet();
+        IngredientsMaster rice = new IngredientsMaster();
+        rice.setIngredientCode("OUTBOX-RICE-" + n);
+        rice.setIngredientName("Rice");
+        rice.setSmallerUnit("gm");
+        rice.setCurrentStockSubunit(new BigDecimal("500"));
+        rice = ingredientsRepository.save(rice);
+
+        recipe = new RecipeMaster();
+        recipe.setRecipeCode("OUTBOX-BIRYANI-" + n);
+        recipe.setRecipeName("Biryani");
+        recipe.setSellingPrice(new BigDecimal("180.00"));
+        recipe = recipeMasterRepository.save(recipe);
+
+        RecipeIngredientXref line = new RecipeIngredientXref();
+        line.setRecipe(recipe);
+        line.setIngredient(rice);
+        line.setQuantityValue(new BigDecimal("200"));
+        recipeIngredientXrefRepository.save(line);
+        recipeBomCache.reload();
+
+        Map<String, Object> props = KafkaTestUtils.consumerProps("outbox-test-" + n, "false", embeddedKafka);
+        props.put("auto.offset.reset", "latest");
+        consumer = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new StringDeserializer())
+                .createConsumer();
+        embeddedKafka.consumeFromAnEmbeddedTopic(consumer, KafkaInvoiceProducer.TOPIC_NAME);
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.close();
+    }
+
+    @Test
+    void committedOrderIsQueuedThenRelayed() {
+        String orderNo = "OUTBOX-ORD-" + SEQ.incrementAndGet();
+        orderDetailService.saveOrder(order(orderNo));
+
+        InvoiceOutbox row = rowFor(orderNo);
+        assertEquals(InvoiceOutbox.STATUS_PENDING, row.getStatus());
+        assertTrue(row.getPayload().contains(orderNo));
+
+        assertEquals(1, invoiceOutboxRelay.drain());
+
+        ConsumerRecord<String, String> record = received(1).stream()
+                .filter(r -> r.value().contains(orderNo))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(orderNo, record.key());
+        assertEquals(InvoiceOutbox.STATUS_SENT, rowFor(orderNo).getStatus());
+    }
+
+    @Test
+    void rolledBackOrderQueuesNothing() {
+        String orderNo = "OUTBOX-ORD-" + SEQ.incrementAndGet();
+        OrderDetailDTO tooBig = order(orderNo);
+        tooBig.getOrderDetailXrefList().get(0).setQuantity(new BigDecimal("3"));  // 600 gm > 500 gm
+
+        assertThrows(InsufficientStockException.class, () -> orderDetailService.saveOrder(tooBig));
+        assertTrue(invoiceOutboxRepository.findAll().stream().noneMatch(r -> orderNo.equals(r.getOrderNo())));
+    }
+
+    @Test
+    void drainsSeveralBatches() {
+        List<InvoiceOutbox> rows = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            InvoiceOutbox row = new InvoiceOutbox();
+            row.setOrderId(i);
+            row.setOrderNo("BULK-" + i);
+            row.setPayload("{\"orderNo\":\"BULK-" + i + "\"}");
+            row.setCreatedDate(LocalDateTime.now());
+            rows.add(row);
+        }
+        invoiceOutboxRepository.saveAll(rows);
+
+        assertEquals(250, invoiceOutboxRelay.drain());
+        assertEquals(0, invoiceOutboxRepository.countByStatus(InvoiceOutbox.STATUS_PENDING));
+
+        List<ConsumerRecord<String, String>> records = received(250);
+        for (int i = 0; i < 250; i++) {
+            String orderNo = "BULK-" + i;
+            assertTrue(records.stream().anyMatch(r -> orderNo.equals(r.key())), "missing " + orderNo);
+        }
+    }
+
+    @Test
+    void failedRowIsReplayed() {
+        InvoiceOutbox row = new InvoiceOutbox();
+        row.setOrderId(0);
+        row.setOrderNo("PARKED-" + SEQ.incrementAndGet());
+        row.setPayload("{\"orderNo\":\"" + row.getOrderNo() + "\"}");
+        row.setCreatedDate(LocalDateTime.now());
+        row.setStatus(InvoiceOutbox.STATUS_FAILED);
+        row.setAttempts(10);
+        row.setLastError("TimeoutException: broker down");
+        invoiceOutboxRepository.save(row);
+        String orderNo = row.getOrderNo();
+
+        assertEquals(0, invoiceOutboxRelay.drain());
+        assertEquals(1, invoiceOutboxRelay.replayFailed());
+
+        InvoiceOutbox requeued = rowFor(orderNo);
+        assertEquals(InvoiceOutbox.STATUS_PENDING, requeued.getStatus());
+        assertEquals(0, requeued.getAttempts());
+
+        assertEquals(1, invoiceOutboxRelay.drain());
+        assertTrue(received(1).stream().anyMatch(r -> orderNo.equals(r.key())));
+        assertEquals(InvoiceOutbox.STATUS_SENT, rowFor(orderNo).getStatus());
+    }
+
+    // ---------------------------------------------------------------
+
+    private List<ConsumerRecord<String, String>> received(int atLeast) {
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (records.size() < atLeast && System.currentTimeMillis() < deadline) {
+            consumer.poll(Duration.ofMillis(500)).forEach(records::add);
+        }
+        return records;
+    }
+
+    private InvoiceOutbox rowFor(String orderNo) {
+        return invoiceOutboxRepository.findAll().stream()
+                .filter(r -> orderNo.equals(r.getOrderNo()))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private OrderDetailDTO order(String orderNo) {
+        OrderDetailXrefDTO line = new OrderDetailXrefDTO();
+        line.setRecipeId(recipe.getRecipeId());
+        line.setQuantity(BigDecimal.ONE);
+
+        OrderDetailDTO order = new OrderDetailDTO();
+        order.setOrderNo(orderNo);
+        order.setOrderDate(LocalDateTime.now());
+        order.setOrderDetailXrefList(new ArrayList<>(List.of(line)));
+        return order;
+    }
+}
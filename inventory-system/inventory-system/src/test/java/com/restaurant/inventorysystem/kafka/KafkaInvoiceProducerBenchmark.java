@@ -0,0 +1,109 @@
+package com.restaurant.inventorysystem.kafka;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput / p99 ack latency of invoice publishing against an embedded
+ * broker: the old producer settings (one unkeyed, uncompressed record per
+ * request, acks=1) versus the tuned ones from application.properties.
+ *
+ * Opt-in, not part of the normal build:
+ *   mvn test -Dtest=KafkaInvoiceProducerBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@EmbeddedKafka(partitions = 3, topics = KafkaInvoiceProducer.TOPIC_NAME)
+class KafkaInvoiceProducerBenchmark {
+
+    private static final int WARMUP = 2_000;
+    private static final int RECORDS = 20_000;
+
+    @Test
+    void baselineVersusTuned(EmbeddedKafkaBroker broker) throws Exception {
+        Map<String, Object> baseline = producerProps(broker);
+        baseline.put(ProducerConfig.ACKS_CONFIG, "1");
+        baseline.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, false);
+        baseline.put(ProducerConfig.LINGER_MS_CONFIG, 0);
+        baseline.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "none");
+
+        Map<String, Object> tuned = producerProps(broker);
+        tuned.put(ProducerConfig.ACKS_CONFIG, "all");
+        tuned.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        tuned.put(ProducerConfig.BATCH_SIZE_CONFIG, 65536);
+        tuned.put(ProducerConfig.LINGER_MS_CONFIG, 10);
+        tuned.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+
+        run("baseline", baseline, false);
+        run("tuned   ", tuned, true);
+    }
+
+    private void run(String label, Map<String, Object> props, boolean keyed) throws Exception {
+        DefaultKafkaProducerFactory<String, String> factory = new DefaultKafkaProducerFactory<>(props);
+        try {
+            KafkaTemplate<String, String> template = new KafkaTemplate<>(factory);
+            send(template, WARMUP, keyed);
+
+            long start = System.nanoTime();
+            long[] latencies = send(template, RECORDS, keyed);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            Arrays.sort(latencies);
+            System.out.printf("%s : %,.0f records/s, p50 %.2f ms, p99 %.2f ms%n", label, RECORDS / seconds,
+                    latencies[RECORDS / 2] / 1e6, latencies[(int) (RECORDS * 0.99)] / 1e6);
+        } finally {
+            factory.destroy();
+        }
+    }
+
+    private long[] send(KafkaTemplate<String, String> template, int count, boolean keyed) throws Exception {
+        long[] latencies = new long[count];
+        CompletableFuture<?>[] acks = new CompletableFuture<?>[count];
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            String orderNo = "ORD-" + i;
+            long sentAt = System.nanoTime();
+            acks[i] = template.send(KafkaInvoiceProducer.TOPIC_NAME, keyed ? orderNo : null, invoice(orderNo))
+                    .whenComplete((result, error) -> latencies[index] = System.nanoTime() - sentAt);
+        }
+        CompletableFuture.allOf(acks).get(2, TimeUnit.MINUTES);
+        assertEquals(count, Arrays.stream(latencies).filter(latency -> latency > 0).count());
+        return latencies;
+    }
+
+    private static Map<String, Object> producerProps(EmbeddedKafkaBroker broker) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        return props;
+    }
+
+    /** Invoice JSON of a typical 5-line order (same shape as OrderDetailDTO). */
+    private static String invoice(String orderNo) {
+        StringBuilder json = new StringBuilder("{\"orderNo\":\"").append(orderNo)
+                .append("\",\"orderDate\":\"2026-10-17T12:30:00\",\"totalAmount\":940.00,\"orderDetailXrefList\":[");
+        List<String> dishes = List.of("Veg Biryani", "Paneer Tikka", "Butter Naan", "Dal Makhani", "Gulab Jamun");
+        for (int i = 0; i < dishes.size(); i++) {
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"recipeId\":").append(i + 1)
+                    .append(",\"recipeName\":\"").append(dishes.get(i))
+                    .append("\",\"quantity\":2,\"price\":94.00,\"amount\":188.00}");
+        }
+        return json.append("]}").toString();
+    }
+}
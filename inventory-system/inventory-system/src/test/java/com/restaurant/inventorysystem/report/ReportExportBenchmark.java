@@ -0,0 +1,118 @@
+package com.restaurant.inventorysystem.report;
+
+import com.restaurant.inventorysystem.service.ReportExportService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Time-to-first-byte and heap of /api/stock-in/report/* over a
+ * 2,000,000-row stock-in history. The body is written to a counting
+ * stream, the same way the MVC async thread writes it to the socket.
+ * In-memory H2 with lazy query execution (the H2 counterpart of a
+ * MySQL cursor fetch; lazy results on an H2 file store lose chunks
+ * under this load).
+ *
+ * Opt-in, not part of the normal build (seeding takes about a minute):
+ *   mvn test -Dtest=ReportExportBenchmark -Dbenchmark=true
+ * Prints, per format, time to first byte, bytes written, total time and
+ * the heap change after GC.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:report-export-benchmark;"
+        + "MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;LAZY_QUERY_EXECUTION=1")
+class ReportExportBenchmark {
+
+    private static final int ROWS = 2_000_000;
+    private static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+    @Autowired
+    private ReportExportService reportExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void firstByteAndHeapOverTwoMillionRows() throws Exception {
+        seed();
+
+        measure("csv          ", ReportFormat.CSV, null);
+        measure("ndjson + gzip", ReportFormat.NDJSON, "gzip");
+    }
+
+    private void measure(String label, ReportFormat format, String acceptEncoding) throws Exception {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+
+        FirstByteStream out = new FirstByteStream();
+        long start = System.nanoTime();
+        reportExportService.export(TabularReport.STOCK_IN, format, null, null, acceptEncoding)
+                .getBody().writeTo(out);
+        long total = System.nanoTime() - start;
+
+        System.gc();
+        long heapAfter = memory.getHeapMemoryUsage().getUsed();
+        System.out.printf("%s : first byte %d ms, %,d bytes in %.1f s, heap after GC %+d MB%n", label,
+                (out.firstByteAt - start) / 1_000_000, out.bytes, total / 1e9,
+                (heapAfter - heapBefore) / (1024 * 1024));
+    }
+
+    private void seed() {
+        jdbcTemplate.update("INSERT INTO ingredients_master (ingredient_id, ingredient_code, ingredient_name, uom, "
+                + "smaller_unit, base_unit_value, current_stock_subunit, active_flag, enable_flag, row_version) "
+                + "VALUES (1, 'RICE', 'Basmati Rice', 'KG', 'gm', 1000, 0, 1, 1, 0)");
+
+        long start = System.nanoTime();
+        int batch = 10_000;
+        for (int from = 1; from <= ROWS; from += batch) {
+            List<Object[]> rows = new ArrayList<>(batch);
+            for (int id = from; id < from + batch && id <= ROWS; id++) {
+                Timestamp date = Timestamp.valueOf(START.plusSeconds(id * 60L));
+                rows.add(new Object[]{"SI-" + id, date, "Supplier " + (id % 50), BigDecimal.TEN,
+                        new BigDecimal("10000"), new BigDecimal("100.00"), new BigDecimal("1000.00"), date});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO stock_in (ingredient_id, stock_no, stock_in_date, supplier_name, "
+                    + "qty_main, qty_sub, previous_stock_sub, updated_stock_sub, cost_per_unit, total_cost, "
+                    + "created_date, active_flag, enable_flag) "
+                    + "VALUES (1, ?, ?, ?, ?, ?, 0, 0, ?, ?, ?, 1, 1)",
+                    rows);
+        }
+        System.out.printf("seeded %,d stock-in rows in %.0f s%n", ROWS, (System.nanoTime() - start) / 1e9);
+    }
+
+    private static class FirstByteStream extends OutputStream {
+
+        long firstByteAt;
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+
+        // first bytes pushed by a flush (the 10-byte gzip header is written up front)
+        @Override
+        public void flush() {
+            if (firstByteAt == 0 && bytes > 0) {
+                firstByteAt = System.nanoTime();
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.restaurant.inventorysystem.report;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.inventorysystem.entity.IngredientsMaster;
+import com.restaurant.inventorysystem.entity.OrderDetail;
+import com.restaurant.inventorysystem.entity.OrderDetailXref;
+import com.restaurant.inventorysystem.entity.RecipeMaster;
+import com.restaurant.inventorysystem.entity.StockIn;
+import com.restaurant.inventorysystem.repository.IngredientsRepository;
+import com.restaurant.inventorysystem.repository.OrderDetailRepository;
+import com.restaurant.inventorysystem.repository.OrderDetailXrefRepository;
+import com.restaurant.inventorysystem.repository.RecipeMasterRepository;
+import com.restaurant.inventorysystem.repository.StockInRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * CSV / NDJSON report downloads: format, date filters and gzip.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+class ReportExportTest {
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IngredientsRepository ingredientsRepository;
+
+    @Autowired
+    private StockInRepository stockInRepository;
+
+    @Autowired
+    private RecipeMasterRepository recipeMasterRepository;
+
+    @Autowired
+    private OrderDetailRepository orderDetailRepository;
+
+    @Autowired
+    private OrderDetailXrefRepository orderDetailXrefRepository;
+
+    private String tag;
+    private IngredientsMaster salt;
+
+    @BeforeEach
+    void seed() {
+        tag = "R" + SEQ.incrementAndGet();
+        salt = ingredient("Salt, \"Rock\" " + tag, "2500");
+    }
+
+    @Test
+    void stockCsvHasHeaderAndQuotesFields() throws Exception {
+        MockHttpServletResponse response = download(get("/api/stock/report/csv"));
+
+        assertEquals("text/csv; charset=UTF-8", response.getContentType());
+        assertNull(response.getHeader("Content-Encoding"));
+        List<String> lines = lines(response.getContentAsByteArray());
+        assertEquals("ingredient_id,ingredient_name,uom,base_unit_value,stock_subunit,stock_main,last_updated",
+                lines.get(0));
+
+        String row = lines.stream().filter(line -> line.contains(tag)).findFirst().orElseThrow();
+        assertTrue(row.startsWith(salt.getIngredientId() + ",\"Salt, \"\"Rock\"\" " + tag + "\",KG,1000"), row);
+        assertTrue(row.contains(",2500"), row);
+    }
+
+    @Test
+    void stockInCsvFiltersOnDate() throws Exception {
+        stockIn(LocalDateTime.of(2021, 3, 1, 10, 0));
+        stockIn(LocalDateTime.of(2021, 3, 2, 10, 0));
+        stockIn(LocalDateTime.of(2021, 4, 1, 10, 0));
+
+        List<String> lines = lines(download(get("/api/stock-in/report/csv")
+                .param("from", "2021-03-01T00:00:00").param("to", "2021-04-01T00:00:00"))
+                .getContentAsByteArray());
+
+        assertEquals(2, lines.stream().filter(line -> line.contains("SI-" + tag)).count());
+        assertTrue(lines.get(1).contains("2021-03-01T10:00"), lines.get(1));
+    }
+
+    @Test
+    void ordersNdjsonIsGzippedWhenAccepted() throws Exception {
+        RecipeMaster tea = recipe();
+        order(LocalDateTime.of(2022, 5, 1, 9, 0), tea, 2);
+        order(LocalDateTime.of(2022, 5, 1, 9, 5), tea, 1);
+        order(LocalDateTime.of(2022, 6, 1, 9, 0), tea, 1);
+
+        MockHttpServletResponse response = download(get("/api/order/report/ndjson")
+                .param("from", "2022-05-01T00:00:00").param("to", "2022-06-01T00:00:00")
+                .header("Accept-Encoding", "br, gzip;q=0.8"));
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("application/x-ndjson; charset=UTF-8", response.getContentType());
+        byte[] body = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())).readAllBytes();
+
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : lines(body)) {
+            rows.add(objectMapper.readTree(line));
+        }
+        // 2 + 1 lines of the two orders in May
+        assertEquals(3, rows.size());
+        assertEquals("Tea " + tag, rows.get(0).get("recipe_name").asText());
+        assertTrue(rows.get(0).get("quantity").isNumber());
+        assertEquals("2022-05-01T09:00", rows.get(0).get("order_date").asText());
+        assertTrue(rows.get(2).get("order_date").asText().startsWith("2022-05-01T09:05"));
+    }
+
+    @Test
+    void gzipRefusedWithQZero() throws Exception {
+        MockHttpServletResponse response = download(get("/api/stock/report/ndjson")
+                .header("Accept-Encoding", "gzip;q=0, identity"));
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertTrue(lines(response.getContentAsByteArray()).stream().anyMatch(line -> line.contains(tag)));
+    }
+
+    // ---------------------------------------------------------------
+
+    private MockHttpServletResponse download(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult started = mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn().getResponse();
+    }
+
+    private static List<String> lines(byte[] body) {
+        return Arrays.stream(new String(body, StandardCharsets.UTF_8).split("\r?\n"))
+                .filter(line -> !line.isEmpty()).toList();
+    }
+
+    private IngredientsMaster ingredient(String name, String stock) {
+        IngredientsMaster ingredient = new IngredientsMaster();
+        ingredient.setIngredientCode("ING-" + tag);
+        ingredient.setIngredientName(name);
+        ingredient.setUom("KG");
+        ingredient.setSmallerUnit("gm");
+        ingredient.setBaseUnitValue(new BigDecimal("1000"));
+        ingredient.setCurrentStockSubunit(new BigDecimal(stock));
+        ingredient.setActiveFlag(1);
+        ingredient.setEnableFlag(1);
+        return ingredientsRepository.save(ingredient);
+    }
+
+    private void stockIn(LocalDateTime date) {
+        StockIn stockIn = new StockIn();
+        stockIn.setIngredient(salt);
+        stockIn.setStockNo("SI-" + tag + "-" + SEQ.incrementAndGet());
+        stockIn.setStockInDate(date);
+        stockIn.setQtyMain(BigDecimal.ONE);
+        stockIn.setQtySub(new BigDecimal("1000"));
+        stockIn.setPreviousStockSub(BigDecimal.ZERO);
+        stockIn.setUpdatedStockSub(new BigDecimal("1000"));
+        stockIn.setCreatedDate(date);
+        stockInRepository.save(stockIn);
+    }
+
+    private RecipeMaster recipe() {
+        RecipeMaster recipe = new RecipeMaster();
+        recipe.setRecipeCode("RPT-" + tag);
+        recipe.setRecipeName("Tea " + tag);
+        recipe.setSellingPrice(new BigDecimal("40.00"));
+        return recipeMasterRepository.save(recipe);
+    }
+
+    private void order(LocalDateTime date, RecipeMaster recipe, int lines) {
+        OrderDetail order = new OrderDetail();
+        order.setOrderNo("RPT-" + tag + "-" + SEQ.incrementAndGet());
+        order.setOrderDate(date);
+        order.setActiveFlag(1);
+        order = orderDetailRepository.save(order);
+        for (int i = 0; i < lines; i++) {
+            OrderDetailXref xref = new OrderDetailXref();
+            xref.setOrderDetail(order);
+            xref.setRecipeMaster(recipe);
+            xref.setRecipeName(recipe.getRecipeName());
+            xref.setQuantity(BigDecimal.ONE);
+            xref.setSellingPrice(recipe.getSellingPrice());
+            orderDetailXrefRepository.save(xref);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.restaurant.inventorysystem.report;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.inventorysystem.dto.ReportJobDTO;
+import com.restaurant.inventorysystem.entity.IngredientsMaster;
+import com.restaurant.inventorysystem.entity.StockIn;
+import com.restaurant.inventorysystem.repository.IngredientsRepository;
+import com.restaurant.inventorysystem.repository.StockInRepository;
+import com.restaurant.inventorysystem.service.ReportExportService;
+import com.restaurant.inventorysystem.service.ReportJobService;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Background report jobs: submit, progress, download, de-duplication,
+ * queue limit and expiry.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+class ReportJobTest {
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @MockitoSpyBean
+    private ReportExportService reportExportService;
+
+    @Autowired
+    private IngredientsRepository ingredientsRepository;
+
+    @Autowired
+    private StockInRepository stockInRepository;
+
+    private String tag;
+    private LocalDateTime day;
+
+    @BeforeEach
+    void seed() {
+        tag = "J" + SEQ.incrementAndGet();
+        // each test reports on its own day
+        day = LocalDateTime.of(2023, 1, 1, 0, 0).plusDays(SEQ.incrementAndGet());
+
+        IngredientsMaster ingredient = new IngredientsMaster();
+        ingredient.setIngredientCode("ING-" + tag);
+        ingredient.setIngredientName("Paneer " + tag);
+        ingredient.setUom("KG");
+        ingredient.setSmallerUnit("gm");
+        ingredient.setBaseUnitValue(new BigDecimal("1000"));
+        ingredient.setCurrentStockSubunit(new BigDecimal("5000"));
+        ingredient.setActiveFlag(1);
+        ingredient.setEnableFlag(1);
+        ingredient = ingredientsRepository.save(ingredient);
+
+        for (int hour : new int[]{9, 12, 30}) {
+            StockIn stockIn = new StockIn();
+            stockIn.setIngredient(ingredient);
+            stockIn.setStockNo("SI-" + tag + "-" + hour);
+            stockIn.setStockInDate(day.plusHours(hour));
+            stockIn.setQtyMain(BigDecimal.ONE);
+            stockIn.setQtySub(new BigDecimal("1000"));
+            stockIn.setPreviousStockSub(BigDecimal.ZERO);
+            stockIn.setUpdatedStockSub(new BigDecimal("1000"));
+            stockIn.setCreatedDate(day);
+            stockInRepository.save(stockIn);
+        }
+    }
+
+    @Test
+    void csvJobReportsProgressAndDownloads() throws Exception {
+        String body = mockMvc.perform(post("/api/reports/stock-in")
+                        .param("format", "csv")
+                        .param("from", day.toString()).param("to", day.plusDays(1).toString()))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+        String jobId = objectMapper.readTree(body).path("data").path("jobId").asText();
+
+        ReportJobDTO job = awaitFinished(jobId);
+        assertEquals("DONE", job.getStatus());
+        assertEquals(2L, job.getTotalRows());
+        assertEquals(2L, job.getRowsWritten());
+        assertEquals(100, job.getProgress());
+
+        JsonNode status = objectMapper.readTree(mockMvc.perform(get("/api/reports/jobs/" + jobId))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        assertEquals("/api/reports/jobs/" + jobId + "/download", status.path("data").path("downloadUrl").asText());
+
+        MockHttpServletResponse download = mockMvc.perform(get("/api/reports/jobs/" + jobId + "/download"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=stock_in_history.csv"))
+                .andReturn().getResponse();
+        assertEquals(job.getFileSize().longValue(), download.getContentLengthLong());
+        String[] lines = new String(download.getContentAsByteArray(), StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("stock_in_id,stock_no,stock_in_date"), lines[0]);
+        assertTrue(lines[1].contains("SI-" + tag + "-9"), lines[1]);
+        assertTrue(lines[2].contains("SI-" + tag + "-12"), lines[2]);
+    }
+
+    @Test
+    void xlsxJobBuildsWorkbook() throws Exception {
+        ReportJobDTO job = awaitFinished(reportJobService.submit("stock", "xlsx", null, null).getJobId());
+        assertEquals("DONE", job.getStatus());
+
+        byte[] file = mockMvc.perform(get(job.getDownloadUrl()))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsByteArray();
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(file))) {
+            // title rows, blank row, then the column names
+            Row header = workbook.getSheet("Stock").getRow(4);
+            assertEquals("ingredient_name", header.getCell(1).getStringCellValue());
+            assertTrue(workbook.getSheet("Stock").getLastRowNum() >= 5);
+        }
+    }
+
+    @Test
+    void identicalRequestsShareAJobAndTheQueueIsBounded() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await(30, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(reportExportService).count(any(), any(), any());
+
+        List<String> ids = new ArrayList<>();
+        try {
+            LocalDateTime to = day.plusDays(1);
+            ReportJobDTO first = reportJobService.submit("stock-in", "csv", day, to);
+            ReportJobDTO again = reportJobService.submit("STOCK-IN", "CSV", day, to);
+            ReportJobDTO otherFormat = reportJobService.submit("stock-in", "ndjson", day, to);
+            assertEquals(first.getJobId(), again.getJobId());
+            assertNotEquals(first.getJobId(), otherFormat.getJobId());
+            ids.add(first.getJobId());
+            ids.add(otherFormat.getJobId());
+
+            // 2 workers busy + 20 queued, then the queue is full
+            for (int i = 0; i < 20; i++) {
+                ids.add(reportJobService.submit("stock-in", "csv", day.minusDays(i + 1), to).getJobId());
+            }
+            mockMvc.perform(post("/api/reports/orders").param("format", "csv"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "30"));
+
+            mockMvc.perform(get("/api/reports/jobs/" + first.getJobId() + "/download"))
+                    .andExpect(status().isConflict());
+        } finally {
+            release.countDown();
+        }
+
+        for (String id : ids) {
+            assertEquals("DONE", awaitFinished(id).getStatus());
+        }
+        assertEquals(22, new HashSet<>(ids).size());
+        // finished jobs are not reused
+        assertNotEquals(ids.get(0), reportJobService.submit("stock-in", "csv", day, day.plusDays(1)).getJobId());
+    }
+
+    @Test
+    void expiredJobsAndFilesAreRemoved() throws Exception {
+        Object target = reportJobService;
+        Duration ttl = (Duration) ReflectionTestUtils.getField(target, "ttl");
+        ReflectionTestUtils.setField(target, "ttl", Duration.ofSeconds(2));
+        String jobId;
+        try {
+            jobId = reportJobService.submit("stock", "csv", null, null).getJobId();
+            awaitFinished(jobId);
+        } finally {
+            ReflectionTestUtils.setField(target, "ttl", ttl);
+        }
+
+        Path file = Paths.get("target/report-jobs", jobId + ".csv");
+        assertTrue(Files.exists(file));
+        assertEquals(0, reportJobService.evictExpired());
+
+        Thread.sleep(2_100);
+        assertTrue(reportJobService.evictExpired() >= 1);
+        assertFalse(Files.exists(file));
+        mockMvc.perform(get("/api/reports/jobs/" + jobId)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void rejectsUnknownTypeAndFormat() throws Exception {
+        mockMvc.perform(post("/api/reports/users")).andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/reports/stock").param("format", "pdf")).andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/reports/orders").param("format", "csv")
+                        .param("from", day.toString()).param("to", day.toString()))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/reports/jobs/no-such-job")).andExpect(status().isNotFound());
+    }
+
+    // ---------------------------------------------------------------
+
+    private ReportJobDTO awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (System.nanoTime() < deadline) {
+            ReportJobDTO job = reportJobService.getJob(jobId);
+            if (job.getStatus().equals("DONE") || job.getStatus().equals("FAILED")) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+        fail("Report job " + jobId + " did not finish");
+        return null;
+    }
+}
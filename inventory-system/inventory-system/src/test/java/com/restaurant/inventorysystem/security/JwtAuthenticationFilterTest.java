@@ -0,0 +1,109 @@
+package com.restaurant.inventorysystem.security;
+
+import com.restaurant.inventorysystem.entity.User;
+import com.restaurant.inventorysystem.repository.UserRepository;
+import com.restaurant.inventorysystem.support.StatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * An authenticated request verifies its token and reads its user once;
+ * repeats do no database work and no signature check.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(StatementCounter.Config.class)
+class JwtAuthenticationFilterTest {
+
+    // served from memory, so every statement counted comes from the filter
+    private static final String URL = "/api/recipes/availability";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Test
+    void repeatRequestsDoNoDatabaseWorkUntilTheUserChanges() throws Exception {
+        String token = token("till-1");
+        double verified = counter("auth.token.cache.misses");
+        double tokenHits = counter("auth.token.cache.hits");
+
+        statementCounter.reset();
+        call(token).andExpect(status().isOk());
+        assertEquals(1, statementCounter.get());
+
+        statementCounter.reset();
+        for (int i = 0; i < 5; i++) {
+            call(token).andExpect(status().isOk());
+        }
+        assertEquals(0, statementCounter.get());
+        assertEquals(1, counter("auth.token.cache.misses") - verified);
+        assertEquals(5, counter("auth.token.cache.hits") - tokenHits);
+
+        // a change drops the user: read again once, then cached again
+        eventPublisher.publishEvent(new UserChangedEvent("till-1"));
+        statementCounter.reset();
+        call(token).andExpect(status().isOk());
+        call(token).andExpect(status().isOk());
+        assertEquals(1, statementCounter.get());
+    }
+
+    @Test
+    void invalidTokensAndRemovedUsersAreRejected() throws Exception {
+        String token = token("till-2");
+        call(token).andExpect(status().isOk());
+
+        // forged signature
+        String forged = token.substring(0, token.length() - 4) + "AAAA";
+        call(forged).andExpect(status().isForbidden());
+        call("not-a-jwt").andExpect(status().isForbidden());
+
+        // user removed: the cached token is still valid, the user is not
+        userRepository.delete(userRepository.findByUserName("till-2"));
+        eventPublisher.publishEvent(new UserChangedEvent("till-2"));
+        call(token).andExpect(status().isForbidden());
+    }
+
+    // ---------------------------------------------------------------
+
+    private ResultActions call(String token) throws Exception {
+        return mockMvc.perform(get(URL).header("Authorization", "Bearer " + token));
+    }
+
+    private String token(String userName) {
+        User user = new User();
+        user.setUserName(userName);
+        user.setPassword("n/a");
+        userRepository.save(user);
+        return jwtUtil.generateToken(userName);
+    }
+
+    private double counter(String name) {
+        return meterRegistry.counter(name).count();
+    }
+}
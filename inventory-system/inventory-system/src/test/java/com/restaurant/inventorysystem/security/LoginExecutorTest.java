@@ -0,0 +1,61 @@
+package com.restaurant.inventorysystem.security;
+
+import com.restaurant.inventorysystem.exception.LoginQueueFullException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * A full login queue refuses at once, queue depth is reported, and a
+ * login that waited past the queue timeout is dropped unprocessed.
+ */
+class LoginExecutorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void fullQueueRefusesAndStaleLoginsAreDropped() throws Exception {
+        LoginExecutor executor = new LoginExecutor(meterRegistry, 1, 1, Duration.ofMillis(100));
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+
+        CompletableFuture<String> first = executor.submit(() -> {
+            running.countDown();
+            await(release);
+            return "first";
+        });
+        running.await(5, TimeUnit.SECONDS);
+        CompletableFuture<String> queued = executor.submit(() -> "queued");
+        assertEquals(1.0, meterRegistry.get("auth.login.queue.depth").gauge().value());
+
+        assertThrows(LoginQueueFullException.class, () -> executor.submit(() -> "refused"));
+
+        // the queued login waits past the 100 ms timeout
+        Thread.sleep(200);
+        release.countDown();
+        assertEquals("first", first.get(5, TimeUnit.SECONDS));
+        ExecutionException stale = assertThrows(ExecutionException.class, () -> queued.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(LoginQueueFullException.class, stale.getCause());
+        assertEquals(2, meterRegistry.get("auth.login.queue.wait").timer().count());
+
+        executor.shutdown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
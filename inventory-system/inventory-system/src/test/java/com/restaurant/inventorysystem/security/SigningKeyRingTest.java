@@ -0,0 +1,153 @@
+package com.restaurant.inventorysystem.security;
+
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.KeyStore;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Keys from a shared keystore: tokens verify on every node and after a
+ * restart, a new key signs only after its activation delay while the
+ * old one still verifies, and a withdrawn key is rejected.
+ */
+class SigningKeyRingTest {
+
+    private static final String PASSWORD = "changeit";
+
+    @TempDir
+    private Path dir;
+
+    private final Map<String, byte[]> keys = new LinkedHashMap<>();
+    private final List<Object> events = new ArrayList<>();
+
+    @Test
+    void tokensVerifyOnEveryNodeSharingTheKeystore() throws Exception {
+        Path keystore = keystore("2026-09");
+        JwtUtil nodeA = new JwtUtil(ring(keystore, Duration.ZERO));
+        JwtUtil nodeB = new JwtUtil(ring(keystore, Duration.ZERO));
+
+        String token = nodeA.generateToken("till-1");
+        assertEquals("till-1", nodeB.extractUsername(token));
+        // a restart is just another node
+        assertEquals("till-1", new JwtUtil(ring(keystore, Duration.ZERO)).extractUsername(token));
+
+        // same key, but no kid / an unknown kid: rejected
+        byte[] secret = keys.get("2026-09");
+        String noKid = Jwts.builder().setSubject("till-1").setExpiration(inOneHour())
+                .signWith(new SecretKeySpec(secret, "HmacSHA256")).compact();
+        String otherKid = Jwts.builder().setHeaderParam("kid", "2026-08").setSubject("till-1")
+                .setExpiration(inOneHour()).signWith(new SecretKeySpec(secret, "HmacSHA256")).compact();
+        assertThrows(JwtException.class, () -> nodeB.extractUsername(noKid));
+        assertThrows(JwtException.class, () -> nodeB.extractUsername(otherKid));
+    }
+
+    @Test
+    void rotationOverlapsOldAndNewKeys() throws Exception {
+        Path keystore = keystore("2026-09");
+        SigningKeyRing ring = ring(keystore, Duration.ofMinutes(10));
+        JwtUtil jwtUtil = new JwtUtil(ring);
+        String oldToken = jwtUtil.generateToken("till-1");
+
+        // new key added: verifies at once, signs after the activation delay
+        keystore("2026-09", "2026-10");
+        ring.reloadIfChanged();
+        assertEquals(Set.of("2026-09", "2026-10"), ring.kids());
+        assertEquals("2026-09", ring.signingKey().kid());
+        assertEquals("2026-10", ring.signingKeyAt(Instant.now().plus(Duration.ofMinutes(11))).kid());
+
+        // another node already signing with the new key
+        String newToken = new JwtUtil(ring(keystore, Duration.ZERO)).generateToken("till-2");
+        assertEquals("till-1", jwtUtil.extractUsername(oldToken));
+        assertEquals("till-2", jwtUtil.extractUsername(newToken));
+
+        // old key withdrawn
+        keystore("2026-10");
+        ring.reloadIfChanged();
+        assertThrows(JwtException.class, () -> jwtUtil.extractUsername(oldToken));
+        assertEquals("till-2", jwtUtil.extractUsername(newToken));
+        assertEquals("2026-10", ring.signingKey().kid());
+        assertEquals(1, events.size());
+        assertEquals(Set.of("2026-09"), ((SigningKeysWithdrawnEvent) events.get(0)).getKids());
+    }
+
+    @Test
+    void brokenKeystoreKeepsTheLoadedKeys() throws Exception {
+        Path keystore = keystore("2026-09");
+        SigningKeyRing ring = ring(keystore, Duration.ZERO);
+
+        Files.writeString(keystore, "not a keystore");
+        touch(keystore);
+        ring.reloadIfChanged();
+        assertEquals(Set.of("2026-09"), ring.kids());
+        assertEquals(0, events.size());
+    }
+
+    // ---------------------------------------------------------------
+
+    private SigningKeyRing ring(Path keystore, Duration activationDelay) {
+        return new SigningKeyRing(keystore.toString(), PASSWORD, "PKCS12", activationDelay, events::add,
+                new SimpleMeterRegistry());
+    }
+
+    /** Writes a keystore holding these kids (a kid keeps its key across rewrites). */
+    private Path keystore(String... kids) throws Exception {
+        Path file = dir.resolve("jwt-keys.p12");
+        KeyStore previous = null;
+        if (Files.exists(file)) {
+            previous = KeyStore.getInstance("PKCS12");
+            try (InputStream in = Files.newInputStream(file)) {
+                previous.load(in, PASSWORD.toCharArray());
+            }
+        }
+
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        keyStore.load(null, null);
+        KeyStore.PasswordProtection protection = new KeyStore.PasswordProtection(PASSWORD.toCharArray());
+        for (String kid : kids) {
+            if (previous != null && previous.containsAlias(kid)) {
+                keyStore.setEntry(kid, previous.getEntry(kid, protection), protection);
+                continue;
+            }
+            byte[] secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+            keys.put(kid, secret);
+            keyStore.setEntry(kid, new KeyStore.SecretKeyEntry(new SecretKeySpec(secret, "HmacSHA256")), protection);
+        }
+        try (OutputStream out = Files.newOutputStream(file)) {
+            keyStore.store(out, PASSWORD.toCharArray());
+        }
+        touch(file);
+        return file;
+    }
+
+    // a rewrite within the same millisecond would look unchanged
+    private static void touch(Path file) throws Exception {
+        FileTime modified = Files.getLastModifiedTime(file);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(modified.toMillis() + 1_000));
+    }
+
+    private static Date inOneHour() {
+        return new Date(System.currentTimeMillis() + 3_600_000);
+    }
+}
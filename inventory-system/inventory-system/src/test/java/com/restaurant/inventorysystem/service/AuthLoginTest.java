@@ -0,0 +1,100 @@
+package com.restaurant.inventorysystem.service;
+
+import com.restaurant.inventorysystem.entity.User;
+import com.restaurant.inventorysystem.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Logins run on the login executor, re-hash passwords stored at another
+ * BCrypt cost, and are refused with 429 once a user name's bucket is
+ * empty.
+ */
+@SpringBootTest(properties = {
+        "auth.login.bcrypt-strength=5",
+        "auth.login.limit.user.capacity=3",
+        "auth.login.limit.user.refill=60s"
+})
+@AutoConfigureMockMvc
+class AuthLoginTest {
+
+    private static final String PASSWORD = "s3cret-pin";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void loginRehashesToTheConfiguredCost() throws Exception {
+        user("cashier-1", new BCryptPasswordEncoder(4).encode(PASSWORD));
+        double rehashed = meterRegistry.counter("auth.login.rehashed").count();
+
+        login("cashier-1", PASSWORD).andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").isNotEmpty());
+        String hash = userRepository.findByUserName("cashier-1").getPassword();
+        assertTrue(hash.startsWith("$2a$05$"), hash);
+        assertEquals(1, meterRegistry.counter("auth.login.rehashed").count() - rehashed);
+
+        // already at the configured cost: left alone
+        login("cashier-1", PASSWORD).andExpect(status().isOk());
+        assertEquals(hash, userRepository.findByUserName("cashier-1").getPassword());
+        assertTrue(meterRegistry.timer("auth.login.hash").count() >= 2);
+    }
+
+    @Test
+    void userNameIsRateLimited() throws Exception {
+        user("cashier-2", new BCryptPasswordEncoder(5).encode(PASSWORD));
+
+        // wrong passwords (answered 500 by the generic handler, as before)
+        for (int i = 0; i < 3; i++) {
+            login("cashier-2", "wrong-" + i).andExpect(status().isInternalServerError());
+        }
+        // refused before any hashing, even with the right password
+        mockMvc.perform(loginRequest("cashier-2", PASSWORD))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "60"));
+    }
+
+    // ---------------------------------------------------------------
+
+    private ResultActions login(String userName, String password) throws Exception {
+        MvcResult started = mockMvc.perform(loginRequest(userName, password))
+                .andExpect(request().asyncStarted()).andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+
+    private static MockHttpServletRequestBuilder loginRequest(String userName, String password) {
+        return post("/api/auth/login").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"username\":\"" + userName + "\",\"password\":\"" + password + "\"}");
+    }
+
+    private void user(String userName, String hash) {
+        User user = new User();
+        user.setUserName(userName);
+        user.setPassword(hash);
+        userRepository.save(user);
+    }
+}
@@ -0,0 +1,128 @@
+package com.restaurant.inventorysystem.service;
+
+import com.restaurant.inventorysystem.dto.OrderPageDTO;
+import com.restaurant.inventorysystem.repository.OrderDetailXrefRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Latency of one /api/order/list page (50 orders + their lines) at random
+ * depths of a 1,000,000-order history: keyset pagination (getOrders)
+ * versus LIMIT/OFFSET on the same index. H2 file database under target/.
+ *
+ * Opt-in, not part of the normal build (seeding takes a few minutes):
+ *   mvn test -Dtest=OrderListingBenchmark -Dbenchmark=true
+ * Prints p50 / p99 page latency for the keyset first page, keyset random
+ * pages and offset random pages.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:file:./target/order-listing-benchmark;"
+        + "MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE")
+class OrderListingBenchmark {
+
+    private static final int ORDERS = 1_000_000;
+    private static final int LINES_PER_ORDER = 2;
+    private static final int PAGE = 50;
+    private static final int WARMUP = 50;
+    private static final int SAMPLES = 300;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Autowired
+    private OrderDetailService orderDetailService;
+
+    @Autowired
+    private OrderDetailXrefRepository orderDetailXrefRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void keysetVersusOffsetAtOneMillionOrders() {
+        seed();
+
+        measure("keyset, first page ", depth -> keysetPage(null));
+        measure("keyset, random page", depth -> keysetPage(cursorAt(ORDERS - depth)));
+        measure("offset, random page", this::offsetPage);
+    }
+
+    private void keysetPage(String cursor) {
+        OrderPageDTO page = (OrderPageDTO) orderDetailService.getOrders(null, null, "ACTIVE", cursor, PAGE).getData();
+        assertEquals(PAGE, page.getOrders().size());
+    }
+
+    private void offsetPage(int depth) {
+        List<Integer> ids = jdbcTemplate.queryForList(
+                "SELECT order_id FROM order_detail WHERE active_flag = 1 "
+                        + "ORDER BY order_date DESC, order_id DESC LIMIT ? OFFSET ?", Integer.class, PAGE, depth);
+        assertEquals(PAGE, orderDetailXrefRepository.findLinesByOrderIds(ids).size() / LINES_PER_ORDER);
+    }
+
+    private void measure(String label, IntConsumer page) {
+        Random random = new Random(42);
+        int maxDepth = ORDERS - PAGE - 1;
+        for (int i = 0; i < WARMUP; i++) {
+            page.accept(random.nextInt(maxDepth));
+        }
+        long[] latencies = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            int depth = random.nextInt(maxDepth);
+            long start = System.nanoTime();
+            page.accept(depth);
+            latencies[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("%s : p50 %.2f ms, p99 %.2f ms%n", label,
+                latencies[SAMPLES / 2] / 1e6, latencies[(int) (SAMPLES * 0.99)] / 1e6);
+    }
+
+    // Order i (id i) is placed i * 30 s after START; same cursor format as OrderDetailServiceImpl
+    private static String cursorAt(int orderId) {
+        String position = orderDate(orderId) + "|" + orderId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static LocalDateTime orderDate(int orderId) {
+        return START.plusSeconds(orderId * 30L);
+    }
+
+    private void seed() {
+        jdbcTemplate.update("INSERT INTO recipe_master (recipe_id, recipe_code, recipe_name, selling_price, "
+                + "active_flag, enable_flag, created_date) VALUES (1, 'TEA', 'Masala Tea', 40.00, 1, 1, NOW()), "
+                + "(2, 'SMS', 'Samosa', 25.00, 1, 1, NOW())");
+
+        long start = System.nanoTime();
+        int batch = 10_000;
+        for (int from = 1; from <= ORDERS; from += batch) {
+            List<Object[]> orders = new ArrayList<>(batch);
+            List<Object[]> lines = new ArrayList<>(batch * LINES_PER_ORDER);
+            for (int id = from; id < from + batch && id <= ORDERS; id++) {
+                Timestamp date = Timestamp.valueOf(orderDate(id));
+                orders.add(new Object[]{id, "ORD-" + id, "Guest " + id, date, new BigDecimal("105.00"), 1, 1});
+                lines.add(new Object[]{id, 1, "Masala Tea", BigDecimal.ONE, new BigDecimal("40.00")});
+                lines.add(new Object[]{id, 2, "Samosa", new BigDecimal("2"), new BigDecimal("25.00")});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO order_detail (order_id, order_no, customer_name, order_date, "
+                    + "grand_total, active_flag, enable_flag) VALUES (?, ?, ?, ?, ?, ?, ?)", orders);
+            jdbcTemplate.batchUpdate("INSERT INTO order_detail_xref (order_id, recipe_id, recipe_name, quantity, "
+                    + "selling_price) VALUES (?, ?, ?, ?, ?)", lines);
+        }
+        System.out.printf("seeded %,d orders / %,d lines in %.0f s%n", ORDERS, ORDERS * LINES_PER_ORDER,
+                (System.nanoTime() - start) / 1e9);
+    }
+}
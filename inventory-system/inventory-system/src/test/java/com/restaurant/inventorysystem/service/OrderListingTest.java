@@ -0,0 +1,171 @@
+package com.restaurant.inventorysystem.service;
+
+import com.restaurant.inventorysystem.dto.OrderDetailDTO;
+import com.restaurant.inventorysystem.dto.OrderPageDTO;
+import com.restaurant.inventorysystem.entity.OrderDetail;
+import com.restaurant.inventorysystem.entity.OrderDetailXref;
+import com.restaurant.inventorysystem.entity.RecipeMaster;
+import com.restaurant.inventorysystem.exception.InvalidDataException;
+import com.restaurant.inventorysystem.repository.OrderDetailRepository;
+import com.restaurant.inventorysystem.repository.OrderDetailXrefRepository;
+import com.restaurant.inventorysystem.repository.RecipeMasterRepository;
+import com.restaurant.inventorysystem.support.StatementCounter;
+import com.restaurant.inventorysystem.util.ApiResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Keyset-paginated order listing: every order exactly once, newest first,
+ * and a fixed number of SQL statements per page.
+ */
+@SpringBootTest
+@Import(StatementCounter.Config.class)
+class OrderListingTest {
+
+    private static final int ORDERS = 23;
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private OrderDetailService orderDetailService;
+
+    @Autowired
+    private OrderDetailRepository orderDetailRepository;
+
+    @Autowired
+    private OrderDetailXrefRepository orderDetailXrefRepository;
+
+    @Autowired
+    private RecipeMasterRepository recipeMasterRepository;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    // each test lists its own day, away from orders saved by other tests
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    @BeforeEach
+    void seed() {
+        from = LocalDateTime.of(2020, 1, 1, 0, 0).plusDays(SEQ.incrementAndGet());
+        to = from.plusDays(1);
+
+        RecipeMaster tea = recipe("Masala Tea");
+        RecipeMaster samosa = recipe("Samosa");
+        for (int i = 0; i < ORDERS; i++) {
+            // three orders per minute: ties on order_date are broken by order_id
+            OrderDetail order = order(from.plusMinutes(i / 3), i == 7 ? 0 : 1);
+            line(order, tea, "2");
+            line(order, samosa, "1");
+        }
+    }
+
+    @Test
+    void pagesThroughEveryOrderOnceNewestFirst() {
+        List<OrderDetailDTO> all = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            OrderPageDTO page = page(from, to, "ALL", cursor, 5);
+            all.addAll(page.getOrders());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(5, pages);
+        assertEquals(ORDERS, all.size());
+        assertEquals(ORDERS, new HashSet<>(all.stream().map(OrderDetailDTO::getOrderId).toList()).size());
+
+        List<OrderDetailDTO> expected = new ArrayList<>(all);
+        expected.sort(Comparator.comparing(OrderDetailDTO::getOrderDate)
+                .thenComparing(OrderDetailDTO::getOrderId).reversed());
+        assertEquals(expected, all);
+
+        for (OrderDetailDTO order : all) {
+            assertEquals(2, order.getOrderDetailXrefList().size());
+            assertEquals("Masala Tea", order.getOrderDetailXrefList().get(0).getRecipeName());
+        }
+    }
+
+    @Test
+    void filtersByStatusAndDateRange() {
+        assertEquals(ORDERS - 1, page(from, to, "ACTIVE", null, 100).getOrders().size());
+        assertEquals(1, page(from, to, "DELETED", null, 100).getOrders().size());
+
+        // three orders per minute
+        OrderPageDTO firstTwoMinutes = page(from, from.plusMinutes(2), "ALL", null, 100);
+        assertEquals(6, firstTwoMinutes.getOrders().size());
+        assertNull(firstTwoMinutes.getNextCursor());
+    }
+
+    @Test
+    void pageCostsTwoStatementsWhateverItsSize() {
+        statementCounter.reset();
+        page(from, to, "ALL", null, 3);
+        long small = statementCounter.get();
+
+        statementCounter.reset();
+        page(from, to, "ALL", null, ORDERS);
+        long large = statementCounter.get();
+
+        assertEquals(2, small);
+        assertEquals(2, large);
+    }
+
+    @Test
+    void rejectsInvalidParameters() {
+        assertThrows(InvalidDataException.class, () -> orderDetailService.getOrders(from, to, "ALL", null, 0));
+        assertThrows(InvalidDataException.class, () -> orderDetailService.getOrders(from, to, "PAID", null, 10));
+        assertThrows(InvalidDataException.class, () -> orderDetailService.getOrders(to, from, "ALL", null, 10));
+        assertThrows(InvalidDataException.class, () -> orderDetailService.getOrders(from, to, "ALL", "not-a-cursor", 10));
+    }
+
+    // ---------------------------------------------------------------
+
+    private OrderPageDTO page(LocalDateTime from, LocalDateTime to, String status, String cursor, int size) {
+        ApiResponse response = orderDetailService.getOrders(from, to, status, cursor, size);
+        return (OrderPageDTO) response.getData();
+    }
+
+    private RecipeMaster recipe(String name) {
+        RecipeMaster recipe = new RecipeMaster();
+        recipe.setRecipeCode("LST-" + SEQ.incrementAndGet());
+        recipe.setRecipeName(name);
+        recipe.setSellingPrice(new BigDecimal("40.00"));
+        return recipeMasterRepository.save(recipe);
+    }
+
+    private OrderDetail order(LocalDateTime orderDate, int activeFlag) {
+        OrderDetail order = new OrderDetail();
+        order.setOrderNo("LST-" + SEQ.incrementAndGet());
+        order.setOrderDate(orderDate);
+        order.setGrandTotal(new BigDecimal("120.00"));
+        order.setActiveFlag(activeFlag);
+        order.setEnableFlag(activeFlag);
+        return orderDetailRepository.save(order);
+    }
+
+    private void line(OrderDetail order, RecipeMaster recipe, String quantity) {
+        OrderDetailXref xref = new OrderDetailXref();
+        xref.setOrderDetail(order);
+        xref.setRecipeMaster(recipe);
+        xref.setRecipeName(recipe.getRecipeName());
+        xref.setQuantity(new BigDecimal(quantity));
+        xref.setSellingPrice(recipe.getSellingPrice());
+        orderDetailXrefRepository.save(xref);
+    }
+}
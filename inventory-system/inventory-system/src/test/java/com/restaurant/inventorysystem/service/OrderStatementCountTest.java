@@ -0,0 +1,169 @@
+package com.restaurant.inventorysystem.service;
+
+import com.restaurant.inventorysystem.dto.OrderDetailDTO;
+import com.restaurant.inventorysystem.dto.OrderDetailXrefDTO;
+import com.restaurant.inventorysystem.entity.IngredientsMaster;
+import com.restaurant.inventorysystem.entity.RecipeIngredientXref;
+import com.restaurant.inventorysystem.entity.RecipeMaster;
+import com.restaurant.inventorysystem.exception.ResourceNotFoundException;
+import com.restaurant.inventorysystem.repository.IngredientsRepository;
+import com.restaurant.inventorysystem.repository.OrderDetailXrefRepository;
+import com.restaurant.inventorysystem.repository.RecipeIngredientXrefRepository;
+import com.restaurant.inventorysystem.repository.RecipeMasterRepository;
+import com.restaurant.inventorysystem.stock.RecipeBomCache;
+import com.restaurant.inventorysystem.support.StatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that saveOrder costs a fixed number of SQL statements,
+ * whatever the number of lines on the order.
+ */
+@SpringBootTest
+@Import(StatementCounter.Config.class)
+class OrderStatementCountTest {
+
+    private static final int RECIPES = 12;
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private OrderDetailService orderDetailService;
+
+    @Autowired
+    private IngredientsRepository ingredientsRepository;
+
+    @Autowired
+    private RecipeMasterRepository recipeMasterRepository;
+
+    @Autowired
+    private RecipeIngredientXrefRepository recipeIngredientXrefRepository;
+
+    @Autowired
+    private OrderDetailXrefRepository orderDetailXrefRepository;
+
+    @Autowired
+    private RecipeBomCache recipeBomCache;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private IngredientsMaster shared;
+    private final List<RecipeMaster> recipes = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        recipes.clear();
+        shared = ingredient("1000");
+        for (int i = 0; i < RECIPES; i++) {
+            RecipeMaster recipe = recipe();
+            recipeLine(recipe, shared, "2");
+            recipeLine(recipe, ingredient("1000"), "5");
+            recipes.add(recipe);
+        }
+        recipeBomCache.reload();
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithOrderLines() {
+        statementCounter.reset();
+        orderDetailService.saveOrder(order(recipes.subList(0, 1)));
+        long singleLine = statementCounter.get();
+
+        statementCounter.reset();
+        orderDetailService.saveOrder(order(recipes));
+        long twelveLines = statementCounter.get();
+
+        assertTrue(singleLine > 0, "statement counter is not wired to the DataSource");
+        assertEquals(singleLine, twelveLines,
+                "1-line order used " + singleLine + " statements, 12-line order used " + twelveLines);
+    }
+
+    @Test
+    void deductsAggregatedQuantities() {
+        long linesBefore = orderDetailXrefRepository.count();
+
+        // same recipe twice + all others once: shared ingredient needs (RECIPES + 1) * 2
+        List<RecipeMaster> lines = new ArrayList<>(recipes);
+        lines.add(recipes.get(0));
+        orderDetailService.saveOrder(order(lines));
+
+        assertEquals(0, new BigDecimal(1000 - (RECIPES + 1) * 2)
+                .compareTo(stockOf(shared)));
+        assertEquals(linesBefore + RECIPES + 1, orderDetailXrefRepository.count());
+    }
+
+    @Test
+    void insufficientStockRollsBackWholeOrder() {
+        long linesBefore = orderDetailXrefRepository.count();
+
+        List<RecipeMaster> lines = new ArrayList<>();
+        for (int i = 0; i < 501; i++) {
+            lines.add(recipes.get(i % RECIPES));
+        }
+
+        assertThrows(ResourceNotFoundException.class, () -> orderDetailService.saveOrder(order(lines)));
+        assertEquals(0, new BigDecimal("1000").compareTo(stockOf(shared)));
+        assertEquals(linesBefore, orderDetailXrefRepository.count());
+    }
+
+    // ---------------------------------------------------------------
+
+    private BigDecimal stockOf(IngredientsMaster ingredient) {
+        return ingredientsRepository.findById(ingredient.getIngredientId()).orElseThrow().getCurrentStockSubunit();
+    }
+
+    private IngredientsMaster ingredient(String stock) {
+        int n = SEQ.incrementAndGet();
+        IngredientsMaster ingredient = new IngredientsMaster();
+        ingredient.setIngredientCode("ING-" + n);
+        ingredient.setIngredientName("Ingredient " + n);
+        ingredient.setSmallerUnit("gm");
+        ingredient.setCurrentStockSubunit(new BigDecimal(stock));
+        return ingredientsRepository.save(ingredient);
+    }
+
+    private RecipeMaster recipe() {
+        int n = SEQ.incrementAndGet();
+        RecipeMaster recipe = new RecipeMaster();
+        recipe.setRecipeCode("RCP-" + n);
+        recipe.setRecipeName("Recipe " + n);
+        recipe.setSellingPrice(new BigDecimal("120.00"));
+        return recipeMasterRepository.save(recipe);
+    }
+
+    private void recipeLine(RecipeMaster recipe, IngredientsMaster ingredient, String quantity) {
+        RecipeIngredientXref xref = new RecipeIngredientXref();
+        xref.setRecipe(recipe);
+        xref.setIngredient(ingredient);
+        xref.setQuantityValue(new BigDecimal(quantity));
+        recipeIngredientXrefRepository.save(xref);
+    }
+
+    private OrderDetailDTO order(List<RecipeMaster> lines) {
+        OrderDetailDTO order = new OrderDetailDTO();
+        order.setOrderNo("ORD-" + SEQ.incrementAndGet());
+        order.setOrderDate(LocalDateTime.now());
+        List<OrderDetailXrefDTO> xrefs = new ArrayList<>();
+        for (RecipeMaster recipe : lines) {
+            OrderDetailXrefDTO xref = new OrderDetailXrefDTO();
+            xref.setRecipeId(recipe.getRecipeId());
+            xref.setQuantity(BigDecimal.ONE);
+            xrefs.add(xref);
+        }
+        order.setOrderDetailXrefList(xrefs);
+        return order;
+    }
+}
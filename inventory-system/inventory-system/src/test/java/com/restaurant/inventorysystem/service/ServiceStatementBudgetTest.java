@@ -0,0 +1,371 @@
+package com.restaurant.inventorysystem.service;
+
+import com.restaurant.inventorysystem.dto.OrderDetailDTO;
+import com.restaurant.inventorysystem.dto.OrderDetailXrefDTO;
+import com.restaurant.inventorysystem.dto.RecipeIngredientXrefDTO;
+import com.restaurant.inventorysystem.dto.RecipeMasterDTO;
+import com.restaurant.inventorysystem.dto.RecipeRequestDTO;
+import com.restaurant.inventorysystem.dto.RecipeResponseDTO;
+import com.restaurant.inventorysystem.dto.StockInRequestDTO;
+import com.restaurant.inventorysystem.dto.StockInResponseDTO;
+import com.restaurant.inventorysystem.entity.IngredientsMaster;
+import com.restaurant.inventorysystem.entity.RecipeMaster;
+import com.restaurant.inventorysystem.entity.User;
+import com.restaurant.inventorysystem.repository.IngredientsRepository;
+import com.restaurant.inventorysystem.repository.UserRepository;
+import com.restaurant.inventorysystem.support.MaxStatements;
+import com.restaurant.inventorysystem.support.StatementCounter;
+import com.restaurant.inventorysystem.util.ApiResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * SQL statement budget of every service method, outside any test
+ * transaction (so lazy loading the service relies on fails here instead of
+ * hiding in open-session-in-view).
+ *
+ * Every collection is seeded with several rows, each created by a
+ * different user, so a per-row query shows up as a broken budget: the
+ * budgets are what each method runs whatever the number of rows.
+ * Report exports / jobs, logins and the SSE streams are covered by their
+ * own tests.
+ */
+@SpringBootTest
+@Import(StatementCounter.Config.class)
+class ServiceStatementBudgetTest {
+
+    private static final int ROWS = 3;
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private IngredientsService ingredientsService;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private OrderDetailService orderDetailService;
+
+    @Autowired
+    private StockInService stockInService;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RecipeAvailabilityService recipeAvailabilityService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private IngredientsRepository ingredientsRepository;
+
+    private final List<User> users = new ArrayList<>();
+    private final List<IngredientsMaster> ingredients = new ArrayList<>();
+    private final List<RecipeMaster> recipes = new ArrayList<>();
+    private final List<Integer> orderIds = new ArrayList<>();
+    private final List<Integer> stockInIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        users.clear();
+        ingredients.clear();
+        recipes.clear();
+        orderIds.clear();
+        stockInIds.clear();
+
+        for (int i = 0; i < ROWS; i++) {
+            users.add(user());
+        }
+        for (int i = 0; i < ROWS; i++) {
+            ingredients.add(ingredient(users.get(i)));
+        }
+        for (int i = 0; i < ROWS; i++) {
+            recipes.add(recipeService.saveRecipe(recipeRequest()));
+        }
+        for (int i = 0; i < ROWS; i++) {
+            orderIds.add((Integer) orderDetailService.saveOrder(order(users.get(i))).getData());
+        }
+        for (int i = 0; i < ROWS; i++) {
+            stockInIds.add(stockInService.addStock(stockIn(ingredients.get(i), users.get(i))).getStockInId());
+        }
+    }
+
+    // ---------------------------------------------------------------
+    // Ingredients
+
+    @Test
+    @MaxStatements(1)
+    void addIngredient() {
+        IngredientsMaster ingredient = newIngredient(users.get(0));
+        assertNotNull(ingredientsService.addIngredient(ingredient).getIngredientId());
+    }
+
+    @Test
+    @MaxStatements(3)
+    void updateIngredient() {
+        IngredientsMaster changes = newIngredient(users.get(1));
+        changes.setUpdatedBy(users.get(1));
+        ingredientsService.updateIngredient(ingredients.get(0).getIngredientId(), changes);
+    }
+
+    @Test
+    @MaxStatements(1)
+    void getAllIngredients() {
+        assertFalse(ingredientsService.getAllIngredients().isEmpty());
+    }
+
+    @Test
+    @MaxStatements(1)
+    void getIngredientById() {
+        assertNotNull(ingredientsService.getIngredientById(ingredients.get(0).getIngredientId()));
+    }
+
+    @Test
+    @MaxStatements(3)
+    void deleteIngredient() {
+        ingredientsService.deleteIngredient(ingredients.get(0).getIngredientId());
+    }
+
+    // ---------------------------------------------------------------
+    // Recipes
+
+    // duplicate check, users, ingredients, master, batched lines + BOM cache refresh (3)
+    @Test
+    @MaxStatements(8)
+    void saveRecipe() {
+        assertNotNull(recipeService.saveRecipe(recipeRequest()).getRecipeId());
+    }
+
+    // as saveRecipe, plus loading the master and replacing the old lines
+    @Test
+    @MaxStatements(11)
+    void updateRecipe() {
+        recipeService.updateRecipe(recipes.get(0).getRecipeId(), recipeRequest());
+    }
+
+    @Test
+    @MaxStatements(3)
+    void getRecipeWithXrefs() {
+        RecipeResponseDTO recipe = recipeService.getRecipeWithXrefs(recipes.get(0).getRecipeId());
+        assertEquals(ROWS, recipe.getRecipeMasterXrefs().size());
+    }
+
+    @Test
+    @MaxStatements(1)
+    void getAllRecipes() {
+        assertFalse(recipeService.getAllRecipes().isEmpty());
+    }
+
+    @Test
+    @MaxStatements(5)
+    void deleteRecipe() {
+        recipeService.deleteRecipe(recipes.get(0).getRecipeId());
+    }
+
+    // ---------------------------------------------------------------
+    // Orders
+
+    // user, header, batched lines, stock deduction (3), invoice outbox
+    @Test
+    @MaxStatements(7)
+    void saveOrder() {
+        assertEquals(200, orderDetailService.saveOrder(order(users.get(0))).getStatus());
+    }
+
+    // order, users and lines in one fetch join
+    @Test
+    @MaxStatements(1)
+    void getOrderById() {
+        ApiResponse response = orderDetailService.getOrderById(orderIds.get(0));
+        assertEquals(ROWS, ((OrderDetailDTO) response.getData()).getOrderDetailXrefList().size());
+    }
+
+    // headers page + lines of that page
+    @Test
+    @MaxStatements(2)
+    void getOrders() {
+        assertEquals(200, orderDetailService.getOrders(null, null, null, null, 20).getStatus());
+    }
+
+    @Test
+    @MaxStatements(7)
+    void deleteOrder() {
+        orderDetailService.deleteOrder(orderIds.get(0));
+    }
+
+    // ---------------------------------------------------------------
+    // Stock-in, stock report and ledger
+
+    @Test
+    @MaxStatements(6)
+    void addStock() {
+        assertNotNull(stockInService.addStock(stockIn(ingredients.get(0), users.get(0))).getStockInId());
+    }
+
+    @Test
+    @MaxStatements(1)
+    void getAllStockIn() {
+        List<StockInResponseDTO> stockIns = stockInService.getAllStockIn();
+        assertFalse(stockIns.isEmpty());
+        stockIns.forEach(stockIn -> assertNotNull(stockIn.getIngredientName()));
+    }
+
+    @Test
+    @MaxStatements(1)
+    void getStockInById() {
+        assertNotNull(stockInService.getStockInById(stockInIds.get(0)).getIngredientName());
+    }
+
+    @Test
+    @MaxStatements(5)
+    void deleteStockIn() {
+        stockInService.deleteStockIn(stockInIds.get(0));
+    }
+
+    @Test
+    @MaxStatements(1)
+    void getStockReport() {
+        assertFalse(stockInService.getStockReport().isEmpty());
+    }
+
+    @Test
+    @MaxStatements(4)
+    void getStockAtForAllIngredients() {
+        assertFalse(stockLedgerService.getStockAt(LocalDateTime.now()).isEmpty());
+    }
+
+    @Test
+    @MaxStatements(3)
+    void getStockAtForOneIngredient() {
+        assertNotNull(stockLedgerService.getStockAt(ingredients.get(0).getIngredientId(), LocalDateTime.now()));
+    }
+
+    @Test
+    @MaxStatements(3)
+    void takeSnapshot() {
+        stockLedgerService.takeSnapshot(LocalDateTime.now());
+    }
+
+    @Test
+    @MaxStatements(1)
+    void recordOpeningBalances() {
+        stockLedgerService.recordOpeningBalances();
+    }
+
+    // ---------------------------------------------------------------
+    // Users and availability
+
+    @Test
+    @MaxStatements(1)
+    void registerUser() {
+        User user = new User();
+        user.setUserName("budget-user-" + SEQ.incrementAndGet());
+        user.setPassword("secret");
+        assertNotNull(userService.registerUser(user));
+    }
+
+    // answered from RecipeAvailabilityEngine memory
+    @Test
+    @MaxStatements(0)
+    void getAvailability() {
+        assertFalse(recipeAvailabilityService.getAvailability().isEmpty());
+    }
+
+    // ---------------------------------------------------------------
+
+    private User user() {
+        User user = new User();
+        user.setUserName("budget-user-" + SEQ.incrementAndGet());
+        user.setPassword("not-a-hash");
+        return userRepository.save(user);
+    }
+
+    private IngredientsMaster ingredient(User createdBy) {
+        return ingredientsRepository.save(newIngredient(createdBy));
+    }
+
+    private IngredientsMaster newIngredient(User createdBy) {
+        int n = SEQ.incrementAndGet();
+        IngredientsMaster ingredient = new IngredientsMaster();
+        ingredient.setIngredientCode("BUDGET-ING-" + n);
+        ingredient.setIngredientName("Ingredient " + n);
+        ingredient.setSmallerUnit("gm");
+        ingredient.setBaseUnitValue(new BigDecimal("1000"));
+        ingredient.setCurrentStockSubunit(new BigDecimal("100000"));
+        ingredient.setCreatedBy(createdBy);
+        return ingredient;
+    }
+
+    /** A recipe using every seeded ingredient, each line created by another user. */
+    private RecipeRequestDTO recipeRequest() {
+        int n = SEQ.incrementAndGet();
+        RecipeMasterDTO master = new RecipeMasterDTO();
+        master.setRecipeCode("BUDGET-RCP-" + n);
+        master.setRecipeName("Recipe " + n);
+        master.setSellingPrice(new BigDecimal("150.00"));
+        master.setActiveFlag(1);
+        master.setEnableFlag(1);
+        master.setCreatedById(users.get(0).getUserId());
+
+        List<RecipeIngredientXrefDTO> lines = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            RecipeIngredientXrefDTO line = new RecipeIngredientXrefDTO();
+            line.setIngredientId(ingredients.get(i).getIngredientId());
+            line.setQuantityValue(new BigDecimal("10"));
+            line.setActiveFlag(1);
+            line.setEnableFlag(1);
+            line.setCreatedById(users.get(i).getUserId());
+            lines.add(line);
+        }
+
+        RecipeRequestDTO request = new RecipeRequestDTO();
+        request.setRecipeMasterDTO(master);
+        request.setRecipeIngredientXrefDTO(lines);
+        return request;
+    }
+
+    /** One line per seeded recipe. */
+    private OrderDetailDTO order(User createdBy) {
+        OrderDetailDTO order = new OrderDetailDTO();
+        order.setOrderNo("BUDGET-ORD-" + SEQ.incrementAndGet());
+        order.setOrderDate(LocalDateTime.now());
+        order.setCreatedBy(createdBy.getUserId());
+        List<OrderDetailXrefDTO> lines = new ArrayList<>();
+        for (RecipeMaster recipe : recipes) {
+            OrderDetailXrefDTO line = new OrderDetailXrefDTO();
+            line.setRecipeId(recipe.getRecipeId());
+            line.setQuantity(BigDecimal.ONE);
+            lines.add(line);
+        }
+        order.setOrderDetailXrefList(lines);
+        return order;
+    }
+
+    private StockInRequestDTO stockIn(IngredientsMaster ingredient, User createdBy) {
+        StockInRequestDTO request = new StockInRequestDTO();
+        request.setIngredientId(ingredient.getIngredientId());
+        request.setQtyMain(new BigDecimal("2"));
+        request.setCostPerUnit(new BigDecimal("80.00"));
+        request.setSupplierName("Supplier " + SEQ.incrementAndGet());
+        request.setCreatedBy(createdBy.getUserId());
+        return request;
+    }
+}
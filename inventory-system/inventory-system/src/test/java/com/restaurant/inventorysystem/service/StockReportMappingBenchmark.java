@@ -0,0 +1,108 @@
+package com.restaurant.inventorysystem.service;
+
+import com.restaurant.inventorysystem.dto.IngredientDTO;
+import com.restaurant.inventorysystem.dto.StockReportDTO;
+import com.restaurant.inventorysystem.entity.IngredientsMaster;
+import com.restaurant.inventorysystem.repository.IngredientsRepository;
+import com.restaurant.inventorysystem.service.impl.IngredientsServiceImpl;
+import com.restaurant.inventorysystem.service.impl.StockInServiceImpl;
+import com.restaurant.inventorysystem.stock.Quantity;
+import com.restaurant.inventorysystem.support.BenchmarkMenu;
+import com.restaurant.inventorysystem.support.JmhBenchmarks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity → DTO mapping of the whole ingredient list, per call, on menus
+ * of 50 to 2,000 recipes (55 to 1,030 ingredients):
+ *
+ *   stockReport    : StockInService.getStockReport (fixed-point main-unit
+ *                    conversion, stock.report timer)
+ *   ingredientDtos : IngredientsService.getAllIngredients (IngredientDTO)
+ *
+ * The repository returns the generated entities from memory; the query
+ * itself is not measured.
+ *
+ * Opt-in, not part of the normal build:
+ *   mvn test -Dtest=StockReportMappingBenchmark -Dbenchmark=true
+ * JSON results: target/jmh/StockReportMappingBenchmark.json
+ *
+ * 18-Oct-2026, 1 vCPU, JDK 21, 1 fork, 5 × 1 s:
+ *
+ *   benchmark        recipes   ingredients     µs / call         allocated / call
+ *   stockReport           50            55     10.8 ± 3.1          6 992 B
+ *   stockReport          500           280     27.6 ± 32.5        25 903 B
+ *   stockReport        2,000         1,030     60.5 ± 21.2        88 898 B
+ *   ingredientDtos        50            55     11.4 ± 14.6         6 312 B
+ *   ingredientDtos       500           280     18.4 ± 6.6         22 544 B
+ *   ingredientDtos     2,000         1,030     66.5 ± 101.1       75 025 B
+ */
+@Tag(JmhBenchmarks.TAG)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StockReportMappingBenchmark {
+
+    @Param({"50", "500", "2000"})
+    public int recipes;
+
+    private StockInService stockInService;
+    private IngredientsService ingredientsService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<IngredientsMaster> ingredients = BenchmarkMenu.generate(recipes).ingredients();
+        IngredientsRepository repository = Mockito.mock(IngredientsRepository.class,
+                Mockito.withSettings().stubOnly());
+        Mockito.when(repository.findAllActiveIngredients()).thenReturn(ingredients);
+
+        StockInServiceImpl stockIn = new StockInServiceImpl();
+        ReflectionTestUtils.setField(stockIn, "ingredientsRepository", repository);
+        ReflectionTestUtils.setField(stockIn, "quantity", new Quantity(4));
+        ReflectionTestUtils.setField(stockIn, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.invokeMethod(stockIn, "registerMeters");
+        stockInService = stockIn;
+
+        IngredientsServiceImpl ingredientsImpl = new IngredientsServiceImpl();
+        ReflectionTestUtils.setField(ingredientsImpl, "ingredientsRepository", repository);
+        ingredientsService = ingredientsImpl;
+    }
+
+    @Benchmark
+    public List<StockReportDTO> stockReport() {
+        return stockInService.getStockReport();
+    }
+
+    @Benchmark
+    public List<IngredientDTO> ingredientDtos() {
+        return ingredientsService.getAllIngredients();
+    }
+
+    @Test
+    void ingredientListMappingPerMenuSize() throws Exception {
+        JmhBenchmarks.run(StockReportMappingBenchmark.class);
+    }
+}
@@ -0,0 +1,236 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.dto.OrderDetailDTO;
+import com.restaurant.inventorysystem.dto.OrderDetailXrefDTO;
+import com.restaurant.inventorysystem.dto.StockInRequestDTO;
+import com.restaurant.inventorysystem.entity.IngredientsMaster;
+import com.restaurant.inventorysystem.entity.RecipeIngredientXref;
+import com.restaurant.inventorysystem.entity.RecipeMaster;
+import com.restaurant.inventorysystem.entity.User;
+import com.restaurant.inventorysystem.exception.InsufficientStockException;
+import com.restaurant.inventorysystem.exception.StockConflictException;
+import com.restaurant.inventorysystem.repository.IngredientsRepository;
+import com.restaurant.inventorysystem.repository.OrderDetailRepository;
+import com.restaurant.inventorysystem.repository.RecipeIngredientXrefRepository;
+import com.restaurant.inventorysystem.repository.RecipeMasterRepository;
+import com.restaurant.inventorysystem.repository.StockMovementRepository;
+import com.restaurant.inventorysystem.repository.StockMovementSumView;
+import com.restaurant.inventorysystem.repository.UserRepository;
+import com.restaurant.inventorysystem.service.OrderDetailService;
+import com.restaurant.inventorysystem.service.StockInService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Stress test for one StockLockMode: thousands of orders and some Stock-In
+ * entries hit the same ingredient rows from many threads at once.
+ *
+ * Whatever the mode, the books must balance:
+ *  final stock = initial + accepted stock-ins - accepted orders, never negative,
+ *  and every accepted order (and only those) is persisted and in the stock ledger.
+ */
+abstract class AbstractStockConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ORDERS = 2000;
+    private static final int STOCK_INS = 200;
+    private static final BigDecimal PANEER_STOCK = new BigDecimal("1000");
+    private static final BigDecimal ONION_STOCK = new BigDecimal("1000000");
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private OrderDetailService orderDetailService;
+
+    @Autowired
+    private StockInService stockInService;
+
+    @Autowired
+    private StockDeductionEngine stockDeductionEngine;
+
+    @Autowired
+    private RecipeBomCache recipeBomCache;
+
+    @Autowired
+    private IngredientsRepository ingredientsRepository;
+
+    @Autowired
+    private RecipeMasterRepository recipeMasterRepository;
+
+    @Autowired
+    private RecipeIngredientXrefRepository recipeIngredientXrefRepository;
+
+    @Autowired
+    private OrderDetailRepository orderDetailRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    protected abstract StockLockMode expectedMode();
+
+    /** Waits until stock changes have reached ingredients_master (write-behind modes). */
+    protected void awaitStockWrites() {
+    }
+
+    @Test
+    void concurrentOrdersNeverOversellOrLoseUpdates() throws Exception {
+        assertEquals(expectedMode(), stockDeductionEngine.lockMode());
+
+        // ---- seed: 1 recipe = 1 paneer + 1 onion ----
+        int n = SEQ.incrementAndGet();
+        User user = new User();
+        user.setUserName("till-" + n + "-" + expectedMode());
+        user = userRepository.save(user);
+
+        IngredientsMaster paneer = ingredient("Paneer", PANEER_STOCK);
+        IngredientsMaster onion = ingredient("Onion", ONION_STOCK);
+
+        RecipeMaster recipe = new RecipeMaster();
+        recipe.setRecipeCode("PANEER-" + n + "-" + expectedMode());
+        recipe.setRecipeName("Paneer Tikka");
+        recipe.setSellingPrice(new BigDecimal("250.00"));
+        recipe = recipeMasterRepository.save(recipe);
+        recipeLine(recipe, paneer);
+        recipeLine(recipe, onion);
+        recipeBomCache.reload();
+
+        long ordersBefore = orderDetailRepository.count();
+
+        // ---- fire orders and stock-ins from many threads ----
+        AtomicInteger ordersOk = new AtomicInteger();
+        AtomicInteger ordersShort = new AtomicInteger();
+        AtomicInteger ordersConflict = new AtomicInteger();
+        AtomicInteger stockInsOk = new AtomicInteger();
+        AtomicInteger stockInsConflict = new AtomicInteger();
+
+        List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            String orderNo = "ORD-" + expectedMode() + "-" + n + "-" + i;
+            int recipeId = recipe.getRecipeId();
+            tasks.add(() -> {
+                try {
+                    orderDetailService.saveOrder(order(orderNo, recipeId));
+                    ordersOk.incrementAndGet();
+                } catch (InsufficientStockException e) {
+                    ordersShort.incrementAndGet();
+                } catch (StockConflictException e) {
+                    ordersConflict.incrementAndGet();
+                }
+            });
+        }
+        for (int i = 0; i < STOCK_INS; i++) {
+            int ingredientId = paneer.getIngredientId();
+            int userId = user.getUserId();
+            tasks.add(() -> {
+                try {
+                    stockInService.addStock(stockIn(ingredientId, userId));
+                    stockInsOk.incrementAndGet();
+                } catch (StockConflictException e) {
+                    stockInsConflict.incrementAndGet();
+                }
+            });
+        }
+        Collections.shuffle(tasks);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Runnable task : tasks) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                task.run();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(5, TimeUnit.MINUTES);       // any unexpected exception fails the test here
+        }
+        pool.shutdown();
+        awaitStockWrites();
+
+        // ---- the books must balance ----
+        BigDecimal paneerLeft = stockOf(paneer);
+        BigDecimal onionLeft = stockOf(onion);
+        BigDecimal accepted = BigDecimal.valueOf(ordersOk.get());
+
+        assertEquals(ORDERS, ordersOk.get() + ordersShort.get() + ordersConflict.get());
+        assertTrue(paneerLeft.signum() >= 0, "negative stock: " + paneerLeft);
+        assertEquals(0, PANEER_STOCK.add(BigDecimal.valueOf(stockInsOk.get())).subtract(accepted)
+                .compareTo(paneerLeft), "lost update on paneer");
+        assertEquals(0, ONION_STOCK.subtract(accepted).compareTo(onionLeft), "lost update on onion");
+        assertEquals(ordersBefore + ordersOk.get(), orderDetailRepository.count());
+        // seeded stock has no ledger rows, so the ledger holds exactly the accepted changes
+        assertEquals(0, paneerLeft.subtract(PANEER_STOCK).compareTo(ledgerSum(paneer)), "ledger out of step on paneer");
+        assertEquals(0, onionLeft.subtract(ONION_STOCK).compareTo(ledgerSum(onion)), "ledger out of step on onion");
+        // more demand than supply, so some orders must have been refused for stock
+        assertTrue(ordersShort.get() > 0, "expected some orders to run out of paneer");
+    }
+
+    // ---------------------------------------------------------------
+
+    private BigDecimal stockOf(IngredientsMaster ingredient) {
+        return ingredientsRepository.findById(ingredient.getIngredientId()).orElseThrow().getCurrentStockSubunit();
+    }
+
+    private BigDecimal ledgerSum(IngredientsMaster ingredient) {
+        List<StockMovementSumView> sum = stockMovementRepository.sumForIngredient(ingredient.getIngredientId(),
+                LocalDateTime.of(1970, 1, 1, 0, 0), LocalDateTime.now().plusDays(1));
+        return sum.isEmpty() ? BigDecimal.ZERO : sum.get(0).getQuantity();
+    }
+
+    private IngredientsMaster ingredient(String name, BigDecimal stock) {
+        IngredientsMaster ingredient = new IngredientsMaster();
+        ingredient.setIngredientCode(name.toUpperCase() + "-" + SEQ.incrementAndGet() + "-" + expectedMode());
+        ingredient.setIngredientName(name);
+        ingredient.setSmallerUnit("gm");
+        ingredient.setCurrentStockSubunit(stock);
+        return ingredientsRepository.save(ingredient);
+    }
+
+    private void recipeLine(RecipeMaster recipe, IngredientsMaster ingredient) {
+        RecipeIngredientXref xref = new RecipeIngredientXref();
+        xref.setRecipe(recipe);
+        xref.setIngredient(ingredient);
+        xref.setQuantityValue(BigDecimal.ONE);
+        recipeIngredientXrefRepository.save(xref);
+    }
+
+    private static OrderDetailDTO order(String orderNo, int recipeId) {
+        OrderDetailXrefDTO line = new OrderDetailXrefDTO();
+        line.setRecipeId(recipeId);
+        line.setQuantity(BigDecimal.ONE);
+
+        OrderDetailDTO order = new OrderDetailDTO();
+        order.setOrderNo(orderNo);
+        order.setOrderDate(LocalDateTime.now());
+        order.setOrderDetailXrefList(List.of(line));
+        return order;
+    }
+
+    private static StockInRequestDTO stockIn(int ingredientId, int userId) {
+        StockInRequestDTO request = new StockInRequestDTO();
+        request.setIngredientId(ingredientId);
+        request.setQtyMain(BigDecimal.ONE);
+        request.setCreatedBy(userId);
+        return request;
+    }
+}
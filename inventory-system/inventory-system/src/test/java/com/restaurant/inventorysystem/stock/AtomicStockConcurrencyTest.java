@@ -0,0 +1,15 @@
+package com.restaurant.inventorysystem.stock;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+        "inventory.stock.lock-mode=ATOMIC",
+        "inventory.stock.retry.max-attempts=20"
+})
+class AtomicStockConcurrencyTest extends AbstractStockConcurrencyTest {
+
+    @Override
+    protected StockLockMode expectedMode() {
+        return StockLockMode.ATOMIC;
+    }
+}
@@ -0,0 +1,15 @@
+package com.restaurant.inventorysystem.stock;
+
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+        "inventory.stock.lock-mode=OPTIMISTIC",
+        "inventory.stock.retry.max-attempts=20"
+})
+class OptimisticStockConcurrencyTest extends AbstractStockConcurrencyTest {
+
+    @Override
+    protected StockLockMode expectedMode() {
+        return StockLockMode.OPTIMISTIC;
+    }
+}
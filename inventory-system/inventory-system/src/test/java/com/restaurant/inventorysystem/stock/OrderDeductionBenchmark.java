@@ -0,0 +1,152 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.dto.OrderDetailXrefDTO;
+import com.restaurant.inventorysystem.exception.InsufficientStockException;
+import com.restaurant.inventorysystem.repository.StockMovementRepository;
+import com.restaurant.inventorysystem.support.BenchmarkMenu;
+import com.restaurant.inventorysystem.support.JmhBenchmarks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * saveOrder's in-memory work per order on menus of 50 to 2,000 recipes:
+ *
+ *   explode : portionsByRecipe + explode, order lines → ingredient totals
+ *   deduct  : the same, then StockDeductionEngine.deduct against counters
+ *             (CAS per ingredient, ledger rows built, event published)
+ *
+ * The stock strategy is an in-memory counter and the ledger repository a
+ * stub, so the database round trips of saveOrder are not in these numbers
+ * (see OrderStatementCountTest for those). OrderExplosionBenchmark keeps
+ * the BigDecimal-versus-fixed-point comparison on a single menu.
+ *
+ * Opt-in, not part of the normal build:
+ *   mvn test -Dtest=OrderDeductionBenchmark -Dbenchmark=true
+ * JSON results: target/jmh/OrderDeductionBenchmark.json
+ *
+ * 18-Oct-2026, 1 vCPU, JDK 21, 1 fork, 5 × 1 s:
+ *
+ *   benchmark   recipes     µs / order        allocated / order
+ *   explode          50      2.8 ± 0.4         2 092 B
+ *   explode         500      3.5 ± 1.8         2 262 B
+ *   explode       2,000      4.2 ± 2.5         2 324 B
+ *   deduct           50     18.4 ± 22.6        8 355 B
+ *   deduct          500     17.9 ± 10.2       11 151 B
+ *   deduct        2,000     18.7 ± 7.5        13 000 B
+ *
+ * Menu size barely moves the cost: an order touches only its own recipes.
+ * Most of deduct above explode is the ledger rows and the stub call.
+ */
+@Tag(JmhBenchmarks.TAG)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderDeductionBenchmark {
+
+    @Param({"50", "500", "2000"})
+    public int recipes;
+
+    private StockDeductionEngine engine;
+    private Map<Integer, RecipeBom> boms;
+    private List<List<OrderDetailXrefDTO>> orders;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Quantity quantity = new Quantity(4);
+        BenchmarkMenu menu = BenchmarkMenu.generate(recipes);
+
+        boms = new HashMap<>();
+        for (int recipeId = 1; recipeId <= menu.recipeCount(); recipeId++) {
+            BigDecimal[] quantities = menu.recipeQuantities(recipeId);
+            long[] scaled = new long[quantities.length];
+            for (int i = 0; i < quantities.length; i++) {
+                scaled[i] = quantity.of(quantities[i]);
+            }
+            boms.put(recipeId, new RecipeBom(recipeId, BenchmarkMenu.recipeName(recipeId),
+                    BenchmarkMenu.sellingPrice(recipeId), menu.recipeIngredientIds(recipeId), scaled,
+                    quantity.scale()));
+        }
+        orders = menu.orders();
+
+        StockMovementRepository ledger = Mockito.mock(StockMovementRepository.class,
+                Mockito.withSettings().stubOnly());
+        engine = new StockDeductionEngine(List.of(new CounterStock(menu.ingredients().size())), ledger,
+                quantity, event -> { }, new SimpleMeterRegistry(), StockLockMode.ATOMIC);
+    }
+
+    @Benchmark
+    public IngredientQuantities explode() {
+        List<OrderDetailXrefDTO> lines = orders.get(next++ & (BenchmarkMenu.ORDERS - 1));
+        return engine.explode(engine.portionsByRecipe(lines), boms);
+    }
+
+    @Benchmark
+    public IngredientQuantities deduct() {
+        List<OrderDetailXrefDTO> lines = orders.get(next++ & (BenchmarkMenu.ORDERS - 1));
+        IngredientQuantities required = engine.explode(engine.portionsByRecipe(lines), boms);
+        engine.deduct(required, "ORD-BENCH");
+        return required;
+    }
+
+    @Test
+    void explodeAndDeductPerMenuSize() throws Exception {
+        JmhBenchmarks.run(OrderDeductionBenchmark.class);
+    }
+
+    // Stock in counters, large enough never to run out during a run
+    private static final class CounterStock implements StockUpdateStrategy {
+
+        private final StockCounters counters;
+
+        CounterStock(int ingredients) {
+            counters = new StockCounters(ingredients + 1);
+        }
+
+        @Override
+        public StockLockMode mode() {
+            return StockLockMode.ATOMIC;
+        }
+
+        @Override
+        public Map<Integer, StockLevel> adjust(IngredientQuantities deltas) {
+            Map<Integer, StockLevel> levels = new HashMap<>();
+            for (int i = 0; i < deltas.size(); i++) {
+                int ingredientId = deltas.ingredientIdAt(i);
+                int slot = counters.slotOf(ingredientId, id -> Long.MAX_VALUE / 4);
+                long previous = counters.tryAdd(slot, deltas.quantityAt(i));
+                if (previous == StockCounters.REJECTED) {
+                    throw new InsufficientStockException(ingredientId, "", BigDecimal.ZERO, BigDecimal.ZERO);
+                }
+                levels.put(ingredientId, new StockLevel(ingredientId, previous, previous + deltas.quantityAt(i)));
+            }
+            return levels;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.exception.InvalidDataException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Fixed-point quantities: rounding matches BigDecimal HALF_UP at the
+ * configured scale, and nothing overflows silently.
+ */
+class QuantityTest {
+
+    private final Quantity quantity = new Quantity(4);
+
+    @Test
+    void roundsInputsHalfUpToScale() {
+        assertEquals(25_000, quantity.of(new BigDecimal("2.5")));
+        assertEquals(12_346, quantity.of(new BigDecimal("1.23455")));
+        assertEquals(-12_346, quantity.of(new BigDecimal("-1.23455")));
+        assertEquals(0, new BigDecimal("2.5").compareTo(quantity.toDecimal(25_000)));
+    }
+
+    @Test
+    void multipliesAndDividesAtScale() {
+        // 2.5 gm × 3 portions
+        assertEquals(75_000, quantity.multiply(quantity.of(new BigDecimal("2.5")), quantity.of(BigDecimal.valueOf(3))));
+        // 0.0001 × 0.5 rounds half up, in both directions
+        assertEquals(1, quantity.multiply(1, 5_000));
+        assertEquals(-1, quantity.multiply(-1, 5_000));
+
+        // 1000 gm ÷ 3 = 333.3333, no ArithmeticException
+        assertEquals(3_333_333, quantity.divide(quantity.of(new BigDecimal("1000")), quantity.of(BigDecimal.valueOf(3))));
+        assertEquals(6_667, quantity.divide(quantity.of(new BigDecimal("2")), quantity.of(BigDecimal.valueOf(3))));
+        assertThrows(InvalidDataException.class, () -> quantity.divide(10_000, 0));
+    }
+
+    @Test
+    void multiplyFallsBackWhenTheProductNeedsMoreThan64Bits() {
+        long large = quantity.of(new BigDecimal("100000000000"));   // 10^15 scaled
+        assertEquals(quantity.of(new BigDecimal("300000000000")), quantity.multiply(large, quantity.of(BigDecimal.valueOf(3))));
+    }
+
+    @Test
+    void overflowIsAnError() {
+        assertThrows(InvalidDataException.class, () -> quantity.of(new BigDecimal("1E+20")));
+        assertThrows(InvalidDataException.class, () -> quantity.add(Long.MAX_VALUE, 1));
+        assertThrows(InvalidDataException.class, () -> quantity.multiply(Long.MAX_VALUE / 2, 30_000));
+        assertThrows(IllegalArgumentException.class, () -> new Quantity(10));
+    }
+
+    @Test
+    void sumOfSortsAndMergesRepeatedIngredients() {
+        int[] ids = {7, 3, 7, 1, 3};
+        long[] quantities = {10, 20, 30, 40, 50};
+
+        IngredientQuantities sum = IngredientQuantities.sumOf(ids, quantities, ids.length, quantity);
+
+        assertEquals(3, sum.size());
+        assertEquals(List.of(1, 3, 7), sum.ingredientIds());
+        assertEquals(40, sum.get(1));
+        assertEquals(70, sum.get(3));
+        assertEquals(40, sum.get(7));
+        assertEquals(0, sum.get(5));
+        assertEquals(-70, sum.negate().get(3));
+    }
+}
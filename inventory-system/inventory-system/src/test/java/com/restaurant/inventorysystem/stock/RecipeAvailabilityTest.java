@@ -0,0 +1,356 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.inventorysystem.dto.OrderDetailDTO;
+import com.restaurant.inventorysystem.dto.OrderDetailXrefDTO;
+import com.restaurant.inventorysystem.dto.RecipeAvailabilityDTO;
+import com.restaurant.inventorysystem.dto.StockInRequestDTO;
+import com.restaurant.inventorysystem.entity.IngredientsMaster;
+import com.restaurant.inventorysystem.entity.RecipeIngredientXref;
+import com.restaurant.inventorysystem.entity.RecipeMaster;
+import com.restaurant.inventorysystem.entity.User;
+import com.restaurant.inventorysystem.exception.InsufficientStockException;
+import com.restaurant.inventorysystem.repository.IngredientsRepository;
+import com.restaurant.inventorysystem.repository.RecipeIngredientXrefRepository;
+import com.restaurant.inventorysystem.repository.RecipeMasterRepository;
+import com.restaurant.inventorysystem.repository.UserRepository;
+import com.restaurant.inventorysystem.service.OrderDetailService;
+import com.restaurant.inventorysystem.service.RecipeService;
+import com.restaurant.inventorysystem.service.StockInService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Recipe availability: portions follow committed orders, Stock-In
+ * entries and recipe changes without a full recompute, and reach
+ * stream subscribers.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@RecordApplicationEvents
+class RecipeAvailabilityTest {
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Autowired
+    private RecipeAvailabilityEngine recipeAvailabilityEngine;
+
+    @Autowired
+    private OrderDetailService orderDetailService;
+
+    @Autowired
+    private StockInService stockInService;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private IngredientsRepository ingredientsRepository;
+
+    @Autowired
+    private RecipeMasterRepository recipeMasterRepository;
+
+    @Autowired
+    private RecipeIngredientXrefRepository recipeIngredientXrefRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Quantity quantity;
+
+    private String tag;
+    private User user;
+    private IngredientsMaster rice;
+    private IngredientsMaster chicken;
+    private RecipeMaster biryani;
+    private RecipeMaster pulao;
+
+    @BeforeEach
+    void seed() {
+        tag = "AV" + SEQ.incrementAndGet();
+        user = new User();
+        user.setUserName("availability-" + tag);
+        user = userRepository.save(user);
+
+        rice = ingredient("RICE", "1000");
+        chicken = ingredient("CHICKEN", "500");
+
+        // biryani = 100 gm rice + 250 gm chicken, pulao = 200 gm rice
+        biryani = recipe("BIRYANI");
+        line(biryani, rice, "100");
+        line(biryani, chicken, "250");
+        pulao = recipe("PULAO");
+        line(pulao, rice, "200");
+
+        recipeAvailabilityEngine.reload();
+    }
+
+    @Test
+    void portionsFollowCommittedStockChanges() {
+        assertPortions(biryani, 2, chicken);   // min(1000 / 100, 500 / 250)
+        assertPortions(pulao, 5, rice);
+
+        events.clear();
+        order(biryani, 1);                     // rice 900, chicken 250
+        assertPortions(biryani, 1, chicken);
+        assertPortions(pulao, 4, rice);
+        assertEquals(List.of(biryani.getRecipeId(), pulao.getRecipeId()), changedRecipeIds());
+
+        // rejected order rolls back: nothing moves, nothing published
+        events.clear();
+        assertThrows(InsufficientStockException.class, () -> order(biryani, 2));
+        assertPortions(biryani, 1, chicken);
+        assertEquals(List.of(), changedRecipeIds());
+
+        // +1 kg chicken only touches the recipe using chicken
+        events.clear();
+        stockIn(chicken);                      // chicken 1250
+        assertPortions(biryani, 5, chicken);   // min(900 / 100, 1250 / 250)
+        assertPortions(pulao, 4, rice);
+        assertEquals(List.of(biryani.getRecipeId()), changedRecipeIds());
+
+        order(biryani, 5);                     // chicken 0
+        assertPortions(biryani, 0, chicken);
+    }
+
+    @Test
+    void reloadCountsAChangeCommittedDuringItOnce() throws Exception {
+        // a Stock-In that has committed but whose listeners have not run yet
+        CountDownLatch committed = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        CompletableFuture<Void> change = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            committed.countDown();
+                            await(proceed);
+                        }
+                    });
+                    stockIn(chicken);              // chicken 1500
+                }));
+        assertTrue(committed.await(10, TimeUnit.SECONDS));
+
+        // the reload runs while the committed change is still in flight
+        AtomicReference<Thread> reloader = new AtomicReference<>();
+        CompletableFuture<Void> reload = CompletableFuture.runAsync(() -> {
+            reloader.set(Thread.currentThread());
+            recipeAvailabilityEngine.reload();
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!reload.isDone() && (reloader.get() == null || reloader.get().getState() != Thread.State.WAITING)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        proceed.countDown();
+        change.get(10, TimeUnit.SECONDS);
+        reload.get(10, TimeUnit.SECONDS);
+
+        assertEquals(Map.of(chicken.getIngredientId(), quantity.of(new BigDecimal("1500"))),
+                recipeAvailabilityEngine.liveStock(List.of(chicken.getIngredientId())));
+        assertPortions(biryani, 6, chicken);       // min(1000 / 100, 1500 / 250)
+    }
+
+    @Test
+    void fractionalQuantitiesStayAsTheDatabaseStoresThem() {
+        // 0.125 gm a portion is stored as 0.13; half a portion takes 0.065 → 0.07
+        IngredientsMaster saffron = ingredient("SAFFRON", "10");
+        RecipeMaster kheer = recipe("KHEER");
+        line(kheer, saffron, "0.125");
+        recipeAvailabilityEngine.reload();
+
+        order(kheer, new BigDecimal("0.5"));
+        order(kheer, new BigDecimal("3"));     // 10 - 0.07 - 0.39
+
+        Integer saffronId = saffron.getIngredientId();
+        BigDecimal stored = ingredientsRepository.findById(saffronId).orElseThrow().getCurrentStockSubunit();
+        assertEquals(0, new BigDecimal("9.54").compareTo(stored), stored.toPlainString());
+        assertEquals(Map.of(saffronId, quantity.of(stored)), recipeAvailabilityEngine.liveStock(List.of(saffronId)));
+
+        // a reload reads back exactly what was held
+        events.clear();
+        recipeAvailabilityEngine.reload();
+        assertEquals(Map.of(saffronId, quantity.of(stored)), recipeAvailabilityEngine.liveStock(List.of(saffronId)));
+        assertEquals(List.of(), events.stream(RecipeAvailabilityChangedEvent.class)
+                .flatMap(event -> event.getChanges().stream())
+                .filter(change -> change.getRecipeId().equals(kheer.getRecipeId()))
+                .toList());
+    }
+
+    @Test
+    void deletedRecipeIsStreamedAsUnavailableAndDropped() {
+        events.clear();
+        recipeService.deleteRecipe(pulao.getRecipeId());
+
+        List<RecipeAvailabilityDTO> changes = events.stream(RecipeAvailabilityChangedEvent.class)
+                .flatMap(event -> event.getChanges().stream()).toList();
+        assertEquals(1, changes.size());
+        assertEquals(pulao.getRecipeId(), changes.get(0).getRecipeId());
+        assertEquals(0L, changes.get(0).getAvailablePortions());
+        assertNull(recipeAvailabilityEngine.get(pulao.getRecipeId()));
+
+        // rice no longer maps to pulao
+        events.clear();
+        order(biryani, 1);
+        assertEquals(List.of(biryani.getRecipeId()), changedRecipeIds());
+    }
+
+    @Test
+    void listAndStreamOverHttp() throws Exception {
+        JsonNode list = objectMapper.readTree(mockMvc.perform(get("/api/recipes/availability"))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+        boolean found = false;
+        for (JsonNode recipe : list.path("data")) {
+            if (recipe.path("recipeId").asInt() == biryani.getRecipeId()) {
+                assertEquals(2, recipe.path("availablePortions").asLong());
+                assertEquals(chicken.getIngredientId().intValue(), recipe.path("limitingIngredientId").asInt());
+                found = true;
+            }
+        }
+        assertTrue(found, "biryani missing from " + list);
+
+        MockHttpServletResponse stream = mockMvc.perform(get("/api/recipes/availability/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        awaitContent(stream, "event:snapshot");
+
+        order(biryani, 1);
+        String frame = awaitContent(stream, "\"recipeId\":" + biryani.getRecipeId() + ",\"recipeName\":\"Biryani " + tag
+                + "\",\"availablePortions\":1");
+        String content = stream.getContentAsString();
+        assertTrue(content.lastIndexOf("event:availability") < content.lastIndexOf(frame), content);
+    }
+
+    // ---------------------------------------------------------------
+
+    private void assertPortions(RecipeMaster recipe, long portions, IngredientsMaster limiting) {
+        RecipeAvailabilityDTO availability = recipeAvailabilityEngine.get(recipe.getRecipeId());
+        assertEquals(portions, availability.getAvailablePortions(), recipe.getRecipeName());
+        assertEquals(limiting.getIngredientId(), availability.getLimitingIngredientId(), recipe.getRecipeName());
+    }
+
+    // only this test's recipes: other tests share the context
+    private List<Integer> changedRecipeIds() {
+        return events.stream(RecipeAvailabilityChangedEvent.class)
+                .flatMap(event -> event.getChanges().stream())
+                .map(RecipeAvailabilityDTO::getRecipeId)
+                .filter(id -> id.equals(biryani.getRecipeId()) || id.equals(pulao.getRecipeId()))
+                .toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            String content = response.getContentAsString();
+            if (content.contains(expected)) {
+                return expected;
+            }
+            Thread.sleep(20);
+        }
+        fail("no " + expected + " in " + response.getContentAsString());
+        return null;
+    }
+
+    private IngredientsMaster ingredient(String name, String stockGm) {
+        IngredientsMaster ingredient = new IngredientsMaster();
+        ingredient.setIngredientCode(name + "-" + tag);
+        ingredient.setIngredientName(name + " " + tag);
+        ingredient.setSmallerUnit("gm");
+        ingredient.setBaseUnitValue(new BigDecimal("1000"));
+        ingredient.setCurrentStockSubunit(new BigDecimal(stockGm));
+        return ingredientsRepository.save(ingredient);
+    }
+
+    private RecipeMaster recipe(String name) {
+        RecipeMaster recipe = new RecipeMaster();
+        recipe.setRecipeCode(name + "-" + tag);
+        recipe.setRecipeName(name.charAt(0) + name.substring(1).toLowerCase() + " " + tag);
+        recipe.setSellingPrice(new BigDecimal("250.00"));
+        return recipeMasterRepository.save(recipe);
+    }
+
+    private void line(RecipeMaster recipe, IngredientsMaster ingredient, String gm) {
+        RecipeIngredientXref xref = new RecipeIngredientXref();
+        xref.setRecipe(recipe);
+        xref.setIngredient(ingredient);
+        xref.setQuantityValue(new BigDecimal(gm));
+        recipeIngredientXrefRepository.save(xref);
+    }
+
+    private void order(RecipeMaster recipe, int portions) {
+        order(recipe, BigDecimal.valueOf(portions));
+    }
+
+    private void order(RecipeMaster recipe, BigDecimal portions) {
+        OrderDetailXrefDTO line = new OrderDetailXrefDTO();
+        line.setRecipeId(recipe.getRecipeId());
+        line.setQuantity(portions);
+
+        OrderDetailDTO order = new OrderDetailDTO();
+        order.setOrderNo("ORD-" + tag + "-" + SEQ.incrementAndGet());
+        order.setOrderDate(LocalDateTime.now());
+        order.setOrderDetailXrefList(List.of(line));
+        orderDetailService.saveOrder(order);
+    }
+
+    private void stockIn(IngredientsMaster ingredient) {
+        StockInRequestDTO request = new StockInRequestDTO();
+        request.setIngredientId(ingredient.getIngredientId());
+        request.setQtyMain(BigDecimal.ONE);
+        request.setCreatedBy(user.getUserId());
+        stockInService.addStock(request);
+    }
+}
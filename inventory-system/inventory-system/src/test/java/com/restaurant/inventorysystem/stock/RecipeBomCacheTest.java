@@ -0,0 +1,127 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.dto.RecipeIngredientXrefDTO;
+import com.restaurant.inventorysystem.dto.RecipeMasterDTO;
+import com.restaurant.inventorysystem.dto.RecipeRequestDTO;
+import com.restaurant.inventorysystem.entity.IngredientsMaster;
+import com.restaurant.inventorysystem.entity.RecipeMaster;
+import com.restaurant.inventorysystem.exception.ResourceNotFoundException;
+import com.restaurant.inventorysystem.repository.IngredientsRepository;
+import com.restaurant.inventorysystem.service.RecipeService;
+import com.restaurant.inventorysystem.support.StatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * RecipeBomCache: served from memory once warm, dropped only after a committed recipe change.
+ */
+@SpringBootTest
+@Import(StatementCounter.Config.class)
+class RecipeBomCacheTest {
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private RecipeBomCache recipeBomCache;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private IngredientsRepository ingredientsRepository;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private IngredientsMaster flour;
+    private RecipeMaster recipe;
+
+    @BeforeEach
+    void seed() {
+        flour = ingredient();
+        recipe = recipeService.saveRecipe(request(flour, "2.5"));
+        recipeBomCache.reload();
+    }
+
+    @Test
+    void warmCacheServesRecipesWithoutDatabase() {
+        double hitsBefore = meterRegistry.counter("recipe.bom.cache.hits").count();
+
+        statementCounter.reset();
+        RecipeBom bom = recipeBomCache.getAll(List.of(recipe.getRecipeId())).get(recipe.getRecipeId());
+
+        assertEquals(0, statementCounter.get());
+        assertEquals(1, bom.size());
+        assertEquals(flour.getIngredientId(), bom.ingredientIdAt(0));
+        assertEquals(250L, bom.scaledQuantityAt(0));
+        assertEquals(hitsBefore + 1, meterRegistry.counter("recipe.bom.cache.hits").count());
+    }
+
+    @Test
+    void committedUpdateIsVisibleOnNextLookup() {
+        recipeService.updateRecipe(recipe.getRecipeId(), request(flour, "4"));
+
+        RecipeBom bom = recipeBomCache.getAll(List.of(recipe.getRecipeId())).get(recipe.getRecipeId());
+        assertEquals(0, new BigDecimal("4").compareTo(bom.quantityAt(0)));
+    }
+
+    @Test
+    void rolledBackUpdateKeepsCachedRecipe() {
+        IngredientsMaster missing = new IngredientsMaster();
+        missing.setIngredientId(-1);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> recipeService.updateRecipe(recipe.getRecipeId(), request(missing, "9")));
+
+        statementCounter.reset();
+        RecipeBom bom = recipeBomCache.getAll(List.of(recipe.getRecipeId())).get(recipe.getRecipeId());
+        assertEquals(0, statementCounter.get());
+        assertEquals(0, new BigDecimal("2.5").compareTo(bom.quantityAt(0)));
+    }
+
+    // ---------------------------------------------------------------
+
+    private IngredientsMaster ingredient() {
+        int n = SEQ.incrementAndGet();
+        IngredientsMaster ingredient = new IngredientsMaster();
+        ingredient.setIngredientCode("BOM-ING-" + n);
+        ingredient.setIngredientName("Flour " + n);
+        ingredient.setSmallerUnit("gm");
+        ingredient.setCurrentStockSubunit(new BigDecimal("1000"));
+        return ingredientsRepository.save(ingredient);
+    }
+
+    private RecipeRequestDTO request(IngredientsMaster ingredient, String quantity) {
+        RecipeMasterDTO master = new RecipeMasterDTO();
+        master.setRecipeCode(recipe != null ? recipe.getRecipeCode() : "BOM-RCP-" + SEQ.incrementAndGet());
+        master.setRecipeName("Paratha");
+        master.setSellingPrice(new BigDecimal("40.00"));
+        master.setActiveFlag(1);
+        master.setEnableFlag(1);
+
+        RecipeIngredientXrefDTO line = new RecipeIngredientXrefDTO();
+        line.setIngredientId(ingredient.getIngredientId());
+        line.setQuantityValue(new BigDecimal(quantity));
+        line.setActiveFlag(1);
+        line.setEnableFlag(1);
+
+        RecipeRequestDTO request = new RecipeRequestDTO();
+        request.setRecipeMasterDTO(master);
+        request.setRecipeIngredientXrefDTO(List.of(line));
+        return request;
+    }
+}
@@ -0,0 +1,149 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.dto.StockAtDTO;
+import com.restaurant.inventorysystem.repository.StockMovementRepository;
+import com.restaurant.inventorysystem.repository.StockMovementSumView;
+import com.restaurant.inventorysystem.service.StockLedgerService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Point-in-time stock over a 50,000,000-row stock ledger: nearest hourly
+ * snapshot + tail scan, against summing the whole ledger up to T (what a
+ * ledger without snapshots has to do). Every sampled answer is checked
+ * against the full replay.
+ *
+ * Ledger: 500 ingredients, one movement every 0.63 s for a year (~5,700
+ * per hour), hourly snapshot runs. H2 file store in target/, rows seeded
+ * with INSERT ... SELECT in 1M-row chunks, snapshots with a window SUM.
+ *
+ * Opt-in, not part of the normal build (50M rows seed in ~2 h, 13 GB):
+ *   mvn test -Dtest=StockLedgerBenchmark -Dbenchmark=true -DargLine=-Xmx3g
+ *       [-Dbenchmark.movements=2000000]
+ *
+ * 18-Oct-2026, 1 vCPU / 6 GB, 50M movements, 4.38M snapshot rows:
+ *   one ingredient, snapshot + tail  : p50    19 ms, p99     70 ms
+ *   one ingredient, full replay      : p50  6075 ms, p99  21223 ms
+ *   all ingredients, snapshot + tail : p50    48 ms, p99    164 ms
+ *   all ingredients, full replay     : p50 101592 ms, p99 310611 ms
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:file:./target/stock-ledger-benchmark;"
+        + "MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE")
+class StockLedgerBenchmark {
+
+    private static final int INGREDIENTS = 500;
+    private static final long MOVEMENTS = Long.getLong("benchmark.movements", 50_000_000L);
+    private static final long CHUNK = 1_000_000L;
+    private static final int STEP_MS = 630;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void pointInTimeOverFiftyMillionMovements() {
+        seed();
+        long spanMs = MOVEMENTS * STEP_MS;
+
+        LocalDateTime[] times = new LocalDateTime[200];
+        int[] ids = new int[times.length];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = START.plusNanos((long) (random.nextDouble() * spanMs) * 1_000_000L);
+            ids[i] = 1 + random.nextInt(INGREDIENTS);
+        }
+
+        // same answers both ways
+        for (int i = 0; i < 5; i++) {
+            List<StockMovementSumView> full = stockMovementRepository.sumForIngredient(ids[i], MIN_DATE, times[i]);
+            assertEquals(0, full.get(0).getQuantity().compareTo(
+                    stockLedgerService.getStockAt(ids[i], times[i]).getStockSubunit()));
+        }
+        BigDecimal replayed = stockMovementRepository.sumByIngredient(MIN_DATE, times[0]).stream()
+                .map(StockMovementSumView::getQuantity).reduce(BigDecimal.ZERO, BigDecimal::add);
+        List<StockAtDTO> all = stockLedgerService.getStockAt(times[0]);
+        assertEquals(INGREDIENTS, all.size());
+        assertEquals(0, replayed.compareTo(all.stream()
+                .map(StockAtDTO::getStockSubunit).reduce(BigDecimal.ZERO, BigDecimal::add)));
+
+        measure("one ingredient, snapshot + tail ", 1000, times.length, i -> stockLedgerService.getStockAt(ids[i], times[i]));
+        measure("one ingredient, full replay     ", 5, 40, i ->
+                stockMovementRepository.sumForIngredient(ids[i], MIN_DATE, times[i]));
+        measure("all ingredients, snapshot + tail", 200, 100, i -> stockLedgerService.getStockAt(times[i]));
+        measure("all ingredients, full replay    ", 1, 5, i -> stockMovementRepository.sumByIngredient(MIN_DATE, times[i]));
+    }
+
+    private static void measure(String label, int warmup, int samples, IntConsumer query) {
+        for (int i = 0; i < warmup; i++) {
+            query.accept(i % samples);
+        }
+        long[] nanos = new long[samples];
+        for (int i = 0; i < samples; i++) {
+            long start = System.nanoTime();
+            query.accept(i);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%s : p50 %.2f ms, p99 %.2f ms (%d samples)%n", label,
+                nanos[samples / 2] / 1e6, nanos[Math.min(samples - 1, samples * 99 / 100)] / 1e6, samples);
+    }
+
+    private void seed() {
+        long start = System.nanoTime();
+        jdbcTemplate.update("INSERT INTO ingredients_master (ingredient_id, ingredient_code, ingredient_name, uom, "
+                + "smaller_unit, base_unit_value, current_stock_subunit, active_flag, enable_flag, row_version) "
+                + "SELECT \"X\", 'ING-' || \"X\", 'Ingredient ' || \"X\", 'KG', 'gm', 1000, 0, 1, 1, 0 "
+                + "FROM SYSTEM_RANGE(1, " + INGREDIENTS + ")");
+
+        // SYSTEM_RANGE column is "X" (quoted: the URL lower-cases names)
+        // every 10th movement of an ingredient is a stock-in, the rest orders
+        for (long from = 1; from <= MOVEMENTS; from += CHUNK) {
+            jdbcTemplate.update("INSERT INTO stock_movement (ingredient_id, movement_type, quantity, reference_no, "
+                    + "movement_date) "
+                    + "SELECT MOD(\"X\", " + INGREDIENTS + ") + 1, "
+                    + "CASE WHEN MOD(\"X\" / " + INGREDIENTS + ", 10) = 0 THEN 'STOCK_IN' ELSE 'ORDER' END, "
+                    + "CASE WHEN MOD(\"X\" / " + INGREDIENTS + ", 10) = 0 THEN 1000 ELSE -100 END, "
+                    + "'REF-' || \"X\", DATEADD('MILLISECOND', \"X\" * " + STEP_MS + ", TIMESTAMP '2025-01-01 00:00:00') "
+                    + "FROM SYSTEM_RANGE(" + from + ", " + Math.min(MOVEMENTS, from + CHUNK - 1) + ")");
+        }
+        System.out.printf("seeded %,d movements in %.0f s%n", MOVEMENTS, (System.nanoTime() - start) / 1e9);
+
+        // hourly runs: balance at the end of each hour (h - 1h, h]
+        start = System.nanoTime();
+        int snapshots = jdbcTemplate.update("INSERT INTO stock_snapshot (ingredient_id, snapshot_at, balance) "
+                + "SELECT ingredient_id, h, SUM(q) OVER (PARTITION BY ingredient_id ORDER BY h) FROM ("
+                + "  SELECT ingredient_id, "
+                + "  DATEADD('HOUR', 1, DATE_TRUNC('HOUR', DATEADD('MICROSECOND', -1, movement_date))) h, "
+                + "  SUM(quantity) q FROM stock_movement GROUP BY 1, 2) t");
+        System.out.printf("seeded %,d snapshot rows in %.0f s%n", snapshots, (System.nanoTime() - start) / 1e9);
+
+        // let the H2 store finish writing before measuring
+        jdbcTemplate.execute("CHECKPOINT SYNC");
+        try {
+            Thread.sleep(10_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.restaurant.inventorysystem.dto.OrderDetailDTO;
+import com.restaurant.inventorysystem.dto.OrderDetailXrefDTO;
+import com.restaurant.inventorysystem.dto.StockAtDTO;
+import com.restaurant.inventorysystem.dto.StockInRequestDTO;
+import com.restaurant.inventorysystem.entity.IngredientsMaster;
+import com.restaurant.inventorysystem.entity.RecipeIngredientXref;
+import com.restaurant.inventorysystem.entity.RecipeMaster;
+import com.restaurant.inventorysystem.entity.User;
+import com.restaurant.inventorysystem.repository.IngredientsRepository;
+import com.restaurant.inventorysystem.repository.RecipeIngredientXrefRepository;
+import com.restaurant.inventorysystem.repository.RecipeMasterRepository;
+import com.restaurant.inventorysystem.repository.UserRepository;
+import com.restaurant.inventorysystem.service.OrderDetailService;
+import com.restaurant.inventorysystem.service.StockInService;
+import com.restaurant.inventorysystem.service.StockLedgerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Stock ledger: every stock change is recorded, and stock at a past time
+ * is rebuilt the same with and without snapshots.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+class StockLedgerTest {
+
+    private static final AtomicInteger SEQ = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private OrderDetailService orderDetailService;
+
+    @Autowired
+    private StockInService stockInService;
+
+    @Autowired
+    private RecipeBomCache recipeBomCache;
+
+    @Autowired
+    private IngredientsRepository ingredientsRepository;
+
+    @Autowired
+    private RecipeMasterRepository recipeMasterRepository;
+
+    @Autowired
+    private RecipeIngredientXrefRepository recipeIngredientXrefRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private String tag;
+    private User user;
+    private IngredientsMaster rice;
+    private RecipeMaster biryani;
+
+    @BeforeEach
+    void seed() {
+        tag = "L" + SEQ.incrementAndGet();
+        user = new User();
+        user.setUserName("ledger-" + tag);
+        user = userRepository.save(user);
+
+        rice = new IngredientsMaster();
+        rice.setIngredientCode("RICE-" + tag);
+        rice.setIngredientName("Rice " + tag);
+        rice.setUom("KG");
+        rice.setSmallerUnit("gm");
+        rice.setBaseUnitValue(new BigDecimal("1000"));
+        rice.setCurrentStockSubunit(BigDecimal.ZERO);
+        rice = ingredientsRepository.save(rice);
+
+        // 1 biryani = 100 gm rice
+        biryani = new RecipeMaster();
+        biryani.setRecipeCode("BIRYANI-" + tag);
+        biryani.setRecipeName("Biryani " + tag);
+        biryani.setSellingPrice(new BigDecimal("300.00"));
+        biryani = recipeMasterRepository.save(biryani);
+        RecipeIngredientXref xref = new RecipeIngredientXref();
+        xref.setRecipe(biryani);
+        xref.setIngredient(rice);
+        xref.setQuantityValue(new BigDecimal("100"));
+        recipeIngredientXrefRepository.save(xref);
+        recipeBomCache.reload();
+    }
+
+    @Test
+    void stockAtPastTimesFollowsEveryMovement() throws Exception {
+        LocalDateTime beforeAll = tick();
+        stockInService.addStock(stockIn("2"));                                          // +2000
+        LocalDateTime afterStockIn = tick();
+        order(1);                                                                        // -100
+        LocalDateTime afterFirstOrder = tick();
+
+        assertTrue(stockLedgerService.takeSnapshot(afterFirstOrder) >= 1);
+        LocalDateTime snapshotAt = afterFirstOrder.truncatedTo(ChronoUnit.MICROS);
+
+        Integer secondOrder = order(2);                                                  // -200
+        LocalDateTime afterSecondOrder = tick();
+        orderDetailService.deleteOrder(secondOrder);                                     // +200
+        LocalDateTime afterReversal = tick();
+        Integer secondStockIn = stockInService.addStock(stockIn("1")).getStockInId();  // +1000
+        LocalDateTime afterSecondStockIn = tick();
+        stockInService.deleteStockIn(secondStockIn);                                     // -1000
+        LocalDateTime afterStockInReversal = tick();
+
+        assertStockAt(beforeAll, "0");
+        assertStockAt(afterStockIn, "2000");
+        assertStockAt(afterFirstOrder, "1900");
+        assertStockAt(afterSecondOrder, "1700");
+        assertStockAt(afterReversal, "1900");
+        assertStockAt(afterSecondStockIn, "2900");
+        assertStockAt(afterStockInReversal, "1900");
+        assertEquals(0, new BigDecimal("1900").compareTo(
+                ingredientsRepository.findById(rice.getIngredientId()).orElseThrow().getCurrentStockSubunit()));
+
+        // after the snapshot only the tail is replayed
+        StockAtDTO fromSnapshot = stockLedgerService.getStockAt(rice.getIngredientId(), afterSecondOrder);
+        assertEquals(snapshotAt, fromSnapshot.getSnapshotAt());
+        assertEquals(1, fromSnapshot.getMovementsReplayed());
+        StockAtDTO beforeSnapshot = stockLedgerService.getStockAt(rice.getIngredientId(), afterStockIn);
+        assertNull(beforeSnapshot.getSnapshotAt());
+        assertEquals(1, beforeSnapshot.getMovementsReplayed());
+
+        // a later snapshot gives the same answers
+        stockLedgerService.takeSnapshot(tick());
+        assertStockAt(afterSecondStockIn, "2900");
+        assertStockAt(afterStockInReversal, "1900");
+    }
+
+    @Test
+    void stockAtEndpointListsAllIngredientsOrOne() throws Exception {
+        stockInService.addStock(stockIn("3"));
+        LocalDateTime afterStockIn = tick();
+        stockLedgerService.takeSnapshot(tick());
+        order(4);
+        LocalDateTime now = tick();
+
+        JsonNode all = objectMapper.readTree(mockMvc.perform(get("/api/stock/at")
+                        .param("time", afterStockIn.toString()))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString()).path("data");
+        JsonNode row = null;
+        for (JsonNode node : all) {
+            if (node.path("ingredientId").asInt() == rice.getIngredientId()) {
+                row = node;
+            }
+        }
+        assertEquals(3000, row.path("stockSubunit").asInt());
+        assertEquals("Rice " + tag, row.path("ingredientName").asText());
+
+        JsonNode one = objectMapper.readTree(mockMvc.perform(get("/api/stock/at")
+                        .param("time", now.toString()).param("ingredientId", rice.getIngredientId().toString()))
+                .andExpect(status().isOk()).andReturn().getResponse().getContentAsString()).path("data");
+        assertEquals(2600, one.path("stockSubunit").asInt());
+
+        mockMvc.perform(get("/api/stock/at").param("time", now.toString()).param("ingredientId", "-1"))
+                .andExpect(status().isNotFound());
+    }
+
+    // ---------------------------------------------------------------
+
+    private void assertStockAt(LocalDateTime at, String expected) {
+        StockAtDTO one = stockLedgerService.getStockAt(rice.getIngredientId(), at);
+        assertEquals(0, new BigDecimal(expected).compareTo(one.getStockSubunit()), "at " + at + ": " + one.getStockSubunit());
+
+        List<StockAtDTO> all = stockLedgerService.getStockAt(at);
+        BigDecimal inList = all.stream().filter(dto -> dto.getIngredientId().equals(rice.getIngredientId()))
+                .map(StockAtDTO::getStockSubunit).findFirst().orElse(BigDecimal.ZERO);
+        assertEquals(0, new BigDecimal(expected).compareTo(inList), "all ingredients at " + at + ": " + inList);
+    }
+
+    // movements get distinct timestamps on either side of the returned time
+    private static LocalDateTime tick() throws InterruptedException {
+        Thread.sleep(5);
+        LocalDateTime now = LocalDateTime.now();
+        Thread.sleep(5);
+        return now;
+    }
+
+    private Integer order(int portions) {
+        OrderDetailXrefDTO line = new OrderDetailXrefDTO();
+        line.setRecipeId(biryani.getRecipeId());
+        line.setQuantity(BigDecimal.valueOf(portions));
+
+        OrderDetailDTO order = new OrderDetailDTO();
+        order.setOrderNo("LEDGER-" + tag + "-" + SEQ.incrementAndGet());
+        order.setOrderDate(LocalDateTime.now());
+        order.setOrderDetailXrefList(List.of(line));
+        return (Integer) orderDetailService.saveOrder(order).getData();
+    }
+
+    private StockInRequestDTO stockIn(String qtyMain) {
+        StockInRequestDTO request = new StockInRequestDTO();
+        request.setIngredientId(rice.getIngredientId());
+        request.setQtyMain(new BigDecimal(qtyMain));
+        request.setCreatedBy(user.getUserId());
+        return request;
+    }
+}
@@ -0,0 +1,228 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.dto.OrderDetailDTO;
+import com.restaurant.inventorysystem.dto.OrderDetailXrefDTO;
+import com.restaurant.inventorysystem.entity.IngredientsMaster;
+import com.restaurant.inventorysystem.entity.RecipeIngredientXref;
+import com.restaurant.inventorysystem.entity.RecipeMaster;
+import com.restaurant.inventorysystem.entity.User;
+import com.restaurant.inventorysystem.repository.IngredientsRepository;
+import com.restaurant.inventorysystem.repository.RecipeIngredientXrefRepository;
+import com.restaurant.inventorysystem.repository.RecipeMasterRepository;
+import com.restaurant.inventorysystem.repository.UserRepository;
+import com.restaurant.inventorysystem.security.JwtUtil;
+import com.restaurant.inventorysystem.service.OrderDetailService;
+import com.restaurant.inventorysystem.service.StockStreamService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Commit-to-screen latency of /api/stock/stream with 5,000 concurrent
+ * subscribers over real HTTP (embedded Tomcat, JWT auth). Each round
+ * commits one order and waits until every subscriber has its "stock"
+ * frame; latency runs from the saveOrder call to each delivery, so
+ * it includes the wait for the next coalescing tick (interval 500 ms).
+ *
+ * Opt-in, not part of the normal build:
+ *   mvn test -Dtest=StockStreamBenchmark -Dbenchmark=true
+ *
+ * 18-Oct-2026, 1 vCPU shared by server and 5,000 clients, 20 orders
+ * (100,000 deliveries):
+ *   connect 5,000     : 98.3 s (JWT parse + user lookup per request),
+ *                       JVM threads 40 → 270: Tomcat's worker pool
+ *                       (max 200) plus client threads, not one per stream
+ *   commit → delivery : p50 643 ms, p99 1333 ms, max 1407 ms
+ *   fan-out per frame : last subscriber 1046 ms after the first
+ *                       (1797 ms before frames were rendered to one text part)
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "inventory.stock.stream.interval-ms=500")
+class StockStreamBenchmark {
+
+    private static final int SUBSCRIBERS = 5_000;
+    private static final int ORDERS = 20;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private StockStreamService stockStreamService;
+
+    @Autowired
+    private OrderDetailService orderDetailService;
+
+    @Autowired
+    private IngredientsRepository ingredientsRepository;
+
+    @Autowired
+    private RecipeMasterRepository recipeMasterRepository;
+
+    @Autowired
+    private RecipeIngredientXrefRepository recipeIngredientXrefRepository;
+
+    @Autowired
+    private RecipeAvailabilityEngine recipeAvailabilityEngine;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // current round: set before the order is committed, read by the subscribers
+    private volatile long committedAt;
+    private volatile CountDownLatch delivered = new CountDownLatch(0);
+    private final long[][] latencyNanos = new long[ORDERS][SUBSCRIBERS];
+    private final long[][] deliveredAt = new long[ORDERS][SUBSCRIBERS];
+    private final AtomicInteger round = new AtomicInteger(-1);
+
+    @Test
+    void fiveThousandSubscribers() throws Exception {
+        User user = new User();
+        user.setUserName("stream-bench");
+        user.setPassword("n/a");
+        userRepository.save(user);
+        String token = jwtUtil.generateToken(user.getUserName());
+
+        IngredientsMaster onion = new IngredientsMaster();
+        onion.setIngredientCode("ONION-SB");
+        onion.setIngredientName("Onion");
+        onion.setSmallerUnit("gm");
+        onion.setBaseUnitValue(new BigDecimal("1000"));
+        onion.setCurrentStockSubunit(new BigDecimal("1000000"));
+        onion = ingredientsRepository.save(onion);
+
+        RecipeMaster raita = new RecipeMaster();
+        raita.setRecipeCode("RAITA-SB");
+        raita.setRecipeName("Raita");
+        raita.setSellingPrice(new BigDecimal("80.00"));
+        raita = recipeMasterRepository.save(raita);
+        RecipeIngredientXref xref = new RecipeIngredientXref();
+        xref.setRecipe(raita);
+        xref.setIngredient(onion);
+        xref.setQuantityValue(new BigDecimal("50"));
+        recipeIngredientXrefRepository.save(xref);
+        recipeAvailabilityEngine.reload();
+
+        // ---------- connect ----------
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/stock/stream"))
+                .header("Authorization", "Bearer " + token)
+                .build();
+        CountDownLatch snapshots = new CountDownLatch(SUBSCRIBERS);
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(SUBSCRIBERS);
+
+        long connectStart = System.nanoTime();
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            responses.add(client.sendAsync(request,
+                    HttpResponse.BodyHandlers.fromLineSubscriber(new FrameSubscriber(i, snapshots))));
+        }
+        assertTrue(snapshots.await(120, TimeUnit.SECONDS), "snapshots pending: " + snapshots.getCount());
+        long connectNanos = System.nanoTime() - connectStart;
+        assertEquals(SUBSCRIBERS, stockStreamService.subscriberCount());
+        int threadsAfter = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        // ---------- orders ----------
+        for (int r = 0; r < ORDERS; r++) {
+            delivered = new CountDownLatch(SUBSCRIBERS);
+            round.set(r);
+            OrderDetailXrefDTO line = new OrderDetailXrefDTO();
+            line.setRecipeId(raita.getRecipeId());
+            line.setQuantity(BigDecimal.ONE);
+            OrderDetailDTO order = new OrderDetailDTO();
+            order.setOrderNo("SB-" + r);
+            order.setOrderDate(LocalDateTime.now());
+            order.setOrderDetailXrefList(List.of(line));
+
+            committedAt = System.nanoTime();
+            orderDetailService.saveOrder(order);
+            assertTrue(delivered.await(30, TimeUnit.SECONDS), "round " + r + " pending: " + delivered.getCount());
+            // let the next order land at a random point in the interval
+            Thread.sleep(137);
+        }
+
+        long[] all = Arrays.stream(latencyNanos).flatMapToLong(Arrays::stream).sorted().toArray();
+        long spread = 0;
+        for (long[] at : deliveredAt) {
+            spread = Math.max(spread, Arrays.stream(at).max().getAsLong() - Arrays.stream(at).min().getAsLong());
+        }
+        System.out.printf("connect %,d         : %.1f s, JVM threads %d → %d%n",
+                SUBSCRIBERS, connectNanos / 1e9, threadsBefore, threadsAfter);
+        System.out.printf("commit → delivery : p50 %d ms, p99 %d ms, max %d ms (%,d deliveries)%n",
+                millis(all, 0.50), millis(all, 0.99), all[all.length - 1] / 1_000_000, all.length);
+        System.out.printf("fan-out per frame : last subscriber %d ms after the first%n", spread / 1_000_000);
+
+        responses.forEach(response -> response.cancel(true));
+    }
+
+    private static long millis(long[] sorted, double percentile) {
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1_000_000;
+    }
+
+    /**
+     * One subscriber: counts its snapshot, then stamps every "stock" frame
+     * against the commit of the current round.
+     */
+    private class FrameSubscriber implements Flow.Subscriber<String> {
+
+        private final int index;
+        private final CountDownLatch snapshots;
+
+        FrameSubscriber(int index, CountDownLatch snapshots) {
+            this.index = index;
+            this.snapshots = snapshots;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.equals("event:snapshot")) {
+                snapshots.countDown();
+            } else if (line.equals("event:stock")) {
+                long now = System.nanoTime();
+                int r = round.get();
+                if (r >= 0 && deliveredAt[r][index] == 0) {
+                    deliveredAt[r][index] = now;
+                    latencyNanos[r][index] = now - committedAt;
+                    delivered.countDown();
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
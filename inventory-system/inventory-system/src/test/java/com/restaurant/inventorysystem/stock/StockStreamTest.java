@@ -0,0 +1,181 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.dto.OrderDetailDTO;
+import com.restaurant.inventorysystem.dto.OrderDetailXrefDTO;
+import com.restaurant.inventorysystem.dto.StockInRequestDTO;
+import com.restaurant.inventorysystem.entity.IngredientsMaster;
+import com.restaurant.inventorysystem.entity.RecipeIngredientXref;
+import com.restaurant.inventorysystem.entity.RecipeMaster;
+import com.restaurant.inventorysystem.entity.User;
+import com.restaurant.inventorysystem.repository.IngredientsRepository;
+import com.restaurant.inventorysystem.repository.RecipeIngredientXrefRepository;
+import com.restaurant.inventorysystem.repository.RecipeMasterRepository;
+import com.restaurant.inventorysystem.repository.UserRepository;
+import com.restaurant.inventorysystem.service.OrderDetailService;
+import com.restaurant.inventorysystem.service.StockInService;
+import com.restaurant.inventorysystem.service.StockStreamService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * /api/stock/stream: a snapshot on connect, then one coalesced frame per
+ * interval with only the ingredients that changed.
+ */
+@SpringBootTest(properties = {
+        // frames sent by hand only
+        "inventory.stock.stream.interval-ms=3600000",
+        "inventory.stock.stream.heartbeat-ms=3600000"
+})
+@AutoConfigureMockMvc(addFilters = false)
+class StockStreamTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StockStreamService stockStreamService;
+
+    @Autowired
+    private RecipeAvailabilityEngine recipeAvailabilityEngine;
+
+    @Autowired
+    private OrderDetailService orderDetailService;
+
+    @Autowired
+    private StockInService stockInService;
+
+    @Autowired
+    private IngredientsRepository ingredientsRepository;
+
+    @Autowired
+    private RecipeMasterRepository recipeMasterRepository;
+
+    @Autowired
+    private RecipeIngredientXrefRepository recipeIngredientXrefRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void burstOfChangesIsOneFrameWithLatestLevels() throws Exception {
+        User user = new User();
+        user.setUserName("stock-stream");
+        user = userRepository.save(user);
+        IngredientsMaster onion = ingredient("ONION-SS", "10000");
+        IngredientsMaster salt = ingredient("SALT-SS", "2000");
+        IngredientsMaster sugar = ingredient("SUGAR-SS", "3000");
+
+        // 1 raita = 50 gm onion + 2 gm salt
+        RecipeMaster raita = new RecipeMaster();
+        raita.setRecipeCode("RAITA-SS");
+        raita.setRecipeName("Raita SS");
+        raita.setSellingPrice(new BigDecimal("80.00"));
+        raita = recipeMasterRepository.save(raita);
+        line(raita, onion, "50");
+        line(raita, salt, "2");
+        recipeAvailabilityEngine.reload();
+
+        MockHttpServletResponse stream = mockMvc.perform(get("/api/stock/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn().getResponse();
+        awaitContent(stream, "{\"ingredientId\":" + sugar.getIngredientId() + ",\"stockSubunit\":3000");
+        assertEquals(1, stockStreamService.subscriberCount());
+        // nothing changed yet
+        assertEquals(0, stockStreamService.flush());
+
+        // a burst: 10 orders and a Stock-In inside one interval
+        for (int i = 1; i <= 10; i++) {
+            order(raita, "SS-" + i);
+        }
+        stockIn(onion, user);
+
+        assertEquals(2, stockStreamService.flush());
+        String frame = awaitContent(stream, "event:stock");
+        awaitContent(stream, "{\"ingredientId\":" + salt.getIngredientId() + ",\"stockSubunit\":1980");
+
+        String frames = stream.getContentAsString().substring(stream.getContentAsString().indexOf(frame));
+        // one frame, one entry per changed ingredient, latest level only; sugar did not move
+        assertEquals(1, count(frames, "event:stock"));
+        assertEquals("[{\"ingredientId\":" + onion.getIngredientId() + ",\"stockSubunit\":10500.00},"
+                        + "{\"ingredientId\":" + salt.getIngredientId() + ",\"stockSubunit\":1980.00}]",
+                frames.substring(frames.indexOf('[') , frames.lastIndexOf(']') + 1));
+        assertTrue(!frames.contains("\"ingredientId\":" + sugar.getIngredientId() + ","), frames);
+
+        assertEquals(0, stockStreamService.flush());
+    }
+
+    // ---------------------------------------------------------------
+
+    private static int count(String text, String token) {
+        int count = 0;
+        for (int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            if (response.getContentAsString().contains(expected)) {
+                return expected;
+            }
+            Thread.sleep(20);
+        }
+        fail("no " + expected + " in " + response.getContentAsString());
+        return null;
+    }
+
+    private IngredientsMaster ingredient(String code, String stockGm) {
+        IngredientsMaster ingredient = new IngredientsMaster();
+        ingredient.setIngredientCode(code);
+        ingredient.setIngredientName(code);
+        ingredient.setSmallerUnit("gm");
+        ingredient.setBaseUnitValue(new BigDecimal("1000"));
+        ingredient.setCurrentStockSubunit(new BigDecimal(stockGm));
+        return ingredientsRepository.save(ingredient);
+    }
+
+    private void line(RecipeMaster recipe, IngredientsMaster ingredient, String gm) {
+        RecipeIngredientXref xref = new RecipeIngredientXref();
+        xref.setRecipe(recipe);
+        xref.setIngredient(ingredient);
+        xref.setQuantityValue(new BigDecimal(gm));
+        recipeIngredientXrefRepository.save(xref);
+    }
+
+    private void order(RecipeMaster recipe, String orderNo) {
+        OrderDetailXrefDTO line = new OrderDetailXrefDTO();
+        line.setRecipeId(recipe.getRecipeId());
+        line.setQuantity(BigDecimal.ONE);
+
+        OrderDetailDTO order = new OrderDetailDTO();
+        order.setOrderNo(orderNo);
+        order.setOrderDate(LocalDateTime.now());
+        order.setOrderDetailXrefList(List.of(line));
+        orderDetailService.saveOrder(order);
+    }
+
+    private void stockIn(IngredientsMaster ingredient, User user) {
+        StockInRequestDTO request = new StockInRequestDTO();
+        request.setIngredientId(ingredient.getIngredientId());
+        request.setQtyMain(BigDecimal.ONE);
+        request.setCreatedBy(user.getUserId());
+        stockInService.addStock(request);
+    }
+}
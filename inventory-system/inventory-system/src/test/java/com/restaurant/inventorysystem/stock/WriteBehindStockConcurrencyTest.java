@@ -0,0 +1,24 @@
+package com.restaurant.inventorysystem.stock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(properties = {
+        "inventory.stock.lock-mode=WRITE_BEHIND",
+        "inventory.stock.write-behind.flush-interval-ms=50"
+})
+class WriteBehindStockConcurrencyTest extends AbstractStockConcurrencyTest {
+
+    @Autowired
+    private WriteBehindStockFlusher writeBehindStockFlusher;
+
+    @Override
+    protected StockLockMode expectedMode() {
+        return StockLockMode.WRITE_BEHIND;
+    }
+
+    @Override
+    protected void awaitStockWrites() {
+        writeBehindStockFlusher.flush();
+    }
+}
@@ -0,0 +1,213 @@
+package com.restaurant.inventorysystem.stock;
+
+import com.restaurant.inventorysystem.dto.OrderDetailDTO;
+import com.restaurant.inventorysystem.dto.OrderDetailXrefDTO;
+import com.restaurant.inventorysystem.dto.StockInRequestDTO;
+import com.restaurant.inventorysystem.entity.IngredientsMaster;
+import com.restaurant.inventorysystem.entity.RecipeIngredientXref;
+import com.restaurant.inventorysystem.entity.RecipeMaster;
+import com.restaurant.inventorysystem.entity.User;
+import com.restaurant.inventorysystem.exception.InsufficientStockException;
+import com.restaurant.inventorysystem.repository.IngredientsRepository;
+import com.restaurant.inventorysystem.repository.RecipeIngredientXrefRepository;
+import com.restaurant.inventorysystem.repository.RecipeMasterRepository;
+import com.restaurant.inventorysystem.repository.StockMovementRepository;
+import com.restaurant.inventorysystem.repository.UserRepository;
+import com.restaurant.inventorysystem.service.OrderDetailService;
+import com.restaurant.inventorysystem.service.StockInService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+
+/**
+ * WRITE_BEHIND crash recovery: the flusher dies between updating
+ * ingredients_master and marking the ledger rows applied, the in-memory
+ * counters are lost, and the stock must still come out right, to the
+ * last stored decimal.
+ */
+@SpringBootTest(properties = {
+        "inventory.stock.lock-mode=WRITE_BEHIND",
+        // flushed by hand only
+        "inventory.stock.write-behind.flush-interval-ms=3600000"
+})
+class WriteBehindStockRecoveryTest {
+
+    @MockitoSpyBean
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private WriteBehindStockFlusher writeBehindStockFlusher;
+
+    @Autowired
+    private WriteBehindStockUpdateStrategy writeBehindStockUpdateStrategy;
+
+    @Autowired
+    private OrderDetailService orderDetailService;
+
+    @Autowired
+    private StockInService stockInService;
+
+    @Autowired
+    private RecipeBomCache recipeBomCache;
+
+    @Autowired
+    private IngredientsRepository ingredientsRepository;
+
+    @Autowired
+    private RecipeMasterRepository recipeMasterRepository;
+
+    @Autowired
+    private RecipeIngredientXrefRepository recipeIngredientXrefRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void restoreRepository() {
+        reset(stockMovementRepository);
+    }
+
+    @Test
+    void stockReconcilesAfterFlusherDiesMidBatch() {
+        User user = new User();
+        user.setUserName("write-behind-recovery");
+        user = userRepository.save(user);
+
+        IngredientsMaster rice = new IngredientsMaster();
+        rice.setIngredientCode("RICE-WB");
+        rice.setIngredientName("Rice WB");
+        rice.setSmallerUnit("gm");
+        rice.setBaseUnitValue(new BigDecimal("1000"));
+        rice.setCurrentStockSubunit(new BigDecimal("1000"));
+        rice = ingredientsRepository.save(rice);
+        Integer riceId = rice.getIngredientId();
+
+        IngredientsMaster saffron = new IngredientsMaster();
+        saffron.setIngredientCode("SAFFRON-WB");
+        saffron.setIngredientName("Saffron WB");
+        saffron.setSmallerUnit("gm");
+        saffron.setBaseUnitValue(new BigDecimal("1000"));
+        saffron.setCurrentStockSubunit(new BigDecimal("10"));
+        saffron = ingredientsRepository.save(saffron);
+        Integer saffronId = saffron.getIngredientId();
+
+        // 1 biryani = 100 gm rice + 0.125 gm saffron (stored as 0.13)
+        RecipeMaster recipe = new RecipeMaster();
+        recipe.setRecipeCode("BIRYANI-WB");
+        recipe.setRecipeName("Biryani WB");
+        recipe.setSellingPrice(new BigDecimal("300.00"));
+        RecipeMaster biryani = recipeMasterRepository.save(recipe);
+        RecipeIngredientXref xref = new RecipeIngredientXref();
+        xref.setRecipe(biryani);
+        xref.setIngredient(rice);
+        xref.setQuantityValue(new BigDecimal("100"));
+        recipeIngredientXrefRepository.save(xref);
+        RecipeIngredientXref saffronXref = new RecipeIngredientXref();
+        saffronXref.setRecipe(biryani);
+        saffronXref.setIngredient(saffron);
+        saffronXref.setQuantityValue(new BigDecimal("0.125"));
+        recipeIngredientXrefRepository.save(saffronXref);
+        recipeBomCache.reload();
+
+        // ---- live counter moves, ingredients_master does not ----
+        order(biryani, "WB-1", "2");                                // -200, -0.26
+        order(biryani, "WB-2", "0.5");                              // -50, -0.065 → -0.07
+        stockInService.addStock(stockIn(riceId, user.getUserId())); // +1000
+        assertStock("1750", writeBehindStockUpdateStrategy.liveStock(riceId));
+        assertStock("9.67", writeBehindStockUpdateStrategy.liveStock(saffronId));
+        assertStock("1000", masterStock(riceId));
+        assertStock("10", masterStock(saffronId));
+        assertEquals(3, pendingRows(riceId));
+        assertEquals(2, pendingRows(saffronId));
+
+        // ---- the flusher dies after its UPDATE, before marking the rows ----
+        doThrow(new IllegalStateException("flusher killed")).when(stockMovementRepository).markApplied(anyList());
+        assertThrows(IllegalStateException.class, () -> writeBehindStockFlusher.flush());
+        assertStock("1000", masterStock(riceId));
+        assertEquals(3, pendingRows(riceId));
+
+        // ---- restart: counters are gone, rows are still pending ----
+        reset(stockMovementRepository);
+        writeBehindStockUpdateStrategy.resetCounters();
+        assertNull(writeBehindStockUpdateStrategy.liveStock(riceId));
+
+        // counter reloads as master + pending, so it still refuses what is not there
+        assertThrows(InsufficientStockException.class, () -> order(biryani, "WB-3", "18"));
+        // and comes back exactly where it was before the restart (saffron: 9.67 - 2.28)
+        assertStock("1750", writeBehindStockUpdateStrategy.liveStock(riceId));
+        order(biryani, "WB-4", "17.5");                             // -1750, -2.275 → -2.28
+        assertStock("0", writeBehindStockUpdateStrategy.liveStock(riceId));
+        assertStock("7.39", writeBehindStockUpdateStrategy.liveStock(saffronId));
+
+        assertEquals(7, writeBehindStockFlusher.flush());
+        assertStock("0", masterStock(riceId));
+        assertStock("7.39", masterStock(saffronId));
+        assertEquals(0, pendingRows(riceId));
+        assertEquals(0, pendingRows(saffronId));
+
+        // the pending rows were applied exactly once
+        assertEquals(0, writeBehindStockFlusher.flush());
+        assertStock("0", masterStock(riceId));
+        assertStock("7.39", masterStock(saffronId));
+        assertStock("-1000", ledger(riceId));
+        assertStock("-2.61", ledger(saffronId));
+    }
+
+    // ---------------------------------------------------------------
+
+    private static void assertStock(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), "expected " + expected + " but was " + actual);
+    }
+
+    private BigDecimal masterStock(Integer ingredientId) {
+        return ingredientsRepository.findById(ingredientId).orElseThrow().getCurrentStockSubunit();
+    }
+
+    private BigDecimal ledger(Integer ingredientId) {
+        return stockMovementRepository.sumForIngredient(ingredientId,
+                LocalDateTime.of(1970, 1, 1, 0, 0), LocalDateTime.now().plusDays(1)).get(0).getQuantity();
+    }
+
+    private int pendingRows(Integer ingredientId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_movement WHERE ingredient_id = ? AND applied = FALSE",
+                Integer.class, ingredientId);
+    }
+
+    private void order(RecipeMaster recipe, String orderNo, String portions) {
+        OrderDetailXrefDTO line = new OrderDetailXrefDTO();
+        line.setRecipeId(recipe.getRecipeId());
+        line.setQuantity(new BigDecimal(portions));
+
+        OrderDetailDTO order = new OrderDetailDTO();
+        order.setOrderNo(orderNo);
+        order.setOrderDate(LocalDateTime.now());
+        order.setOrderDetailXrefList(List.of(line));
+        orderDetailService.saveOrder(order);
+    }
+
+    private static StockInRequestDTO stockIn(Integer ingredientId, Integer userId) {
+        StockInRequestDTO request = new StockInRequestDTO();
+        request.setIngredientId(ingredientId);
+        request.setQtyMain(BigDecimal.ONE);
+        request.setCreatedBy(userId);
+        return request;
+    }
+}
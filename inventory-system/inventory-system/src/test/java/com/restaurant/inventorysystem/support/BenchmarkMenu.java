@@ -0,0 +1,119 @@
+package com.restaurant.inventorysystem.support;
+
+import com.restaurant.inventorysystem.dto.OrderDetailXrefDTO;
+import com.restaurant.inventorysystem.entity.IngredientsMaster;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generated restaurant menu for the JMH suites: ingredients, recipes
+ * (bill of materials) and a ring of orders against them.
+ *
+ * Shaped like a real kitchen rather than uniform noise:
+ *  - about one ingredient per two recipes (50 recipes → 55 ingredients,
+ *    2,000 → 1,030), mostly weighed (KG / LTR in gm / ml), some counted (PCS)
+ *  - recipes of 4-14 lines; ingredient use is skewed, so onion and oil
+ *    (the low ids) show up in most recipes and the tail in few
+ *  - orders of 1-8 lines of 1-3 portions, popular dishes ordered more
+ *
+ * Same seed, same menu: results of two runs are comparable.
+ */
+public final class BenchmarkMenu {
+
+    /** Orders generated per menu; a power of two so suites can cycle with a mask. */
+    public static final int ORDERS = 1024;
+
+    private static final long SEED = 42;
+    private static final LocalDateTime UPDATED = LocalDateTime.of(2026, 10, 18, 9, 30);
+
+    private final List<IngredientsMaster> ingredients;
+    private final int[][] recipeIngredientIds;
+    private final BigDecimal[][] recipeQuantities;
+    private final List<List<OrderDetailXrefDTO>> orders;
+
+    private BenchmarkMenu(List<IngredientsMaster> ingredients, int[][] recipeIngredientIds,
+                          BigDecimal[][] recipeQuantities, List<List<OrderDetailXrefDTO>> orders) {
+        this.ingredients = ingredients;
+        this.recipeIngredientIds = recipeIngredientIds;
+        this.recipeQuantities = recipeQuantities;
+        this.orders = orders;
+    }
+
+    public static BenchmarkMenu generate(int recipes) {
+        Random random = new Random(SEED);
+
+        int ingredientCount = 30 + recipes / 2;
+        List<IngredientsMaster> ingredients = new ArrayList<>(ingredientCount);
+        for (int id = 1; id <= ingredientCount; id++) {
+            IngredientsMaster ingredient = new IngredientsMaster();
+            ingredient.setIngredientId(id);
+            ingredient.setIngredientCode("ING-" + id);
+            ingredient.setIngredientName("Ingredient " + id);
+            ingredient.setIngredientDescription("Generated ingredient " + id);
+            boolean counted = random.nextInt(10) == 0;
+            ingredient.setUom(counted ? "PCS" : random.nextBoolean() ? "KG" : "LTR");
+            ingredient.setSmallerUnit(counted ? "pcs" : "KG".equals(ingredient.getUom()) ? "gm" : "ml");
+            ingredient.setBaseUnitValue(counted ? BigDecimal.ONE : new BigDecimal("1000"));
+            ingredient.setCurrentStockSubunit(BigDecimal.valueOf(random.nextInt(5_000_000), 2));
+            ingredient.setUpdatedDate(UPDATED.minusMinutes(random.nextInt(100_000)));
+            ingredients.add(ingredient);
+        }
+
+        int[][] ingredientIds = new int[recipes][];
+        BigDecimal[][] quantities = new BigDecimal[recipes][];
+        for (int r = 0; r < recipes; r++) {
+            int lines = 4 + random.nextInt(11);
+            ingredientIds[r] = new int[lines];
+            quantities[r] = new BigDecimal[lines];
+            for (int i = 0; i < lines; i++) {
+                ingredientIds[r][i] = 1 + skewed(random, ingredientCount);
+                quantities[r][i] = BigDecimal.valueOf(50 + random.nextInt(25_000), 2);
+            }
+        }
+
+        List<List<OrderDetailXrefDTO>> orders = new ArrayList<>(ORDERS);
+        for (int o = 0; o < ORDERS; o++) {
+            int count = 1 + random.nextInt(8);
+            List<OrderDetailXrefDTO> lines = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int recipeId = 1 + skewed(random, recipes);
+                OrderDetailXrefDTO line = new OrderDetailXrefDTO();
+                line.setRecipeId(recipeId);
+                line.setRecipeName(recipeName(recipeId));
+                line.setQuantity(BigDecimal.valueOf(1 + random.nextInt(3)));
+                line.setSellingPrice(sellingPrice(recipeId));
+                lines.add(line);
+            }
+            orders.add(lines);
+        }
+
+        return new BenchmarkMenu(ingredients, ingredientIds, quantities, orders);
+    }
+
+    public int recipeCount() { return recipeIngredientIds.length; }
+
+    public List<IngredientsMaster> ingredients() { return ingredients; }
+
+    /** Ingredient ids of a recipe (recipe ids start at 1). */
+    public int[] recipeIngredientIds(int recipeId) { return recipeIngredientIds[recipeId - 1]; }
+
+    /** Quantities (subunits, 2 decimals) matching recipeIngredientIds. */
+    public BigDecimal[] recipeQuantities(int recipeId) { return recipeQuantities[recipeId - 1]; }
+
+    public static String recipeName(int recipeId) { return "Recipe " + recipeId; }
+
+    public static BigDecimal sellingPrice(int recipeId) { return BigDecimal.valueOf(9_000 + recipeId * 7L % 40_000, 2); }
+
+    /** The ORDERS generated orders, each a list of order lines. */
+    public List<List<OrderDetailXrefDTO>> orders() { return orders; }
+
+    // 0 .. bound - 1, low values far more likely (r² of a uniform r)
+    private static int skewed(Random random, int bound) {
+        double r = random.nextDouble();
+        return (int) (r * r * bound);
+    }
+}
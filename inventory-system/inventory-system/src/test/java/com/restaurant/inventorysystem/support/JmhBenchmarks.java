@@ -0,0 +1,37 @@
+package com.restaurant.inventorysystem.support;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Runs the @Benchmark methods of one JMH suite from its JUnit entry point,
+ * with allocation figures (GC profiler), and writes the results as JSON
+ * to target/jmh/&lt;Suite&gt;.json for run-over-run comparison.
+ *
+ * All tagged suites at once:
+ *   mvn test -Pbenchmarks
+ */
+public final class JmhBenchmarks {
+
+    public static final String TAG = "jmh";
+
+    private static final Path RESULTS = Path.of("target", "jmh");
+
+    private JmhBenchmarks() {
+    }
+
+    public static void run(Class<?> suite) throws Exception {
+        Files.createDirectories(RESULTS);
+        new Runner(new OptionsBuilder()
+                .include(suite.getName() + "\\.")
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(RESULTS.resolve(suite.getSimpleName() + ".json").toString())
+                .build()).run();
+    }
+}
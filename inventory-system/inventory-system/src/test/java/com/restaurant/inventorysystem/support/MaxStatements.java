@@ -0,0 +1,27 @@
+package com.restaurant.inventorysystem.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * SQL statement budget of a test method: the test fails if its body (not
+ * its @BeforeEach set-up) sends more statements than this, listing them.
+ *
+ * Needs a Spring test context with {@code @Import(StatementCounter.Config.class)}.
+ * A budget that only holds for a given amount of data is an N+1 waiting
+ * to happen: seed collections with several rows.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(StatementBudgetExtension.class)
+public @interface MaxStatements {
+
+    /** Statements allowed, executeBatch() counting as one. */
+    int value();
+}
@@ -0,0 +1,58 @@
+package com.restaurant.inventorysystem.support;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.List;
+
+/**
+ * Enforces {@link MaxStatements}: resets the StatementCounter right before
+ * the test body and checks it right after.
+ */
+public class StatementBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        counter(context).reset();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        if (context.getExecutionException().isPresent()) {
+            return;   // already failed, for a better reason
+        }
+        int budget = AnnotationSupport.findAnnotation(context.getElement(), MaxStatements.class)
+                .orElseThrow()
+                .value();
+        StatementCounter counter = counter(context);
+        if (counter.get() > budget) {
+            throw new AssertionFailedError(message(context, budget, counter.get(), counter.statements()));
+        }
+    }
+
+    // ---------------------------------------------------------------
+
+    private static StatementCounter counter(ExtensionContext context) {
+        try {
+            return SpringExtension.getApplicationContext(context).getBean(StatementCounter.class);
+        } catch (NoSuchBeanDefinitionException e) {
+            throw new IllegalStateException(
+                    "@MaxStatements needs @Import(StatementCounter.Config.class) on " + context.getRequiredTestClass(), e);
+        }
+    }
+
+    private static String message(ExtensionContext context, int budget, long count, List<String> statements) {
+        StringBuilder message = new StringBuilder()
+                .append(context.getRequiredTestMethod().getName())
+                .append(" ran ").append(count).append(" SQL statements, budget is ").append(budget).append(':');
+        for (int i = 0; i < statements.size(); i++) {
+            message.append(System.lineSeparator()).append(String.format("%3d. ", i + 1)).append(statements.get(i));
+        }
+        return message.toString();
+    }
+}
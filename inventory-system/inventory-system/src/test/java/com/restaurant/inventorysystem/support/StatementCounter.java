@@ -0,0 +1,128 @@
+package com.restaurant.inventorysystem.support;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test helper: counts SQL statements sent to the database.
+ *
+ * The DataSource bean is wrapped in a JDK proxy; every execute* call on a
+ * Statement / PreparedStatement counts as one round trip, and a whole
+ * executeBatch() also counts as one. The SQL of each is kept (since the
+ * last reset) for failure messages.
+ *
+ * Usage: {@code @Import(StatementCounter.Config.class)} and autowire the
+ * counter, or put {@link MaxStatements} on the test method.
+ */
+public class StatementCounter {
+
+    private final AtomicLong count = new AtomicLong();
+    private final List<String> statements = Collections.synchronizedList(new ArrayList<>());
+
+    public void reset() {
+        count.set(0);
+        statements.clear();
+    }
+
+    public long get() {
+        return count.get();
+    }
+
+    /** SQL of the statements counted since the last reset, in execution order. */
+    public List<String> statements() {
+        synchronized (statements) {
+            return List.copyOf(statements);
+        }
+    }
+
+    @TestConfiguration
+    public static class Config {
+
+        @Bean
+        public static StatementCounter statementCounter() {
+            return new StatementCounter();
+        }
+
+        @Bean
+        public static BeanPostProcessor statementCountingDataSource(StatementCounter statementCounter) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                    if (bean instanceof DataSource dataSource) {
+                        return statementCounter.wrap(dataSource);
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+
+    DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (result, method, args) ->
+                result instanceof Connection connection ? wrapConnection(connection) : result);
+    }
+
+    private Connection wrapConnection(Connection connection) {
+        return proxy(Connection.class, connection, (result, method, args) -> {
+            // prepareStatement / prepareCall(sql, ...): the SQL is the first argument
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+            if (result instanceof CallableStatement statement) {
+                return countingStatement(CallableStatement.class, statement, sql);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return countingStatement(PreparedStatement.class, statement, sql);
+            }
+            if (result instanceof Statement statement) {
+                return countingStatement(Statement.class, statement, null);
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Statement> T countingStatement(Class<T> type, T statement, String preparedSql) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                count.incrementAndGet();
+                // plain Statement.execute*(sql)
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+                statements.add(method.getName().equals("executeBatch") ? "[batch] " + sql : String.valueOf(sql));
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, T target, ResultMapper mapper) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) ->
+                mapper.map(invoke(target, method, args), method, args));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResultMapper {
+        Object map(Object result, Method method, Object[] args) throws Exception;
+    }
+}
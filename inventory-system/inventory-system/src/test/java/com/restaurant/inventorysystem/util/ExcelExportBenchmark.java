@@ -0,0 +1,92 @@
+package com.restaurant.inventorysystem.util;
+
+import com.restaurant.inventorysystem.entity.IngredientsMaster;
+import com.restaurant.inventorysystem.support.BenchmarkMenu;
+import com.restaurant.inventorysystem.support.JmhBenchmarks;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExcelExportUtil.writeExcel of the stock report sheet (one row per
+ * ingredient, same six columns as /api/stock/report/excel) on menus of
+ * 50 to 2,000 recipes. The rows are mapped beforehand and the workbook is
+ * written to a discarding stream, so this is POI's share only: styles,
+ * cells, the SXSSF temp file and the zip.
+ *
+ * Opt-in, not part of the normal build:
+ *   mvn test -Dtest=ExcelExportBenchmark -Dbenchmark=true
+ * JSON results: target/jmh/ExcelExportBenchmark.json
+ *
+ * 18-Oct-2026, 1 vCPU, JDK 21, 1 fork, 5 × 2 s:
+ *
+ *   recipes   rows      ms / workbook       allocated / workbook
+ *        50     55       49.3 ± 45.5          1.9 MB
+ *       500    280       65.1 ± 40.6          3.0 MB
+ *     2,000  1,030      117.7 ± 103.0         6.9 MB
+ *
+ * About 45 ms and 1.6 MB of that is fixed: the workbook, styles and zip.
+ */
+@Tag(JmhBenchmarks.TAG)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExcelExportBenchmark {
+
+    private static final List<String> HEADERS = List.of(
+            "Ingredient", "UOM", "Base Unit", "Stock (Subunit)", "Stock (Main)", "Last Updated");
+
+    @Param({"50", "500", "2000"})
+    public int recipes;
+
+    private List<List<Object>> rows;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<IngredientsMaster> ingredients = BenchmarkMenu.generate(recipes).ingredients();
+        rows = new ArrayList<>(ingredients.size());
+        for (IngredientsMaster ingredient : ingredients) {
+            rows.add(Arrays.asList(
+                    ingredient.getIngredientName(),
+                    ingredient.getUom(),
+                    ingredient.getBaseUnitValue(),
+                    ingredient.getCurrentStockSubunit(),
+                    ingredient.getCurrentStockSubunit().divide(ingredient.getBaseUnitValue(), 4,
+                            RoundingMode.HALF_UP),
+                    ingredient.getUpdatedDate()));
+        }
+    }
+
+    @Benchmark
+    public long stockReportWorkbook() throws Exception {
+        return ExcelExportUtil.writeExcel(OutputStream.nullOutputStream(), "Stock Report", HEADERS, rows.stream());
+    }
+
+    @Test
+    void stockReportWorkbookPerMenuSize() throws Exception {
+        JmhBenchmarks.run(ExcelExportBenchmark.class);
+    }
+}
@@ -0,0 +1,29 @@
+package com.restaurant.inventorysystem.util;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Exports N generated stock rows to a discarding stream. Started by
+ * ExcelExportUtilTest in a separate JVM with a small -Xmx.
+ */
+public class ExcelExportHeapCheck {
+
+    public static void main(String[] args) throws Exception {
+        long rows = Long.parseLong(args[0]);
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+        long written = ExcelExportUtil.writeExcel(OutputStream.nullOutputStream(), "Stock Movement",
+                List.of("Ingredient", "UOM", "Base Unit", "Stock (Subunit)", "Stock (Main)", "Last Updated"),
+                LongStream.range(0, rows).mapToObj(i -> Arrays.asList(
+                        (Object) ("Ingredient " + i), "KG", new BigDecimal("1000"),
+                        BigDecimal.valueOf(i % 50_000), BigDecimal.valueOf(i % 50_000, 3), start.plusMinutes(i))));
+
+        Runtime runtime = Runtime.getRuntime();
+        System.out.println("rows=" + written + " maxHeapMb=" + runtime.maxMemory() / (1024 * 1024));
+    }
+}
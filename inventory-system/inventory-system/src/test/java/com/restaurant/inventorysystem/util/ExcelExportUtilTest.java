@@ -0,0 +1,89 @@
+package com.restaurant.inventorysystem.util;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Streaming Excel export: same layout as before, and memory that does
+ * not grow with the number of rows.
+ */
+class ExcelExportUtilTest {
+
+    private static final List<String> HEADERS = List.of("Ingredient", "Stock", "Last Updated");
+
+    @Test
+    void writesTitleHeaderAndTypedRows() throws Exception {
+        LocalDateTime updated = LocalDateTime.of(2026, 10, 17, 12, 30);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // more rows than the in-memory window, so some were flushed to disk
+        long written = ExcelExportUtil.writeExcel(out, "Stock", HEADERS, IntStream.range(0, 1_000)
+                .mapToObj(i -> Arrays.asList((Object) ("Ingredient " + i), new BigDecimal("12.5"), updated)));
+
+        assertEquals(1_000, written);
+        try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+            XSSFSheet sheet = workbook.getSheet("Stock");
+            assertEquals("Stock Report", sheet.getRow(1).getCell(0).getStringCellValue());
+            assertEquals("Last Updated", sheet.getRow(4).getCell(2).getStringCellValue());
+
+            Row last = sheet.getRow(5 + 999);
+            assertEquals("Ingredient 999", last.getCell(0).getStringCellValue());
+            assertEquals(CellType.NUMERIC, last.getCell(1).getCellType());
+            assertEquals(12.5, last.getCell(1).getNumericCellValue());
+            assertEquals(updated, last.getCell(2).getLocalDateTimeCellValue());
+            assertEquals("dd-MM-yyyy HH:mm", last.getCell(2).getCellStyle().getDataFormatString());
+
+            // "Ingredient 999" + padding
+            assertEquals(16 * 256, sheet.getColumnWidth(0));
+        }
+    }
+
+    @Test
+    void columnWidthsComeFromHeaderAndSampleWithinLimits() {
+        int[] chars = ExcelExportUtil.estimateColumnChars(List.of("Id", "Description"),
+                List.of(Arrays.asList(7, "x".repeat(500)), Arrays.asList(null, "short")));
+
+        assertEquals(8, chars[0]);
+        assertEquals(60, chars[1]);
+    }
+
+    @Test
+    void exportsOneMillionRowsWithin64MbHeap() throws Exception {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Path log = Files.createTempFile("excel-heap-check", ".log");
+        Process process = new ProcessBuilder(java, "-Xmx64m",
+                "-cp", System.getProperty("java.class.path"),
+                ExcelExportHeapCheck.class.getName(), "1000000")
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+
+        try {
+            assertTrue(process.waitFor(10, TimeUnit.MINUTES), "export did not finish");
+        } finally {
+            process.destroyForcibly();
+        }
+        String output = Files.readString(log);
+        Files.delete(log);
+
+        assertEquals(0, process.exitValue(), output);
+        assertTrue(output.contains("rows=1000000"), output);
+    }
+}
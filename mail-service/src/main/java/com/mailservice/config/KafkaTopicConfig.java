@@ -0,0 +1,31 @@
+package com.mailservice.config;
+
+import com.mailservice.kafka.InvoiceFailureRouter;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * ------------------------------------------------------------
+ * CONFIG: KafkaTopicConfig
+ * ------------------------------------------------------------
+ * Topics owned by mail-service, created at startup if missing:
+ *  - invoice-topic.retry : invoices waiting for their next mail attempt
+ *  - invoice-topic.dlt   : invoices that could not be mailed (see
+ *                          /actuator/invoicedlt)
+ */
+@Configuration
+public class KafkaTopicConfig {
+
+    @Bean
+    public NewTopic invoiceRetryTopic(@Value("${mail.retry.partitions:3}") int partitions) {
+        return TopicBuilder.name(InvoiceFailureRouter.RETRY_TOPIC_NAME).partitions(partitions).build();
+    }
+
+    @Bean
+    public NewTopic invoiceDeadLetterTopic(@Value("${mail.retry.partitions:3}") int partitions) {
+        return TopicBuilder.name(InvoiceFailureRouter.DLT_TOPIC_NAME).partitions(partitions).build();
+    }
+}
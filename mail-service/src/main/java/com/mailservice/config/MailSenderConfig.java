@@ -0,0 +1,75 @@
+package com.mailservice.config;
+
+import com.mailservice.service.MailDispatcher;
+import com.mailservice.service.PooledJavaMailSender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Properties;
+
+/**
+ * ------------------------------------------------------------
+ * CONFIG: MailSenderConfig
+ * ------------------------------------------------------------
+ * Replaces Spring Boot's JavaMailSender with PooledJavaMailSender
+ * (same spring.mail.* settings) and puts MailDispatcher in front of it.
+ *
+ * Pool settings (mail.smtp.pool.*):
+ *  - max-connections             : open SMTP sessions / dispatcher threads
+ *  - max-messages-per-connection : messages before a session is recycled
+ *  - idle-timeout-ms             : idle sessions are closed after this
+ *  - batch-size                  : messages handed to one send(...) call
+ *  - queue-capacity              : emails waiting for a session
+ *
+ * Metrics: mail.smtp.connections.opened / idle, mail.smtp.queue.size
+ */
+@Configuration
+@EnableConfigurationProperties(MailProperties.class)
+public class MailSenderConfig {
+
+    @Bean
+    public PooledJavaMailSender mailSender(MailProperties mailProperties,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${mail.smtp.pool.max-connections:3}") int maxConnections,
+                                           @Value("${mail.smtp.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                                           @Value("${mail.smtp.pool.idle-timeout-ms:30000}") long idleTimeoutMs) {
+        PooledJavaMailSender sender = new PooledJavaMailSender(maxConnections, maxMessagesPerConnection, idleTimeoutMs);
+        sender.setHost(mailProperties.getHost());
+        if (mailProperties.getPort() != null) {
+            sender.setPort(mailProperties.getPort());
+        }
+        sender.setUsername(mailProperties.getUsername());
+        sender.setPassword(mailProperties.getPassword());
+        sender.setProtocol(mailProperties.getProtocol());
+        if (mailProperties.getDefaultEncoding() != null) {
+            sender.setDefaultEncoding(mailProperties.getDefaultEncoding().name());
+        }
+        Properties javaMailProperties = new Properties();
+        javaMailProperties.putAll(mailProperties.getProperties());
+        sender.setJavaMailProperties(javaMailProperties);
+
+        FunctionCounter.builder("mail.smtp.connections.opened", sender, PooledJavaMailSender::getOpenedConnections)
+                .description("SMTP sessions opened").register(meterRegistry);
+        Gauge.builder("mail.smtp.connections.idle", sender, PooledJavaMailSender::getIdleConnections)
+                .description("Open SMTP sessions waiting for work").register(meterRegistry);
+        return sender;
+    }
+
+    @Bean
+    public MailDispatcher mailDispatcher(PooledJavaMailSender mailSender,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${mail.smtp.pool.max-connections:3}") int maxConnections,
+                                         @Value("${mail.smtp.pool.batch-size:20}") int batchSize,
+                                         @Value("${mail.smtp.pool.queue-capacity:500}") int queueCapacity) {
+        MailDispatcher dispatcher = new MailDispatcher(mailSender, maxConnections, batchSize, queueCapacity);
+        Gauge.builder("mail.smtp.queue.size", dispatcher, MailDispatcher::getQueueSize)
+                .description("Emails waiting for an SMTP session").register(meterRegistry);
+        return dispatcher;
+    }
+}
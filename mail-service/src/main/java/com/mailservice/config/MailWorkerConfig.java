@@ -0,0 +1,39 @@
+package com.mailservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * ------------------------------------------------------------
+ * CONFIG: MailWorkerConfig
+ * ------------------------------------------------------------
+ * Bounded worker pool that renders and sends invoice emails for
+ * InvoiceMailListener, so one Kafka batch is mailed in parallel.
+ *
+ * - pool-size      : parallel SMTP sends (mail.worker.pool-size)
+ * - queue-capacity : emails waiting for a worker (mail.worker.queue-capacity)
+ * When the queue is full the listener thread sends the email itself,
+ * which slows down polling instead of buffering without limit.
+ */
+@Configuration
+public class MailWorkerConfig {
+
+    @Bean(name = "mailWorkerExecutor", destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor mailWorkerExecutor(@Value("${mail.worker.pool-size:8}") int poolSize,
+                                                     @Value("${mail.worker.queue-capacity:200}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("mail-worker-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,40 @@
+package com.mailservice.dto;
+
+/**
+ * ------------------------------------------------------------
+ * DTO: DltReplayResultDTO
+ * ------------------------------------------------------------
+ * Purpose:
+ *  Outcome of one dead-letter replay call.
+ */
+public class DltReplayResultDTO {
+
+    private int replayed;
+    private long remaining;
+
+    public DltReplayResultDTO() {
+    }
+
+    public DltReplayResultDTO(int replayed, long remaining) {
+        this.replayed = replayed;
+        this.remaining = remaining;
+    }
+
+    // ---------- Getters and Setters ----------
+
+    public int getReplayed() {
+        return replayed;
+    }
+
+    public void setReplayed(int replayed) {
+        this.replayed = replayed;
+    }
+
+    public long getRemaining() {
+        return remaining;
+    }
+
+    public void setRemaining(long remaining) {
+        this.remaining = remaining;
+    }
+}
@@ -0,0 +1,47 @@
+package com.mailservice.kafka;
+
+import com.mailservice.dto.DltReplayResultDTO;
+import com.mailservice.service.DeadLetterReplayService;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * ------------------------------------------------------------
+ * ENDPOINT: /actuator/invoicedlt
+ * ------------------------------------------------------------
+ * Replays invoice emails that ended up on invoice-topic.dlt. Served only
+ * on the management port, which is bound to loopback
+ * (management.server.*), so it is not reachable from the public API port.
+ *
+ *  POST {"max": 500} → sends up to max dead-lettered invoices (1..10000)
+ *                      back to invoice-topic, see DeadLetterReplayService
+ */
+@Component
+@Endpoint(id = "invoicedlt")
+public class InvoiceDeadLetterEndpoint {
+
+    private static final int DEFAULT_MAX = 500;
+    private static final int LIMIT = 10_000;
+
+    private final DeadLetterReplayService deadLetterReplayService;
+
+    public InvoiceDeadLetterEndpoint(DeadLetterReplayService deadLetterReplayService) {
+        this.deadLetterReplayService = deadLetterReplayService;
+    }
+
+    /**
+     * @param max maximum number of records to replay in this call (1..10000, default 500)
+     * @return number replayed and number still waiting on the DLT
+     */
+    @WriteOperation
+    public DltReplayResultDTO replay(@Nullable Integer max) {
+        int limit = max != null ? max : DEFAULT_MAX;
+        if (limit < 1 || limit > LIMIT) {
+            throw new InvalidEndpointRequestException("max must be between 1 and " + LIMIT, "Invalid max");
+        }
+        return deadLetterReplayService.replay(limit);
+    }
+}
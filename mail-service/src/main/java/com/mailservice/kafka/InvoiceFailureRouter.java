@@ -0,0 +1,163 @@
+package com.mailservice.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * ------------------------------------------------------------
+ * COMPONENT: InvoiceFailureRouter
+ * ------------------------------------------------------------
+ * Decides where an invoice event goes after a failed mail attempt:
+ *
+ *  - invoice-topic.retry : retryable failure (SMTP down, timeout) and
+ *                          backoff tiers left; consumed by
+ *                          InvoiceRetryListener once retry-at is reached
+ *  - invoice-topic.dlt   : tiers used up, or the event can never be
+ *                          mailed (bad JSON, no order lines, bad address)
+ *
+ * Backoff tiers (mail.retry.backoff-ms): the n-th retry waits tier[n-1],
+ * so attempts = tiers + 1.
+ *
+ * Headers carried on retry / DLT records:
+ *  invoice-attempt, invoice-retry-at (epoch ms), invoice-error,
+ *  invoice-error-class, invoice-original-topic / -partition / -offset,
+ *  invoice-first-failed-at (epoch ms)
+ *
+ * Metrics: invoice.mail.retried / invoice.mail.dead.lettered
+ */
+@Component
+public class InvoiceFailureRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvoiceFailureRouter.class);
+
+    public static final String RETRY_TOPIC_NAME = InvoiceMailListener.TOPIC_NAME + ".retry";
+    public static final String DLT_TOPIC_NAME = InvoiceMailListener.TOPIC_NAME + ".dlt";
+
+    public static final String ATTEMPT_HEADER = "invoice-attempt";
+    public static final String RETRY_AT_HEADER = "invoice-retry-at";
+    public static final String ERROR_HEADER = "invoice-error";
+    public static final String ERROR_CLASS_HEADER = "invoice-error-class";
+    public static final String ORIGINAL_TOPIC_HEADER = "invoice-original-topic";
+    public static final String ORIGINAL_PARTITION_HEADER = "invoice-original-partition";
+    public static final String ORIGINAL_OFFSET_HEADER = "invoice-original-offset";
+    public static final String FIRST_FAILED_AT_HEADER = "invoice-first-failed-at";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final long[] backoffMs;
+
+    private final Counter retried;
+    private final Counter deadLettered;
+
+    public InvoiceFailureRouter(KafkaTemplate<String, String> kafkaTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${mail.retry.backoff-ms:1000,10000,60000,300000}") long[] backoffMs) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.backoffMs = backoffMs.clone();
+
+        this.retried = Counter.builder("invoice.mail.retried")
+                .description("Invoice events sent to the retry topic").register(meterRegistry);
+        this.deadLettered = Counter.builder("invoice.mail.dead.lettered")
+                .description("Invoice events moved to the dead-letter topic").register(meterRegistry);
+    }
+
+    /**
+     * Publishes a failed record to the retry topic or the dead-letter topic.
+     *
+     * @return completes once the broker stored the record; the caller must not
+     *         commit the failed record before that
+     */
+    public CompletableFuture<Void> route(ConsumerRecord<String, String> record, Throwable error) {
+        Throwable cause = unwrap(error);
+        int attempt = (int) longHeader(record.headers(), ATTEMPT_HEADER, 0) + 1;
+        boolean retry = isRetryable(cause) && attempt <= backoffMs.length;
+        String target = retry ? RETRY_TOPIC_NAME : DLT_TOPIC_NAME;
+
+        logger.warn("Invoice event {}-{}@{} not mailed (attempt {}), moving to {}: {}", record.topic(),
+                record.partition(), record.offset(), attempt, target, cause.toString());
+
+        ProducerRecord<String, String> routed = new ProducerRecord<>(target, record.key(), record.value());
+        Headers headers = routed.headers();
+        long now = System.currentTimeMillis();
+
+        // where the event came from and when it first failed stay those of the first failure
+        copyOrSet(record.headers(), headers, ORIGINAL_TOPIC_HEADER, record.topic());
+        copyOrSet(record.headers(), headers, ORIGINAL_PARTITION_HEADER, String.valueOf(record.partition()));
+        copyOrSet(record.headers(), headers, ORIGINAL_OFFSET_HEADER, String.valueOf(record.offset()));
+        copyOrSet(record.headers(), headers, FIRST_FAILED_AT_HEADER, String.valueOf(now));
+
+        put(headers, ATTEMPT_HEADER, String.valueOf(attempt));
+        put(headers, ERROR_CLASS_HEADER, cause.getClass().getName());
+        String message = String.valueOf(cause.getMessage());
+        put(headers, ERROR_HEADER, message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+        if (retry) {
+            put(headers, RETRY_AT_HEADER, String.valueOf(now + backoffMs[attempt - 1]));
+        }
+
+        return kafkaTemplate.send(routed).thenRun(retry ? retried::increment : deadLettered::increment);
+    }
+
+    /**
+     * Reads a numeric header (last value wins).
+     *
+     * @return header value, or {@code defaultValue} if absent / not a number
+     */
+    public static long longHeader(Headers headers, String name, long defaultValue) {
+        Header header = headers.lastHeader(name);
+        if (header == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(new String(header.value(), StandardCharsets.UTF_8));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    // ---------------------------------------------------------------
+
+    /** Errors that will fail the same way however often they are retried. */
+    private static boolean isRetryable(Throwable cause) {
+        return !(cause instanceof IllegalArgumentException
+                || cause instanceof MailParseException
+                || cause instanceof MailPreparationException);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        Throwable cause = error;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+
+    private static void copyOrSet(Headers from, Headers to, String name, String value) {
+        Header existing = from.lastHeader(name);
+        if (existing != null) {
+            to.add(name, existing.value());
+        } else {
+            put(to, name, value);
+        }
+    }
+
+    private static void put(Headers headers, String name, String value) {
+        headers.remove(name);
+        headers.add(name, value.getBytes(StandardCharsets.UTF_8));
+    }
+}
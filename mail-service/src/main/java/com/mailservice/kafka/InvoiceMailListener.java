@@ -1,13 +1,38 @@
 package com.mailservice.kafka;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mailservice.dto.OrderDetailDTO;
-import com.mailservice.dto.OrderDetailXrefDTO;
 import com.mailservice.service.EmailService;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.mailservice.template.InvoiceTemplateRenderer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 //Bellow commented code is just normal mail trigger not stile
 //@Component
 //public class InvoiceMailListener {
@@ -56,15 +81,30 @@ import java.math.BigDecimal;
 //    }
 //}
 
+
 /**
  * InvoiceMailListener listens to Kafka events on the "invoice-topic" and
  * sends a styled HTML invoice email to the customer when an order is placed.
  *
  * Purpose:
- * - Receive invoice details from Kafka
+ * - Receive invoice details from Kafka, a batch (max-poll-records) at a time
  * - Convert JSON invoice data to Java objects
  * - Generate a formatted HTML invoice with order items and totals
- * - Send email to customer using EmailService
+ *   (InvoiceTemplateRenderer, templates/invoice-mail.html)
+ * - Render the emails of a batch in parallel on the mailWorkerExecutor pool
+ *   and queue them on the pooled SMTP sender (EmailService / MailDispatcher)
+ * - Commit the batch offsets only once every email was sent or handed to
+ *   InvoiceFailureRouter (invoice-topic.retry / invoice-topic.dlt); if a
+ *   hand-over failed, commit up to that record and redeliver the rest after
+ *   mail.listener.redelivery-delay-ms, without mailing the records of the
+ *   rest that were already done
+ *
+ * Concurrency: one listener thread per partition (mail.listener.concurrency
+ * should equal the partition count of invoice-topic).
+ *
+ * Metrics: invoice.mail.batch.duration / batch.size / sent,
+ *          invoice.mail.processing{outcome=sent|failed} (per invoice, queued
+ *          to accepted by SMTP), invoice.mail.consumer.lag (per partition)
  *
  * Author: Ram Choudhary
  * Date: 28-Nov-2025
@@ -73,89 +113,188 @@ import java.math.BigDecimal;
 @Component
 public class InvoiceMailListener {
 
-    @Autowired
-    private EmailService emailService;
+    private static final Logger logger = LoggerFactory.getLogger(InvoiceMailListener.class);
+
+    public static final String TOPIC_NAME = "invoice-topic";
+
+    private final EmailService emailService;
     /* EmailService is used to send HTML emails to customers */
 
-    @Autowired
-    private ObjectMapper objectMapper;
+    private final ObjectMapper objectMapper;
     /* ObjectMapper is used to convert JSON strings from Kafka into Java objects */
 
+    private final InvoiceTemplateRenderer invoiceTemplateRenderer;
+    /* InvoiceTemplateRenderer fills the precompiled invoice HTML layout */
+
+    private final InvoiceFailureRouter invoiceFailureRouter;
+    /* InvoiceFailureRouter sends invoices that could not be mailed to the retry or dead-letter topic */
+
+    private final Executor mailWorkerExecutor;
+
+    private final Duration redeliveryDelay;
+
+    /* Records after the failed one of a nacked batch that were already mailed or handed over,
+       as topic-partition@offset; skipped (and removed) when the batch is delivered again */
+    private final Set<String> doneBeforeRedelivery = ConcurrentHashMap.newKeySet();
+
+    private final Timer batchDuration;
+    private final Timer processingSent;
+    private final Timer processingFailed;
+    private final DistributionSummary batchSize;
+    private final Counter sent;
+    private final MeterRegistry meterRegistry;
+    private final Map<TopicPartition, AtomicLong> lagByPartition = new ConcurrentHashMap<>();
+
+    public InvoiceMailListener(EmailService emailService,
+                               ObjectMapper objectMapper,
+                               InvoiceTemplateRenderer invoiceTemplateRenderer,
+                               InvoiceFailureRouter invoiceFailureRouter,
+                               @Qualifier("mailWorkerExecutor") Executor mailWorkerExecutor,
+                               MeterRegistry meterRegistry,
+                               @Value("${mail.listener.redelivery-delay-ms:5000}") long redeliveryDelayMs) {
+        this.emailService = emailService;
+        this.objectMapper = objectMapper;
+        this.invoiceTemplateRenderer = invoiceTemplateRenderer;
+        this.invoiceFailureRouter = invoiceFailureRouter;
+        this.mailWorkerExecutor = mailWorkerExecutor;
+        this.meterRegistry = meterRegistry;
+        this.redeliveryDelay = Duration.ofMillis(redeliveryDelayMs);
+
+        this.batchDuration = Timer.builder("invoice.mail.batch.duration")
+                .description("Time to mail (or hand over to retry) one polled batch")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.processingSent = Timer.builder("invoice.mail.processing").tag("outcome", "sent")
+                .description("Time from handing one invoice to a worker until its email was sent or failed")
+                .register(meterRegistry);
+        this.processingFailed = Timer.builder("invoice.mail.processing").tag("outcome", "failed")
+                .description("Time from handing one invoice to a worker until its email was sent or failed")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("invoice.mail.batch.size")
+                .description("Invoice events per polled batch").register(meterRegistry);
+        this.sent = Counter.builder("invoice.mail.sent")
+                .description("Invoice emails sent").register(meterRegistry);
+    }
+
     /**
      * Listens to the Kafka topic "invoice-topic" for new invoice events.
      *
-     * @param invoiceJson JSON string representing the invoice data
+     * @param records        invoice events of one poll (JSON values)
+     * @param acknowledgment commits (or nacks) the offsets of this batch
+     * @param consumer       listener consumer, used to read the current lag
+     *
+     * Steps:
+     * 1. Hand every record to the worker pool (parse, build HTML, send)
+     * 2. Records that fail go to invoice-topic.retry (or .dlt), so one bad
+     *    invoice or an SMTP outage never holds up this partition
+     * 3. Wait until every record was mailed or handed over
+     * 4. Commit the offsets of the batch
+     * If a retry / dead-letter publish fails, only the records before it are
+     * committed (nack): the failed record and the ones after it are delivered
+     * again after the redelivery delay. Those after it that were already done
+     * are remembered and skipped then, so no customer gets a second email.
+     */
+    @KafkaListener(topics = TOPIC_NAME, groupId = "email_group", batch = "true",
+            concurrency = "${mail.listener.concurrency:3}")
+    public void listenInvoiceEvents(List<ConsumerRecord<String, String>> records,
+                                    Acknowledgment acknowledgment,
+                                    Consumer<?, ?> consumer) {
+        long start = System.nanoTime();
+
+        List<CompletableFuture<Void>> results = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, String> record : records) {
+            if (doneBeforeRedelivery.remove(position(record))) {
+                results.add(CompletableFuture.completedFuture(null));
+                continue;
+            }
+            long queued = System.nanoTime();
+            results.add(CompletableFuture
+                    .supplyAsync(() -> sendInvoiceMail(record.value()), mailWorkerExecutor)
+                    .thenCompose(mailSent -> mailSent)
+                    .whenComplete((ignored, error) -> (error == null ? processingSent : processingFailed)
+                            .record(System.nanoTime() - queued, TimeUnit.NANOSECONDS))
+                    .thenRun(sent::increment)
+                    .exceptionallyCompose(error -> invoiceFailureRouter.route(record, error)));
+        }
+
+        int firstFailed = -1;
+        for (int i = 0; i < results.size(); i++) {
+            try {
+                results.get(i).join();
+                if (firstFailed >= 0) {
+                    doneBeforeRedelivery.add(position(records.get(i)));
+                }
+            } catch (CompletionException e) {
+                if (firstFailed < 0) {
+                    firstFailed = i;
+                    logger.error("Invoice event {} could not be handed over, redelivering from it in {} ms",
+                            position(records.get(i)), redeliveryDelay.toMillis(), e.getCause());
+                }
+            }
+        }
+
+        if (firstFailed < 0) {
+            acknowledgment.acknowledge();
+        } else {
+            // commits the records before firstFailed, seeks back to it and pauses for the delay
+            acknowledgment.nack(firstFailed, redeliveryDelay);
+        }
+
+        batchSize.record(records.size());
+        batchDuration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        recordLag(records, consumer);
+    }
+
+    /**
+     * Builds the invoice email for one event and queues it for sending.
+     *
+     * @return completes once the SMTP server accepted the email
      *
      * Steps:
      * 1. Deserialize the JSON into OrderDetailDTO object
-     * 2. Calculate totals for the order
-     * 3. Build a styled HTML table with all order items
-     * 4. Compose email body with order info and totals
-     * 5. Send HTML email to the customer
+     * 2. Render the HTML body (totals, escaped item table) from the invoice template
+     * 3. Send HTML email to the customer
      */
-    @KafkaListener(topics = "invoice-topic", groupId = "email_group")
-    public void listenInvoiceEvent(String invoiceJson) {
+    CompletableFuture<Void> sendInvoiceMail(String invoiceJson) {
         try {
             // Convert JSON string to OrderDetailDTO object
             OrderDetailDTO invoice = objectMapper.readValue(invoiceJson, OrderDetailDTO.class);
 
-            BigDecimal subTotal = BigDecimal.ZERO; // Initialize subtotal
-
-            // Build HTML table for order items
-            StringBuilder table = new StringBuilder();
-            table.append("<table style='width:100%; border-collapse: collapse;'>");
-
-            // Table header row with light gray background
-            table.append("<tr style='background-color:#f8f8f8;'>")
-                    .append("<th style='border: 1px solid #ddd; padding: 8px;'>Item Name</th>")
-                    .append("<th style='border: 1px solid #ddd; padding: 8px;'>Quantity</th>")
-                    .append("<th style='border: 1px solid #ddd; padding: 8px;'>Price</th>")
-                    .append("<th style='border: 1px solid #ddd; padding: 8px;'>Total</th>")
-                    .append("</tr>");
-
-            // Loop through each item in the order
-            for (OrderDetailXrefDTO item : invoice.getOrderDetailXrefList()) {
-                BigDecimal quantity = item.getQuantity(); // Quantity of the item
-                BigDecimal total = item.getSellingPrice().multiply(quantity); // Total price for this item
-                subTotal = subTotal.add(total); // Add to subtotal
-
-                // Append HTML table row for this item
-                table.append("<tr>")
-                        .append("<td style='border: 1px solid #ddd; padding: 8px;'>").append(item.getRecipeName()).append("</td>")
-                        .append("<td style='border: 1px solid #ddd; padding: 8px; text-align:center;'>").append(quantity.toPlainString()).append("</td>")
-                        .append("<td style='border: 1px solid #ddd; padding: 8px; text-align:right;'>").append(item.getSellingPrice().toPlainString()).append("</td>")
-                        .append("<td style='border: 1px solid #ddd; padding: 8px; text-align:right;'>").append(total.toPlainString()).append("</td>")
-                        .append("</tr>");
-            }
-
-            table.append("</table>"); // Close the HTML table
-
-            // Build full email body with HTML formatting
-            String emailBody = "<p>Dear " + invoice.getCustomerName() + ",</p>" +
-                    "<p>Your invoice has been successfully generated. Below are the details:</p>" +
-                    "<h3>Order Information</h3>" +
-                    "<p>Order Number: " + invoice.getOrderNo() + "<br>" +
-                    "Order Date: " + invoice.getOrderDate() + "<br>" +
-                    "Payment Mode: " + invoice.getPaymentMode() + "</p>" +
-                    "<h3>Order Items</h3>" +
-                    table.toString() +
-                    "<p><b>Sub Total:</b> " + subTotal.toPlainString() + "<br>" +
-                    "<b>Discount:</b> " + invoice.getDiscount().toPlainString() + "<br>" +
-                    "<b>Tax Amount:</b> " + invoice.getTaxAmount().toPlainString() + "<br>" +
-                    "<b>Grand Total:</b> " + invoice.getGrandTotal().toPlainString() + "</p>" +
-                    "<p>Thank you for your order!<br>Regards,<br>Your Restaurant</p>";
-
-            // Send HTML email using EmailService
-            emailService.sendEmail(
+            // Queue HTML email using EmailService (sent over a pooled SMTP session)
+            return emailService.sendEmailAsync(
                     invoice.getCustomerEmail(),
                     "Invoice Generated – " + invoice.getOrderNo(),
-                    emailBody
+                    invoiceTemplateRenderer.render(invoice)
             );
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid invoice event: " + e.getMessage(), e);
+        }
+    }
+
+    private static String position(ConsumerRecord<String, String> record) {
+        return record.topic() + "-" + record.partition() + "@" + record.offset();
+    }
 
-        } catch (Exception e) {
-            // Print stack trace for debugging if something goes wrong
-            e.printStackTrace();
+    /** Records how far each partition of this batch is behind the end of the log. */
+    private void recordLag(List<ConsumerRecord<String, String>> records, Consumer<?, ?> consumer) {
+        Set<TopicPartition> partitions = new HashSet<>();
+        for (ConsumerRecord<String, String> record : records) {
+            partitions.add(new TopicPartition(record.topic(), record.partition()));
+        }
+        for (TopicPartition partition : partitions) {
+            // currentLag uses the fetch position / end offset the consumer already knows (no broker call)
+            consumer.currentLag(partition).ifPresent(lag -> lagGauge(partition).set(lag));
         }
     }
-}
 
+    private AtomicLong lagGauge(TopicPartition partition) {
+        return lagByPartition.computeIfAbsent(partition, tp -> {
+            AtomicLong lag = new AtomicLong();
+            Gauge.builder("invoice.mail.consumer.lag", lag, AtomicLong::get)
+                    .description("Invoice events not yet consumed")
+                    .tag("partition", String.valueOf(tp.partition()))
+                    .register(meterRegistry);
+            return lag;
+        });
+    }
+}
@@ -0,0 +1,64 @@
+package com.mailservice.kafka;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * ------------------------------------------------------------
+ * LISTENER: InvoiceRetryListener
+ * ------------------------------------------------------------
+ * Consumes invoice-topic.retry with its own consumer group, so failed
+ * invoices are retried without holding up the main invoice-topic
+ * listener (healthy invoices keep flowing during an SMTP outage).
+ *
+ * For each record:
+ *  1️⃣ Not due yet (invoice-retry-at in the future): nack with the
+ *     remaining delay; the container pauses the partition and seeks
+ *     back, nothing sleeps on the consumer thread
+ *  2️⃣ Due: mail it the same way as InvoiceMailListener
+ *  3️⃣ Fails again: InvoiceFailureRouter sends it to the next backoff
+ *     tier or to invoice-topic.dlt
+ *  4️⃣ Commit the offset
+ */
+@Component
+public class InvoiceRetryListener {
+
+    private final InvoiceMailListener invoiceMailListener;
+    private final InvoiceFailureRouter invoiceFailureRouter;
+    private final Counter sent;
+
+    public InvoiceRetryListener(InvoiceMailListener invoiceMailListener,
+                                InvoiceFailureRouter invoiceFailureRouter,
+                                MeterRegistry meterRegistry) {
+        this.invoiceMailListener = invoiceMailListener;
+        this.invoiceFailureRouter = invoiceFailureRouter;
+        this.sent = Counter.builder("invoice.mail.sent")
+                .description("Invoice emails sent").register(meterRegistry);
+    }
+
+    @KafkaListener(topics = InvoiceFailureRouter.RETRY_TOPIC_NAME, groupId = "email_retry_group",
+            concurrency = "${mail.retry.concurrency:1}")
+    public void listenRetryEvent(ConsumerRecord<String, String> record, Acknowledgment acknowledgment) {
+        long retryAt = InvoiceFailureRouter.longHeader(record.headers(), InvoiceFailureRouter.RETRY_AT_HEADER, 0);
+        long waitMs = retryAt - System.currentTimeMillis();
+        if (waitMs > 0) {
+            acknowledgment.nack(Duration.ofMillis(waitMs));
+            return;
+        }
+
+        try {
+            invoiceMailListener.sendInvoiceMail(record.value()).join();
+            sent.increment();
+        } catch (RuntimeException e) {
+            // if this publish fails the exception propagates and the record is delivered again
+            invoiceFailureRouter.route(record, e).join();
+        }
+        acknowledgment.acknowledge();
+    }
+}
@@ -0,0 +1,138 @@
+package com.mailservice.service;
+
+import com.mailservice.dto.DltReplayResultDTO;
+import com.mailservice.kafka.InvoiceFailureRouter;
+import com.mailservice.kafka.InvoiceMailListener;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * ------------------------------------------------------------
+ * SERVICE: DeadLetterReplayService
+ * ------------------------------------------------------------
+ * Moves records from invoice-topic.dlt back to invoice-topic, e.g. after
+ * an SMTP outage longer than the retry tiers or a template fix.
+ *
+ * Progress is kept as committed offsets of the email_dlt_replay group:
+ *  1️⃣ Read up to maxRecords from the committed position, but never past
+ *     the end offsets seen at the start (no chasing new dead letters)
+ *  2️⃣ Publish them to invoice-topic with a fresh attempt count
+ *  3️⃣ Wait for the broker acks, then commit the replayed offsets
+ * A failure before the commit replays the same records again next call.
+ */
+@Service
+public class DeadLetterReplayService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeadLetterReplayService.class);
+
+    public static final String REPLAY_GROUP = "email_dlt_replay";
+    public static final String REPLAYED_AT_HEADER = "invoice-replayed-at";
+
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    private static final int MAX_EMPTY_POLLS = 10;
+
+    private final ConsumerFactory<String, String> consumerFactory;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+
+    public DeadLetterReplayService(ConsumerFactory<String, String> consumerFactory,
+                                   KafkaTemplate<String, String> kafkaTemplate) {
+        this.consumerFactory = consumerFactory;
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    /**
+     * Replays dead-lettered invoices to invoice-topic.
+     *
+     * @param maxRecords upper bound for this call
+     * @return records replayed and dead letters still waiting
+     */
+    public synchronized DltReplayResultDTO replay(int maxRecords) {
+        try (Consumer<String, String> consumer = consumerFactory.createConsumer(REPLAY_GROUP, "dlt-replay")) {
+            List<TopicPartition> partitions = new ArrayList<>();
+            for (PartitionInfo info : consumer.partitionsFor(InvoiceFailureRouter.DLT_TOPIC_NAME)) {
+                partitions.add(new TopicPartition(info.topic(), info.partition()));
+            }
+            // assign (not subscribe): no group rebalance, positions come from the committed offsets
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+            List<CompletableFuture<?>> acks = new ArrayList<>();
+            Map<TopicPartition, OffsetAndMetadata> replayedUpTo = new HashMap<>();
+            int emptyPolls = 0;
+
+            while (acks.size() < maxRecords && !caughtUp(consumer, endOffsets) && emptyPolls < MAX_EMPTY_POLLS) {
+                ConsumerRecords<String, String> records = consumer.poll(POLL_TIMEOUT);
+                emptyPolls = records.isEmpty() ? emptyPolls + 1 : 0;
+
+                for (ConsumerRecord<String, String> record : records) {
+                    TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+                    if (acks.size() >= maxRecords || record.offset() >= endOffsets.get(partition)) {
+                        continue;
+                    }
+                    acks.add(kafkaTemplate.send(toInvoiceTopic(record)));
+                    replayedUpTo.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                }
+            }
+
+            CompletableFuture.allOf(acks.toArray(new CompletableFuture[0])).join();
+            if (!replayedUpTo.isEmpty()) {
+                consumer.commitSync(replayedUpTo);
+            }
+
+            long remaining = 0;
+            Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(new HashSet<>(partitions));
+            for (TopicPartition partition : partitions) {
+                OffsetAndMetadata offset = committed.get(partition);
+                remaining += endOffsets.get(partition) - (offset == null ? 0 : offset.offset());
+            }
+
+            logger.info("Replayed {} dead-lettered invoices, {} left", acks.size(), remaining);
+            return new DltReplayResultDTO(acks.size(), remaining);
+        }
+    }
+
+    // ---------------------------------------------------------------
+
+    private static boolean caughtUp(Consumer<String, String> consumer, Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ProducerRecord<String, String> toInvoiceTopic(ConsumerRecord<String, String> record) {
+        ProducerRecord<String, String> replay =
+                new ProducerRecord<>(InvoiceMailListener.TOPIC_NAME, record.key(), record.value());
+        // failure history stays for diagnosis; the attempt count starts again
+        record.headers().forEach(header -> {
+            if (!header.key().equals(InvoiceFailureRouter.ATTEMPT_HEADER)
+                    && !header.key().equals(InvoiceFailureRouter.RETRY_AT_HEADER)) {
+                replay.headers().add(header);
+            }
+        });
+        replay.headers().add(REPLAYED_AT_HEADER,
+                String.valueOf(System.currentTimeMillis()).getBytes(StandardCharsets.UTF_8));
+        return replay;
+    }
+}
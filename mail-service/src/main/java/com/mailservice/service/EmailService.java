@@ -1,11 +1,18 @@
 package com.mailservice.service;
 
+import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailPreparationException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 //Comment the code bec. it work but not support mail html style
 //@Service
 //public class EmailService {
@@ -54,26 +61,53 @@ import org.springframework.stereotype.Service;
 @Service
 public class EmailService {
 
+    private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
+
     @Autowired
     private JavaMailSender mailSender;
-    /* JavaMailSender is automatically provided by Spring Boot.
-       It handles the underlying SMTP communication to send emails. */
+    /* JavaMailSender is provided by MailSenderConfig (pooled SMTP sessions).
+       It is used here to create MIME messages. */
+
+    @Autowired
+    private MailDispatcher mailDispatcher;
+    /* MailDispatcher queues messages and sends them in batches over the open sessions */
 
     /**
-     * Sends an HTML email to the specified recipient.
+     * Sends an HTML email to the specified recipient and waits until
+     * the SMTP server accepted it.
      *
      * @param to       Recipient email address
      * @param subject  Subject of the email
      * @param htmlBody HTML content of the email, can include <p>, <table>, <b> etc.
      *
+     * @throws org.springframework.mail.MailException if the email could not be built or sent
+     */
+    public void sendEmail(String to, String subject, String htmlBody) {
+        try {
+            sendEmailAsync(to, subject, htmlBody).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Queues an HTML email for the recipient.
+     *
      * This method uses MimeMessage to allow HTML rendering in the email client.
      * The second parameter in helper.setText(htmlBody, true) is set to true
      * to indicate that the content is HTML.
+     *
+     * @return completes when the SMTP server accepted the email, or
+     *         exceptionally with the MailException that stopped it
      */
-    public void sendEmail(String to, String subject, String htmlBody) {
+    public CompletableFuture<Void> sendEmailAsync(String to, String subject, String htmlBody) {
+        MimeMessage message;
         try {
             // Create a MIME message object
-            MimeMessage message = mailSender.createMimeMessage();
+            message = mailSender.createMimeMessage();
 
             // MimeMessageHelper helps set the details of the message
             // 'true' parameter indicates multipart message (supports attachments if needed)
@@ -89,15 +123,13 @@ public class EmailService {
             // Set email content as HTML
             helper.setText(htmlBody, true); // true = HTML content
 
-            // Send the email using JavaMailSender
-            mailSender.send(message);
-
-            System.out.println("HTML Email sent to: " + to);
-
-        } catch (Exception e) {
-            // Print stack trace in case of failure
-            e.printStackTrace();
+        } catch (MessagingException e) {
+            // Let the caller decide (InvoiceMailListener dead-letters the invoice)
+            return CompletableFuture.failedFuture(new MailPreparationException("Could not build email for " + to, e));
         }
+
+        // Queue the email; it goes out with the next batch on a pooled SMTP session
+        return mailDispatcher.submit(message)
+                .thenRun(() -> logger.debug("HTML Email sent to: {}", to));
     }
 }
-
@@ -0,0 +1,145 @@
+package com.mailservice.service;
+
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ------------------------------------------------------------
+ * COMPONENT: MailDispatcher
+ * ------------------------------------------------------------
+ * Queue in front of the SMTP sender. Callers submit a ready MimeMessage
+ * and get a future; one dispatcher thread per SMTP connection drains up
+ * to batch-size queued messages and hands them to
+ * JavaMailSender.send(MimeMessage...) in one call, so a burst of invoices
+ * is pipelined through a few open sessions.
+ *
+ * The queue is bounded (queue-capacity): submit blocks when it is full.
+ */
+public class MailDispatcher implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(MailDispatcher.class);
+
+    private final JavaMailSender mailSender;
+    private final int batchSize;
+    private final BlockingQueue<PendingMail> queue;
+    private final List<Thread> dispatchers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public MailDispatcher(JavaMailSender mailSender, int threads, int batchSize, int queueCapacity) {
+        this.mailSender = mailSender;
+        this.batchSize = Math.max(1, batchSize);
+        this.queue = new LinkedBlockingQueue<>(Math.max(1, queueCapacity));
+
+        for (int i = 0; i < Math.max(1, threads); i++) {
+            Thread thread = new Thread(this::dispatchLoop, "mail-dispatcher-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            dispatchers.add(thread);
+        }
+    }
+
+    /**
+     * Queues a message for sending.
+     *
+     * @return completes when the SMTP server accepted the message,
+     *         or exceptionally with the MailException that rejected it
+     */
+    public CompletableFuture<Void> submit(MimeMessage message) {
+        PendingMail pending = new PendingMail(message);
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.result.completeExceptionally(new MailSendException("Interrupted while queueing email", e));
+        }
+        return pending.result;
+    }
+
+    /** Messages waiting for a connection. */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        for (Thread thread : dispatchers) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        PendingMail left;
+        while ((left = queue.poll()) != null) {
+            left.result.completeExceptionally(new MailSendException("Mail dispatcher stopped"));
+        }
+    }
+
+    // ---------------------------------------------------------------
+
+    private void dispatchLoop() {
+        List<PendingMail> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingMail first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                send(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void send(List<PendingMail> batch) {
+        MimeMessage[] messages = new MimeMessage[batch.size()];
+        for (int i = 0; i < messages.length; i++) {
+            messages[i] = batch.get(i).message;
+        }
+
+        try {
+            mailSender.send(messages);
+            batch.forEach(pending -> pending.result.complete(null));
+        } catch (MailSendException e) {
+            // only the messages listed as failed were rejected
+            Map<Object, Exception> failed = e.getFailedMessages();
+            for (PendingMail pending : batch) {
+                Exception error = failed.get(pending.message);
+                if (error == null && failed.isEmpty()) {
+                    pending.result.completeExceptionally(e);
+                } else if (error == null) {
+                    pending.result.complete(null);
+                } else {
+                    pending.result.completeExceptionally(new MailSendException("Failed to send email", error));
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Sending a batch of {} emails failed: {}", batch.size(), e.getMessage());
+            batch.forEach(pending -> pending.result.completeExceptionally(e));
+        }
+    }
+
+    private static final class PendingMail {
+        private final MimeMessage message;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private PendingMail(MimeMessage message) {
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.mailservice.service;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ------------------------------------------------------------
+ * SENDER: PooledJavaMailSender
+ * ------------------------------------------------------------
+ * JavaMailSender that keeps authenticated SMTP sessions open between
+ * sends instead of connecting (TCP + STARTTLS + AUTH) for every call.
+ *
+ * - max-connections              : sessions in use at the same time
+ * - max-messages-per-connection  : a session is closed after this many
+ *                                  messages (servers limit it, e.g. Gmail)
+ * - idle-timeout-ms              : idle sessions are closed by a sweeper
+ *                                  before the server drops them
+ *
+ * send(MimeMessage...) pushes all given messages through one session.
+ * A session that fails with anything other than rejected recipients is
+ * thrown away and the rest of the batch goes through a new one; a message
+ * that failed on a reused (possibly server-closed) session is retried once.
+ * Liveness is not probed with NOOP, which would cost a round trip per send.
+ */
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(PooledJavaMailSender.class);
+
+    private final int maxMessagesPerConnection;
+    private final long idleTimeoutMs;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final ScheduledExecutorService sweeper;
+    private final AtomicLong opened = new AtomicLong();
+
+    public PooledJavaMailSender(int maxConnections, int maxMessagesPerConnection, long idleTimeoutMs) {
+        this.permits = new Semaphore(Math.max(1, maxConnections), true);
+        this.maxMessagesPerConnection = Math.max(1, maxMessagesPerConnection);
+        this.idleTimeoutMs = idleTimeoutMs;
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "smtp-pool-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepMs = Math.max(10, idleTimeoutMs / 2);
+        sweeper.scheduleWithFixedDelay(this::evictIdle, sweepMs, sweepMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** SMTP sessions opened since start. */
+    public long getOpenedConnections() {
+        return opened.get();
+    }
+
+    /** SMTP sessions currently connected and waiting for work. */
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        acquirePermit();
+        PooledTransport pooled = null;
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                Object original = (originalMessages != null ? originalMessages[i] : mimeMessages[i]);
+                try {
+                    if (pooled == null) {
+                        pooled = borrow();
+                    }
+                    try {
+                        sendMessage(pooled, mimeMessages[i]);
+                    } catch (MessagingException e) {
+                        if (e instanceof SendFailedException || !pooled.reused) {
+                            throw e;
+                        }
+                        // an idle session may have been dropped by the server: retry once on a new one
+                        close(pooled);
+                        pooled = open();
+                        sendMessage(pooled, mimeMessages[i]);
+                    }
+                } catch (SendFailedException e) {
+                    // recipients rejected, the session itself is still fine
+                    failedMessages.put(original, e);
+                } catch (MessagingException | MailException e) {
+                    failedMessages.put(original, e);
+                    if (pooled != null) {
+                        close(pooled);
+                        pooled = null;
+                    }
+                }
+                if (pooled != null && pooled.sent >= maxMessagesPerConnection) {
+                    // message cap reached, the next message gets a fresh session
+                    close(pooled);
+                    pooled = null;
+                }
+            }
+        } finally {
+            release(pooled);
+        }
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        sweeper.shutdownNow();
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            close(pooled);
+        }
+    }
+
+    // ---------------------------------------------------------------
+
+    private void sendMessage(PooledTransport pooled, MimeMessage message) throws MessagingException {
+        // same preparation as JavaMailSenderImpl.doSend
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            message.setHeader("Message-ID", messageId);
+        }
+        Address[] addresses = message.getAllRecipients();
+        pooled.transport.sendMessage(message, (addresses != null ? addresses : new Address[0]));
+        pooled.sent++;
+    }
+
+    private PooledTransport borrow() {
+        PooledTransport pooled;
+        long now = System.currentTimeMillis();
+        // most recently used first, so the tail of the deque is what idles out
+        while ((pooled = idle.pollFirst()) != null) {
+            if (now - pooled.lastUsed < idleTimeoutMs) {
+                pooled.reused = true;
+                return pooled;
+            }
+            close(pooled);
+        }
+        return open();
+    }
+
+    private PooledTransport open() {
+        try {
+            Transport transport = connectTransport();
+            opened.incrementAndGet();
+            return new PooledTransport(transport);
+        } catch (AuthenticationFailedException e) {
+            throw new MailAuthenticationException(e);
+        } catch (MessagingException e) {
+            throw new MailSendException("Mail server connection failed", e);
+        }
+    }
+
+    private void release(PooledTransport pooled) {
+        try {
+            if (pooled != null) {
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        for (PooledTransport pooled : idle) {
+            if (now - pooled.lastUsed >= idleTimeoutMs && idle.remove(pooled)) {
+                close(pooled);
+            }
+        }
+    }
+
+    private void acquirePermit() {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for an SMTP connection", e);
+        }
+    }
+
+    private static void close(PooledTransport pooled) {
+        try {
+            pooled.transport.close();
+        } catch (MessagingException e) {
+            logger.debug("Error closing SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    /** One open SMTP session. Only touched by the thread holding its permit. */
+    private static final class PooledTransport {
+        private final Transport transport;
+        private int sent;
+        private long lastUsed;
+        private boolean reused;
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.mailservice.template;
+
+import com.mailservice.dto.OrderDetailDTO;
+import com.mailservice.dto.OrderDetailXrefDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ------------------------------------------------------------
+ * COMPONENT: InvoiceTemplateRenderer
+ * ------------------------------------------------------------
+ * Renders the invoice email body from templates/invoice-mail.html.
+ *
+ * The layout is parsed once at startup into three part lists
+ * (header, item row, footer). Each part is either a static UTF-8 byte
+ * segment or a slot. Rendering only copies those bytes and writes the
+ * HTML-escaped slot values into a per-thread buffer that is reused
+ * across invoices, so the only per-invoice allocation of note is the
+ * final String.
+ *
+ * Template syntax:
+ *  - ${slot}                      : escaped value (see Slot)
+ *  - <!--items--> .. <!--/items--> : repeated for every order line
+ *  - any other <!-- comment -->   : dropped at parse time
+ */
+@Component
+public class InvoiceTemplateRenderer {
+
+    private static final String ITEMS_START = "<!--items-->";
+    private static final String ITEMS_END = "<!--/items-->";
+    private static final Pattern COMMENT = Pattern.compile("<!--(?!/?items-->).*?-->\\s*", Pattern.DOTALL);
+    private static final Pattern SLOT = Pattern.compile("\\$\\{(\\w+)}");
+
+    /** Buffers bigger than this are not kept by the thread after a render. */
+    private static final int MAX_RETAINED_BUFFER = 1 << 20;
+
+    private static final ThreadLocal<ByteBuffer> BUFFER = ThreadLocal.withInitial(() -> new ByteBuffer(8192));
+
+    /** Values a template can refer to. */
+    enum Slot {
+        CUSTOMER_NAME("customerName", false),
+        ORDER_NO("orderNo", false),
+        ORDER_DATE("orderDate", false),
+        PAYMENT_MODE("paymentMode", false),
+        SUB_TOTAL("subTotal", false),
+        DISCOUNT("discount", false),
+        TAX_AMOUNT("taxAmount", false),
+        GRAND_TOTAL("grandTotal", false),
+        ITEM_NAME("itemName", true),
+        QUANTITY("quantity", true),
+        PRICE("price", true),
+        TOTAL("total", true);
+
+        private final String key;
+        private final boolean itemSlot;
+
+        Slot(String key, boolean itemSlot) {
+            this.key = key;
+            this.itemSlot = itemSlot;
+        }
+
+        static Slot of(String key) {
+            for (Slot slot : values()) {
+                if (slot.key.equals(key)) {
+                    return slot;
+                }
+            }
+            throw new IllegalStateException("Unknown invoice template slot: ${" + key + "}");
+        }
+    }
+
+    /** Either a static segment (text != null) or a slot. */
+    private record Part(byte[] text, Slot slot) {
+    }
+
+    private final Part[] header;
+    private final Part[] row;
+    private final Part[] footer;
+
+    @Autowired
+    public InvoiceTemplateRenderer(
+            @Value("${mail.invoice.template:classpath:templates/invoice-mail.html}") Resource template) throws IOException {
+        this(read(template));
+    }
+
+    public InvoiceTemplateRenderer(String template) {
+        String source = COMMENT.matcher(template).replaceAll("");
+        int start = source.indexOf(ITEMS_START);
+        int end = source.indexOf(ITEMS_END);
+        if (start < 0 || end < start) {
+            throw new IllegalStateException("Invoice template needs an " + ITEMS_START + " .. " + ITEMS_END + " block");
+        }
+        this.header = parse(source.substring(0, start), false);
+        this.row = parse(source.substring(start + ITEMS_START.length(), end).strip(), true);
+        this.footer = parse(source.substring(end + ITEMS_END.length()), false);
+    }
+
+    /**
+     * Renders the invoice email body.
+     *
+     * @param invoice order with its lines (recipe name, quantity, selling price)
+     * @return HTML body
+     * @throws IllegalArgumentException if the invoice has no order lines
+     */
+    public String render(OrderDetailDTO invoice) {
+        List<OrderDetailXrefDTO> items = invoice.getOrderDetailXrefList();
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Invoice " + invoice.getOrderNo() + " has no order lines");
+        }
+
+        // line totals first: subTotal may be used anywhere in the layout
+        BigDecimal[] lineTotals = new BigDecimal[items.size()];
+        BigDecimal subTotal = BigDecimal.ZERO;
+        for (int i = 0; i < lineTotals.length; i++) {
+            OrderDetailXrefDTO item = items.get(i);
+            lineTotals[i] = item.getSellingPrice().multiply(item.getQuantity());
+            subTotal = subTotal.add(lineTotals[i]);
+        }
+
+        ByteBuffer out = BUFFER.get();
+        out.reset();
+        write(out, header, invoice, null, null, subTotal);
+        for (int i = 0; i < lineTotals.length; i++) {
+            write(out, row, invoice, items.get(i), lineTotals[i], subTotal);
+        }
+        write(out, footer, invoice, null, null, subTotal);
+
+        String html = out.toUtf8String();
+        if (out.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+        return html;
+    }
+
+    // ---------------------------------------------------------------
+
+    private static void write(ByteBuffer out, Part[] parts, OrderDetailDTO invoice,
+                              OrderDetailXrefDTO item, BigDecimal lineTotal, BigDecimal subTotal) {
+        for (Part part : parts) {
+            if (part.text != null) {
+                out.write(part.text);
+                continue;
+            }
+            switch (part.slot) {
+                case CUSTOMER_NAME -> out.writeEscaped(invoice.getCustomerName());
+                case ORDER_NO -> out.writeEscaped(invoice.getOrderNo());
+                case ORDER_DATE -> out.writeEscaped(invoice.getOrderDate() == null ? null : invoice.getOrderDate().toString());
+                case PAYMENT_MODE -> out.writeEscaped(invoice.getPaymentMode());
+                case SUB_TOTAL -> out.writeAmount(subTotal);
+                case DISCOUNT -> out.writeAmount(invoice.getDiscount());
+                case TAX_AMOUNT -> out.writeAmount(invoice.getTaxAmount());
+                case GRAND_TOTAL -> out.writeAmount(invoice.getGrandTotal());
+                case ITEM_NAME -> out.writeEscaped(item.getRecipeName());
+                case QUANTITY -> out.writeAmount(item.getQuantity());
+                case PRICE -> out.writeAmount(item.getSellingPrice());
+                case TOTAL -> out.writeAmount(lineTotal);
+            }
+        }
+    }
+
+    private static Part[] parse(String section, boolean itemSection) {
+        List<Part> parts = new ArrayList<>();
+        Matcher matcher = SLOT.matcher(section);
+        int last = 0;
+        while (matcher.find()) {
+            if (matcher.start() > last) {
+                parts.add(new Part(section.substring(last, matcher.start()).getBytes(StandardCharsets.UTF_8), null));
+            }
+            Slot slot = Slot.of(matcher.group(1));
+            if (slot.itemSlot && !itemSection) {
+                throw new IllegalStateException("${" + slot.key + "} can only be used inside the items block");
+            }
+            parts.add(new Part(null, slot));
+            last = matcher.end();
+        }
+        if (last < section.length()) {
+            parts.add(new Part(section.substring(last).getBytes(StandardCharsets.UTF_8), null));
+        }
+        return parts.toArray(new Part[0]);
+    }
+
+    private static String read(Resource template) throws IOException {
+        try (InputStream in = template.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /** Growable UTF-8 byte buffer with HTML escaping. Owned by one thread. */
+    static final class ByteBuffer {
+
+        private byte[] bytes;
+        private int length;
+
+        ByteBuffer(int initialCapacity) {
+            this.bytes = new byte[initialCapacity];
+        }
+
+        void reset() {
+            length = 0;
+        }
+
+        int capacity() {
+            return bytes.length;
+        }
+
+        void write(byte[] segment) {
+            ensure(segment.length);
+            System.arraycopy(segment, 0, bytes, length, segment.length);
+            length += segment.length;
+        }
+
+        void writeAmount(BigDecimal amount) {
+            // digits, sign and dot only: no escaping needed
+            writeAscii(amount == null ? "0" : amount.toPlainString());
+        }
+
+        void writeAscii(String value) {
+            ensure(value.length());
+            for (int i = 0; i < value.length(); i++) {
+                bytes[length++] = (byte) value.charAt(i);
+            }
+        }
+
+        void writeEscaped(String value) {
+            if (value == null) {
+                return;
+            }
+            // worst case: 6 bytes per char ("&quot;"), 4 bytes per surrogate pair
+            ensure(value.length() * 6);
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '&' -> ascii("&amp;");
+                    case '<' -> ascii("&lt;");
+                    case '>' -> ascii("&gt;");
+                    case '"' -> ascii("&quot;");
+                    case '\'' -> ascii("&#39;");
+                    default -> {
+                        if (c < 0x80) {
+                            bytes[length++] = (byte) c;
+                        } else if (c < 0x800) {
+                            bytes[length++] = (byte) (0xC0 | (c >> 6));
+                            bytes[length++] = (byte) (0x80 | (c & 0x3F));
+                        } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                                && Character.isLowSurrogate(value.charAt(i + 1))) {
+                            int cp = Character.toCodePoint(c, value.charAt(++i));
+                            bytes[length++] = (byte) (0xF0 | (cp >> 18));
+                            bytes[length++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                            bytes[length++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                            bytes[length++] = (byte) (0x80 | (cp & 0x3F));
+                        } else if (Character.isSurrogate(c)) {
+                            bytes[length++] = '?';  // lone surrogate, same as String.getBytes(UTF_8)
+                        } else {
+                            bytes[length++] = (byte) (0xE0 | (c >> 12));
+                            bytes[length++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                            bytes[length++] = (byte) (0x80 | (c & 0x3F));
+                        }
+                    }
+                }
+            }
+        }
+
+        String toUtf8String() {
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private void ascii(String entity) {
+            for (int i = 0; i < entity.length(); i++) {
+                bytes[length++] = (byte) entity.charAt(i);
+            }
+        }
+
+        private void ensure(int extra) {
+            if (length + extra > bytes.length) {
+                byte[] grown = new byte[Math.max(bytes.length * 2, length + extra)];
+                System.arraycopy(bytes, 0, grown, 0, length);
+                bytes = grown;
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.mailservice.kafka;
+
+import com.mailservice.service.EmailService;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * A failed dead-letter publish redelivers the batch from the failed record:
+ * nothing is committed past it, and the invoices around it are mailed once.
+ */
+@SpringBootTest(properties = {"mail.listener.concurrency=1", "mail.listener.redelivery-delay-ms=200"})
+@EmbeddedKafka(partitions = 1, topics = {InvoiceMailListener.TOPIC_NAME,
+        InvoiceFailureRouter.RETRY_TOPIC_NAME, InvoiceFailureRouter.DLT_TOPIC_NAME},
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class InvoiceMailListenerRedeliveryTest {
+
+    private static final int GOOD = 10;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @MockitoSpyBean
+    private InvoiceFailureRouter invoiceFailureRouter;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Test
+    void failedHandOverIsRedeliveredWithoutMailingTwice() throws Exception {
+        when(emailService.sendEmailAsync(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        // the broker refuses the first dead-letter publish
+        doReturn(CompletableFuture.failedFuture(new KafkaException("broker down")))
+                .doCallRealMethod()
+                .when(invoiceFailureRouter).route(any(), any());
+
+        for (int i = 0; i < GOOD; i++) {
+            kafkaTemplate.send(InvoiceMailListener.TOPIC_NAME, "ORD-" + i, invoice("ORD-" + i));
+            if (i == GOOD / 2) {
+                kafkaTemplate.send(InvoiceMailListener.TOPIC_NAME, "BAD-1", "not json");
+            }
+        }
+        kafkaTemplate.flush();
+
+        assertEquals(GOOD + 1, awaitCommitted(GOOD + 1));
+        verify(invoiceFailureRouter, timeout(10_000).times(2)).route(any(), any());
+        for (int i = 0; i < GOOD; i++) {
+            verify(emailService, times(1))
+                    .sendEmailAsync(anyString(), eq("Invoice Generated – ORD-" + i), anyString());
+        }
+    }
+
+    // ---------------------------------------------------------------
+
+    private long awaitCommitted(long expected) throws Exception {
+        try (AdminClient admin = AdminClient.create(
+                Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, embeddedKafka.getBrokersAsString()))) {
+            long committed = 0;
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (committed < expected && System.currentTimeMillis() < deadline) {
+                Map<TopicPartition, OffsetAndMetadata> offsets =
+                        admin.listConsumerGroupOffsets("email_group").partitionsToOffsetAndMetadata().get();
+                committed = offsets.entrySet().stream()
+                        .filter(e -> e.getKey().topic().equals(InvoiceMailListener.TOPIC_NAME))
+                        .mapToLong(e -> e.getValue().offset())
+                        .sum();
+                Thread.sleep(200);
+            }
+            return committed;
+        }
+    }
+
+    private static String invoice(String orderNo) {
+        return "{\"orderNo\":\"" + orderNo + "\",\"customerName\":\"Guest\",\"customerEmail\":\"guest@example.com\","
+                + "\"orderDate\":\"2026-10-17T12:30:00\",\"paymentMode\":\"CASH\",\"discount\":0,"
+                + "\"taxAmount\":9.00,\"grandTotal\":189.00,\"orderDetailXrefList\":["
+                + "{\"recipeId\":1,\"recipeName\":\"Veg Biryani\",\"quantity\":1,\"sellingPrice\":180.00}]}";
+    }
+}
@@ -0,0 +1,139 @@
+package com.mailservice.kafka;
+
+import com.mailservice.service.EmailService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Batch consumption of invoice-topic: good invoices are mailed, bad ones
+ * end up on invoice-topic.dlt, and every offset is committed.
+ */
+@SpringBootTest(properties = "mail.listener.concurrency=3")
+@EmbeddedKafka(partitions = 3, topics = {InvoiceMailListener.TOPIC_NAME,
+        InvoiceFailureRouter.RETRY_TOPIC_NAME, InvoiceFailureRouter.DLT_TOPIC_NAME},
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class InvoiceMailListenerTest {
+
+    private static final int GOOD = 40;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void mailsBatchDeadLettersFailuresAndCommitsOffsets() throws Exception {
+        when(emailService.sendEmailAsync(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        for (int i = 0; i < GOOD; i++) {
+            kafkaTemplate.send(InvoiceMailListener.TOPIC_NAME, "ORD-" + i, invoice("ORD-" + i));
+        }
+        kafkaTemplate.send(InvoiceMailListener.TOPIC_NAME, "BAD-1", "not json");
+        kafkaTemplate.send(InvoiceMailListener.TOPIC_NAME, "BAD-2", "{\"orderNo\":\"BAD-2\"}");  // no items
+        kafkaTemplate.flush();
+
+        verify(emailService, timeout(30_000).times(GOOD))
+                .sendEmailAsync(eq("guest@example.com"), anyString(), anyString());
+
+        List<ConsumerRecord<String, String>> dead = deadLetters(2);
+        assertEquals(2, dead.size());
+        for (ConsumerRecord<String, String> record : dead) {
+            assertTrue(record.key().startsWith("BAD-"));
+            String error = new String(record.headers().lastHeader(InvoiceFailureRouter.ERROR_HEADER).value(),
+                    StandardCharsets.UTF_8);
+            assertFalse(error.isBlank());
+            // invalid invoices are not retried
+            assertEquals("1", new String(record.headers().lastHeader(InvoiceFailureRouter.ATTEMPT_HEADER).value(),
+                    StandardCharsets.UTF_8));
+        }
+
+        assertEquals(GOOD + 2, awaitCommitted(GOOD + 2));
+        assertEquals(GOOD, processed("sent"));
+        assertEquals(2, processed("failed"));
+    }
+
+    // ---------------------------------------------------------------
+
+    private long processed(String outcome) {
+        return meterRegistry.get("invoice.mail.processing").tag("outcome", outcome).timer().count();
+    }
+
+    private List<ConsumerRecord<String, String>> deadLetters(int expected) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("dlt-check", "false", embeddedKafka);
+        props.put("auto.offset.reset", "earliest");
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            embeddedKafka.consumeFromAnEmbeddedTopic(consumer, InvoiceFailureRouter.DLT_TOPIC_NAME);
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (records.size() < expected && System.currentTimeMillis() < deadline) {
+                consumer.poll(Duration.ofMillis(500)).forEach(records::add);
+            }
+        }
+        return records;
+    }
+
+    private long awaitCommitted(long expected) throws Exception {
+        try (AdminClient admin = AdminClient.create(
+                Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, embeddedKafka.getBrokersAsString()))) {
+            long committed = 0;
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (committed < expected && System.currentTimeMillis() < deadline) {
+                Map<TopicPartition, OffsetAndMetadata> offsets =
+                        admin.listConsumerGroupOffsets("email_group").partitionsToOffsetAndMetadata().get();
+                committed = offsets.entrySet().stream()
+                        .filter(e -> e.getKey().topic().equals(InvoiceMailListener.TOPIC_NAME))
+                        .mapToLong(e -> e.getValue().offset())
+                        .sum();
+                Thread.sleep(200);
+            }
+            return committed;
+        }
+    }
+
+    private static String invoice(String orderNo) {
+        return "{\"orderNo\":\"" + orderNo + "\",\"customerName\":\"Guest\",\"customerEmail\":\"guest@example.com\","
+                + "\"orderDate\":\"2026-10-17T12:30:00\",\"paymentMode\":\"CASH\",\"discount\":0,"
+                + "\"taxAmount\":9.00,\"grandTotal\":189.00,\"orderDetailXrefList\":["
+                + "{\"recipeId\":1,\"recipeName\":\"Veg Biryani\",\"quantity\":1,\"sellingPrice\":180.00}]}";
+    }
+}
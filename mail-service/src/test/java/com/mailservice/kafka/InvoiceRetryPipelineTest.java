@@ -0,0 +1,140 @@
+package com.mailservice.kafka;
+
+import com.mailservice.dto.DltReplayResultDTO;
+import com.mailservice.service.EmailService;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.mail.MailSendException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * SMTP failures go through invoice-topic.retry, exhausted ones land on
+ * invoice-topic.dlt and can be replayed through the invoicedlt endpoint.
+ */
+@SpringBootTest(properties = "mail.retry.backoff-ms=300,300")
+@EmbeddedKafka(partitions = 1, topics = {InvoiceMailListener.TOPIC_NAME,
+        InvoiceFailureRouter.RETRY_TOPIC_NAME, InvoiceFailureRouter.DLT_TOPIC_NAME},
+        bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class InvoiceRetryPipelineTest {
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @Autowired
+    private KafkaTemplate<String, String> kafkaTemplate;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private InvoiceDeadLetterEndpoint invoiceDeadLetterEndpoint;
+
+    @Test
+    void transientSmtpFailureIsRetriedWithoutBlockingOtherInvoices() {
+        when(emailService.sendEmailAsync(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(emailService.sendEmailAsync(eq("flaky@example.com"), anyString(), anyString()))
+                .thenReturn(smtpDown(), smtpDown(), CompletableFuture.completedFuture(null));
+
+        kafkaTemplate.send(InvoiceMailListener.TOPIC_NAME, "ORD-FLAKY", invoice("ORD-FLAKY", "flaky@example.com"));
+        for (int i = 0; i < 5; i++) {
+            kafkaTemplate.send(InvoiceMailListener.TOPIC_NAME, "ORD-" + i, invoice("ORD-" + i, "guest@example.com"));
+        }
+        kafkaTemplate.flush();
+
+        verify(emailService, timeout(15_000).times(5))
+                .sendEmailAsync(eq("guest@example.com"), anyString(), anyString());
+        // first try + two retries, the last one succeeds
+        verify(emailService, timeout(15_000).times(3))
+                .sendEmailAsync(eq("flaky@example.com"), anyString(), anyString());
+    }
+
+    @Test
+    void exhaustedRetriesAreDeadLetteredAndReplayable() {
+        when(emailService.sendEmailAsync(anyString(), anyString(), anyString()))
+                .thenAnswer(invocation -> smtpDown());
+
+        kafkaTemplate.send(InvoiceMailListener.TOPIC_NAME, "ORD-DOWN", invoice("ORD-DOWN", "down@example.com"));
+        kafkaTemplate.flush();
+
+        List<ConsumerRecord<String, String>> dead = deadLetters(1);
+        assertEquals(1, dead.size());
+        ConsumerRecord<String, String> record = dead.get(0);
+        assertEquals("ORD-DOWN", record.key());
+        assertEquals("3", header(record, InvoiceFailureRouter.ATTEMPT_HEADER));
+        assertEquals(MailSendException.class.getName(), header(record, InvoiceFailureRouter.ERROR_CLASS_HEADER));
+        assertEquals(InvoiceMailListener.TOPIC_NAME, header(record, InvoiceFailureRouter.ORIGINAL_TOPIC_HEADER));
+
+        // SMTP is back: replay sends it through invoice-topic again
+        when(emailService.sendEmailAsync(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        DltReplayResultDTO result = invoiceDeadLetterEndpoint.replay(null);
+        assertEquals(1, result.getReplayed());
+        assertEquals(0, result.getRemaining());
+        verify(emailService, timeout(15_000).times(4))
+                .sendEmailAsync(eq("down@example.com"), anyString(), anyString());
+
+        assertEquals(0, invoiceDeadLetterEndpoint.replay(null).getReplayed());
+        assertThrows(InvalidEndpointRequestException.class, () -> invoiceDeadLetterEndpoint.replay(0));
+    }
+
+    // ---------------------------------------------------------------
+
+    private static CompletableFuture<Void> smtpDown() {
+        return CompletableFuture.failedFuture(new MailSendException("Connection refused"));
+    }
+
+    private static String header(ConsumerRecord<String, String> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+
+    /** Reads invoice-topic.dlt from the beginning until {@code expected} records are seen. */
+    private List<ConsumerRecord<String, String>> deadLetters(int expected) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("dlt-check-" + System.nanoTime(), "false", embeddedKafka);
+        props.put("auto.offset.reset", "earliest");
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        try (Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(props,
+                new StringDeserializer(), new StringDeserializer()).createConsumer()) {
+            embeddedKafka.consumeFromAnEmbeddedTopic(consumer, InvoiceFailureRouter.DLT_TOPIC_NAME);
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (records.size() < expected && System.currentTimeMillis() < deadline) {
+                consumer.poll(Duration.ofMillis(500)).forEach(records::add);
+            }
+        }
+        return records;
+    }
+
+    private static String invoice(String orderNo, String email) {
+        return "{\"orderNo\":\"" + orderNo + "\",\"customerName\":\"Guest\",\"customerEmail\":\"" + email + "\","
+                + "\"orderDate\":\"2026-10-17T12:30:00\",\"paymentMode\":\"CASH\",\"discount\":0,"
+                + "\"taxAmount\":9.00,\"grandTotal\":189.00,\"orderDetailXrefList\":["
+                + "{\"recipeId\":1,\"recipeName\":\"Veg Biryani\",\"quantity\":1,\"sellingPrice\":180.00}]}";
+    }
+}
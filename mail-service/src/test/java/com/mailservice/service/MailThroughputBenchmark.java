@@ -0,0 +1,102 @@
+package com.mailservice.service;
+
+import com.mailservice.support.FakeSmtpServer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Messages per second: one SMTP session per email (old EmailService)
+ * versus PooledJavaMailSender + MailDispatcher. The fake server waits
+ * 20 ms before its greeting to stand in for TCP + STARTTLS + AUTH.
+ *
+ * Opt-in, not part of the normal build:
+ *   mvn test -Dtest=MailThroughputBenchmark -Dbenchmark=true
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class MailThroughputBenchmark {
+
+    private static final int MESSAGES = 2_000;
+    private static final int CALLERS = 8;
+    private static final long HANDSHAKE_MS = 20;
+
+    @Test
+    void connectionPerMessageVersusPooled() throws Exception {
+        try (FakeSmtpServer smtp = new FakeSmtpServer(HANDSHAKE_MS)) {
+            JavaMailSenderImpl plain = configure(new JavaMailSenderImpl(), smtp);
+            double plainRate = run(smtp, plain, message -> CompletableFuture.runAsync(() -> plain.send(message)));
+            System.out.printf("connection per message : %,.0f messages/s (%d sessions)%n",
+                    plainRate, smtp.getConnections());
+        }
+
+        try (FakeSmtpServer smtp = new FakeSmtpServer(HANDSHAKE_MS)) {
+            PooledJavaMailSender pooled = configure(new PooledJavaMailSender(3, 100, 30_000), smtp);
+            MailDispatcher dispatcher = new MailDispatcher(pooled, 3, 20, 500);
+            try {
+                double pooledRate = run(smtp, pooled, dispatcher::submit);
+                System.out.printf("pooled (3 sessions)    : %,.0f messages/s (%d sessions)%n",
+                        pooledRate, smtp.getConnections());
+            } finally {
+                dispatcher.destroy();
+                pooled.destroy();
+            }
+        }
+    }
+
+    private double run(FakeSmtpServer smtp, JavaMailSenderImpl sender,
+                       Function<MimeMessage, CompletableFuture<Void>> send) throws Exception {
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            long start = System.nanoTime();
+            List<CompletableFuture<Void>> results = new ArrayList<>(MESSAGES);
+            for (int i = 0; i < MESSAGES; i++) {
+                int n = i;
+                // each caller blocks until its email is accepted, like one mail worker
+                results.add(CompletableFuture.runAsync(() -> send.apply(message(sender, n)).join(), callers));
+            }
+            CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(10, TimeUnit.MINUTES);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            assertEquals(MESSAGES, smtp.getMessages());
+            return MESSAGES / seconds;
+        } finally {
+            callers.shutdown();
+        }
+    }
+
+    private static <T extends JavaMailSenderImpl> T configure(T sender, FakeSmtpServer smtp) {
+        sender.setHost("localhost");
+        sender.setPort(smtp.getPort());
+        Properties props = new Properties();
+        props.put("mail.smtp.auth", "false");
+        sender.setJavaMailProperties(props);
+        return sender;
+    }
+
+    private static MimeMessage message(JavaMailSenderImpl sender, int n) {
+        try {
+            MimeMessage message = sender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            helper.setFrom("billing@restaurant.test");
+            helper.setTo("guest" + n + "@example.com");
+            helper.setSubject("Invoice Generated – ORD-" + n);
+            helper.setText("<p>Dear Guest,</p><p>Your invoice has been successfully generated.</p>", true);
+            return message;
+        } catch (MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
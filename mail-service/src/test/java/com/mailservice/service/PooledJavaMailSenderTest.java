@@ -0,0 +1,151 @@
+package com.mailservice.service;
+
+import com.mailservice.support.FakeSmtpServer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * PooledJavaMailSender + MailDispatcher against a local fake SMTP server.
+ */
+class PooledJavaMailSenderTest {
+
+    private FakeSmtpServer smtp;
+    private PooledJavaMailSender sender;
+    private MailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtp = new FakeSmtpServer();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (dispatcher != null) {
+            dispatcher.destroy();
+        }
+        sender.destroy();
+        smtp.close();
+    }
+
+    @Test
+    void burstIsPipelinedThroughFewSessions() throws Exception {
+        start(3, 1_000, 30_000);
+
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            int n = i;
+            results.add(CompletableFuture.supplyAsync(() -> message("guest" + n + "@example.com"), callers)
+                    .thenCompose(dispatcher::submit));
+        }
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+        callers.shutdown();
+
+        assertEquals(300, smtp.getMessages());
+        assertTrue(sender.getOpenedConnections() <= 3, "opened " + sender.getOpenedConnections());
+    }
+
+    @Test
+    void sessionIsRecycledAfterMessageCap() {
+        start(1, 10, 30_000);
+
+        MimeMessage[] batch = new MimeMessage[35];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = message("guest" + i + "@example.com");
+        }
+        sender.send(batch);
+
+        assertEquals(35, smtp.getMessages());
+        assertEquals(4, sender.getOpenedConnections());
+    }
+
+    @Test
+    void idleSessionsAreClosed() throws Exception {
+        start(2, 100, 100);
+
+        sender.send(message("guest@example.com"));
+        assertEquals(1, sender.getIdleConnections());
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while ((sender.getIdleConnections() > 0 || smtp.getOpenConnections() > 0)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, sender.getIdleConnections());
+        assertEquals(0, smtp.getOpenConnections());
+    }
+
+    @Test
+    void sessionDroppedByServerIsReplaced() throws Exception {
+        start(1, 100, 30_000);
+
+        sender.send(message("first@example.com"));
+        smtp.dropConnections();
+        Thread.sleep(100);
+        sender.send(message("second@example.com"));
+
+        assertEquals(2, smtp.getMessages());
+        assertEquals(2, sender.getOpenedConnections());
+    }
+
+    @Test
+    void rejectedRecipientFailsOnlyItsOwnMessage() {
+        start(1, 100, 30_000);
+
+        CompletableFuture<Void> ok1 = dispatcher.submit(message("one@example.com"));
+        CompletableFuture<Void> rejected = dispatcher.submit(message("reject@example.com"));
+        CompletableFuture<Void> ok2 = dispatcher.submit(message("two@example.com"));
+
+        ok1.join();
+        ok2.join();
+        CompletionException error = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(MailSendException.class, error.getCause());
+        assertEquals(2, smtp.getMessages());
+    }
+
+    // ---------------------------------------------------------------
+
+    private void start(int maxConnections, int maxMessagesPerConnection, long idleTimeoutMs) {
+        sender = new PooledJavaMailSender(maxConnections, maxMessagesPerConnection, idleTimeoutMs);
+        sender.setHost("localhost");
+        sender.setPort(smtp.getPort());
+        Properties props = new Properties();
+        props.put("mail.smtp.auth", "false");
+        props.put("mail.smtp.timeout", "5000");
+        sender.setJavaMailProperties(props);
+        dispatcher = new MailDispatcher(sender, maxConnections, 20, 500);
+    }
+
+    private MimeMessage message(String to) {
+        try {
+            MimeMessage message = sender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+            helper.setFrom("billing@restaurant.test");
+            helper.setTo(to);
+            helper.setSubject("Invoice Generated");
+            helper.setText("<p>Thank you for your order!</p>", true);
+            return message;
+        } catch (MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.mailservice.template;
+
+import com.mailservice.dto.OrderDetailDTO;
+import com.mailservice.dto.OrderDetailXrefDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH: time and allocation per rendered invoice (5 / 50 / 500 lines),
+ * InvoiceTemplateRenderer versus the previous StringBuilder concatenation.
+ *
+ * Opt-in, not part of the normal build:
+ *   mvn test -Dtest=InvoiceTemplateBenchmark -Dbenchmark=true
+ * (gc.alloc.rate.norm = bytes allocated per invoice)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvoiceTemplateBenchmark {
+
+    @Param({"5", "50", "500"})
+    public int lines;
+
+    private InvoiceTemplateRenderer renderer;
+    private OrderDetailDTO invoice;
+
+    @Setup
+    public void setUp() throws Exception {
+        renderer = new InvoiceTemplateRenderer(new ClassPathResource("templates/invoice-mail.html"));
+
+        invoice = new OrderDetailDTO();
+        invoice.setOrderNo("ORD-20261017-0042");
+        invoice.setCustomerName("Asha Verma");
+        invoice.setOrderDate(LocalDateTime.of(2026, 10, 17, 20, 15));
+        invoice.setPaymentMode("UPI");
+        invoice.setDiscount(new BigDecimal("10.00"));
+        invoice.setTaxAmount(new BigDecimal("45.50"));
+        invoice.setGrandTotal(new BigDecimal("945.50"));
+        List<OrderDetailXrefDTO> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            OrderDetailXrefDTO item = new OrderDetailXrefDTO();
+            item.setRecipeName("Paneer Butter Masala " + i);
+            item.setQuantity(new BigDecimal("2"));
+            item.setSellingPrice(new BigDecimal("240.00"));
+            items.add(item);
+        }
+        invoice.setOrderDetailXrefList(items);
+    }
+
+    @Benchmark
+    public String template() {
+        return renderer.render(invoice);
+    }
+
+    @Benchmark
+    public String stringBuilder() {
+        return legacyEmailBody(invoice);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void run() throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(InvoiceTemplateBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    /** Body building as InvoiceMailListener did it before the template renderer. */
+    private static String legacyEmailBody(OrderDetailDTO invoice) {
+        BigDecimal subTotal = BigDecimal.ZERO;
+        StringBuilder table = new StringBuilder();
+        table.append("<table style='width:100%; border-collapse: collapse;'>");
+        table.append("<tr style='background-color:#f8f8f8;'>")
+                .append("<th style='border: 1px solid #ddd; padding: 8px;'>Item Name</th>")
+                .append("<th style='border: 1px solid #ddd; padding: 8px;'>Quantity</th>")
+                .append("<th style='border: 1px solid #ddd; padding: 8px;'>Price</th>")
+                .append("<th style='border: 1px solid #ddd; padding: 8px;'>Total</th>")
+                .append("</tr>");
+        for (OrderDetailXrefDTO item : invoice.getOrderDetailXrefList()) {
+            BigDecimal quantity = item.getQuantity();
+            BigDecimal total = item.getSellingPrice().multiply(quantity);
+            subTotal = subTotal.add(total);
+            table.append("<tr>")
+                    .append("<td style='border: 1px solid #ddd; padding: 8px;'>").append(item.getRecipeName()).append("</td>")
+                    .append("<td style='border: 1px solid #ddd; padding: 8px; text-align:center;'>").append(quantity.toPlainString()).append("</td>")
+                    .append("<td style='border: 1px solid #ddd; padding: 8px; text-align:right;'>").append(item.getSellingPrice().toPlainString()).append("</td>")
+                    .append("<td style='border: 1px solid #ddd; padding: 8px; text-align:right;'>").append(total.toPlainString()).append("</td>")
+                    .append("</tr>");
+        }
+        table.append("</table>");
+        return "<p>Dear " + invoice.getCustomerName() + ",</p>" +
+                "<p>Your invoice has been successfully generated. Below are the details:</p>" +
+                "<h3>Order Information</h3>" +
+                "<p>Order Number: " + invoice.getOrderNo() + "<br>" +
+                "Order Date: " + invoice.getOrderDate() + "<br>" +
+                "Payment Mode: " + invoice.getPaymentMode() + "</p>" +
+                "<h3>Order Items</h3>" +
+                table.toString() +
+                "<p><b>Sub Total:</b> " + subTotal.toPlainString() + "<br>" +
+                "<b>Discount:</b> " + invoice.getDiscount().toPlainString() + "<br>" +
+                "<b>Tax Amount:</b> " + invoice.getTaxAmount().toPlainString() + "<br>" +
+                "<b>Grand Total:</b> " + invoice.getGrandTotal().toPlainString() + "</p>" +
+                "<p>Thank you for your order!<br>Regards,<br>Your Restaurant</p>";
+    }
+}
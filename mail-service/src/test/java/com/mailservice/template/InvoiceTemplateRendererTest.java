@@ -0,0 +1,103 @@
+package com.mailservice.template;
+
+import com.mailservice.dto.OrderDetailDTO;
+import com.mailservice.dto.OrderDetailXrefDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InvoiceTemplateRendererTest {
+
+    @Test
+    void rendersOrderInformationLinesAndTotals() throws Exception {
+        InvoiceTemplateRenderer renderer = new InvoiceTemplateRenderer(new ClassPathResource("templates/invoice-mail.html"));
+
+        String html = renderer.render(invoice("Asha", line("Veg Biryani", "2", "180.00"), line("Butter Naan", "3", "40.00")));
+
+        assertTrue(html.startsWith("<p>Dear Asha,</p>"));
+        assertFalse(html.contains("<!--"));
+        assertTrue(html.contains("Order Number: ORD-7<br>Order Date: 2026-10-17T12:30<br>Payment Mode: UPI"));
+        assertTrue(html.contains(">Veg Biryani</td>"));
+        assertTrue(html.contains(">360.00</td>"));
+        assertTrue(html.contains(">120.00</td>"));
+        assertTrue(html.contains("<b>Sub Total:</b> 480.00<br>"));
+        assertTrue(html.contains("<b>Grand Total:</b> 504.00</p>"));
+        assertEquals(3, html.split("<tr").length - 1);  // header row + 2 lines
+    }
+
+    @Test
+    void escapesCustomerAndRecipeNames() {
+        InvoiceTemplateRenderer renderer = new InvoiceTemplateRenderer(
+                "<p>${customerName}</p><!--items--><td>${itemName}</td><!--/items-->");
+
+        String html = renderer.render(invoice("<script>alert('x')</script> & \"Co\"",
+                line("Crème brûlée 🍮 <b>", "1", "90.00")));
+
+        assertEquals("<p>&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt; &amp; &quot;Co&quot;</p>"
+                + "<td>Crème brûlée 🍮 &lt;b&gt;</td>", html);
+    }
+
+    @Test
+    void reusedBufferDoesNotLeakBetweenInvoices() {
+        InvoiceTemplateRenderer renderer = new InvoiceTemplateRenderer(
+                "${customerName}<!--items-->[${itemName}]<!--/items-->");
+
+        List<OrderDetailXrefDTO> many = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            many.add(line("Dish " + i, "1", "10"));
+        }
+        String big = renderer.render(invoice("Big", many.toArray(new OrderDetailXrefDTO[0])));
+        String small = renderer.render(invoice("Small", line("Tea", "1", "10")));
+
+        assertTrue(big.endsWith("[Dish 499]"));
+        assertEquals("Small[Tea]", small);
+    }
+
+    @Test
+    void rejectsBadTemplatesAndInvoices() {
+        assertThrows(IllegalStateException.class, () -> new InvoiceTemplateRenderer("<p>${customerName}</p>"));
+        assertThrows(IllegalStateException.class,
+                () -> new InvoiceTemplateRenderer("${nickname}<!--items--><!--/items-->"));
+        assertThrows(IllegalStateException.class,
+                () -> new InvoiceTemplateRenderer("${itemName}<!--items--><!--/items-->"));
+
+        InvoiceTemplateRenderer renderer = new InvoiceTemplateRenderer("<!--items--><!--/items-->");
+        OrderDetailDTO noLines = invoice("Asha");
+        noLines.setOrderDetailXrefList(null);
+        assertThrows(IllegalArgumentException.class, () -> renderer.render(noLines));
+        noLines.setOrderDetailXrefList(List.of());
+        assertThrows(IllegalArgumentException.class, () -> renderer.render(noLines));
+    }
+
+    // ---------------------------------------------------------------
+
+    private static OrderDetailDTO invoice(String customerName, OrderDetailXrefDTO... lines) {
+        OrderDetailDTO invoice = new OrderDetailDTO();
+        invoice.setOrderNo("ORD-7");
+        invoice.setCustomerName(customerName);
+        invoice.setOrderDate(LocalDateTime.of(2026, 10, 17, 12, 30));
+        invoice.setPaymentMode("UPI");
+        invoice.setDiscount(BigDecimal.ZERO);
+        invoice.setTaxAmount(new BigDecimal("24.00"));
+        invoice.setGrandTotal(new BigDecimal("504.00"));
+        invoice.setOrderDetailXrefList(new ArrayList<>(List.of(lines)));
+        return invoice;
+    }
+
+    private static OrderDetailXrefDTO line(String recipeName, String quantity, String price) {
+        OrderDetailXrefDTO line = new OrderDetailXrefDTO();
+        line.setRecipeName(recipeName);
+        line.setQuantity(new BigDecimal(quantity));
+        line.setSellingPrice(new BigDecimal(price));
+        return line;
+    }
+}